@@ -6,6 +6,9 @@ import java.lang.instrument.ClassFileTransformer;
 import java.lang.instrument.IllegalClassFormatException;
 import java.lang.reflect.Modifier;
 import java.security.ProtectionDomain;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
 import javassist.CannotCompileException;
 import javassist.ClassPool;
 import javassist.CtClass;
@@ -19,12 +22,14 @@ import randoop.main.RandoopBug;
  * covered. Does the following instrumentation of each class:
  *
  * <ol>
- *   <li>Adds a static boolean flag to the class. Initially set to false.
- *   <li>Adds a statement at the beginning of each method and constructor that sets the flag.
- *   <li>Adds a static method that polls and resets the value of the flag.
+ *   <li>Adds a static final int field {@link CoveredClassBitmap#ID_FIELD_NAME} to the class, set to
+ *       a new id from {@link CoveredClassBitmap}.
+ *   <li>Adds a statement at the beginning of each method and constructor that marks the id in the
+ *       {@link CoveredClassBitmap}.
  * </ol>
  *
- * Avoids instrumenting JDK and JUnit classes and skips interfaces. Otherwise, all other classes are
+ * Avoids instrumenting JDK and JUnit classes and skips interfaces, and classes whose loader does
+ * not see the same {@link CoveredClassBitmap} as the agent. Otherwise, all other classes are
  * instrumented.
  *
  * @see CoveredClassAgent
@@ -35,6 +40,10 @@ public class CoveredClassTransformer implements ClassFileTransformer {
   /** the class pool used to load class files */
   private ClassPool pool;
 
+  /** For each class loader, whether it sees the same {@link CoveredClassBitmap} as the agent. */
+  private final Map<ClassLoader, Boolean> loadersSeeingBitmap =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
   /** Create {@code CoveredClassTransformer}. */
   CoveredClassTransformer() {
     super();
@@ -106,7 +115,7 @@ public class CoveredClassTransformer implements ClassFileTransformer {
       throw new RandoopBug("Unable to instrument file: " + e);
     }
 
-    if (cc.isFrozen() || cc.isInterface()) {
+    if (cc.isFrozen() || cc.isInterface() || !seesBitmap(loader)) {
       return null;
     }
 
@@ -124,35 +133,59 @@ public class CoveredClassTransformer implements ClassFileTransformer {
     return bytecode;
   }
 
+  /**
+   * Returns true if the instrumentation of a class defined by the given loader can refer to {@link
+   * CoveredClassBitmap}, and the class would then share it with Randoop.
+   *
+   * @param loader the defining loader of a class, or null for the bootstrap loader
+   * @return true if {@code loader} resolves {@link CoveredClassBitmap} to the class the agent uses
+   */
+  private boolean seesBitmap(ClassLoader loader) {
+    if (loader == null) {
+      return false;
+    }
+    Boolean sees = loadersSeeingBitmap.get(loader);
+    if (sees == null) {
+      try {
+        sees =
+            Class.forName(CoveredClassBitmap.class.getName(), false, loader)
+                == CoveredClassBitmap.class;
+      } catch (ClassNotFoundException | LinkageError e) {
+        sees = false;
+      }
+      loadersSeeingBitmap.put(loader, sees);
+    }
+    return sees;
+  }
+
   /**
    * Instruments the bytecode of the given class object to track constructor and method calls for
-   * the class. Modifies each method and constructor to set an inserted private field that keeps
-   * track. Adds a public method {@code boolean randoop_checkAndReset()}
+   * the class. Adds a field holding the id of the class, and modifies each method and constructor
+   * to mark the id in the {@link CoveredClassBitmap}.
    *
    * @param cc the {@code javassist.CtClass} object
    * @see #transform(ClassLoader, String, Class, ProtectionDomain, byte[])
    */
   private void modifyClass(CtClass cc) {
+    int id = CoveredClassBitmap.newId();
+
     // add static field
-    String flagFieldName = "randoop_classUsedFlag";
     try {
-      CtField flagField = new CtField(CtClass.booleanType, flagFieldName, cc);
-      flagField.setModifiers(Modifier.STATIC);
-      cc.addField(flagField, "false");
+      CtField idField = new CtField(CtClass.intType, CoveredClassBitmap.ID_FIELD_NAME, cc);
+      idField.setModifiers(Modifier.PUBLIC | Modifier.STATIC | Modifier.FINAL);
+      cc.addField(idField, CtField.Initializer.constant(id));
     } catch (CannotCompileException e) {
       throw new Error("error adding instrumentation field: " + e);
     }
-    String flagFieldAccess = cc.getName() + "#" + flagFieldName;
 
     // add code to entry of each method to indicate that called
-    String statementToSetFlag = flagFieldAccess + " = true" + ";";
+    String statementToMark = CoveredClassBitmap.class.getName() + ".mark(" + id + ");";
 
-    // instrument methods *before* adding polling method
     try {
       for (CtMethod m : cc.getDeclaredMethods()) {
         int mods = m.getModifiers();
         if (!Modifier.isNative(mods) && !Modifier.isAbstract(mods)) {
-          m.insertBefore(statementToSetFlag);
+          m.insertBefore(statementToMark);
         }
       }
     } catch (CannotCompileException e) {
@@ -162,31 +195,10 @@ public class CoveredClassTransformer implements ClassFileTransformer {
     // instrument constructors
     try {
       for (CtConstructor c : cc.getConstructors()) {
-        c.insertBefore(statementToSetFlag);
+        c.insertBefore(statementToMark);
       }
     } catch (CannotCompileException e) {
       throw new Error("error instrumenting constructor: " + e);
     }
-
-    // add static method that polls and resets the covered flag
-    try {
-      String methodName = "randoop_checkAndReset";
-      CtMethod pollMethod = new CtMethod(CtClass.booleanType, methodName, new CtClass[0], cc);
-      pollMethod.setBody(
-          "{"
-              + "boolean state = "
-              + flagFieldAccess
-              + "; "
-              + flagFieldAccess
-              + " = false"
-              + ";"
-              + "return state"
-              + ";"
-              + "}");
-      pollMethod.setModifiers(Modifier.STATIC | Modifier.PUBLIC);
-      cc.addMethod(pollMethod);
-    } catch (CannotCompileException e) {
-      throw new Error("error adding instrumentation method: " + e);
-    }
   }
 }
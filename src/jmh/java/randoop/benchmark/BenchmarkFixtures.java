@@ -0,0 +1,99 @@
+package randoop.benchmark;
+
+import static randoop.reflection.VisibilityPredicate.IS_PUBLIC;
+
+import fieldcoverage.SimpleIntList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import randoop.generation.ComponentManager;
+import randoop.generation.ForwardGenerator;
+import randoop.generation.SeedSequences;
+import randoop.main.GenInputsAbstract;
+import randoop.main.GenTests;
+import randoop.operation.TypedOperation;
+import randoop.reflection.DefaultReflectionPredicate;
+import randoop.reflection.OmitMethodsPredicate;
+import randoop.reflection.OperationExtractor;
+import randoop.sequence.Sequence;
+import randoop.test.ContractSet;
+import randoop.test.TestCheckGenerator;
+import randoop.types.ClassOrInterfaceType;
+import randoop.util.MultiMap;
+import randoop.util.Randomness;
+
+/**
+ * Fixtures shared by the benchmarks. They use {@link SimpleIntList}, the class under test of {@code
+ * simpleintlist_classes.randoop}, so that the benchmarks exercise the same code paths as a field
+ * coverage run.
+ */
+final class BenchmarkFixtures {
+
+  private BenchmarkFixtures() {
+    throw new Error("Do not instantiate");
+  }
+
+  /** Sets the options that every benchmark needs, and resets the random seed. */
+  static void setUp() {
+    GenInputsAbstract.progressdisplay = false;
+    GenInputsAbstract.deterministic = true;
+    GenInputsAbstract.field_coverage_metrics = false;
+    GenInputsAbstract.field_coverage_statement_filtering = false;
+    Randomness.setSeed(0);
+  }
+
+  /**
+   * Returns the operations of {@link SimpleIntList}.
+   *
+   * @return the operations that a generator uses to test {@link SimpleIntList}
+   */
+  static List<TypedOperation> operations() {
+    List<ClassOrInterfaceType> types =
+        OperationExtractor.classListToTypeList(
+            Collections.<Class<?>>singletonList(SimpleIntList.class));
+    return OperationExtractor.operations(types, new DefaultReflectionPredicate(), IS_PUBLIC);
+  }
+
+  /**
+   * Returns the check generator used by Randoop when no contracts or specifications are given.
+   *
+   * @return a check generator
+   */
+  static TestCheckGenerator checkGenerator() {
+    return GenTests.createTestCheckGenerator(
+        IS_PUBLIC, new ContractSet(), new MultiMap<>(), OmitMethodsPredicate.NO_OMISSION);
+  }
+
+  /**
+   * Creates a generator for {@link SimpleIntList}, with the default seed sequences.
+   *
+   * @param maxSequences the number of sequences after which the generator stops
+   * @return a new generator, ready to run
+   */
+  static ForwardGenerator newGenerator(int maxSequences) {
+    ForwardGenerator generator =
+        new ForwardGenerator(
+            operations(),
+            new LinkedHashSet<TypedOperation>(),
+            new GenInputsAbstract.Limits(0, maxSequences, maxSequences, maxSequences),
+            new ComponentManager(SeedSequences.defaultSeeds()),
+            null,
+            null);
+    generator.setTestCheckGenerator(checkGenerator());
+    return generator;
+  }
+
+  /**
+   * Generates sequences for {@link SimpleIntList}.
+   *
+   * @param count how many sequences to generate
+   * @return the generated sequences, in a deterministic order
+   */
+  static List<Sequence> generateSequences(int count) {
+    setUp();
+    ForwardGenerator generator = newGenerator(count);
+    generator.createAndClassifySequences();
+    return new ArrayList<>(generator.getAllSequences());
+  }
+}
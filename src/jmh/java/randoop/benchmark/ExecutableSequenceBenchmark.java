@@ -0,0 +1,80 @@
+package randoop.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import randoop.DummyVisitor;
+import randoop.ExecutionVisitor;
+import randoop.main.GenInputsAbstract;
+import randoop.sequence.ExecutableSequence;
+import randoop.sequence.Sequence;
+import randoop.test.TestCheckGenerator;
+
+/**
+ * Benchmarks {@link ExecutableSequence#execute} on sequences generated for {@code
+ * fieldcoverage.SimpleIntList}, with and without field coverage. With field coverage, the values of
+ * every statement are canonicalized, using the options of {@link
+ * GenInputsAbstract#field_coverage_env} (the defaults if the file does not exist).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecutableSequenceBenchmark {
+
+  /** Whether to collect field coverage metrics while executing. */
+  @Param({"false", "true"})
+  public boolean fieldCoverage;
+
+  private List<Sequence> sequences;
+  private ExecutionVisitor visitor;
+  private TestCheckGenerator checkGenerator;
+
+  private int next = 0;
+
+  @Setup
+  public void setUp() {
+    List<Sequence> generated = BenchmarkFixtures.generateSequences(500);
+    sequences = new ArrayList<>();
+    for (Sequence sequence : generated) {
+      // The seed sequences only declare primitive values.
+      if (sequence.size() > 1) {
+        sequences.add(sequence);
+      }
+    }
+    visitor = new DummyVisitor();
+    checkGenerator = BenchmarkFixtures.checkGenerator();
+    GenInputsAbstract.field_coverage_metrics = fieldCoverage;
+  }
+
+  @TearDown
+  public void tearDown() {
+    GenInputsAbstract.field_coverage_metrics = false;
+  }
+
+  @Benchmark
+  public ExecutableSequence execute() {
+    ExecutableSequence eseq = new ExecutableSequence(sequences.get(next));
+    next = (next + 1) % sequences.size();
+    eseq.execute(visitor, checkGenerator);
+    if (eseq.hasFieldExtensions()) {
+      // Include the work deferred to the canonicalization pipeline, if it is enabled.
+      eseq.getFieldExtensions();
+    }
+    return eseq;
+  }
+}
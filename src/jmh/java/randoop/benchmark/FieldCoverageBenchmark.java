@@ -0,0 +1,80 @@
+package randoop.benchmark;
+
+import fieldcoverage.SimpleIntList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import randoop.generation.fieldcoverage.FieldCoverage;
+import representations.FieldExtensions;
+
+/**
+ * Benchmarks {@link FieldCoverage#canonicalize} on objects whose heaps have a varying number of
+ * objects. The options of the canonicalizer are read from {@code
+ * GenInputsAbstract.field_coverage_env} (the defaults if the file does not exist).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldCoverageBenchmark {
+
+  /** The kind of object to canonicalize. */
+  @Param({"SimpleIntList", "ArrayList", "HashMap"})
+  public String structure;
+
+  /** The number of elements of the object to canonicalize. */
+  @Param({"1", "10", "100", "1000"})
+  public int size;
+
+  private Object object;
+
+  @Setup
+  public void setUp() {
+    BenchmarkFixtures.setUp();
+    switch (structure) {
+      case "SimpleIntList":
+        SimpleIntList simpleIntList = new SimpleIntList();
+        for (int i = 0; i < size; i++) {
+          simpleIntList.append(i);
+        }
+        object = simpleIntList;
+        break;
+      case "ArrayList":
+        List<Integer> list = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+          list.add(i);
+        }
+        object = list;
+        break;
+      case "HashMap":
+        Map<Integer, String> map = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+          map.put(i, String.valueOf(i));
+        }
+        object = map;
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown structure: " + structure);
+    }
+  }
+
+  @Benchmark
+  public FieldExtensions canonicalize() {
+    return FieldCoverage.getInstance().canonicalize(object);
+  }
+}
@@ -0,0 +1,45 @@
+package randoop.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import randoop.generation.ForwardGenerator;
+import randoop.sequence.ExecutableSequence;
+
+/**
+ * Benchmarks {@link ForwardGenerator#step()} on {@code fieldcoverage.SimpleIntList}: selecting an
+ * operation and its inputs, creating the new sequence, executing it and classifying it.
+ *
+ * <p>The component pool grows during an iteration, as it does during generation. A new generator is
+ * created for each iteration, so that all iterations start from the same pool.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ForwardGeneratorBenchmark {
+
+  private ForwardGenerator generator;
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    BenchmarkFixtures.setUp();
+    generator = BenchmarkFixtures.newGenerator(Integer.MAX_VALUE);
+  }
+
+  @Benchmark
+  public ExecutableSequence step() {
+    return generator.step();
+  }
+}
@@ -0,0 +1,86 @@
+package randoop.benchmark;
+
+import fieldcoverage.SimpleIntList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import randoop.ExecutionOutcome;
+import randoop.operation.ConstructorCall;
+import randoop.operation.MethodCall;
+import randoop.util.ReflectionExecutor;
+
+/**
+ * Benchmarks the calls made by the generator to methods and constructors under test, with each
+ * {@link ReflectionExecutor.InvocationMode}, in calls per second. The calls include the work of
+ * {@link ReflectionExecutor#executeReflectionCode}, such as timing them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvocationBenchmark {
+
+  @Param({"REFLECTION", "METHOD_HANDLE"})
+  public ReflectionExecutor.InvocationMode mode;
+
+  private ReflectionExecutor.InvocationMode savedMode;
+
+  private ConstructorCall constructor;
+  private MethodCall append;
+  private MethodCall contains;
+
+  /** The inputs of {@link #append}: a list and an int. */
+  private Object[] appendInputs;
+
+  /** The inputs of {@link #contains}: a list and an int. */
+  private Object[] containsInputs;
+
+  @Setup
+  public void setUp() throws NoSuchMethodException {
+    savedMode = ReflectionExecutor.invocation_mode;
+    ReflectionExecutor.invocation_mode = mode;
+    constructor = new ConstructorCall(SimpleIntList.class.getConstructor());
+    append = new MethodCall(SimpleIntList.class.getMethod("append", int.class));
+    contains = new MethodCall(SimpleIntList.class.getMethod("contains", int.class));
+    SimpleIntList list = new SimpleIntList();
+    for (int i = 0; i < 10; i++) {
+      list.append(i);
+    }
+    appendInputs = new Object[] {null, 1};
+    containsInputs = new Object[] {list, 5};
+  }
+
+  @TearDown
+  public void tearDown() {
+    ReflectionExecutor.invocation_mode = savedMode;
+  }
+
+  @Benchmark
+  public ExecutionOutcome construct() {
+    return constructor.execute(new Object[0]);
+  }
+
+  /** Calls a void method on a new list, so that the list does not grow. */
+  @Benchmark
+  public ExecutionOutcome callVoidMethod() {
+    appendInputs[0] = new SimpleIntList();
+    return append.execute(appendInputs);
+  }
+
+  @Benchmark
+  public ExecutionOutcome callMethod() {
+    return contains.execute(containsInputs);
+  }
+}
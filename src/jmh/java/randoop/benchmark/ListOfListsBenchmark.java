@@ -0,0 +1,74 @@
+package randoop.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import randoop.util.ListOfLists;
+import randoop.util.SimpleArrayList;
+import randoop.util.SimpleList;
+
+/**
+ * Benchmarks random access to a {@link ListOfLists}, which is how the generator selects an input
+ * among the sequences returned by {@code SequenceCollection.getSequencesForType}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListOfListsBenchmark {
+
+  /** The number of sublists. */
+  @Param({"1", "16", "256"})
+  public int sublists;
+
+  /** The total number of elements. */
+  @Param({"10000"})
+  public int elements;
+
+  private ListOfLists<Integer> list;
+
+  /** Random indices into {@link #list}, generated in advance. */
+  private int[] indices;
+
+  private int next = 0;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(0);
+    List<SimpleArrayList<Integer>> lists = new ArrayList<>();
+    for (int i = 0; i < sublists; i++) {
+      lists.add(new SimpleArrayList<Integer>());
+    }
+    for (int i = 0; i < elements; i++) {
+      // Sublists of different sizes, as the lists of sequences of different types are.
+      int sublist = Math.min(sublists - 1, (int) Math.abs(random.nextGaussian() * sublists / 3));
+      lists.get(sublist).add(i);
+    }
+    list = new ListOfLists<>(new ArrayList<SimpleList<Integer>>(lists));
+    indices = new int[1024];
+    for (int i = 0; i < indices.length; i++) {
+      indices[i] = random.nextInt(list.size());
+    }
+  }
+
+  @Benchmark
+  public Integer get() {
+    int index = indices[next];
+    next = (next + 1) & (indices.length - 1);
+    return list.get(index);
+  }
+}
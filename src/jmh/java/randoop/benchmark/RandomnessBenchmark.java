@@ -0,0 +1,67 @@
+package randoop.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import randoop.util.Randomness;
+import randoop.util.SimpleArrayList;
+import randoop.util.SimpleList;
+
+/**
+ * Benchmarks {@link Randomness#randomMemberWeighted}, which the generator uses to select inputs and
+ * operations when a weighted selection strategy is enabled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomnessBenchmark {
+
+  /** The number of elements to select from. */
+  @Param({"10", "1000", "100000"})
+  public int size;
+
+  private SimpleList<Integer> list;
+  private Map<Integer, Double> weights;
+  private double totalWeight;
+
+  @Setup
+  public void setUp() {
+    BenchmarkFixtures.setUp();
+    Random random = new Random(0);
+    SimpleArrayList<Integer> elements = new SimpleArrayList<>(size);
+    weights = new HashMap<>();
+    totalWeight = 0;
+    for (int i = 0; i < size; i++) {
+      elements.add(i);
+      double weight = random.nextDouble();
+      weights.put(i, weight);
+      totalWeight += weight;
+    }
+    list = elements;
+  }
+
+  @Benchmark
+  public Integer randomMemberWeighted() {
+    return Randomness.randomMemberWeighted(list, weights);
+  }
+
+  @Benchmark
+  public Integer randomMemberWeightedWithTotal() {
+    return Randomness.randomMemberWeighted(list, weights, totalWeight);
+  }
+}
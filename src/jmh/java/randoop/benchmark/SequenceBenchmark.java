@@ -0,0 +1,118 @@
+package randoop.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import randoop.sequence.Sequence;
+import randoop.sequence.Statement;
+import randoop.sequence.Variable;
+
+/**
+ * Benchmarks the operations that the generator performs on every candidate sequence: concatenating
+ * the input sequences, extending the result with a statement, and hashing and comparing it against
+ * the sequences generated so far.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SequenceBenchmark {
+
+  /** The number of sequences in the pool from which the inputs are taken. */
+  private static final int POOL_SIZE = 500;
+
+  private List<Sequence> pool;
+
+  /** The pool, and the concatenated sequences, as a set. */
+  private Set<Sequence> poolSet;
+
+  /** Groups of three sequences to concatenate. */
+  private List<List<Sequence>> inputs;
+
+  /** For each element of {@link #inputs}, its concatenation. */
+  private List<Sequence> concatenated;
+
+  /** For each element of {@link #concatenated}, an equal sequence that is a different object. */
+  private List<Sequence> copies;
+
+  private int next = 0;
+
+  @Setup
+  public void setUp() {
+    pool = BenchmarkFixtures.generateSequences(POOL_SIZE);
+    inputs = new ArrayList<>();
+    concatenated = new ArrayList<>();
+    copies = new ArrayList<>();
+    for (int i = 0; i + 2 < pool.size(); i += 3) {
+      List<Sequence> group = new ArrayList<>(pool.subList(i, i + 3));
+      inputs.add(group);
+      concatenated.add(Sequence.concatenate(group));
+      copies.add(Sequence.concatenate(group));
+    }
+    poolSet = new HashSet<>(pool);
+    // Half of the lookups succeed.
+    for (int i = 0; i < concatenated.size(); i += 2) {
+      poolSet.add(concatenated.get(i));
+    }
+  }
+
+  private int nextIndex() {
+    int index = next;
+    next = (next + 1) % inputs.size();
+    return index;
+  }
+
+  @Benchmark
+  public Sequence concatenate() {
+    return Sequence.concatenate(inputs.get(nextIndex()));
+  }
+
+  @Benchmark
+  public Sequence extend() {
+    Sequence sequence = concatenated.get(nextIndex());
+    // Repeat the last statement of the sequence, on the same inputs.
+    int last = sequence.size() - 1;
+    Statement statement = sequence.getStatement(last);
+    List<Variable> lastInputs = sequence.getInputs(last);
+    return sequence.extend(statement.getOperation(), lastInputs);
+  }
+
+  @Benchmark
+  public int hashCodeOf() {
+    // The hash code is computed when the sequence is created, so this only measures the lookup.
+    return concatenated.get(nextIndex()).hashCode();
+  }
+
+  @Benchmark
+  public void containsInPool(Blackhole blackhole) {
+    // The check that the generator performs to discard sequences that were already generated.
+    blackhole.consume(poolSet.contains(copies.get(nextIndex())));
+  }
+
+  @Benchmark
+  public void equalsOfEqualSequences(Blackhole blackhole) {
+    int index = nextIndex();
+    blackhole.consume(concatenated.get(index).equals(copies.get(index)));
+  }
+
+  @Benchmark
+  public void equalsOfDifferentSequences(Blackhole blackhole) {
+    int index = nextIndex();
+    blackhole.consume(concatenated.get(index).equals(copies.get((index + 1) % copies.size())));
+  }
+}
@@ -0,0 +1,83 @@
+package randoop.benchmark;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import randoop.sequence.Sequence;
+import randoop.sequence.SequenceCollection;
+import randoop.types.JavaTypes;
+import randoop.types.Type;
+import randoop.util.SimpleList;
+
+/**
+ * Benchmarks {@link SequenceCollection#getSequencesForType}, which the generator calls for every
+ * input of every operation it tries to call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SequenceCollectionBenchmark {
+
+  /** The number of sequences in the collection. */
+  @Param({"100", "1000"})
+  public int poolSize;
+
+  private SequenceCollection collection;
+
+  /** The types of the values produced by the sequences of the collection, plus Object. */
+  private List<Type> types;
+
+  private int next = 0;
+
+  @Setup
+  public void setUp() {
+    List<Sequence> pool = BenchmarkFixtures.generateSequences(poolSize);
+    collection = new SequenceCollection(pool);
+    Set<Type> typeSet = new LinkedHashSet<>();
+    for (Sequence sequence : pool) {
+      if (sequence.size() > 0) {
+        typeSet.add(sequence.getLastVariable().getType());
+      }
+    }
+    // Matches every reference type in the collection.
+    typeSet.add(JavaTypes.OBJECT_TYPE);
+    types = new ArrayList<>(typeSet);
+  }
+
+  private Type nextType() {
+    Type type = types.get(next);
+    next = (next + 1) % types.size();
+    return type;
+  }
+
+  @Benchmark
+  public SimpleList<Sequence> exactMatch() {
+    return collection.getSequencesForType(nextType(), true, false);
+  }
+
+  @Benchmark
+  public SimpleList<Sequence> compatibleMatch() {
+    return collection.getSequencesForType(nextType(), false, false);
+  }
+
+  @Benchmark
+  public SimpleList<Sequence> compatibleReceivers() {
+    return collection.getSequencesForType(nextType(), false, true);
+  }
+}
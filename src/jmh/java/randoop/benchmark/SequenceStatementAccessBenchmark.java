@@ -0,0 +1,95 @@
+package randoop.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import randoop.main.GenInputsAbstract;
+import randoop.operation.TypedOperation;
+import randoop.sequence.Sequence;
+import randoop.sequence.Statement;
+import randoop.types.JavaTypes;
+
+/**
+ * Benchmarks access to the statements of sequences near {@link GenInputsAbstract#maxsize}, built
+ * the way the generator builds them: by repeatedly concatenating sequences and appending a
+ * statement. Compares nested statement lists with flattened ones (see {@link
+ * GenInputsAbstract#sequence_flatten_depth}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SequenceStatementAccessBenchmark {
+
+  /** The value of {@link GenInputsAbstract#sequence_flatten_depth}; 0 means never flatten. */
+  @Param({"0", "16"})
+  public int flattenDepth;
+
+  /** The number of statements of each sequence. */
+  @Param({"100"})
+  public int size;
+
+  private int savedFlattenDepth;
+
+  private List<Sequence> sequences;
+
+  @Setup
+  public void setUp() {
+    BenchmarkFixtures.setUp();
+    savedFlattenDepth = GenInputsAbstract.sequence_flatten_depth;
+    GenInputsAbstract.sequence_flatten_depth = flattenDepth;
+    TypedOperation intValue = TypedOperation.createPrimitiveInitialization(JavaTypes.INT_TYPE, 0);
+    sequences = new ArrayList<>();
+    for (int s = 0; s < 16; s++) {
+      Sequence sequence = new Sequence().extend(intValue);
+      while (sequence.size() < size) {
+        // Alternate extension and concatenation, as successive generation steps do.
+        sequence = sequence.extend(intValue);
+        if (sequence.size() % 4 == 0 && sequence.size() < size) {
+          sequence = Sequence.concatenate(Arrays.asList(new Sequence().extend(intValue), sequence));
+        }
+      }
+      sequences.add(sequence);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    GenInputsAbstract.sequence_flatten_depth = savedFlattenDepth;
+  }
+
+  @Benchmark
+  public void getAllStatements(Blackhole blackhole) {
+    for (Sequence sequence : sequences) {
+      for (int i = 0; i < sequence.size(); i++) {
+        Statement statement = sequence.getStatement(i);
+        blackhole.consume(statement);
+      }
+    }
+  }
+
+  @Benchmark
+  public void getAllInputs(Blackhole blackhole) {
+    for (Sequence sequence : sequences) {
+      for (int i = 0; i < sequence.size(); i++) {
+        blackhole.consume(sequence.getInputs(i));
+      }
+    }
+  }
+}
@@ -0,0 +1,429 @@
+package randoop.compile;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import randoop.main.RandoopBug;
+import randoop.main.RandoopUsageError;
+
+/**
+ * A directory of the class files compiled by a {@link SequenceCompiler}, so that a source compiled
+ * by an earlier run is loaded without compiling it again. A source that does not compile is
+ * recorded with its diagnostics, so that it is not compiled again either.
+ *
+ * <p>Each source has one file in the directory, named by a hash of the source, the compiler
+ * options, the Java version, and the classpath. The hash of the classpath includes the size and
+ * modification time of each jar file on it, and of each class file in each directory on it, so that
+ * an entry is not reused after the classes it was compiled against change.
+ */
+public class ClassFileCache {
+
+  /** The format of the files in the cache; a file in another format is ignored. */
+  private static final int FORMAT = 0x52434331;
+
+  /** The suffix of the files in the cache. */
+  private static final String SUFFIX = ".classes";
+
+  /** The directory of the cache. */
+  private final Path directory;
+
+  /** The part of each key that depends on the environment rather than the source. */
+  private final String environment;
+
+  /**
+   * Creates a {@link ClassFileCache} in the given directory, creating the directory if needed.
+   *
+   * @param directory the directory of the cache
+   */
+  public ClassFileCache(Path directory) {
+    try {
+      Files.createDirectories(directory);
+    } catch (IOException e) {
+      throw new RandoopUsageError("Cannot create class file cache directory " + directory, e);
+    }
+    this.directory = directory;
+    this.environment = environment();
+  }
+
+  /**
+   * Returns the description of the Java version and classpath that is part of each key.
+   *
+   * @return the description of the environment in which sources are compiled
+   */
+  private static String environment() {
+    StringBuilder sb = new StringBuilder();
+    sb.append(System.getProperty("java.version")).append('\n');
+    String classpath = System.getProperty("java.class.path");
+    for (String entry : classpath.split(File.pathSeparator)) {
+      sb.append(entry);
+      File file = new File(entry);
+      if (file.isFile()) {
+        sb.append(' ').append(file.length()).append(' ').append(file.lastModified());
+      } else if (file.isDirectory()) {
+        sb.append(' ').append(classFilesHash(file.toPath()));
+      }
+      sb.append('\n');
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Returns a hash of the names, sizes, and modification times of the class files in a classpath
+   * directory and its subdirectories. It changes when a class file is added, removed, or rewritten.
+   *
+   * @param classpathDirectory a directory on the classpath
+   * @return a hash of the class files in {@code classpathDirectory}, or, if the directory cannot be
+   *     read, a string that matches no other run
+   */
+  private static String classFilesHash(Path classpathDirectory) {
+    MessageDigest digest = newDigest();
+    try (Stream<Path> files = Files.walk(classpathDirectory)) {
+      List<Path> classFiles =
+          files
+              .filter(path -> path.toString().endsWith(".class") && Files.isRegularFile(path))
+              .sorted()
+              .collect(Collectors.toList());
+      for (Path classFile : classFiles) {
+        BasicFileAttributes attributes = Files.readAttributes(classFile, BasicFileAttributes.class);
+        digest.update(classpathDirectory.relativize(classFile).toString().getBytes(UTF_8));
+        digest.update((byte) 0);
+        digest.update(
+            (attributes.size() + " " + attributes.lastModifiedTime().toMillis()).getBytes(UTF_8));
+        digest.update((byte) 0);
+      }
+    } catch (IOException | UncheckedIOException e) {
+      // A key that no other run has, so that nothing is reused.
+      return "unreadable " + System.nanoTime();
+    }
+    return toHex(digest.digest());
+  }
+
+  /**
+   * Returns a new SHA-256 digest.
+   *
+   * @return a new SHA-256 digest
+   */
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new RandoopBug("SHA-256 is not available", e);
+    }
+  }
+
+  /**
+   * Returns the hexadecimal representation of the given bytes.
+   *
+   * @param bytes the bytes to represent
+   * @return {@code bytes} as two lowercase hexadecimal digits each
+   */
+  private static String toHex(byte[] bytes) {
+    StringBuilder sb = new StringBuilder();
+    for (byte b : bytes) {
+      sb.append(String.format("%02x", b));
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Returns the file that holds the class files for the given source.
+   *
+   * @param javaSource the source text
+   * @param compilerOptions the options with which the source is compiled
+   * @return the file of the cache for {@code javaSource}
+   */
+  private Path fileFor(String javaSource, List<String> compilerOptions) {
+    MessageDigest digest = newDigest();
+    digest.update(environment.getBytes(UTF_8));
+    for (String option : compilerOptions) {
+      digest.update(option.getBytes(UTF_8));
+      digest.update((byte) 0);
+    }
+    digest.update(javaSource.getBytes(UTF_8));
+    return directory.resolve(toHex(digest.digest()) + SUFFIX);
+  }
+
+  /**
+   * Returns the result of compiling the given source, if it is in the cache.
+   *
+   * @param javaSource the source text
+   * @param compilerOptions the options with which the source is compiled
+   * @return the result of compiling {@code javaSource}, or null if the source is not in the cache
+   */
+  @Nullable Entry get(String javaSource, List<String> compilerOptions) {
+    Path file = fileFor(javaSource, compilerOptions);
+    if (!Files.isRegularFile(file)) {
+      return null;
+    }
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (in.readInt() != FORMAT) {
+        return null;
+      }
+      boolean success = in.readBoolean();
+      int count = in.readInt();
+      if (success) {
+        Map<String, byte[]> classFiles = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+          String className = readString(in);
+          byte[] bytecode = new byte[in.readInt()];
+          in.readFully(bytecode);
+          classFiles.put(className, bytecode);
+        }
+        return new Entry(classFiles, Collections.emptyList());
+      } else {
+        List<Diagnostic<JavaFileObject>> diagnostics = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+          Diagnostic.Kind kind = Diagnostic.Kind.valueOf(readString(in));
+          long line = in.readLong();
+          long column = in.readLong();
+          diagnostics.add(new CachedDiagnostic(kind, line, column, readString(in)));
+        }
+        return new Entry(null, diagnostics);
+      }
+    } catch (IOException | IllegalArgumentException e) {
+      // A truncated or unreadable file is compiled again, and overwritten.
+      return null;
+    }
+  }
+
+  /**
+   * Adds the class files of the given source to the cache.
+   *
+   * @param javaSource the source text
+   * @param compilerOptions the options with which the source is compiled
+   * @param classFiles the bytecode of each class compiled from {@code javaSource}, by binary name
+   */
+  void putClassFiles(
+      String javaSource, List<String> compilerOptions, Map<String, byte[]> classFiles) {
+    write(
+        fileFor(javaSource, compilerOptions),
+        out -> {
+          out.writeBoolean(true);
+          out.writeInt(classFiles.size());
+          for (Map.Entry<String, byte[]> entry : classFiles.entrySet()) {
+            writeString(out, entry.getKey());
+            out.writeInt(entry.getValue().length);
+            out.write(entry.getValue());
+          }
+        });
+  }
+
+  /**
+   * Records in the cache that the given source does not compile. Only the kind, position, and
+   * message of each diagnostic are kept.
+   *
+   * @param javaSource the source text
+   * @param compilerOptions the options with which the source is compiled
+   * @param diagnostics the diagnostics of the failed compilation
+   */
+  void putFailure(
+      String javaSource,
+      List<String> compilerOptions,
+      List<Diagnostic<? extends JavaFileObject>> diagnostics) {
+    write(
+        fileFor(javaSource, compilerOptions),
+        out -> {
+          out.writeBoolean(false);
+          out.writeInt(diagnostics.size());
+          for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics) {
+            writeString(out, diagnostic.getKind().name());
+            out.writeLong(diagnostic.getLineNumber());
+            out.writeLong(diagnostic.getColumnNumber());
+            writeString(out, diagnostic.getMessage(null));
+          }
+        });
+  }
+
+  /** Writes the contents of a file of the cache, after the format number. */
+  @FunctionalInterface
+  private interface EntryWriter {
+    /**
+     * Writes the contents of a file of the cache.
+     *
+     * @param out the stream for the file
+     * @throws IOException if writing fails
+     */
+    void write(DataOutputStream out) throws IOException;
+  }
+
+  /**
+   * Writes a file of the cache. The file is written under a temporary name and then renamed, so
+   * that runs that share the cache never read a partial file. Failure to write is ignored, since
+   * the cache only saves time.
+   *
+   * @param file the file to write
+   * @param writer writes the contents of the file
+   */
+  private void write(Path file, EntryWriter writer) {
+    Path temporary = null;
+    try {
+      temporary = Files.createTempFile(directory, "tmp", ".tmp");
+      try (DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+        out.writeInt(FORMAT);
+        writer.write(out);
+      }
+      Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      if (temporary != null) {
+        try {
+          Files.deleteIfExists(temporary);
+        } catch (IOException e2) {
+          // nothing more to do
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes a string of any length.
+   *
+   * @param out the stream to write to
+   * @param string the string to write
+   * @throws IOException if writing fails
+   */
+  private static void writeString(DataOutputStream out, String string) throws IOException {
+    byte[] bytes = string.getBytes(UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  /**
+   * Reads a string written by {@link #writeString}.
+   *
+   * @param in the stream to read from
+   * @return the string
+   * @throws IOException if reading fails
+   */
+  private static String readString(DataInputStream in) throws IOException {
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return new String(bytes, UTF_8);
+  }
+
+  /** The result of compiling a source, as read from the cache. */
+  static final class Entry {
+
+    /** The bytecode of each class, by binary name, or null if the source does not compile. */
+    final @Nullable Map<String, byte[]> classFiles;
+
+    /** The diagnostics of the compilation, if it failed. */
+    final List<Diagnostic<JavaFileObject>> diagnostics;
+
+    /**
+     * Creates an {@link Entry}.
+     *
+     * @param classFiles the bytecode of each class, or null if the source does not compile
+     * @param diagnostics the diagnostics of the compilation, if it failed
+     */
+    Entry(@Nullable Map<String, byte[]> classFiles, List<Diagnostic<JavaFileObject>> diagnostics) {
+      this.classFiles = classFiles;
+      this.diagnostics = diagnostics;
+    }
+  }
+
+  /** A diagnostic read from the cache, which has no source file. */
+  private static final class CachedDiagnostic implements Diagnostic<JavaFileObject> {
+
+    /** The kind of the diagnostic. */
+    private final Diagnostic.Kind kind;
+
+    /** The line number of the diagnostic. */
+    private final long line;
+
+    /** The column number of the diagnostic. */
+    private final long column;
+
+    /** The message of the diagnostic. */
+    private final String message;
+
+    /**
+     * Creates a {@link CachedDiagnostic}.
+     *
+     * @param kind the kind of the diagnostic
+     * @param line the line number of the diagnostic
+     * @param column the column number of the diagnostic
+     * @param message the message of the diagnostic
+     */
+    CachedDiagnostic(Diagnostic.Kind kind, long line, long column, String message) {
+      this.kind = kind;
+      this.line = line;
+      this.column = column;
+      this.message = message;
+    }
+
+    @Override
+    public Diagnostic.Kind getKind() {
+      return kind;
+    }
+
+    @Override
+    public @Nullable JavaFileObject getSource() {
+      return null;
+    }
+
+    @Override
+    public long getPosition() {
+      return NOPOS;
+    }
+
+    @Override
+    public long getStartPosition() {
+      return NOPOS;
+    }
+
+    @Override
+    public long getEndPosition() {
+      return NOPOS;
+    }
+
+    @Override
+    public long getLineNumber() {
+      return line;
+    }
+
+    @Override
+    public long getColumnNumber() {
+      return column;
+    }
+
+    @Override
+    public @Nullable String getCode() {
+      return null;
+    }
+
+    @Override
+    public String getMessage(Locale locale) {
+      return message;
+    }
+
+    @Override
+    public String toString() {
+      return line + ":" + column + ": " + kind + ": " + message;
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package randoop.compile;
+
+import java.util.Map;
+
+/**
+ * A class loader for class files that are in memory. Classes that are not among the class files are
+ * loaded by the parent class loader. The class files take precedence over classes of the same name
+ * that the parent can load, such as stale class files on the classpath.
+ */
+public class InMemoryClassLoader extends ClassLoader {
+
+  /** The bytecode of each class that this loader defines, by binary name. */
+  private final Map<String, byte[]> classFiles;
+
+  /**
+   * Creates a class loader for the given class files.
+   *
+   * @param classFiles the bytecode of each class, by binary name
+   */
+  InMemoryClassLoader(Map<String, byte[]> classFiles) {
+    this(classFiles, ClassLoader.getSystemClassLoader());
+  }
+
+  /**
+   * Creates a class loader for the given class files, with the given parent.
+   *
+   * @param classFiles the bytecode of each class, by binary name
+   * @param parent the class loader for the classes that are not among {@code classFiles}
+   */
+  public InMemoryClassLoader(Map<String, byte[]> classFiles, ClassLoader parent) {
+    super(parent);
+    this.classFiles = classFiles;
+  }
+
+  @Override
+  protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+    if (!classFiles.containsKey(name)) {
+      return super.loadClass(name, resolve);
+    }
+    synchronized (getClassLoadingLock(name)) {
+      Class<?> c = findLoadedClass(name);
+      if (c == null) {
+        c = findClass(name);
+      }
+      if (resolve) {
+        resolveClass(c);
+      }
+      return c;
+    }
+  }
+
+  @Override
+  protected Class<?> findClass(String name) throws ClassNotFoundException {
+    byte[] bytecode = classFiles.get(name);
+    if (bytecode == null) {
+      throw new ClassNotFoundException(name);
+    }
+    return defineClass(name, bytecode, 0, bytecode.length);
+  }
+}
@@ -0,0 +1,64 @@
+package randoop.compile;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+
+/**
+ * A {@code JavaFileManager} that keeps the class files produced by the compiler in memory, instead
+ * of writing them to the class output directory. Everything else, such as looking up the classes on
+ * the classpath, is delegated to the wrapped file manager.
+ *
+ * <p>based on {@code javaxtools.compiler.FileManagerImpl} from <a
+ * href="https://www.ibm.com/developerworks/library/j-jcomp/index.html">Create dynamic applications
+ * with javax.tools</a>.
+ */
+class InMemoryFileManager extends ForwardingJavaFileManager<JavaFileManager> {
+
+  /** The class files written since the last call to {@link #takeClassFiles()}, by binary name. */
+  private Map<String, SequenceJavaFileObject> classFiles = new LinkedHashMap<>();
+
+  /**
+   * Creates a {@link InMemoryFileManager} that delegates to the given file manager.
+   *
+   * @param fileManager the file manager for everything but the class files
+   */
+  InMemoryFileManager(JavaFileManager fileManager) {
+    super(fileManager);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Returns an in-memory file for class files.
+   */
+  @Override
+  public JavaFileObject getJavaFileForOutput(
+      Location location, String className, JavaFileObject.Kind kind, FileObject sibling)
+      throws IOException {
+    if (kind != JavaFileObject.Kind.CLASS) {
+      return super.getJavaFileForOutput(location, className, kind, sibling);
+    }
+    SequenceJavaFileObject classFile = new SequenceJavaFileObject(className, kind);
+    classFiles.put(className, classFile);
+    return classFile;
+  }
+
+  /**
+   * Returns the class files written since the last call, and forgets them.
+   *
+   * @return the bytecode of each class file, by binary name
+   */
+  Map<String, byte[]> takeClassFiles() {
+    Map<String, byte[]> result = new LinkedHashMap<>();
+    for (Map.Entry<String, SequenceJavaFileObject> entry : classFiles.entrySet()) {
+      result.put(entry.getKey(), entry.getValue().getByteCode());
+    }
+    classFiles = new LinkedHashMap<>();
+    return result;
+  }
+}
@@ -1,23 +1,16 @@
 package randoop.compile;
 
-import java.io.File;
-import java.io.IOException;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.net.URLClassLoader;
-import java.nio.file.Files;
-import java.nio.file.NoSuchFileException;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.StringJoiner;
 import javax.tools.Diagnostic;
 import javax.tools.DiagnosticCollector;
 import javax.tools.JavaCompiler;
-import javax.tools.JavaFileManager;
 import javax.tools.JavaFileObject;
 import javax.tools.ToolProvider;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.checker.signature.qual.BinaryName;
 import org.checkerframework.checker.signature.qual.BinaryNameWithoutPackage;
 import org.checkerframework.checker.signature.qual.DotSeparatedIdentifiers;
@@ -27,7 +20,8 @@ import randoop.main.RandoopBug;
 import randoop.main.RandoopUsageError;
 
 /**
- * Compiles a Java class given as a {@code String}.
+ * Compiles a Java class given as a {@code String}. The class files are kept in memory, and loaded
+ * by a class loader that reads them from memory.
  *
  * <p>A simplified version of the {@code javaxtools.compiler.CharSequenceCompiler} from <a
  * href="https://www.ibm.com/developerworks/library/j-jcomp/index.html">Create dynamic applications
@@ -47,8 +41,20 @@ public class SequenceCompiler {
   /** the Java compiler */
   private final JavaCompiler compiler;
 
-  /** The {@code FileManager} for this compiler. */
-  private final JavaFileManager fileManager;
+  /**
+   * The {@code FileManager} for this compiler. It keeps the class files in memory, so compilation
+   * never writes to disk.
+   */
+  private final InMemoryFileManager fileManager;
+
+  /**
+   * The classes loaded by {@link #compileAndLoad}, keyed by their source text. A source is compiled
+   * at most once, even if it is given several times.
+   */
+  private final Map<String, Class<?>> loadedClasses = new HashMap<>();
+
+  /** The cache of the class files compiled by earlier runs, or null if there is none. */
+  private final @Nullable ClassFileCache classFileCache;
 
   /** Creates a {@link SequenceCompiler}. */
   public SequenceCompiler() {
@@ -61,10 +67,20 @@ public class SequenceCompiler {
    * @param compilerOptions the compiler options
    */
   public SequenceCompiler(List<String> compilerOptions) {
+    this(compilerOptions, null);
+  }
+
+  /**
+   * Creates a {@link SequenceCompiler} whose {@link #compileAndLoad} reads and writes the class
+   * files in the given cache.
+   *
+   * @param compilerOptions the compiler options
+   * @param classFileCache the cache of class files, or null to always compile
+   */
+  public SequenceCompiler(List<String> compilerOptions, @Nullable ClassFileCache classFileCache) {
+    this.classFileCache = classFileCache;
     this.compilerOptions = new ArrayList<>(compilerOptions);
     this.compilerOptions.add("-XDuseUnsharedTable");
-    this.compilerOptions.add("-d");
-    this.compilerOptions.add(".");
     this.compiler = ToolProvider.getSystemJavaCompiler();
 
     if (this.compiler == null) {
@@ -76,7 +92,7 @@ public class SequenceCompiler {
               + ReflectionPlume.classpathToString());
     }
 
-    this.fileManager = compiler.getStandardFileManager(null, null, null);
+    this.fileManager = new InMemoryFileManager(compiler.getStandardFileManager(null, null, null));
   }
 
   /**
@@ -90,18 +106,7 @@ public class SequenceCompiler {
   public boolean isCompilable(
       final String packageName, final String classname, final String javaSource) {
     DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
-    boolean result = compile(packageName, classname, javaSource, diagnostics);
-
-    // Compilation can create multiple .class files; this only deletes the main one.
-    Path dir = Paths.get((packageName == null) ? "." : packageName.replace(".", "/"));
-    try {
-      Files.delete(dir.resolve(classname + ".class"));
-    } catch (NoSuchFileException e) {
-      // Nothing to do, but I wonder why the file doesn't exist.
-    } catch (IOException e) {
-      System.out.printf(
-          "Unable to delete %s: %s%n", dir.resolve(classname + ".class").toAbsolutePath(), e);
-    }
+    boolean result = isCompilable(packageName, classname, javaSource, diagnostics);
 
     if (!result
         && debugCompilationFailure != null
@@ -118,28 +123,30 @@ public class SequenceCompiler {
   }
 
   /**
-   * Compiles the given class. If this method returns normally, compilation was successful.
+   * Indicates whether the given class is compilable. Unlike {@link #isCompilable(String, String,
+   * String)}, the diagnostics are reported to the caller, so that it can tell which parts of the
+   * source caused the errors.
    *
-   * @param packageName the package of the class, null if default package
+   * @param packageName the package name for the class, null if default package
    * @param classname the simple name of the class
    * @param javaSource the source text of the class
-   * @throws SequenceCompilerException if the compilation fails
+   * @param diagnostics the collector for the diagnostics of the compilation
+   * @return true if class source was successfully compiled, false otherwise
    */
-  private void compile(final String packageName, final String classname, final String javaSource)
-      throws SequenceCompilerException {
-
-    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
-
-    boolean success = compile(packageName, classname, javaSource, diagnostics);
-    if (!success) {
-      throw new SequenceCompilerException("Compilation failed", javaSource, diagnostics);
-    }
+  public boolean isCompilable(
+      final String packageName,
+      final String classname,
+      final String javaSource,
+      DiagnosticCollector<JavaFileObject> diagnostics) {
+    boolean result = compile(packageName, classname, javaSource, diagnostics);
+    // Only checking, so the class files are not needed.
+    fileManager.takeClassFiles();
+    return result;
   }
 
   /**
-   * A helper method for the {@link #compile(String, String, String)} and {@link
-   * #isCompilable(String, String, String)} methods: compiles the given class using the given
-   * diagnostics collector.
+   * Compiles the given class using the given diagnostics collector. The class files are kept by
+   * {@link #fileManager}.
    *
    * @param packageName the package of the class, null if default package
    * @param classname the simple name of the class
@@ -166,8 +173,11 @@ public class SequenceCompiler {
   }
 
   /**
-   * Compiles the given class, leads it, and returns the Class object. If this method returns
-   * normally, compilation was successful.
+   * Compiles the given class, loads it, and returns the Class object. If this method returns
+   * normally, compilation was successful. If the same source was already loaded by this compiler,
+   * returns the same Class object without compiling it again. If this compiler has a {@link
+   * ClassFileCache}, the result of the compilation is read from it when it is there and written to
+   * it otherwise; without a cache, nothing is written to disk.
    *
    * @param packageName the package of the class, null if default package
    * @param classname the simple name of the class
@@ -180,28 +190,68 @@ public class SequenceCompiler {
       final @BinaryNameWithoutPackage String classname,
       final String javaSource)
       throws SequenceCompilerException {
-    compile(packageName, classname, javaSource);
+    Class<?> cached = loadedClasses.get(javaSource);
+    if (cached != null) {
+      return cached;
+    }
+
+    ClassFileCache.Entry entry =
+        classFileCache == null ? null : classFileCache.get(javaSource, compilerOptions);
+    Map<String, byte[]> classFiles;
+    if (entry == null) {
+      try {
+        classFiles = compileToClassFiles(packageName, classname, javaSource);
+      } catch (SequenceCompilerException e) {
+        if (classFileCache != null) {
+          classFileCache.putFailure(
+              javaSource, compilerOptions, e.getDiagnostics().getDiagnostics());
+        }
+        throw e;
+      }
+      if (classFileCache != null) {
+        classFileCache.putClassFiles(javaSource, compilerOptions, classFiles);
+      }
+    } else if (entry.classFiles == null) {
+      DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+      for (Diagnostic<JavaFileObject> diagnostic : entry.diagnostics) {
+        diagnostics.report(diagnostic);
+      }
+      throw new SequenceCompilerException("Compilation failed", javaSource, diagnostics);
+    } else {
+      classFiles = entry.classFiles;
+    }
+
     String fqName = fullyQualifiedName(packageName, classname);
-    File dir = new File("").getAbsoluteFile();
-    return loadClassFile(dir, fqName);
+    Class<?> loaded;
+    try {
+      loaded = new InMemoryClassLoader(classFiles).loadClass(fqName);
+    } catch (ClassNotFoundException e) {
+      throw new RandoopBug("Compiled class not found: " + fqName, e);
+    }
+    loadedClasses.put(javaSource, loaded);
+    return loaded;
   }
 
   /**
-   * Given a .class file, returns the corresponding Class object.
+   * Compiles the given class and returns the class files, without loading them. Unlike {@link
+   * #compileAndLoad}, nothing is cached: each call compiles the source.
    *
-   * @param directory the directory containing the .class file (possibly in a package-named
-   *     subdirectory)
-   * @param className the binary name of the class defined in the file
-   * @return the loaded Class object
+   * @param packageName the package of the class, null if default package
+   * @param classname the simple name of the class
+   * @param javaSource the source text of the class
+   * @return the bytecode of each class compiled from {@code javaSource}, by binary name
+   * @throws SequenceCompilerException if the compilation fails
    */
-  private static Class<?> loadClassFile(File directory, @BinaryName String className) {
-    try {
-      ClassLoader cl = new URLClassLoader(new URL[] {directory.toURI().toURL()});
-      Class<?> cls = cl.loadClass(className);
-      return cls;
-    } catch (MalformedURLException | ClassNotFoundException e) {
-      throw new RandoopBug(e);
+  public Map<String, byte[]> compileToClassFiles(
+      final String packageName, final String classname, final String javaSource)
+      throws SequenceCompilerException {
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    boolean success = compile(packageName, classname, javaSource, diagnostics);
+    Map<String, byte[]> classFiles = fileManager.takeClassFiles();
+    if (!success) {
+      throw new SequenceCompilerException("Compilation failed", javaSource, diagnostics);
     }
+    return classFiles;
   }
 
   /**
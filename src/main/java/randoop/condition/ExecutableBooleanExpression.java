@@ -2,10 +2,15 @@ package randoop.condition;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import javax.tools.Diagnostic;
 import javax.tools.JavaFileObject;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.plumelib.util.UtilPlume;
 import randoop.Globals;
 import randoop.compile.SequenceCompiler;
@@ -13,7 +18,6 @@ import randoop.compile.SequenceCompilerException;
 import randoop.contract.ObjectContract;
 import randoop.main.GenInputsAbstract;
 import randoop.main.RandoopBug;
-import randoop.output.NameGenerator;
 import randoop.reflection.RawSignature;
 
 /**
@@ -27,9 +31,8 @@ import randoop.reflection.RawSignature;
  */
 public class ExecutableBooleanExpression {
 
-  /** The name generator to use to generate class names. */
-  private static final NameGenerator classNameGenerator =
-      new NameGenerator("RandoopExpressionClass");
+  /** The prefix of the names of the expression classes. */
+  private static final String CLASS_NAME_PREFIX = "RandoopExpressionClass";
 
   /**
    * The {@code java.lang.reflect.Method} to test this expression. The method is static (it does not
@@ -65,8 +68,8 @@ public class ExecutableBooleanExpression {
    * randoop.condition.specification.Guard}) of a specification.
    *
    * @param signature the signature for the expression method to be created. The class name of the
-   *     expression method signature is ignored and a new name is generated using {@link
-   *     #classNameGenerator}.
+   *     expression method signature is ignored and a new name is generated by {@link
+   *     #createMethod}.
    * @param declarations the parameter declaration string for the expression method to be created,
    *     including parameter names and wrapped in parentheses
    * @param expressionSource the source code for a Java expression to be used as the body of the
@@ -195,8 +198,11 @@ public class ExecutableBooleanExpression {
    * <p>Generates the Java source for a class with the method, compiles the class, and returns the
    * expression method.
    *
+   * <p>The name of the class is derived from the expression method, so that identical expressions
+   * have identical class sources, which the compiler compiles only once.
+   *
    * @param signature the signature for the expression method. The class name of the expression
-   *     method signature is ignored and a new name is generated using {@link #classNameGenerator}.
+   *     method signature is ignored and a new name is derived from the method.
    * @param parameterDeclaration the parameter declaration string, including parameter names and
    *     wrapped in parentheses
    * @param expressionSource a Java expression that is the source code for the expression, in the
@@ -211,10 +217,17 @@ public class ExecutableBooleanExpression {
       String expressionSource,
       SequenceCompiler compiler) {
     String packageName = signature.getPackageName();
-    String classname = classNameGenerator.next(); // ignore the class name in the signature
+    // Ignore the class name in the signature. Classes with the same name but different sources are
+    // loaded by different class loaders, so a hash collision is harmless.
+    String classname =
+        CLASS_NAME_PREFIX
+            + Integer.toHexString(
+                Objects.hash(signature.getName(), parameterDeclaration, expressionSource));
     String classText =
         createConditionClassSource(
-            signature.getName(), expressionSource, parameterDeclaration, packageName, classname);
+            packageName,
+            classname,
+            createMethodSource(signature.getName(), expressionSource, parameterDeclaration));
 
     Class<?> expressionClass;
     try {
@@ -231,32 +244,149 @@ public class ExecutableBooleanExpression {
     }
   }
 
+  /**
+   * Creates the {@code java.lang.reflect.Method} objects for several expressions with a single
+   * compilation. The expression methods are the methods of one class, whose name is derived from
+   * its source.
+   *
+   * <p>Unlike {@link #createMethod}, this does not report compilation errors. The expressions whose
+   * methods have errors are left out and the others are compiled again, because an error can hide
+   * errors in other methods. The caller can create the methods that were left out with {@link
+   * #createMethod}, to report the errors.
+   *
+   * @param signatures the signature of each expression method. The class names are ignored, and the
+   *     package names must all be the same.
+   * @param parameterDeclarations the parameter declaration string of each expression method,
+   *     including parameter names and wrapped in parentheses
+   * @param expressionSources the source code of the Java expression of each expression method
+   * @param compiler the compiler to use to compile the expression class
+   * @return the {@code Method} for each expression, in order; an element is null if the method of
+   *     that expression does not compile
+   */
+  static List<@Nullable Method> createMethods(
+      List<RawSignature> signatures,
+      List<String> parameterDeclarations,
+      List<String> expressionSources,
+      SequenceCompiler compiler) {
+    int size = signatures.size();
+    String packageName = signatures.get(0).getPackageName();
+    String[] methodNames = new String[size];
+    String[] methodSources = new String[size];
+    for (int i = 0; i < size; i++) {
+      RawSignature signature = signatures.get(i);
+      if (!Objects.equals(packageName, signature.getPackageName())) {
+        throw new IllegalArgumentException(
+            "Expression methods in different packages: " + packageName + ", " + signature);
+      }
+      methodNames[i] = signature.getName() + "_" + i;
+      methodSources[i] =
+          createMethodSource(
+              methodNames[i], expressionSources.get(i), parameterDeclarations.get(i));
+    }
+    // The lines before the first method: the package declaration and a blank line, if there is a
+    // package, and the class declaration.
+    int headerLines = (packageName == null) ? 1 : 3;
+
+    List<@Nullable Method> methods = new ArrayList<>(Collections.nCopies(size, null));
+    List<Integer> included = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      included.add(i);
+    }
+    while (!included.isEmpty()) {
+      StringBuilder body = new StringBuilder();
+      // The line after the last line of each included method.
+      long[] endLines = new long[included.size()];
+      long line = headerLines + 1;
+      for (int k = 0; k < included.size(); k++) {
+        String methodSource = methodSources[included.get(k)];
+        body.append(methodSource);
+        line += methodSource.split(Globals.lineSep, -1).length - 1;
+        endLines[k] = line;
+      }
+      String classname = CLASS_NAME_PREFIX + Integer.toHexString(body.toString().hashCode());
+      String classText = createConditionClassSource(packageName, classname, body.toString());
+
+      Class<?> expressionClass;
+      try {
+        expressionClass = compiler.compileAndLoad(packageName, classname, classText);
+      } catch (SequenceCompilerException e) {
+        Set<Integer> failed = new HashSet<>();
+        for (Diagnostic<? extends JavaFileObject> diag : e.getDiagnostics().getDiagnostics()) {
+          if (diag.getKind() != Diagnostic.Kind.ERROR) {
+            continue;
+          }
+          int k = 0;
+          while (k < endLines.length && diag.getLineNumber() >= endLines[k]) {
+            k++;
+          }
+          if (k == endLines.length || diag.getLineNumber() <= headerLines) {
+            // The error is not in a method, so no method can be trusted.
+            return methods;
+          }
+          failed.add(included.get(k));
+        }
+        if (failed.isEmpty()) {
+          return methods;
+        }
+        included.removeAll(failed);
+        continue;
+      }
+
+      for (int i : included) {
+        try {
+          methods.set(
+              i,
+              expressionClass.getDeclaredMethod(
+                  methodNames[i], signatures.get(i).getParameterTypes()));
+        } catch (NoSuchMethodException e) {
+          throw new RandoopBug("Condition class does not contain expression method", e);
+        }
+      }
+      break;
+    }
+    return methods;
+  }
+
   /**
    * Create the source code for the expression class.
    *
-   * @param methodName the name of the expression method
-   * @param expressionText the expression source code -- a boolean Java expression
-   * @param parameterDeclarations the signature string for the expression method
    * @param packageName the package of the expression class, or null for the default package
    * @param expressionClassName the name of the expression class
+   * @param methodSources the source code of the expression methods, created by {@link
+   *     #createMethodSource}
    * @return the Java source code for the expression class
    */
   private static String createConditionClassSource(
-      String methodName,
-      String expressionText,
-      String parameterDeclarations,
-      String packageName,
-      String expressionClassName) {
+      String packageName, String expressionClassName, String methodSources) {
     String packageDeclaration = "";
     if (packageName != null) {
       packageDeclaration = "package " + packageName + ";" + Globals.lineSep + Globals.lineSep;
     }
+    return packageDeclaration
+        + "public class "
+        + expressionClassName
+        + " {"
+        + Globals.lineSep
+        + methodSources
+        + "}"
+        + Globals.lineSep;
+  }
+
+  /**
+   * Create the source code for an expression method.
+   *
+   * @param methodName the name of the expression method
+   * @param expressionText the expression source code -- a boolean Java expression
+   * @param parameterDeclarations the signature string for the expression method
+   * @return the Java source code for the expression method, ending with a line separator
+   */
+  private static String createMethodSource(
+      String methodName, String expressionText, String parameterDeclarations) {
     return UtilPlume.joinLines(
-        packageDeclaration + "public class " + expressionClassName + " {",
-        "  public static boolean " + methodName + parameterDeclarations + " throws Throwable {",
-        "    return " + expressionText + ";",
-        "  }",
-        "}" + Globals.lineSep);
+            "  public static boolean " + methodName + parameterDeclarations + " throws Throwable {",
+            "    return " + expressionText + ";",
+            "  }")
+        + Globals.lineSep;
   }
 
   /**
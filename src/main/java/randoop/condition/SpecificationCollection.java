@@ -18,6 +18,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -26,9 +27,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.checkerframework.checker.signature.qual.ClassGetName;
+import randoop.compile.ClassFileCache;
 import randoop.compile.SequenceCompiler;
 import randoop.condition.specification.OperationSignature;
 import randoop.condition.specification.OperationSpecification;
+import randoop.main.GenInputsAbstract;
 import randoop.reflection.TypeNames;
 import randoop.util.MultiMap;
 
@@ -57,7 +60,10 @@ public class SpecificationCollection {
   /** Map from reflection object to all the methods it overrides (that have a specification). */
   private final Map<AccessibleObject, Set<Method>> overridden;
 
-  /** Compiler for creating conditionMethods. */
+  /**
+   * Compiler for creating conditionMethods. It uses the cache in {@link
+   * GenInputsAbstract#condition_cache_dir}, if one is given.
+   */
   private final SequenceCompiler compiler;
 
   /**
@@ -79,7 +85,12 @@ public class SpecificationCollection {
     this.signatureToMethods = signatureToMethods;
     this.overridden = overridden;
     this.getExecutableSpecificationCache = new HashMap<>();
-    this.compiler = new SequenceCompiler();
+    this.compiler =
+        new SequenceCompiler(
+            new ArrayList<String>(),
+            GenInputsAbstract.condition_cache_dir == null
+                ? null
+                : new ClassFileCache(GenInputsAbstract.condition_cache_dir));
   }
 
   /**
@@ -283,6 +294,42 @@ public class SpecificationCollection {
   /** Cache for {@link #getExecutableSpecification}. */
   private Map<AccessibleObject, ExecutableSpecification> getExecutableSpecificationCache;
 
+  /**
+   * The expression methods compiled by {@link #compileExpressions}, as returned by {@link
+   * SpecificationTranslator#compileExpressions}.
+   */
+  private final Map<String, Method> compiledMethods = new HashMap<>();
+
+  /**
+   * The declaring classes whose specifications have been compiled by {@link #compileExpressions}.
+   */
+  private final Set<Class<?>> compiledClasses = new HashSet<>();
+
+  /**
+   * Compiles the expressions of the specifications of all the constructors and methods declared by
+   * the given class, if that has not already been done. They are compiled together because they are
+   * usually all needed: the specifications of a class are usually in one specification file, and
+   * its constructors and methods are usually all under test. Compiling them together is much faster
+   * than compiling them one at a time.
+   *
+   * @param declaringClass the class whose specifications to compile
+   */
+  private void compileExpressions(Class<?> declaringClass) {
+    if (!compiledClasses.add(declaringClass)) {
+      return;
+    }
+    Map<Executable, OperationSpecification> specifications = new LinkedHashMap<>();
+    for (Map.Entry<AccessibleObject, OperationSpecification> entry : specificationMap.entrySet()) {
+      if (entry.getKey() instanceof Executable) {
+        Executable executable = (Executable) entry.getKey();
+        if (executable.getDeclaringClass() == declaringClass) {
+          specifications.put(executable, entry.getValue());
+        }
+      }
+    }
+    compiledMethods.putAll(SpecificationTranslator.compileExpressions(specifications, compiler));
+  }
+
   /**
    * Creates an {@link ExecutableSpecification} object for the given constructor or method, from its
    * specifications in this object.
@@ -315,9 +362,10 @@ public class SpecificationCollection {
     if (specification == null) {
       execSpec = new ExecutableSpecification();
     } else {
+      compileExpressions(executable.getDeclaringClass());
       execSpec =
           SpecificationTranslator.createExecutableSpecification(
-              executable, specification, compiler);
+              executable, specification, compiler, compiledMethods);
     }
 
     if (executable instanceof Method) {
@@ -3,10 +3,13 @@ package randoop.condition;
 import java.lang.reflect.Executable;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.StringJoiner;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.checker.signature.qual.DotSeparatedIdentifiers;
 import randoop.compile.SequenceCompiler;
 import randoop.condition.specification.Guard;
@@ -56,6 +59,12 @@ public class SpecificationTranslator {
   /** The {@link SequenceCompiler} for compiling expression methods. */
   private final SequenceCompiler compiler;
 
+  /**
+   * The expression methods compiled together by {@link #compileExpressions}, keyed by {@link
+   * #methodKey}. An expression that is not in this map is compiled on its own.
+   */
+  private Map<String, Method> compiledMethods = Collections.emptyMap();
+
   /**
    * Creates a {@link SpecificationTranslator} object in the given package with the signature
    * strings and variable replacementMap.
@@ -161,7 +170,7 @@ public class SpecificationTranslator {
    *
    * <p>Note that these signatures may be used more than once for different expression methods, and
    * so {@link randoop.condition.ExecutableBooleanExpression#createMethod(RawSignature, String,
-   * String, SequenceCompiler)} replaces the classname to ensure a unique name.
+   * String, SequenceCompiler)} replaces the classname with one derived from the expression.
    *
    * @param packageName the package name for the expression class
    * @param receiverType the declaring class of the method or constructor, included first in
@@ -248,13 +257,169 @@ public class SpecificationTranslator {
    */
   public static ExecutableSpecification createExecutableSpecification(
       Executable executable, OperationSpecification specification, SequenceCompiler compiler) {
+    return createExecutableSpecification(
+        executable,
+        specification,
+        compiler,
+        compileExpressions(Collections.singletonMap(executable, specification), compiler));
+  }
+
+  /**
+   * Create the {@link ExecutableSpecification} object for the given {@link OperationSpecification},
+   * using the expression methods that were already compiled by {@link #compileExpressions}.
+   *
+   * @param executable the {@code java.lang.reflect.AccessibleObject} for the operation to translate
+   * @param specification the specification to translate
+   * @param compiler the sequence compiler to use to create the expression methods that were not
+   *     already compiled
+   * @param compiledMethods the result of {@link #compileExpressions} for specifications that
+   *     include {@code specification}
+   * @return the {@link ExecutableSpecification} for the given specification
+   */
+  static ExecutableSpecification createExecutableSpecification(
+      Executable executable,
+      OperationSpecification specification,
+      SequenceCompiler compiler,
+      Map<String, Method> compiledMethods) {
     SpecificationTranslator st = createTranslator(executable, specification, compiler);
+    st.compiledMethods = compiledMethods;
     return new ExecutableSpecification(
         st.getGuardExpressions(specification.getPreconditions()),
         st.getReturnConditions(specification.getPostconditions()),
         st.getThrowsConditions(specification.getThrowsConditions()));
   }
 
+  /**
+   * Compiles the expression methods of all the expressions of the given specifications, with one
+   * compilation for each package of expression classes instead of one for each expression.
+   *
+   * <p>The expressions whose methods do not compile are not in the result, so that {@link
+   * #createExecutableSpecification} compiles them on their own and reports the errors for the
+   * expressions that cause them.
+   *
+   * @param specifications the specifications whose expressions to compile, by the constructor or
+   *     method they belong to
+   * @param compiler the sequence compiler to use to create expression methods
+   * @return the expression methods, keyed by {@link #methodKey}
+   */
+  static Map<String, Method> compileExpressions(
+      Map<? extends Executable, OperationSpecification> specifications, SequenceCompiler compiler) {
+    // The expressions of each package, by key.
+    Map<String, Map<String, ExpressionMethod>> expressions = new LinkedHashMap<>();
+    for (Map.Entry<? extends Executable, OperationSpecification> entry :
+        specifications.entrySet()) {
+      OperationSpecification specification = entry.getValue();
+      SpecificationTranslator st = createTranslator(entry.getKey(), specification, compiler);
+      List<ExpressionMethod> methods = new ArrayList<>();
+      for (Precondition precondition : specification.getPreconditions()) {
+        methods.add(st.prestateMethod(precondition.getGuard().getConditionSource()));
+      }
+      for (Postcondition postcondition : specification.getPostconditions()) {
+        methods.add(st.prestateMethod(postcondition.getGuard().getConditionSource()));
+        methods.add(st.poststateMethod(postcondition.getProperty().getConditionSource()));
+      }
+      for (ThrowsCondition throwsCondition : specification.getThrowsConditions()) {
+        methods.add(st.prestateMethod(throwsCondition.getGuard().getConditionSource()));
+      }
+      for (ExpressionMethod method : methods) {
+        expressions
+            .computeIfAbsent(method.signature.getPackageName(), p -> new LinkedHashMap<>())
+            .putIfAbsent(method.key, method);
+      }
+    }
+
+    Map<String, Method> compiledMethods = new HashMap<>();
+    for (Map<String, ExpressionMethod> packageExpressions : expressions.values()) {
+      if (packageExpressions.size() < 2) {
+        // Nothing to gain from compiling together.
+        continue;
+      }
+      List<RawSignature> signatures = new ArrayList<>();
+      List<String> declarations = new ArrayList<>();
+      List<String> sources = new ArrayList<>();
+      for (ExpressionMethod method : packageExpressions.values()) {
+        signatures.add(method.signature);
+        declarations.add(method.declarations);
+        sources.add(method.source);
+      }
+      List<@Nullable Method> methods =
+          ExecutableBooleanExpression.createMethods(signatures, declarations, sources, compiler);
+      int i = 0;
+      for (String key : packageExpressions.keySet()) {
+        Method method = methods.get(i++);
+        if (method != null) {
+          compiledMethods.put(key, method);
+        }
+      }
+    }
+    return compiledMethods;
+  }
+
+  /**
+   * Returns the key of an expression method in the result of {@link #compileExpressions}.
+   *
+   * @param packageName the package of the expression class
+   * @param declarations the parameter declaration string of the expression method
+   * @param expressionSource the source code of the expression
+   * @return the key for the expression method
+   */
+  private static String methodKey(
+      @Nullable String packageName, String declarations, String expressionSource) {
+    return packageName + " " + declarations + " " + expressionSource;
+  }
+
+  /**
+   * Returns the prestate expression method for the given expression.
+   *
+   * @param expressionSource the source code of a guard expression
+   * @return the expression method to be compiled for {@code expressionSource}
+   */
+  private ExpressionMethod prestateMethod(String expressionSource) {
+    return new ExpressionMethod(
+        prestateExpressionSignature, prestateExpressionDeclaration, expressionSource);
+  }
+
+  /**
+   * Returns the poststate expression method for the given expression.
+   *
+   * @param expressionSource the source code of a property expression
+   * @return the expression method to be compiled for {@code expressionSource}
+   */
+  private ExpressionMethod poststateMethod(String expressionSource) {
+    return new ExpressionMethod(
+        poststateExpressionSignature, poststateExpressionDeclarations, expressionSource);
+  }
+
+  /** An expression method to be compiled by {@link #compileExpressions}. */
+  private static final class ExpressionMethod {
+
+    /** The key of the expression method; see {@link #methodKey}. */
+    final String key;
+
+    /** The signature of the expression method. */
+    final RawSignature signature;
+
+    /** The parameter declaration string of the expression method. */
+    final String declarations;
+
+    /** The source code of the expression. */
+    final String source;
+
+    /**
+     * Creates an {@link ExpressionMethod}.
+     *
+     * @param signature the signature of the expression method
+     * @param declarations the parameter declaration string of the expression method
+     * @param source the source code of the expression
+     */
+    ExpressionMethod(RawSignature signature, String declarations, String source) {
+      this.key = methodKey(signature.getPackageName(), declarations, source);
+      this.signature = signature;
+      this.declarations = declarations;
+      this.source = source;
+    }
+  }
+
   /**
    * Construct the list of {@link ExecutableBooleanExpression} objects, one for each {@link
    * Precondition}.
@@ -366,6 +531,15 @@ public class SpecificationTranslator {
    */
   private ExecutableBooleanExpression create(Guard expression) {
     String contractText = Util.replaceWords(expression.getConditionSource(), replacementMap);
+    Method method =
+        compiledMethods.get(
+            methodKey(
+                prestateExpressionSignature.getPackageName(),
+                prestateExpressionDeclaration,
+                expression.getConditionSource()));
+    if (method != null) {
+      return new ExecutableBooleanExpression(method, expression.getDescription(), contractText);
+    }
     return new ExecutableBooleanExpression(
         prestateExpressionSignature,
         prestateExpressionDeclaration,
@@ -386,6 +560,15 @@ public class SpecificationTranslator {
    */
   public ExecutableBooleanExpression create(Property expression) {
     String contractText = Util.replaceWords(expression.getConditionSource(), replacementMap);
+    Method method =
+        compiledMethods.get(
+            methodKey(
+                poststateExpressionSignature.getPackageName(),
+                poststateExpressionDeclarations,
+                expression.getConditionSource()));
+    if (method != null) {
+      return new ExecutableBooleanExpression(method, expression.getDescription(), contractText);
+    }
     return new ExecutableBooleanExpression(
         poststateExpressionSignature,
         poststateExpressionDeclarations,
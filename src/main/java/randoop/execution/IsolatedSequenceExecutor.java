@@ -0,0 +1,243 @@
+package randoop.execution;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import randoop.main.RandoopBug;
+import randoop.sequence.Sequence;
+import randoop.util.Log;
+
+/**
+ * Executes sequences in a pool of long-lived JVMs, each running a {@link SequenceExecutionServer},
+ * to find out whether executing them in the JVM of the generator is safe.
+ *
+ * <p>A sequence that runs longer than the timeout, that kills its JVM (for example, by calling
+ * {@code System.exit}), or that throws a {@link VirtualMachineError} such as {@link
+ * OutOfMemoryError}, only affects the process that executed it: the process is destroyed if needed
+ * and replaced by a new one for the next sequence.
+ *
+ * <p>The processes are started as needed, up to the size of the pool. The {@link #execute} method
+ * may be called by several threads at once, and blocks while all the processes are busy.
+ */
+public class IsolatedSequenceExecutor implements AutoCloseable {
+
+  /** The outcome of executing a sequence in a separate process. */
+  public enum Outcome {
+    /** Every statement executed normally. */
+    NORMAL,
+    /** A statement threw an exception that is not a {@link VirtualMachineError}. */
+    EXCEPTION,
+    /** A statement threw a {@link VirtualMachineError}, such as an {@link OutOfMemoryError}. */
+    VM_ERROR,
+    /** The sequence did not complete before the timeout, and the process was destroyed. */
+    TIMEOUT,
+    /** The process terminated while executing the sequence. */
+    CRASH,
+    /** The process could not reconstruct the sequence from its parsable form. */
+    UNSUPPORTED;
+
+    /**
+     * Returns true if a sequence with this outcome can be executed in the JVM of the generator.
+     *
+     * @return true unless executing the sequence hangs, crashes, or exhausts the JVM
+     */
+    public boolean isSafe() {
+      return this == NORMAL || this == EXCEPTION || this == UNSUPPORTED;
+    }
+  }
+
+  /** The environment in which the processes run. */
+  private final TestEnvironment environment;
+
+  /** The maximum time, in milliseconds, that a process may take to execute a sequence. */
+  private final long timeoutMillis;
+
+  /** The processes that are not executing a sequence. Some may not have been started yet. */
+  private final BlockingQueue<ExecutionProcess> idleProcesses;
+
+  /** All the processes of the pool. */
+  private final List<ExecutionProcess> processes;
+
+  /** Destroys the processes that exceed the timeout. */
+  private final ScheduledExecutorService watchdog;
+
+  /** The number of executions with each outcome. */
+  private final Map<Outcome, LongAdder> outcomeCounts = new EnumMap<>(Outcome.class);
+
+  /**
+   * Creates a pool of processes that execute sequences. The processes are started when they are
+   * first needed.
+   *
+   * @param environment the environment in which the processes run; its classpath must contain
+   *     Randoop and the classes under test
+   * @param numProcesses the maximum number of processes
+   * @param timeoutMillis the maximum time, in milliseconds, to execute a sequence
+   */
+  public IsolatedSequenceExecutor(
+      TestEnvironment environment, int numProcesses, long timeoutMillis) {
+    if (numProcesses <= 0) {
+      throw new IllegalArgumentException("numProcesses must be positive: " + numProcesses);
+    }
+    if (timeoutMillis <= 0) {
+      throw new IllegalArgumentException("timeoutMillis must be positive: " + timeoutMillis);
+    }
+    this.environment = environment;
+    this.timeoutMillis = timeoutMillis;
+    this.processes = new ArrayList<>(numProcesses);
+    this.idleProcesses = new LinkedBlockingQueue<>();
+    for (int i = 0; i < numProcesses; i++) {
+      ExecutionProcess process = new ExecutionProcess();
+      processes.add(process);
+      idleProcesses.add(process);
+    }
+    this.watchdog =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "IsolatedSequenceExecutor-watchdog");
+              thread.setDaemon(true);
+              return thread;
+            });
+    for (Outcome outcome : Outcome.values()) {
+      outcomeCounts.put(outcome, new LongAdder());
+    }
+  }
+
+  /**
+   * Executes a sequence in one of the processes of the pool.
+   *
+   * @param sequence the sequence to execute
+   * @return the outcome of executing the sequence
+   */
+  public Outcome execute(Sequence sequence) {
+    byte[] request = sequence.toParsableString().getBytes(StandardCharsets.UTF_8);
+    ExecutionProcess process;
+    try {
+      process = idleProcesses.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RandoopBug("Interrupted while waiting for an execution process", e);
+    }
+    Outcome outcome;
+    try {
+      outcome = process.execute(request);
+    } finally {
+      idleProcesses.add(process);
+    }
+    outcomeCounts.get(outcome).increment();
+    if (!outcome.isSafe()) {
+      Log.logPrintf("Isolated execution outcome %s for sequence:%n%s%n", outcome, sequence);
+    }
+    return outcome;
+  }
+
+  /**
+   * Returns the number of executions with the given outcome.
+   *
+   * @param outcome an outcome
+   * @return the number of sequences that were executed with {@code outcome}
+   */
+  public long numExecutions(Outcome outcome) {
+    return outcomeCounts.get(outcome).sum();
+  }
+
+  /** Terminates the processes. */
+  @Override
+  public void close() {
+    watchdog.shutdownNow();
+    for (ExecutionProcess process : processes) {
+      process.destroy();
+    }
+  }
+
+  /** One process of the pool. It is started when it is first needed, and restarted if needed. */
+  private class ExecutionProcess {
+
+    /** The process, or null if it is not running. */
+    private Process process = null;
+
+    /** Writes requests to the process. */
+    private DataOutputStream requests;
+
+    /** Reads responses from the process. */
+    private DataInputStream responses;
+
+    /** Set by the watchdog when it destroys the process. */
+    private volatile boolean timedOut;
+
+    /**
+     * Executes a sequence in this process, starting the process if it is not running.
+     *
+     * @param request the parsable form of the sequence, in UTF-8
+     * @return the outcome of executing the sequence
+     */
+    Outcome execute(byte[] request) {
+      if (process == null || !process.isAlive()) {
+        start();
+      }
+      timedOut = false;
+      Process current = process;
+      ScheduledFuture<?> kill =
+          watchdog.schedule(
+              () -> {
+                timedOut = true;
+                current.destroyForcibly();
+              },
+              timeoutMillis,
+              TimeUnit.MILLISECONDS);
+      try {
+        requests.writeInt(request.length);
+        requests.write(request);
+        requests.flush();
+        int response = responses.read();
+        if (response < 0 || response >= Outcome.values().length) {
+          throw new IOException("Unexpected response " + response);
+        }
+        return Outcome.values()[response];
+      } catch (IOException e) {
+        destroy();
+        return timedOut ? Outcome.TIMEOUT : Outcome.CRASH;
+      } finally {
+        kill.cancel(false);
+      }
+    }
+
+    /** Starts the process, and waits until it is ready to execute sequences. */
+    private void start() {
+      destroy();
+      try {
+        process = environment.startProcess(SequenceExecutionServer.class.getName(), null);
+        requests = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+        responses = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+        int ready = responses.read();
+        if (ready != SequenceExecutionServer.READY) {
+          throw new IOException("Unexpected first response " + ready);
+        }
+      } catch (IOException e) {
+        destroy();
+        throw new RuntimeException("Failed to start an execution process", e);
+      }
+    }
+
+    /** Terminates the process, if it is running. */
+    void destroy() {
+      if (process != null) {
+        process.destroyForcibly();
+        process = null;
+      }
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package randoop.execution;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import randoop.DummyVisitor;
+import randoop.ExceptionalExecution;
+import randoop.ExecutionOutcome;
+import randoop.sequence.ExecutableSequence;
+import randoop.sequence.Sequence;
+import randoop.sequence.SequenceParseException;
+import randoop.test.DummyCheckGenerator;
+
+/**
+ * The main class of the processes started by an {@link IsolatedSequenceExecutor}. It repeatedly
+ * reads a sequence from standard input, executes it, and writes the outcome to standard output,
+ * until standard input is closed.
+ *
+ * <p>A request is the length of the {@link Sequence#toParsableString() parsable form} of a sequence
+ * in UTF-8, as an int, followed by its bytes. The response is a single byte, the ordinal of an
+ * {@link IsolatedSequenceExecutor.Outcome}. Before the first request, the server writes {@link
+ * #READY} to indicate that it has started.
+ */
+public class SequenceExecutionServer {
+
+  /** Written by the server once it is ready to execute sequences. */
+  static final int READY = 0x52;
+
+  private SequenceExecutionServer() {
+    throw new Error("Do not instantiate");
+  }
+
+  /**
+   * Executes the sequences read from standard input.
+   *
+   * @param args ignored
+   * @throws IOException if the communication with the parent process fails
+   */
+  public static void main(String[] args) throws IOException {
+    DataInputStream in = new DataInputStream(new BufferedInputStream(System.in));
+    DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+    // Standard output carries the responses, so the code under test must not write to it.
+    PrintStream discard =
+        new PrintStream(
+            new OutputStream() {
+              @Override
+              public void write(int b) {}
+
+              @Override
+              public void write(byte[] b, int off, int len) {}
+            });
+    System.setOut(discard);
+    System.setErr(discard);
+
+    out.writeByte(READY);
+    out.flush();
+    while (true) {
+      int length;
+      try {
+        length = in.readInt();
+      } catch (EOFException e) {
+        return;
+      }
+      byte[] bytes = new byte[length];
+      in.readFully(bytes);
+      IsolatedSequenceExecutor.Outcome outcome = execute(new String(bytes, StandardCharsets.UTF_8));
+      out.writeByte(outcome.ordinal());
+      out.flush();
+    }
+  }
+
+  /**
+   * Parses and executes a sequence.
+   *
+   * @param parsableString the parsable form of the sequence
+   * @return the outcome of executing the sequence
+   */
+  private static IsolatedSequenceExecutor.Outcome execute(String parsableString) {
+    ExecutableSequence eseq;
+    try {
+      eseq = new ExecutableSequence(Sequence.parse(parsableString));
+      eseq.execute(new DummyVisitor(), new DummyCheckGenerator());
+    } catch (SequenceParseException | RuntimeException e) {
+      return IsolatedSequenceExecutor.Outcome.UNSUPPORTED;
+    }
+    for (int i = 0; i < eseq.size(); i++) {
+      ExecutionOutcome result = eseq.getResult(i);
+      if (result instanceof ExceptionalExecution) {
+        if (((ExceptionalExecution) result).getException() instanceof VirtualMachineError) {
+          return IsolatedSequenceExecutor.Outcome.VM_ERROR;
+        }
+        return IsolatedSequenceExecutor.Outcome.EXCEPTION;
+      }
+    }
+    return IsolatedSequenceExecutor.Outcome.NORMAL;
+  }
+}
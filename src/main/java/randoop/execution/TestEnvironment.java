@@ -2,6 +2,7 @@ package randoop.execution;
 
 import static randoop.execution.RunCommand.CommandException;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
@@ -9,7 +10,7 @@ import java.util.List;
 import java.util.Map;
 import randoop.main.GenInputsAbstract;
 
-/** Provides the environment for running JUnit tests. */
+/** Provides the environment for running JUnit tests and other Java processes. */
 public class TestEnvironment {
 
   /** The process timeout in milliseconds. Defaults to 15 minutes. */
@@ -83,6 +84,29 @@ public class TestEnvironment {
     return RunCommand.run(command, workingDirectory, timeout);
   }
 
+  /**
+   * Starts a JVM in this environment that runs the main method of the given class. Unlike {@link
+   * #runTest}, this does not wait for the process to terminate, and does not apply the timeout: the
+   * caller communicates with the process through its standard input and output, and is responsible
+   * for destroying it.
+   *
+   * @param mainClassName the fully-qualified name of the class whose main method to run
+   * @param workingDirectory the working directory of the process, or null for the working directory
+   *     of this JVM
+   * @return the started process
+   * @throws IOException if the process cannot be started
+   */
+  public Process startProcess(String mainClassName, Path workingDirectory) throws IOException {
+    List<String> command = javaCommand(false);
+    command.add(mainClassName);
+    ProcessBuilder processBuilder = new ProcessBuilder(command);
+    if (workingDirectory != null) {
+      processBuilder.directory(workingDirectory.toFile());
+    }
+    processBuilder.redirectError(ProcessBuilder.Redirect.INHERIT);
+    return processBuilder.start();
+  }
+
   /**
    * Constructs the command to run JUnit tests in this environment, minus the name of the test
    * class. Adding the test class name is sufficient to build a runnable command.
@@ -90,11 +114,26 @@ public class TestEnvironment {
    * @return the base command to run JUnit tests in this environment, without a test class name
    */
   private List<String> commandPrefix() {
+    List<String> command = javaCommand(true);
+    command.add("org.junit.runner.JUnitCore");
+    return command;
+  }
+
+  /**
+   * Constructs the command to run a JVM in this environment, minus the name of the main class and
+   * its arguments.
+   *
+   * @param dumpHeap if true, the JVM dumps its heap to a file when it runs out of memory
+   * @return the command to run a JVM in this environment, without a main class
+   */
+  private List<String> javaCommand(boolean dumpHeap) {
     List<String> command = new ArrayList<>();
     command.add("java");
     command.add("-ea");
     command.add("-Xmx" + GenInputsAbstract.jvm_max_memory);
-    command.add("-XX:+HeapDumpOnOutOfMemoryError");
+    if (dumpHeap) {
+      command.add("-XX:+HeapDumpOnOutOfMemoryError");
+    }
 
     if (replaceCallAgentPath != null) {
       command.add("-Xbootclasspath/a:" + replaceCallAgentPath);
@@ -108,7 +147,6 @@ public class TestEnvironment {
 
     command.add("-classpath");
     command.add("." + java.io.File.pathSeparator + testClasspath);
-    command.add("org.junit.runner.JUnitCore");
 
     return command;
   }
@@ -5,6 +5,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import org.plumelib.options.Option;
 import org.plumelib.options.OptionGroup;
 import org.plumelib.options.Unpublicized;
@@ -12,12 +13,13 @@ import org.plumelib.util.UtilPlume;
 import randoop.DummyVisitor;
 import randoop.ExecutionVisitor;
 import randoop.MultiVisitor;
+import randoop.execution.IsolatedSequenceExecutor;
 import randoop.main.GenInputsAbstract;
 import randoop.operation.TypedOperation;
 import randoop.sequence.ExecutableSequence;
 import randoop.sequence.Sequence;
+import randoop.test.CompilableTestPredicate;
 import randoop.test.TestCheckGenerator;
-import randoop.util.Log;
 import randoop.util.ProgressDisplay;
 import randoop.util.ReflectionExecutor;
 import randoop.util.predicate.AlwaysFalse;
@@ -25,12 +27,12 @@ import randoop.util.predicate.AlwaysFalse;
 /**
  * Algorithm template for implementing a test generator.
  *
- * <p>The main generation loop is defined in method {@code createAndClassifySequences()}, which
- * repeatedly generates a new sequence, determines if it a failing sequence, and stops the process
- * when the time or sequence limit expires. The process of generating a new sequences is left
- * abstract.
+ * <p>Method {@code createAndClassifySequences()} runs the generation, which is left abstract, and
+ * reports on it. A generator keeps the sequences that it classifies as error-revealing or
+ * regression tests, and the counts of the sequences it generated.
  *
  * @see ForwardGenerator
+ * @see ParallelGenerator
  */
 public abstract class AbstractGenerator {
 
@@ -63,21 +65,9 @@ public abstract class AbstractGenerator {
   /** Number of sequences that failed the output test. */
   public int num_failed_output_test = 0;
 
-  /** When the generator started (millisecond-based system timestamp). */
-  private long startTime = -1;
-
   /** Sequences that are used in other sequences (and are thus redundant) */
   protected Set<Sequence> subsumed_sequences = new LinkedHashSet<>();
 
-  /**
-   * Elapsed time since the generator started.
-   *
-   * @return elapsed time since the generator started
-   */
-  private long elapsedTime() {
-    return System.currentTimeMillis() - startTime;
-  }
-
   /** Limits for generation, after which the generator will stop. */
   public final GenInputsAbstract.Limits limits;
 
@@ -91,12 +81,15 @@ public abstract class AbstractGenerator {
   /** Container for execution visitors used during execution of sequences. */
   protected ExecutionVisitor executionVisitor;
 
+  /**
+   * Executes each sequence in a separate process before it is executed in this JVM, so that harmful
+   * sequences can be discarded. Null if sequences are only executed in this JVM.
+   */
+  protected IsolatedSequenceExecutor isolatedExecutor = null;
+
   /** Component manager responsible for storing previously-generated sequences. */
   public ComponentManager componentManager;
 
-  /** Customizable stopping criterion in addition to time and sequence limits. */
-  private IStopper stopper;
-
   /**
    * Manages notifications for listeners.
    *
@@ -149,7 +142,6 @@ public abstract class AbstractGenerator {
    * @param componentManager the component manager to use to store sequences during component-based
    *     generation. Can be null, in which case the generator's component manager is initialized as
    *     {@code new ComponentManager()}.
-   * @param stopper optional, additional stopping criterion for the generator. Can be null.
    * @param listenerManager manager that stores and calls any listeners to use during generation.
    *     Can be null.
    */
@@ -157,7 +149,6 @@ public abstract class AbstractGenerator {
       List<TypedOperation> operations,
       GenInputsAbstract.Limits limits,
       ComponentManager componentManager,
-      IStopper stopper,
       RandoopListenerManager listenerManager) {
     assert operations != null;
 
@@ -172,7 +163,6 @@ public abstract class AbstractGenerator {
       this.componentManager = componentManager;
     }
 
-    this.stopper = stopper;
     this.listenerMgr = listenerManager;
     operationHistory = new DefaultOperationHistoryLogger();
     outRegressionSeqs = new ArrayList<>();
@@ -192,6 +182,19 @@ public abstract class AbstractGenerator {
     this.outputTest = outputTest;
   }
 
+  /**
+   * Registers a predicate that checks, in batches, that the sequences that satisfy the test
+   * predicate are compilable. A sequence is classified when its batch is checked.
+   *
+   * <p>The predicate is not thread-safe, so it is created by a supplier: a generator that runs
+   * several generators in parallel gives each of them its own predicate.
+   *
+   * @param compilableTests supplies the predicate that checks whether sequences are compilable
+   * @param batchSize the number of sequences to check at once
+   */
+  public abstract void setCompilableTestPredicate(
+      Supplier<CompilableTestPredicate> compilableTests, int batchSize);
+
   /**
    * Registers a visitor with this object for use while executing each generated sequence.
    *
@@ -214,6 +217,20 @@ public abstract class AbstractGenerator {
     this.executionVisitor = MultiVisitor.createMultiVisitor(visitors);
   }
 
+  /**
+   * Registers an executor that executes each sequence in a separate process before it is executed
+   * in this JVM. A sequence that hangs, crashes the process, or exhausts its memory there is
+   * discarded.
+   *
+   * @param isolatedExecutor the executor; it may be used by several threads at once
+   */
+  public void setIsolatedExecutor(IsolatedSequenceExecutor isolatedExecutor) {
+    if (isolatedExecutor == null) {
+      throw new IllegalArgumentException("isolatedExecutor must be non-null");
+    }
+    this.isolatedExecutor = isolatedExecutor;
+  }
+
   /**
    * Registers a visitor with this object to generate checks following execution of each generated
    * test sequence.
@@ -227,28 +244,6 @@ public abstract class AbstractGenerator {
     this.checkGenerator = checkGenerator;
   }
 
-  /**
-   * Tests stopping criteria.
-   *
-   * @return true iff any stopping criterion is met
-   */
-  protected boolean shouldStop() {
-    return (limits.time_limit_millis != 0 && elapsedTime() >= limits.time_limit_millis)
-        || (numAttemptedSequences() >= limits.attempted_limit)
-        || (numGeneratedSequences() >= limits.generated_limit)
-        || (numOutputSequences() >= limits.output_limit)
-        || (GenInputsAbstract.stop_on_error_test && numErrorSequences() > 0)
-        || (stopper != null && stopper.shouldStop())
-        || (listenerMgr != null && listenerMgr.shouldStopGeneration());
-  }
-
-  /**
-   * Attempt to generate a test (a sequence).
-   *
-   * @return a test sequence, may be null
-   */
-  public abstract ExecutableSequence step();
-
   /**
    * Returns the count of attempts to generate a sequence so far.
    *
@@ -274,28 +269,16 @@ public abstract class AbstractGenerator {
     return outErrorSeqs.size() + outRegressionSeqs.size();
   }
 
-  /**
-   * Returns the count of generated error-revealing sequences.
-   *
-   * @return the number of error test sequences
-   */
-  private int numErrorSequences() {
-    return outErrorSeqs.size();
-  }
-
   /**
    * Creates and executes new sequences until stopping criteria is met.
    *
-   * @see AbstractGenerator#shouldStop()
-   * @see AbstractGenerator#step()
+   * @see #generateSequences()
    */
   public void createAndClassifySequences() {
     if (checkGenerator == null) {
       throw new Error("Generator not properly initialized - must have a TestCheckGenerator");
     }
 
-    startTime = System.currentTimeMillis();
-
     if (GenInputsAbstract.progressdisplay) {
       progressDisplay = new ProgressDisplay(this, listenerMgr, ProgressDisplay.Mode.MULTILINE);
       progressDisplay.start();
@@ -306,69 +289,7 @@ public abstract class AbstractGenerator {
       listenerMgr.explorationStart();
     }
 
-    while (!shouldStop()) {
-
-      // Notify listeners we are about to perform a generation step.
-      if (listenerMgr != null) {
-        listenerMgr.generationStepPre();
-      }
-
-      num_steps++;
-
-      ExecutableSequence eSeq = step();
-
-      if (dump_sequences) {
-        Log.logPrintf("%nseq before run:%n%s%n", eSeq);
-      }
-
-      // Notify listeners we just completed generation step.
-      if (listenerMgr != null) {
-        listenerMgr.generationStepPost(eSeq);
-      }
-
-      if (GenInputsAbstract.progressdisplay
-          && GenInputsAbstract.progressintervalsteps != -1
-          && num_steps % GenInputsAbstract.progressintervalsteps == 0) {
-        progressDisplay.display(!GenInputsAbstract.deterministic);
-      }
-
-      if (eSeq == null) {
-        null_steps++;
-        continue;
-      }
-
-      num_sequences_generated++;
-
-      boolean test;
-      try {
-        test = outputTest.test(eSeq);
-      } catch (Throwable t) {
-        System.out.printf(
-            "%nProblem with sequence:%n%s%n%s%n", eSeq, UtilPlume.stackTraceToString(t));
-        throw t;
-      }
-      if (test) {
-        // Classify the sequence
-        if (eSeq.hasInvalidBehavior()) {
-          invalidSequenceCount++;
-        } else if (eSeq.hasFailure()) {
-          operationHistory.add(eSeq.getOperation(), OperationOutcome.ERROR_SEQUENCE);
-          num_failing_sequences++;
-          outErrorSeqs.add(eSeq);
-        } else {
-          outRegressionSeqs.add(eSeq);
-          newRegressionTestHook(eSeq.sequence);
-        }
-      } else {
-        num_failed_output_test++;
-      }
-
-      if (dump_sequences) {
-        Log.logPrintf("Sequence after execution:%n%s%n", eSeq);
-        Log.logPrintf("allSequences.size()=%s%n", numGeneratedSequences());
-        // componentManager.log();
-      }
-    }
+    generateSequences();
 
     if (GenInputsAbstract.progressdisplay && progressDisplay != null) {
       progressDisplay.display(!GenInputsAbstract.deterministic);
@@ -379,6 +300,15 @@ public abstract class AbstractGenerator {
       System.out.println();
       System.out.println("Normal method executions: " + ReflectionExecutor.normalExecs());
       System.out.println("Exceptional method executions: " + ReflectionExecutor.excepExecs());
+      if (isolatedExecutor != null) {
+        System.out.printf(
+            "Sequences in execution processes: %d timed out, %d crashed, %d threw"
+                + " VirtualMachineError, %d could not be executed%n",
+            isolatedExecutor.numExecutions(IsolatedSequenceExecutor.Outcome.TIMEOUT),
+            isolatedExecutor.numExecutions(IsolatedSequenceExecutor.Outcome.CRASH),
+            isolatedExecutor.numExecutions(IsolatedSequenceExecutor.Outcome.VM_ERROR),
+            isolatedExecutor.numExecutions(IsolatedSequenceExecutor.Outcome.UNSUPPORTED));
+      }
       if (!GenInputsAbstract.deterministic) {
         System.out.println();
         System.out.println(
@@ -387,6 +317,12 @@ public abstract class AbstractGenerator {
         System.out.println(
             "Average method execution time (exceptional termination): "
                 + String.format("%.3g", ReflectionExecutor.excepExecAvgMillis()));
+        System.out.println(
+            "Method execution time (normal termination):      "
+                + ReflectionExecutor.normalExecTimes().toMillisString());
+        System.out.println(
+            "Method execution time (exceptional termination): "
+                + ReflectionExecutor.excepExecTimes().toMillisString());
         System.out.println(
             "Approximate memory usage " + UtilPlume.abbreviateNumber(UtilPlume.usedMemory(false)));
       }
@@ -399,9 +335,26 @@ public abstract class AbstractGenerator {
     }
   }
 
+  /**
+   * Generates and classifies sequences until a stopping criterion is met. Called by {@link
+   * #createAndClassifySequences()}.
+   */
+  abstract void generateSequences();
+
+  /** Displays the progress of generation, if a progress display is running. */
+  void displayProgress() {
+    if (progressDisplay != null) {
+      progressDisplay.display(!GenInputsAbstract.deterministic);
+    }
+  }
+
   /**
    * Return all sequences generated by this object.
    *
+   * <p>Unless {@link GenInputsAbstract#duplicate_sequences} is {@code EQUALS}, the sequences are
+   * kept only if logging or {@link GenInputsAbstract#debug_checks} is enabled, and otherwise this
+   * returns an empty set. Use {@link #numGeneratedSequences()} to count them.
+   *
    * @return return all generated sequences
    */
   public abstract LinkedHashSet<Sequence> getAllSequences();
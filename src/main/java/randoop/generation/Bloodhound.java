@@ -20,6 +20,7 @@ import randoop.sequence.Sequence;
 import randoop.types.ClassOrInterfaceType;
 import randoop.util.Randomness;
 import randoop.util.SimpleArrayList;
+import randoop.util.WeightedSampler;
 
 /**
  * Implements the Bloodhound component, as described by the paper "GRT: Program-Analysis-Guided
@@ -93,12 +94,6 @@ public class Bloodhound implements TypedOperationSelector {
   /** {@code System.currentTimeMillis()} when branch coverage was last updated. */
   private long lastUpdateTime = 0;
 
-  /**
-   * Branch coverage is recomputed after this many successful invocations (= this many new tests
-   * were generated).
-   */
-  private static final int branchCoverageInterval = 100;
-
   /** The total number of successful invocations of all the methods under test. */
   private int totalSuccessfulInvocations = 0;
 
@@ -110,10 +105,13 @@ public class Bloodhound implements TypedOperationSelector {
   private int maxSuccM = 1;
 
   /**
-   * The total weight of all the methods that are under test. This is used by {@link Randomness} to
-   * randomly select an element from a list of weighted elements.
+   * The methods under test, in the order of {@link #operationSimpleList}, with the weights of
+   * {@link #methodWeights}. Used to select a method under test in O(log n) time.
    */
-  private double totalWeightOfMethodsUnderTest = 0;
+  private final WeightedSampler<TypedOperation> operationSampler;
+
+  /** Map from methods under test to their index in {@link #operationSampler}. */
+  private final Map<TypedOperation, Integer> operationIndices = new HashMap<>();
 
   /**
    * Initialize Bloodhound. Branch coverage information is initialized and all methods under test
@@ -124,6 +122,10 @@ public class Bloodhound implements TypedOperationSelector {
    */
   public Bloodhound(List<TypedOperation> operations, Set<ClassOrInterfaceType> classesUnderTest) {
     this.operationSimpleList = new SimpleArrayList<>(operations);
+    this.operationSampler = new WeightedSampler<>(operations.size());
+    for (TypedOperation operation : operations) {
+      operationIndices.put(operation, operationSampler.add(operation, 0));
+    }
     this.coverageTracker = new CoverageTracker(classesUnderTest);
 
     // Compute an initial weight for all methods under test. We also initialize the uncovered ratio
@@ -146,9 +148,7 @@ public class Bloodhound implements TypedOperationSelector {
     updateBranchCoverageMaybe();
 
     // Make a random, weighted choice for the next method.
-    TypedOperation selectedOperation =
-        Randomness.randomMemberWeighted(
-            operationSimpleList, methodWeights, totalWeightOfMethodsUnderTest);
+    TypedOperation selectedOperation = Randomness.randomMemberWeighted(operationSampler);
 
     // Update the selected method's selection count and recompute its weight.
     CollectionsPlume.incrementMap(methodSelectionCounts, selectedOperation);
@@ -168,7 +168,7 @@ public class Bloodhound implements TypedOperationSelector {
    *       branch coverage was last updated. This is GRT's approach and is the default. It makes
    *       Randoop non-deterministic.
    *   <li>Count of successful invocations: branch coverage is updated after every {@code
-   *       branchCoverageInteral} successful invocations (of any method under test).
+   *       --bloodhound-update-interval} successful invocations (of any method under test).
    * </ul>
    */
   private void updateBranchCoverageMaybe() {
@@ -186,7 +186,8 @@ public class Bloodhound implements TypedOperationSelector {
         }
         break;
       case INVOCATIONS:
-        shouldUpdateBranchCoverage = totalSuccessfulInvocations % branchCoverageInterval == 0;
+        shouldUpdateBranchCoverage =
+            totalSuccessfulInvocations % GenInputsAbstract.bloodhound_update_interval == 0;
 
         // If we decide that it's time to update the branch coverage information, we "reset" the
         // totalSuccessfulInvocations to 1 (or we could have incremented it by 1). This is to
@@ -231,14 +232,13 @@ public class Bloodhound implements TypedOperationSelector {
 
   /**
    * Computes and updates weights in {@code methodWeights} map for all methods under test.
-   * Recomputes the {@code totalWeightOfMethodsUnderTest} to avoid problems with round-off error.
+   * Recomputes the sums of {@code operationSampler} to avoid problems with round-off error.
    */
   private void updateWeightsForAllOperations() {
-    double totalWeight = 0;
     for (TypedOperation operation : operationSimpleList) {
-      totalWeight += updateWeight(operation);
+      updateWeight(operation);
     }
-    totalWeightOfMethodsUnderTest = totalWeight;
+    operationSampler.rebuild();
   }
 
   /**
@@ -333,17 +333,10 @@ public class Bloodhound implements TypedOperationSelector {
       wmk = Math.max(val1, val2) * wm0;
     }
 
-    // Retrieve the weight from the methodWeights map if it exists. Otherwise, default to zero.
-    Double existingWeight = methodWeights.get(operation);
-    if (existingWeight == null) {
-      existingWeight = 0.0;
-    }
-
     methodWeights.put(operation, wmk);
 
     // Update the contribution of this method to the total weight of all methods under test.
-    totalWeightOfMethodsUnderTest -= existingWeight;
-    totalWeightOfMethodsUnderTest += wmk;
+    operationSampler.setWeight(operationIndices.get(operation), wmk);
 
     return wmk;
   }
@@ -0,0 +1,79 @@
+package randoop.generation;
+
+import canonicalizer.CanonicalizerConfig;
+import canonicalizer.ObjectCanonicalizer;
+import randoop.util.Fingerprints;
+import randoop.util.Log;
+import randoop.util.LongHashSet;
+import representations.FieldExtensions;
+
+/**
+ * A {@link StateMatcher} that considers two objects the same if their heaps are isomorphic. The
+ * heap of an object is traversed by an {@link ObjectCanonicalizer}, up to its maximum field
+ * distance, which numbers the objects in the order they are reached. The resulting field/value
+ * tuples are therefore the same for two objects exactly when their bounded heaps have the same
+ * shape and the same primitive values, regardless of object identity and of the {@code equals}
+ * methods of the classes under test.
+ *
+ * <p>Only a 64-bit fingerprint of the tuples of each object is kept. Two different heaps with the
+ * same fingerprint are considered the same; this is unlikely until billions of objects are added.
+ */
+public class CanonicalHeapMatcher implements StateMatcher {
+
+  /** Traverses the heap of each object. */
+  private final ObjectCanonicalizer canonicalizer;
+
+  /** The fingerprints of the heaps of the objects added so far. */
+  private final LongHashSet fingerprints = new LongHashSet();
+
+  /** The number of objects whose heap could not be traversed. */
+  private int failures = 0;
+
+  /**
+   * Creates a matcher that traverses heaps as configured.
+   *
+   * @param config the configuration of the traversal; its storage type is ignored
+   */
+  public CanonicalHeapMatcher(CanonicalizerConfig config) {
+    // Each object is fingerprinted on its own, so the canonicalizer need not remember any.
+    config.setStorageType(ObjectCanonicalizer.StorageType.NONE);
+    this.canonicalizer = new ObjectCanonicalizer(config);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>An object whose heap cannot be traversed is considered new.
+   */
+  @Override
+  public boolean add(Object object) {
+    String tuples;
+    try {
+      canonicalizer.canonicalize(object);
+      tuples = ((FieldExtensions) canonicalizer.getObjectRepresentation()).toSortedString();
+    } catch (Throwable e) {
+      // This could happen, because accessing the fields may run code under test (e.g., static
+      // initializers).
+      Log.logPrintf("Could not canonicalize %s: %s%n", object.getClass().getName(), e);
+      failures++;
+      return true;
+    }
+    return fingerprints.add(fingerprint(tuples));
+  }
+
+  @Override
+  public int size() {
+    return fingerprints.size() + failures;
+  }
+
+  /**
+   * Returns a 64-bit hash of a string.
+   *
+   * @param string the string to hash
+   * @return the fingerprint of {@code string}
+   * @see Fingerprints#hash(String)
+   */
+  static long fingerprint(String string) {
+    return Fingerprints.hash(string);
+  }
+}
@@ -1,9 +1,12 @@
 package randoop.generation;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import randoop.main.GenInputsAbstract;
 import randoop.main.RandoopBug;
 import randoop.operation.TypedClassOperation;
 import randoop.operation.TypedOperation;
@@ -37,8 +40,8 @@ import randoop.util.SimpleList;
  * <p>SEED SEQUENCES. Seed sequences are sequences that were not created during the generation
  * process but obtained via other means. They include (1) sequences passed via the constructor, (2)
  * class literals, and (3) package literals. The only different treatment of seed sequences is
- * during calls to the clearGeneratedSequences() method, which removes only general, non-seed
- * components from the collection.
+ * during calls to the clearGeneratedSequences() and evictGeneratedSequences() methods, which remove
+ * only general, non-seed components from the collection.
  */
 public class ComponentManager {
 
@@ -55,6 +58,9 @@ public class ComponentManager {
   // clearGeneratedSequences().
   private final Collection<Sequence> gralSeeds;
 
+  /** The number of entries of gralComponents that are for seed sequences. */
+  private int seedEntries;
+
   /**
    * A set of additional components representing literals that should only be used as input to
    * specific classes.
@@ -73,10 +79,20 @@ public class ComponentManager {
    */
   private PackageLiterals packageLiterals = null;
 
+  /**
+   * Incremented whenever the components get their first sequence that produces a value of some
+   * type, and whenever a literal is added.
+   */
+  private long typeVersion = 0;
+
+  /** The selectors to reset when generated sequences are removed. */
+  private final List<InputSequenceSelector> inputSequenceSelectors = new ArrayList<>();
+
   /** Create an empty component manager, with an empty seed sequence set. */
   public ComponentManager() {
     gralComponents = new SequenceCollection();
     gralSeeds = Collections.unmodifiableSet(Collections.<Sequence>emptySet());
+    seedEntries = 0;
   }
 
   /**
@@ -91,6 +107,7 @@ public class ComponentManager {
     seedSet.addAll(generalSeeds);
     this.gralSeeds = Collections.unmodifiableSet(seedSet);
     gralComponents = new SequenceCollection(seedSet);
+    seedEntries = gralComponents.size();
   }
 
   /**
@@ -103,6 +120,16 @@ public class ComponentManager {
     return gralComponents.size();
   }
 
+  /**
+   * Returns the number of sequences stored by the manager that were added after the seed sequences.
+   * Unlike {@link #numGeneratedSequences()}, this does not count the seed sequences.
+   *
+   * @return count of the non-seed sequences in this {@link ComponentManager}
+   */
+  int numNonSeedSequences() {
+    return gralComponents.size() - seedEntries;
+  }
+
   /**
    * Add a sequence representing a literal value that can be used when testing members of the given
    * class.
@@ -115,6 +142,7 @@ public class ComponentManager {
       classLiterals = new ClassLiterals();
     }
     classLiterals.addSequence(type, seq);
+    typeVersion++;
   }
 
   /**
@@ -129,6 +157,7 @@ public class ComponentManager {
       packageLiterals = new PackageLiterals();
     }
     packageLiterals.addSequence(pkg, seq);
+    typeVersion++;
   }
 
   /**
@@ -137,7 +166,22 @@ public class ComponentManager {
    * @param sequence the sequence
    */
   public void addGeneratedSequence(Sequence sequence) {
+    int oldVersion = gralComponents.typeVersion();
     gralComponents.add(sequence);
+    if (gralComponents.typeVersion() != oldVersion) {
+      typeVersion++;
+    }
+  }
+
+  /**
+   * Returns a number that changes whenever the components get their first sequence that produces a
+   * value of some type. Until it changes, an operation whose inputs could not be found from the
+   * components cannot get them.
+   *
+   * @return the number of times that the components got a sequence of a type they had none of
+   */
+  long typeVersion() {
+    return typeVersion;
   }
 
   /**
@@ -145,6 +189,62 @@ public class ComponentManager {
    */
   void clearGeneratedSequences() {
     gralComponents = new SequenceCollection(this.gralSeeds);
+    seedEntries = gralComponents.size();
+    resetInputSequenceSelectors();
+  }
+
+  /**
+   * Removes some of the component sequences added so far, as specified by {@link
+   * GenInputsAbstract#pool_eviction}. Seed sequences are preserved.
+   */
+  void evictGeneratedSequences() {
+    if (GenInputsAbstract.pool_eviction == GenInputsAbstract.PoolEvictionPolicy.CLEAR) {
+      clearGeneratedSequences();
+    } else {
+      gralComponents.evict(
+          GenInputsAbstract.pool_eviction, GenInputsAbstract.pool_eviction_fraction, gralSeeds);
+      resetInputSequenceSelectors();
+    }
+  }
+
+  /**
+   * Registers a selector that chooses among the sequences of this manager, so that it is reset
+   * whenever generated sequences are removed.
+   *
+   * @param selector a selector of input sequences
+   */
+  void addInputSequenceSelector(InputSequenceSelector selector) {
+    inputSequenceSelectors.add(selector);
+  }
+
+  /** Resets the registered selectors, which may keep state about removed sequences. */
+  private void resetInputSequenceSelectors() {
+    for (InputSequenceSelector selector : inputSequenceSelectors) {
+      selector.reset();
+    }
+  }
+
+  /**
+   * Records that the given sequences were selected as inputs for a new sequence.
+   *
+   * @param sequences the selected sequences
+   */
+  void recordUse(List<Sequence> sequences) {
+    for (Sequence sequence : sequences) {
+      gralComponents.recordUse(sequence);
+    }
+  }
+
+  /**
+   * Records that the given sequences were the inputs of a new sequence that was added to the
+   * components.
+   *
+   * @param sequences the input sequences
+   */
+  void recordUseful(List<Sequence> sequences) {
+    for (Sequence sequence : sequences) {
+      gralComponents.recordUseful(sequence);
+    }
   }
 
   /** @return the set of generated sequences */
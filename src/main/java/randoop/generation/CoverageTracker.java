@@ -1,14 +1,16 @@
 package randoop.generation;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 import org.checkerframework.checker.signature.qual.BinaryName;
 import org.checkerframework.checker.signature.qual.InternalForm;
 import org.jacoco.agent.rt.RT;
@@ -31,10 +33,14 @@ import randoop.types.ClassOrInterfaceType;
  * this class records the total number of branches and the number of branches that have not been
  * covered in generated tests. This class periodically updates branch coverage information for each
  * method from Jacoco's data structures.
+ *
+ * <p>An update re-analyzes only the classes under test whose Jacoco probes changed since the
+ * previous update, so that its cost depends on the classes whose coverage changed rather than on
+ * all the classes under test.
  */
 public class CoverageTracker {
   /**
-   * A local copy of Jacoco's in-memory store of the coverage information for all classes under
+   * A local copy of Jacoco's in-memory store of the coverage information for the classes under
    * test.
    */
   private final ExecutionDataStore executionData = new ExecutionDataStore();
@@ -46,8 +52,20 @@ public class CoverageTracker {
    */
   private final Map<String, Double> branchCoverageMap = new HashMap<>();
 
-  /** Names of all the classes under test. */
-  private final Set<@BinaryName String> classesUnderTest = new HashSet<>();
+  /** Names of all the classes under test, indexed by their names in internal form. */
+  private final Map<@InternalForm String, @BinaryName String> classesUnderTest = new HashMap<>();
+
+  /**
+   * The classes under test whose probes changed since their coverage was last analyzed, in internal
+   * form. Initially, all of them.
+   */
+  private final Set<@InternalForm String> changedClasses = new TreeSet<>();
+
+  /**
+   * The class files of the classes under test, indexed by binary name. Each is read on its first
+   * analysis.
+   */
+  private final Map<@BinaryName String, byte[]> classFiles = new HashMap<>();
 
   /**
    * Initialize the coverage tracker.
@@ -58,31 +76,42 @@ public class CoverageTracker {
     for (ClassOrInterfaceType classOrInterfaceType : classInterfaceTypes) {
       @SuppressWarnings("signature") // class is non-array, so getName() returns @BinaryName
       @BinaryName String bn = classOrInterfaceType.getRuntimeClass().getName();
-      classesUnderTest.add(bn);
+      @SuppressWarnings("signature") // a binary name with slashes is in internal form
+      @InternalForm String internalName = bn.replace('.', '/');
+      classesUnderTest.put(internalName, bn);
+      changedClasses.add(internalName);
     }
   }
 
   /**
-   * Retrieve execution data from the Jacoco Java agent and merge the coverage information into
-   * {@code executionData}.
+   * Retrieve execution data from the Jacoco Java agent.
+   *
+   * @return the execution data of the Jacoco Java agent, in Jacoco's exec format
    */
-  private void collectCoverageInformation() {
+  private static byte[] getAgentExecutionData() {
     try {
-      // Retrieve the execution data from the Jacoco Java agent.
-      final InputStream execDataStream;
-      try {
-        execDataStream = new ByteArrayInputStream(RT.getAgent().getExecutionData(false));
-      } catch (IllegalStateException e) {
-        System.err.println(
-            "If the error notes: 'JaCoCo agent not started', the issue is likely "
-                + "that the Jacoco agent is not included as a Java agent.");
-        System.err.println(
-            "To do so, add "
-                + "'-Xbootclasspath/a:/path/to/jacocoagent.jar -javaagent:jacocoagent.jar' "
-                + "to the command line argument.");
-        throw (e);
-      }
+      return RT.getAgent().getExecutionData(false);
+    } catch (IllegalStateException e) {
+      System.err.println(
+          "If the error notes: 'JaCoCo agent not started', the issue is likely "
+              + "that the Jacoco agent is not included as a Java agent.");
+      System.err.println(
+          "To do so, add "
+              + "'-Xbootclasspath/a:/path/to/jacocoagent.jar -javaagent:jacocoagent.jar' "
+              + "to the command line argument.");
+      throw (e);
+    }
+  }
 
+  /**
+   * Merge the coverage information of the classes under test into {@code executionData}. Adds to
+   * {@code changedClasses} each class that has a probe that was not set in {@code executionData}.
+   *
+   * @param agentExecutionData the execution data of the Jacoco Java agent, in Jacoco's exec format
+   */
+  private void collectCoverageInformation(byte[] agentExecutionData) {
+    try {
+      final InputStream execDataStream = new ByteArrayInputStream(agentExecutionData);
       final ExecutionDataReader reader = new ExecutionDataReader(execDataStream);
 
       // The reader requires a session info visitor, however we do not need any information from it.
@@ -91,7 +120,15 @@ public class CoverageTracker {
           new IExecutionDataVisitor() {
             @Override
             public void visitClassExecution(final ExecutionData data) {
+              if (!classesUnderTest.containsKey(data.getName())) {
+                return;
+              }
               // Add the execution data for each class into the execution data store.
+              if (hasNewProbes(executionData.get(data.getId()), data)) {
+                @SuppressWarnings("signature") // Jacoco uses class names in internal form
+                @InternalForm String name = data.getName();
+                changedClasses.add(name);
+              }
               executionData.put(data);
             }
           });
@@ -104,6 +141,31 @@ public class CoverageTracker {
     }
   }
 
+  /**
+   * Returns true if the new execution data of a class has a probe set that is not set in its
+   * previous execution data. Probes are never unset, since the data is not reset.
+   *
+   * @param previous the previous execution data of the class, or null if there is none
+   * @param current the new execution data of the class
+   * @return true if the class has a probe that was not set before
+   */
+  private static boolean hasNewProbes(ExecutionData previous, ExecutionData current) {
+    if (previous == null) {
+      return true;
+    }
+    boolean[] previousProbes = previous.getProbes();
+    boolean[] currentProbes = current.getProbes();
+    if (previousProbes.length != currentProbes.length) {
+      return true;
+    }
+    for (int i = 0; i < currentProbes.length; i++) {
+      if (currentProbes[i] && !previousProbes[i]) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Updates branch coverage information for all methods under test. At this point, Jacoco has
    * already generated coverage data while Randoop has been constructing and executing its test
@@ -111,25 +173,35 @@ public class CoverageTracker {
    * contain the updated coverage information of each method branch.
    */
   public void updateBranchCoverageMap() {
+    updateBranchCoverageMap(getAgentExecutionData());
+  }
+
+  /**
+   * Updates branch coverage information for all methods under test, from the given execution data
+   * rather than from the Jacoco Java agent.
+   *
+   * @param agentExecutionData the execution data of the classes under test, in Jacoco's exec format
+   */
+  void updateBranchCoverageMap(byte[] agentExecutionData) {
     // Collect coverage information. This updates the executionData object and gives us updated
     // coverage information for all of the classes under test.
-    collectCoverageInformation();
+    collectCoverageInformation(agentExecutionData);
 
     CoverageBuilder coverageBuilder = new CoverageBuilder();
     Analyzer analyzer = new Analyzer(executionData, coverageBuilder);
 
-    // For each class that is under test, summarize the branch coverage information
-    // produced by Jacoco and store it in the coverageBuilder local variable.
-    for (@BinaryName String className : classesUnderTest) {
-      String resource = getResourceFromClassName(className);
-      InputStream original = getClass().getResourceAsStream(resource);
+    // For each class under test whose probes changed, summarize the branch coverage information
+    // produced by Jacoco and store it in the coverageBuilder local variable. The coverage of the
+    // other classes is the same as at the previous update.
+    for (@InternalForm String internalName : changedClasses) {
+      @BinaryName String className = classesUnderTest.get(internalName);
       try {
-        analyzer.analyzeClass(original, className);
-        original.close();
+        analyzer.analyzeClass(getClassFile(className), className);
       } catch (IOException e) {
         throw new Error(e);
       }
     }
+    changedClasses.clear();
 
     // For each method under test, copy its branch coverage information from the coverageBuilder to
     // branchCoverageMap.
@@ -164,6 +236,34 @@ public class CoverageTracker {
     }
   }
 
+  /**
+   * Returns the class file of a class under test, reading it on the first call.
+   *
+   * @param className binary name of class
+   * @return the contents of the class file
+   * @throws IOException if the class file cannot be read
+   */
+  private byte[] getClassFile(@BinaryName String className) throws IOException {
+    byte[] classFile = classFiles.get(className);
+    if (classFile == null) {
+      try (InputStream original =
+              getClass().getResourceAsStream(getResourceFromClassName(className));
+          ByteArrayOutputStream bytes = new ByteArrayOutputStream()) {
+        if (original == null) {
+          throw new IOException("Cannot find the class file of " + className);
+        }
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = original.read(buffer)) != -1) {
+          bytes.write(buffer, 0, n);
+        }
+        classFile = bytes.toByteArray();
+      }
+      classFiles.put(className, classFile);
+    }
+    return classFile;
+  }
+
   /**
    * Construct the absolute resource name of a class given a class name.
    *
@@ -184,6 +284,15 @@ public class CoverageTracker {
     return this.branchCoverageMap.get(methodName);
   }
 
+  /**
+   * Returns the uncovered branch ratio of each method under test that has been analyzed.
+   *
+   * @return an unmodifiable view of the map from method name to uncovered branch ratio
+   */
+  Map<String, Double> getBranchCoverageMap() {
+    return Collections.unmodifiableMap(branchCoverageMap);
+  }
+
   /** An {@link ISessionInfoVisitor} that does nothing. */
   private static class DummySessionInfoVisitor implements ISessionInfoVisitor {
     /** Singleton instance of this class. */
@@ -2,14 +2,21 @@ package randoop.generation;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
+import org.plumelib.util.CollectionsPlume;
 import org.plumelib.util.UtilPlume;
 import randoop.DummyVisitor;
 import randoop.Globals;
 import randoop.NormalExecution;
 import randoop.SubTypeSet;
+import randoop.execution.IsolatedSequenceExecutor;
+import randoop.generation.fieldcoverage.FieldCoverage;
 import randoop.main.GenInputsAbstract;
 import randoop.main.RandoopBug;
 import randoop.operation.NonreceiverTerm;
@@ -24,6 +31,7 @@ import randoop.sequence.SequenceExceptionError;
 import randoop.sequence.Statement;
 import randoop.sequence.Value;
 import randoop.sequence.Variable;
+import randoop.test.CompilableTestPredicate;
 import randoop.test.DummyCheckGenerator;
 import randoop.types.ClassOrInterfaceType;
 import randoop.types.InstantiatedType;
@@ -31,6 +39,9 @@ import randoop.types.JDKTypes;
 import randoop.types.JavaTypes;
 import randoop.types.Type;
 import randoop.types.TypeTuple;
+import randoop.util.BloomFilter;
+import randoop.util.FingerprintFilter;
+import randoop.util.FingerprintSet;
 import randoop.util.ListOfLists;
 import randoop.util.Log;
 import randoop.util.MultiMap;
@@ -43,13 +54,24 @@ public class ForwardGenerator extends AbstractGenerator {
 
   /**
    * The set of ALL sequences ever generated, including sequences that were executed and then
-   * discarded.
+   * discarded. Unless {@link GenInputsAbstract#duplicate_sequences} is {@code EQUALS}, this is
+   * empty, except when logging or {@link GenInputsAbstract#debug_checks} is enabled.
    *
    * <p>This must be ordered by insertion to allow for flaky test history collection in {@link
    * randoop.main.GenTests#printSequenceExceptionError(AbstractGenerator, SequenceExceptionError)}.
    */
   private final LinkedHashSet<Sequence> allSequences = new LinkedHashSet<>();
 
+  /** The number of bits set in the Bloom filter for each sequence. */
+  private static final int BLOOM_FILTER_HASHES = 7;
+
+  /**
+   * The fingerprints of all the sequences ever generated, or null if {@link
+   * GenInputsAbstract#duplicate_sequences} is {@code EQUALS}, in which case {@link #allSequences}
+   * is used to detect duplicate sequences.
+   */
+  private final FingerprintFilter generatedFingerprints;
+
   /** The side-effect-free methods. */
   private final Set<TypedOperation> sideEffectFreeMethods;
 
@@ -74,6 +96,27 @@ public class ForwardGenerator extends AbstractGenerator {
   /** How to select the method to use for creating a new sequence. */
   private final TypedOperationSelector operationSelector;
 
+  /**
+   * The number of times an operation is selected again when the selected one is parked, before
+   * giving up on the step.
+   */
+  private static final int MAX_PARKED_SELECTIONS = 100;
+
+  /**
+   * The parked operations: the non-generic operations for which no inputs could be found in the
+   * components, mapped to the {@link ComponentManager#typeVersion} at the time. Selecting inputs
+   * for them again would fail the same way, so they are not used until the components have values
+   * of a new type.
+   */
+  private final Map<TypedOperation, Long> parkedOperations = new IdentityHashMap<>();
+
+  /** The number of times input selection failed, for each reason. */
+  private final Map<InputsAndSuccessFlag.Failure, Integer> inputSelectionFailures =
+      new EnumMap<>(InputsAndSuccessFlag.Failure.class);
+
+  /** The number of times a parked operation was selected, and another one was selected instead. */
+  private int parkedSelections = 0;
+
   /**
    * The set of all primitive values seen during generation and execution of sequences. This set is
    * used to tell if a new primitive value has been generated, to add the value to the components.
@@ -82,6 +125,41 @@ public class ForwardGenerator extends AbstractGenerator {
    */
   private Set<Object> runtimePrimitivesSeen = new LinkedHashSet<>();
 
+  /**
+   * Detects the non-primitive values that duplicate values created by previous sequences, or null
+   * if {@link GenInputsAbstract#state_matching} is {@code NONE}.
+   */
+  private final ObjectCache objectCache;
+
+  /**
+   * If non-null, the sequences and primitive values shared with the other workers of a {@link
+   * ParallelGenerator}.
+   */
+  private SequenceExchange exchange = null;
+
+  /** The index of this generator among the workers that share {@link #exchange}. */
+  private int workerIndex = 0;
+
+  /** When the generator started (millisecond-based system timestamp). */
+  private long startTime = -1;
+
+  /** Customizable stopping criterion in addition to time and sequence limits. */
+  private final IStopper stopper;
+
+  /**
+   * If non-null, sequences that satisfy {@link #outputTest} must also be compilable to be output.
+   * They are checked in batches of {@link #compilableBatchSize}.
+   */
+  private CompilableTestPredicate compilableTest = null;
+
+  /** The number of sequences that {@link #compilableTest} checks at once. */
+  private int compilableBatchSize = 1;
+
+  /**
+   * Sequences that satisfy {@link #outputTest}, waiting to be checked by {@link #compilableTest}.
+   */
+  private final List<ExecutableSequence> pendingOutputSeqs = new ArrayList<>();
+
   /**
    * Create a forward generator.
    *
@@ -128,7 +206,8 @@ public class ForwardGenerator extends AbstractGenerator {
       IStopper stopper,
       RandoopListenerManager listenerManager,
       Set<ClassOrInterfaceType> classesUnderTest) {
-    super(operations, limits, componentManager, stopper, listenerManager);
+    super(operations, limits, componentManager, listenerManager);
+    this.stopper = stopper;
 
     this.sideEffectFreeMethods = sideEffectFreeMethods;
     this.instantiator = componentManager.getTypeInstantiator();
@@ -146,6 +225,26 @@ public class ForwardGenerator extends AbstractGenerator {
         throw new Error("Unhandled method_selection: " + GenInputsAbstract.method_selection);
     }
 
+    switch (GenInputsAbstract.state_matching) {
+      case NONE:
+        this.objectCache = null;
+        break;
+      case EQUALS:
+        this.objectCache = new ObjectCache(new EqualsMethodMatcher());
+        break;
+      case CANONICAL_HEAP:
+        this.objectCache =
+            new ObjectCache(new CanonicalHeapMatcher(FieldCoverage.newCanonicalizerConfig()));
+        break;
+      default:
+        throw new Error("Unhandled state_matching: " + GenInputsAbstract.state_matching);
+    }
+
+    this.generatedFingerprints =
+        GenInputsAbstract.duplicate_sequences == GenInputsAbstract.DuplicateSequenceMode.EQUALS
+            ? null
+            : newSequenceFilter();
+
     switch (GenInputsAbstract.input_selection) {
       case SMALL_TESTS:
         inputSequenceSelector = new SmallTestsSequenceSelection();
@@ -156,6 +255,26 @@ public class ForwardGenerator extends AbstractGenerator {
       default:
         throw new Error("Unhandled input_selection: " + GenInputsAbstract.input_selection);
     }
+    componentManager.addInputSequenceSelector(inputSequenceSelector);
+  }
+
+  /**
+   * Returns a new filter of sequence fingerprints, as specified by {@link
+   * GenInputsAbstract#duplicate_sequences}. In {@code EQUALS} mode, the filter is exact.
+   *
+   * @return a new, empty filter of sequence fingerprints
+   */
+  static FingerprintFilter newSequenceFilter() {
+    switch (GenInputsAbstract.duplicate_sequences) {
+      case EQUALS:
+      case FINGERPRINT:
+        return new FingerprintSet();
+      case BLOOM_FILTER:
+        return new BloomFilter(
+            GenInputsAbstract.bloom_filter_megabytes * 1024L * 1024L, BLOOM_FILTER_HASHES);
+      default:
+        throw new Error("Unhandled duplicate_sequences: " + GenInputsAbstract.duplicate_sequences);
+    }
   }
 
   /**
@@ -184,7 +303,189 @@ public class ForwardGenerator extends AbstractGenerator {
     }
   }
 
+  /**
+   * Makes this generator a worker of a {@link ParallelGenerator}: it adds to its component manager
+   * the sequences that the other workers add to theirs, and does not create a sequence that another
+   * worker already created.
+   *
+   * @param exchange the sequences and primitive values shared by the workers
+   * @param workerIndex the index of this generator among the workers
+   */
+  void setSequenceExchange(SequenceExchange exchange, int workerIndex) {
+    this.exchange = exchange;
+    this.workerIndex = workerIndex;
+  }
+
+  /**
+   * Adds a sequence to the component manager, and shares it with the other workers, if any.
+   *
+   * @param sequence the sequence to add
+   */
+  private void addGeneratedSequence(Sequence sequence) {
+    componentManager.addGeneratedSequence(sequence);
+    if (exchange != null) {
+      exchange.publish(workerIndex, sequence);
+    }
+  }
+
   @Override
+  public void setCompilableTestPredicate(
+      Supplier<CompilableTestPredicate> compilableTests, int batchSize) {
+    if (compilableTests == null) {
+      throw new IllegalArgumentException("compilableTests must be non-null");
+    }
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+    }
+    this.compilableTest = compilableTests.get();
+    this.compilableBatchSize = batchSize;
+  }
+
+  /**
+   * Elapsed time since the generator started.
+   *
+   * @return elapsed time since the generator started
+   */
+  private long elapsedTime() {
+    return System.currentTimeMillis() - startTime;
+  }
+
+  /**
+   * Tests stopping criteria.
+   *
+   * @return true iff any stopping criterion is met
+   */
+  protected boolean shouldStop() {
+    return (limits.time_limit_millis != 0 && elapsedTime() >= limits.time_limit_millis)
+        || (numAttemptedSequences() >= limits.attempted_limit)
+        || (numGeneratedSequences() >= limits.generated_limit)
+        || (numOutputSequences() >= limits.output_limit)
+        || (GenInputsAbstract.stop_on_error_test && numErrorSequences() > 0)
+        || (stopper != null && stopper.shouldStop())
+        || (listenerMgr != null && listenerMgr.shouldStopGeneration());
+  }
+
+  /**
+   * Returns the count of generated error-revealing sequences.
+   *
+   * @return the number of error test sequences
+   */
+  private int numErrorSequences() {
+    return outErrorSeqs.size();
+  }
+
+  /**
+   * Generates and classifies sequences until a stopping criterion is met. Called by {@link
+   * #createAndClassifySequences()}, and by a {@link ParallelGenerator} on each of its workers.
+   */
+  @Override
+  void generateSequences() {
+    startTime = System.currentTimeMillis();
+
+    while (!shouldStop()) {
+
+      // Notify listeners we are about to perform a generation step.
+      if (listenerMgr != null) {
+        listenerMgr.generationStepPre();
+      }
+
+      num_steps++;
+
+      ExecutableSequence eSeq = step();
+
+      if (dump_sequences) {
+        Log.logPrintf("%nseq before run:%n%s%n", eSeq);
+      }
+
+      // Notify listeners we just completed generation step.
+      if (listenerMgr != null) {
+        listenerMgr.generationStepPost(eSeq);
+      }
+
+      if (GenInputsAbstract.progressintervalsteps > 0
+          && num_steps % GenInputsAbstract.progressintervalsteps == 0) {
+        displayProgress();
+      }
+
+      if (eSeq == null) {
+        null_steps++;
+        continue;
+      }
+
+      num_sequences_generated++;
+
+      boolean test;
+      try {
+        test = outputTest.test(eSeq);
+      } catch (Throwable t) {
+        System.out.printf(
+            "%nProblem with sequence:%n%s%n%s%n", eSeq, UtilPlume.stackTraceToString(t));
+        throw t;
+      }
+      if (!test) {
+        num_failed_output_test++;
+      } else if (compilableTest == null) {
+        classifyOutputSequence(eSeq);
+      } else {
+        pendingOutputSeqs.add(eSeq);
+        // Check the batch early if it may reach a stopping criterion, so that the generator
+        // stops at the same point as it would without batching.
+        if (pendingOutputSeqs.size() >= compilableBatchSize
+            || numOutputSequences() + pendingOutputSeqs.size() >= limits.output_limit
+            || (GenInputsAbstract.stop_on_error_test && eSeq.hasFailure())) {
+          classifyPendingSequences();
+        }
+      }
+
+      if (dump_sequences) {
+        Log.logPrintf("Sequence after execution:%n%s%n", eSeq);
+        Log.logPrintf("allSequences.size()=%s%n", numGeneratedSequences());
+        // componentManager.log();
+      }
+    }
+
+    classifyPendingSequences();
+  }
+
+  /**
+   * Adds a sequence that satisfies the output predicates to the output sequences of its kind.
+   *
+   * @param eSeq the sequence to classify
+   */
+  private void classifyOutputSequence(ExecutableSequence eSeq) {
+    if (eSeq.hasInvalidBehavior()) {
+      invalidSequenceCount++;
+    } else if (eSeq.hasFailure()) {
+      operationHistory.add(eSeq.getOperation(), OperationOutcome.ERROR_SEQUENCE);
+      num_failing_sequences++;
+      outErrorSeqs.add(eSeq);
+    } else {
+      outRegressionSeqs.add(eSeq);
+      newRegressionTestHook(eSeq.sequence);
+    }
+  }
+
+  /** Checks that the pending sequences are compilable, and classifies those that are. */
+  private void classifyPendingSequences() {
+    if (pendingOutputSeqs.isEmpty()) {
+      return;
+    }
+    boolean[] compilable = compilableTest.test(pendingOutputSeqs);
+    for (int i = 0; i < pendingOutputSeqs.size(); i++) {
+      if (compilable[i]) {
+        classifyOutputSequence(pendingOutputSeqs.get(i));
+      } else {
+        num_failed_output_test++;
+      }
+    }
+    pendingOutputSeqs.clear();
+  }
+
+  /**
+   * Attempt to generate a test (a sequence).
+   *
+   * @return a test sequence, may be null
+   */
   public ExecutableSequence step() {
 
     final int nanoPerMilli = 1000000;
@@ -194,12 +495,15 @@ public class ForwardGenerator extends AbstractGenerator {
 
     long startTime = System.nanoTime();
 
-    if (componentManager.numGeneratedSequences() % GenInputsAbstract.clear == 0) {
-      componentManager.clearGeneratedSequences();
+    if (componentManager.numNonSeedSequences() >= GenInputsAbstract.clear
+        || (UtilPlume.usedMemory(false) > GenInputsAbstract.clear_memory
+            && UtilPlume.usedMemory(true) > GenInputsAbstract.clear_memory)) {
+      componentManager.evictGeneratedSequences();
     }
-    if (UtilPlume.usedMemory(false) > GenInputsAbstract.clear_memory
-        && UtilPlume.usedMemory(true) > GenInputsAbstract.clear_memory) {
-      componentManager.clearGeneratedSequences();
+    if (exchange != null) {
+      for (Sequence sequence : exchange.takeNewSequences(workerIndex)) {
+        componentManager.addGeneratedSequence(sequence);
+      }
     }
 
     ExecutableSequence eSeq = createNewUniqueSequence();
@@ -214,7 +518,7 @@ public class ForwardGenerator extends AbstractGenerator {
     }
 
     if (GenInputsAbstract.dontexecute) {
-      this.componentManager.addGeneratedSequence(eSeq.sequence);
+      addGeneratedSequence(eSeq.sequence);
       long gentime = System.nanoTime() - startTime;
       if (gentime > timeWarningLimit) {
         System.out.printf("Long generation time %d msec for%n", gentime / nanoPerMilli);
@@ -230,6 +534,15 @@ public class ForwardGenerator extends AbstractGenerator {
     // Useful for debugging non-terminating sequences.
     // System.out.printf("step() is considering: %n%s%n%n", eSeq.sequence);
 
+    if (isolatedExecutor != null) {
+      IsolatedSequenceExecutor.Outcome outcome = isolatedExecutor.execute(eSeq.sequence);
+      if (!outcome.isSafe()) {
+        operationHistory.add(eSeq.getOperation(), OperationOutcome.SEQUENCE_DISCARDED);
+        Log.logPrintf("Sequence discarded: outcome %s in an execution process.%n", outcome);
+        return null;
+      }
+    }
+
     eSeq.execute(executionVisitor, checkGenerator);
 
     startTime = System.nanoTime(); // reset start time.
@@ -237,7 +550,8 @@ public class ForwardGenerator extends AbstractGenerator {
     determineActiveIndices(eSeq);
 
     if (eSeq.sequence.hasActiveFlags()) {
-      componentManager.addGeneratedSequence(eSeq.sequence);
+      addGeneratedSequence(eSeq.sequence);
+      componentManager.recordUseful(eSeq.componentSequences);
     }
 
     long gentime2 = System.nanoTime() - startTime;
@@ -276,6 +590,13 @@ public class ForwardGenerator extends AbstractGenerator {
    * created during execution of the sequence are new values not encountered before. Such values are
    * added to the component manager so they can be used during subsequent generation attempts.
    *
+   * <p>A non-primitive value that duplicates a value created by a previous sequence, according to
+   * {@link GenInputsAbstract#state_matching}, has its index marked as inactive.
+   *
+   * <p>If {@link GenInputsAbstract#field_coverage_statement_filtering} is set, a sequence that does
+   * not cover any field/value pair that was not covered by a previously generated sequence has all
+   * its indices marked as inactive, so it is never extended.
+   *
    * @param seq the sequence, all of whose indices are initially marked as active
    */
   private void determineActiveIndices(ExecutableSequence seq) {
@@ -377,14 +698,34 @@ public class ForwardGenerator extends AbstractGenerator {
         if (runtimeValue instanceof Float && Float.isNaN((float) runtimeValue)) {
           runtimeValue = Float.NaN; // canonicalize NaN value
         }
-        if (!looksLikeObjToString && !tooLongString && runtimePrimitivesSeen.add(runtimeValue)) {
+        if (!looksLikeObjToString
+            && !tooLongString
+            && runtimePrimitivesSeen.add(runtimeValue)
+            && (exchange == null || exchange.claimPrimitive(runtimeValue))) {
           // Have not seen this value before; add it to the component set.
-          componentManager.addGeneratedSequence(Sequence.createSequenceForPrimitive(runtimeValue));
+          addGeneratedSequence(Sequence.createSequenceForPrimitive(runtimeValue));
         }
+      } else if (objectCache != null) {
+        objectCache.setActiveFlags(seq, i);
       } else {
         Log.logPrintf("Making index " + i + " active.%n");
       }
     }
+
+    if (seq.hasFieldExtensions()) {
+      if (GenInputsAbstract.field_coverage_statement_filtering) {
+        int newPairs = FieldCoverage.getInstance().addGeneratedFieldExtensions(seq);
+        if (newPairs == 0) {
+          Log.logPrintf(
+              "Sequence covers no new field/value pairs: excluding from extension pool.%n");
+          seq.sequence.clearAllActiveFlags();
+          FieldCoverage.getInstance().sequenceFiltered();
+        }
+      } else {
+        // Nothing depends on the new pairs, so do not wait for the canonicalization pipeline.
+        FieldCoverage.getInstance().addGeneratedFieldExtensionsWhenReady(seq);
+      }
+    }
   }
 
   /**
@@ -422,7 +763,16 @@ public class ForwardGenerator extends AbstractGenerator {
 
     // Select the next operation to use in constructing a new sequence.
     TypedOperation operation = operationSelector.selectOperation();
+    for (int i = 0; isParked(operation); i++) {
+      parkedSelections++;
+      if (i == MAX_PARKED_SELECTIONS) {
+        Log.logPrintf("Only parked operations were selected%n");
+        return null;
+      }
+      operation = operationSelector.selectOperation();
+    }
     Log.logPrintf("Selected operation: %s%n", operation);
+    TypedOperation selectedOperation = operation;
 
     if (operation.isGeneric() || operation.hasWildcardTypes()) {
       try {
@@ -466,10 +816,20 @@ public class ForwardGenerator extends AbstractGenerator {
 
     if (!inputs.success) {
       operationHistory.add(operation, OperationOutcome.NO_INPUTS_FOUND);
-      Log.logPrintf("Failed to find inputs for operation: %s%n", operation);
+      Log.logPrintf("Failed to find inputs for operation: %s (%s)%n", operation, inputs.failure);
+      CollectionsPlume.incrementMap(inputSelectionFailures, inputs.failure);
+      // The inputs of an instantiated generic operation depend on its random instantiation, and
+      // those of arrays and collections on the random helper sequences.
+      if (selectedOperation == operation
+          && inputs.failure != InputsAndSuccessFlag.Failure.NO_HELPER_SEQUENCE) {
+        parkedOperations.put(operation, componentManager.typeVersion());
+        Log.logPrintf("Parked operation: %s%n", operation);
+      }
       return null;
     }
 
+    componentManager.recordUse(inputs.sequences);
+
     Sequence concatSeq = Sequence.concatenate(inputs.sequences);
 
     // Figure out input variables.
@@ -508,14 +868,21 @@ public class ForwardGenerator extends AbstractGenerator {
 
     randoopConsistencyTests(newSequence);
 
-    // Discard if sequence is a duplicate.
-    if (this.allSequences.contains(newSequence)) {
+    // Discard if sequence is a duplicate, possibly created by another worker.
+    boolean isNew =
+        generatedFingerprints == null
+            ? !this.allSequences.contains(newSequence)
+            : generatedFingerprints.add(
+                newSequence.fingerprintHigh(), newSequence.fingerprintLow());
+    if (!isNew || (exchange != null && !exchange.claim(newSequence))) {
       operationHistory.add(operation, OperationOutcome.SEQUENCE_DISCARDED);
       Log.logPrintf("Sequence discarded: the same sequence was previously created.%n");
       return null;
     }
 
-    this.allSequences.add(newSequence);
+    if (generatedFingerprints == null || GenInputsAbstract.debug_checks || Log.isLoggingOn()) {
+      this.allSequences.add(newSequence);
+    }
 
     randoopConsistencyTest2(newSequence);
 
@@ -740,6 +1107,8 @@ public class ForwardGenerator extends AbstractGenerator {
       // immediately below) that create one or more values of the appropriate type,
       // randomly selecting a single sequence from this list, and appending it to S.
       SimpleList<Sequence> candidates;
+      // True if the candidates include sequences built by HelperSequenceCreator, which are random.
+      boolean usedHelper = true;
 
       // We use one of two ways to gather candidate sequences, but the second
       // case below is by far the most common.
@@ -778,6 +1147,7 @@ public class ForwardGenerator extends AbstractGenerator {
         // yield the required type.
         Log.logPrintf("Will query component set for objects of type %s%n", inputType);
         candidates = componentManager.getSequencesForType(operation, i, isReceiver);
+        usedHelper = false;
       }
       assert candidates != null;
       Log.logPrintf("number of candidate components: %s%n", candidates.size());
@@ -787,12 +1157,18 @@ public class ForwardGenerator extends AbstractGenerator {
         // Try to use null if allowed.
         if (isReceiver) {
           Log.logPrintf("No sequences of receiver type.%n");
-          return new InputsAndSuccessFlag(false, null, null);
+          return new InputsAndSuccessFlag(
+              usedHelper
+                  ? InputsAndSuccessFlag.Failure.NO_HELPER_SEQUENCE
+                  : InputsAndSuccessFlag.Failure.NO_RECEIVER);
         } else if (GenInputsAbstract.forbid_null) {
           Log.logPrintf(
               "No sequences of type, and forbid-null option is true. Failed to create new"
                   + " sequence.%n");
-          return new InputsAndSuccessFlag(false, null, null);
+          return new InputsAndSuccessFlag(
+              usedHelper
+                  ? InputsAndSuccessFlag.Failure.NO_HELPER_SEQUENCE
+                  : InputsAndSuccessFlag.Failure.NO_ARGUMENT);
         } else {
           Log.logPrintf(
               "Found no sequences of required type; will use null as " + i + "-th input%n");
@@ -837,6 +1213,25 @@ public class ForwardGenerator extends AbstractGenerator {
     return new InputsAndSuccessFlag(true, sequences, variables);
   }
 
+  /**
+   * Returns true if the given operation is parked. An operation is unparked once the components
+   * have values of a new type, since it may then get inputs.
+   *
+   * @param operation an operation
+   * @return true if no inputs can be found for {@code operation}
+   */
+  private boolean isParked(TypedOperation operation) {
+    Long typeVersion = parkedOperations.get(operation);
+    if (typeVersion == null) {
+      return false;
+    }
+    if (typeVersion != componentManager.typeVersion()) {
+      parkedOperations.remove(operation);
+      return false;
+    }
+    return true;
+  }
+
   // A pair of a variable and a sequence
   private static class VarAndSeq {
     final Variable var;
@@ -932,7 +1327,7 @@ public class ForwardGenerator extends AbstractGenerator {
 
   @Override
   public int numGeneratedSequences() {
-    return allSequences.size();
+    return generatedFingerprints == null ? allSequences.size() : generatedFingerprints.size();
   }
 
   @Override
@@ -947,7 +1342,7 @@ public class ForwardGenerator extends AbstractGenerator {
                 "num_sequences_generated: " + num_sequences_generated),
             String.join(
                 ", ",
-                "allSequences: " + allSequences.size(),
+                "allSequences: " + numGeneratedSequences(),
                 "regresson seqs: " + outRegressionSeqs.size(),
                 "error seqs: "
                     + outErrorSeqs.size()
@@ -958,6 +1353,11 @@ public class ForwardGenerator extends AbstractGenerator {
                 "invalid seqs: " + invalidSequenceCount,
                 "subsumed_sequences: " + subsumed_sequences.size(),
                 "num_failed_output_test: " + num_failed_output_test),
+            String.join(
+                ", ",
+                "input selection failures: " + inputSelectionFailures,
+                "parked operations: " + parkedOperations.size(),
+                "parked selections: " + parkedSelections),
             String.join(
                 "sideEffectFreeMethods:" + sideEffectFreeMethods.size(),
                 "runtimePrimitivesSeen:" + runtimePrimitivesSeen.size()))
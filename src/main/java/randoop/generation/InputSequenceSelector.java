@@ -12,4 +12,10 @@ public interface InputSequenceSelector {
    * @return the chosen sequence
    */
   Sequence selectInputSequence(SimpleList<Sequence> candidates);
+
+  /**
+   * Discards any state kept about earlier candidates. Called when the component manager removes
+   * generated sequences, which are no longer candidates.
+   */
+  default void reset() {}
 }
@@ -11,6 +11,19 @@ import randoop.sequence.Sequence;
  */
 class InputsAndSuccessFlag {
 
+  /** The reasons why inputs could not be selected. */
+  enum Failure {
+    /** No component sequence creates a value of the receiver type. */
+    NO_RECEIVER,
+    /** No component sequence creates a value of an argument type, and null is forbidden. */
+    NO_ARGUMENT,
+    /**
+     * No component sequence creates a value of an array or collection type, and none could be built
+     * by {@link HelperSequenceCreator}.
+     */
+    NO_HELPER_SEQUENCE
+  }
+
   /**
    * True if private method {@code ForwardGenerator.selectInputs(TypedOperation operation)} was able
    * to find component sequences for all the input types required by the given statement.
@@ -26,9 +39,22 @@ class InputsAndSuccessFlag {
    */
   public List<Integer> indices;
 
+  /** Why the inputs could not be selected, or null if {@link #success} is true. */
+  public Failure failure;
+
   public InputsAndSuccessFlag(boolean success, List<Sequence> sequences, List<Integer> vars) {
     this.success = success;
     this.sequences = sequences;
     this.indices = vars;
   }
+
+  /**
+   * Creates an unsuccessful result.
+   *
+   * @param failure why the inputs could not be selected
+   */
+  public InputsAndSuccessFlag(Failure failure) {
+    this(false, null, null);
+    this.failure = failure;
+  }
 }
@@ -14,6 +14,8 @@ import randoop.operation.TypedOperation;
 /**
  * The working implementation of a {@link OperationHistoryLogInterface} that will collect and print
  * the operation history log to the {@code PrintWriter} given when constructed.
+ *
+ * <p>The workers of a {@link ParallelGenerator} share one logger, so its methods are synchronized.
  */
 public class OperationHistoryLogger implements OperationHistoryLogInterface {
 
@@ -34,7 +36,7 @@ public class OperationHistoryLogger implements OperationHistoryLogInterface {
   }
 
   @Override
-  public void add(TypedOperation operation, OperationOutcome outcome) {
+  public synchronized void add(TypedOperation operation, OperationOutcome outcome) {
     Map<OperationOutcome, Integer> outcomeMap = operationMap.get(operation);
     int count = 0;
     if (outcomeMap == null) {
@@ -51,7 +53,7 @@ public class OperationHistoryLogger implements OperationHistoryLogInterface {
   }
 
   @Override
-  public void outputTable() {
+  public synchronized void outputTable() {
     writer.format("%nOperation History:%n");
     int maxNameLength = 0;
     for (TypedOperation operation : operationMap.keySet()) {
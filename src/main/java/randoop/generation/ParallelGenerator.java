@@ -0,0 +1,365 @@
+package randoop.generation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import randoop.ExecutionVisitor;
+import randoop.Globals;
+import randoop.execution.IsolatedSequenceExecutor;
+import randoop.main.GenInputsAbstract;
+import randoop.main.RandoopBug;
+import randoop.operation.TypedOperation;
+import randoop.sequence.ExecutableSequence;
+import randoop.sequence.Sequence;
+import randoop.test.CompilableTestPredicate;
+import randoop.test.TestCheckGenerator;
+import randoop.types.ClassOrInterfaceType;
+import randoop.util.Randomness;
+
+/**
+ * A generator that runs several {@link ForwardGenerator}s, its workers, each in its own thread.
+ *
+ * <p>Each worker has its own component manager, its own stream of random choices, and its share of
+ * the attempted, generated and output limits; every worker runs until the time limit. The workers
+ * share the sequences that they add to their component managers through a {@link SequenceExchange},
+ * which also prevents two workers from generating the same sequence.
+ *
+ * <p>When all the workers have stopped, their regression and error-revealing sequences are merged,
+ * in the order of the workers. Since the workers interleave nondeterministically, the generated
+ * tests differ from run to run when there is more than one worker.
+ */
+public class ParallelGenerator extends AbstractGenerator {
+
+  /** How often the counters of this generator are updated from its workers, in milliseconds. */
+  private static final long POLL_MILLIS = 100;
+
+  /**
+   * Added to the random seed of each worker to obtain the seed of the next one. Worker 0 uses the
+   * random seed itself.
+   */
+  private static final long SEED_INCREMENT = 0x9E3779B97F4A7C15L;
+
+  /** The generators that run in parallel. */
+  private final List<ForwardGenerator> workers;
+
+  /** The state shared by the workers. */
+  private final SequenceExchange exchange;
+
+  /**
+   * Set to stop all the workers, when one of them fails or, with {@link
+   * GenInputsAbstract#stop_on_error_test}, generates an error-revealing test.
+   */
+  private volatile boolean stopWorkers = false;
+
+  /** The first exception thrown by a worker, or null. Guarded by {@code this}. */
+  private Throwable workerFailure = null;
+
+  /**
+   * Create a parallel generator.
+   *
+   * @param numWorkers the number of generators to run in parallel
+   * @param operations list of operations under test
+   * @param sideEffectFreeMethods side-effect-free methods
+   * @param limits limits for generation, after which the generator will stop
+   * @param componentManagers creates the component manager of each worker, with the same initial
+   *     components
+   * @param stopper optional, additional stopping criterion for the generator. Can be null.
+   * @param listenerManager manages notifications for listeners
+   * @param classesUnderTest set of classes under test
+   */
+  public ParallelGenerator(
+      int numWorkers,
+      List<TypedOperation> operations,
+      Set<TypedOperation> sideEffectFreeMethods,
+      GenInputsAbstract.Limits limits,
+      Supplier<ComponentManager> componentManagers,
+      IStopper stopper,
+      RandoopListenerManager listenerManager,
+      Set<ClassOrInterfaceType> classesUnderTest) {
+    super(operations, limits, null, listenerManager);
+    if (numWorkers <= 0) {
+      throw new IllegalArgumentException("numWorkers must be positive: " + numWorkers);
+    }
+
+    this.exchange = new SequenceExchange(numWorkers);
+    IStopper workerStopper = () -> stopWorkers || (stopper != null && stopper.shouldStop());
+    this.workers = new ArrayList<>(numWorkers);
+    for (int i = 0; i < numWorkers; i++) {
+      ForwardGenerator worker =
+          new ForwardGenerator(
+              // Each worker removes the parameterless operations that it has called.
+              new ArrayList<>(operations),
+              sideEffectFreeMethods,
+              workerLimits(limits, i, numWorkers),
+              componentManagers.get(),
+              workerStopper,
+              listenerManager,
+              classesUnderTest);
+      worker.setSequenceExchange(exchange, i);
+      workers.add(worker);
+    }
+    // The component managers of the workers contain about the same sequences.
+    this.componentManager = workers.get(0).componentManager;
+  }
+
+  /**
+   * Returns the limits of a worker: its share of the attempted, generated, and output limits, and
+   * the whole time limit.
+   *
+   * @param limits the limits of all the workers together
+   * @param worker the index of the worker
+   * @param numWorkers the number of workers
+   * @return the limits of {@code worker}
+   */
+  private static GenInputsAbstract.Limits workerLimits(
+      GenInputsAbstract.Limits limits, int worker, int numWorkers) {
+    GenInputsAbstract.Limits result =
+        new GenInputsAbstract.Limits(
+            0,
+            share(limits.attempted_limit, worker, numWorkers),
+            share(limits.generated_limit, worker, numWorkers),
+            share(limits.output_limit, worker, numWorkers));
+    result.time_limit_millis = limits.time_limit_millis;
+    return result;
+  }
+
+  /**
+   * Returns the share of a limit that a worker gets. The shares of all the workers add up to the
+   * limit.
+   *
+   * @param limit the limit of all the workers together
+   * @param worker the index of the worker
+   * @param numWorkers the number of workers
+   * @return the share of {@code limit} of {@code worker}
+   */
+  private static int share(int limit, int worker, int numWorkers) {
+    return limit / numWorkers + (worker < limit % numWorkers ? 1 : 0);
+  }
+
+  /**
+   * Returns the generators that run in parallel.
+   *
+   * @return the workers of this generator
+   */
+  public List<ForwardGenerator> getWorkers() {
+    return Collections.unmodifiableList(workers);
+  }
+
+  @Override
+  public void setTestPredicate(Predicate<ExecutableSequence> outputTest) {
+    super.setTestPredicate(outputTest);
+    for (ForwardGenerator worker : workers) {
+      worker.setTestPredicate(outputTest);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Each worker gets its own predicate.
+   */
+  @Override
+  public void setCompilableTestPredicate(
+      Supplier<CompilableTestPredicate> compilableTests, int batchSize) {
+    for (ForwardGenerator worker : workers) {
+      worker.setCompilableTestPredicate(compilableTests, batchSize);
+    }
+  }
+
+  @Override
+  public void setExecutionVisitor(ExecutionVisitor executionVisitor) {
+    super.setExecutionVisitor(executionVisitor);
+    for (ForwardGenerator worker : workers) {
+      worker.setExecutionVisitor(executionVisitor);
+    }
+  }
+
+  @Override
+  public void setExecutionVisitor(List<ExecutionVisitor> visitors) {
+    super.setExecutionVisitor(visitors);
+    for (ForwardGenerator worker : workers) {
+      worker.setExecutionVisitor(visitors);
+    }
+  }
+
+  @Override
+  public void setIsolatedExecutor(IsolatedSequenceExecutor isolatedExecutor) {
+    super.setIsolatedExecutor(isolatedExecutor);
+    for (ForwardGenerator worker : workers) {
+      worker.setIsolatedExecutor(isolatedExecutor);
+    }
+  }
+
+  @Override
+  public void setTestCheckGenerator(TestCheckGenerator checkGenerator) {
+    super.setTestCheckGenerator(checkGenerator);
+    for (ForwardGenerator worker : workers) {
+      worker.setTestCheckGenerator(checkGenerator);
+    }
+  }
+
+  @Override
+  public void setOperationHistoryLogger(OperationHistoryLogInterface logger) {
+    super.setOperationHistoryLogger(logger);
+    for (ForwardGenerator worker : workers) {
+      worker.setOperationHistoryLogger(logger);
+    }
+  }
+
+  /**
+   * Runs the workers until each of them meets a stopping criterion, then merges their results into
+   * this generator.
+   */
+  @Override
+  void generateSequences() {
+    List<Thread> threads = new ArrayList<>(workers.size());
+    for (int i = 0; i < workers.size(); i++) {
+      ForwardGenerator worker = workers.get(i);
+      long seed = GenInputsAbstract.randomseed + i * SEED_INCREMENT;
+      Thread thread = new Thread(() -> runWorker(worker, seed), "randoop-generator-" + i);
+      thread.setDaemon(true);
+      threads.add(thread);
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+
+    int displayedSteps = 0;
+    for (Thread thread : threads) {
+      while (thread.isAlive()) {
+        try {
+          thread.join(POLL_MILLIS);
+        } catch (InterruptedException e) {
+          stopWorkers = true;
+          Thread.currentThread().interrupt();
+          throw new RandoopBug("Interrupted while waiting for the generator threads", e);
+        }
+        // The counters of running workers are read without synchronization, so they are only
+        // approximate, but good enough to show progress.
+        updateCounters();
+        if (GenInputsAbstract.progressintervalsteps > 0
+            && num_steps / GenInputsAbstract.progressintervalsteps
+                > displayedSteps / GenInputsAbstract.progressintervalsteps) {
+          displayProgress();
+          displayedSteps = num_steps;
+        }
+      }
+    }
+
+    synchronized (this) {
+      if (workerFailure instanceof RuntimeException) {
+        throw (RuntimeException) workerFailure;
+      } else if (workerFailure instanceof Error) {
+        throw (Error) workerFailure;
+      } else if (workerFailure != null) {
+        throw new RandoopBug("Generator thread failed", workerFailure);
+      }
+    }
+
+    updateCounters();
+    outRegressionSeqs = new ArrayList<>();
+    outErrorSeqs = new ArrayList<>();
+    for (ForwardGenerator worker : workers) {
+      outRegressionSeqs.addAll(worker.outRegressionSeqs);
+      outErrorSeqs.addAll(worker.outErrorSeqs);
+    }
+  }
+
+  /**
+   * Runs a worker, with its own stream of random choices.
+   *
+   * @param worker the worker to run
+   * @param seed the seed of the random choices of the worker
+   */
+  private void runWorker(ForwardGenerator worker, long seed) {
+    Randomness.setThreadSeed(seed);
+    try {
+      worker.generateSequences();
+      if (GenInputsAbstract.stop_on_error_test && !worker.outErrorSeqs.isEmpty()) {
+        stopWorkers = true;
+      }
+    } catch (Throwable t) {
+      stopWorkers = true;
+      synchronized (this) {
+        if (workerFailure == null) {
+          workerFailure = t;
+        }
+      }
+    } finally {
+      Randomness.clearThreadSeed();
+    }
+  }
+
+  /** Sets the counters of this generator to the sums of the counters of the workers. */
+  private void updateCounters() {
+    int steps = 0;
+    int nullSteps = 0;
+    int sequencesGenerated = 0;
+    int failingSequences = 0;
+    int invalidSequences = 0;
+    int failedOutputTest = 0;
+    for (ForwardGenerator worker : workers) {
+      steps += worker.num_steps;
+      nullSteps += worker.null_steps;
+      sequencesGenerated += worker.num_sequences_generated;
+      failingSequences += worker.num_failing_sequences;
+      invalidSequences += worker.invalidSequenceCount;
+      failedOutputTest += worker.num_failed_output_test;
+    }
+    num_steps = steps;
+    null_steps = nullSteps;
+    num_sequences_generated = sequencesGenerated;
+    num_failing_sequences = failingSequences;
+    invalidSequenceCount = invalidSequences;
+    num_failed_output_test = failedOutputTest;
+  }
+
+  @Override
+  public int numGeneratedSequences() {
+    return exchange.numSequences();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The sequences generated by each worker, in the order of the workers.
+   */
+  @Override
+  public LinkedHashSet<Sequence> getAllSequences() {
+    LinkedHashSet<Sequence> result = new LinkedHashSet<>();
+    for (ForwardGenerator worker : workers) {
+      result.addAll(worker.getAllSequences());
+    }
+    return result;
+  }
+
+  @Override
+  public void newRegressionTestHook(Sequence sequence) {
+    // The workers notify their operation selectors.
+  }
+
+  @Override
+  public String toString() {
+    return "ParallelGenerator("
+        + String.join(
+            ";" + Globals.lineSep + "    ",
+            String.join(
+                ", ",
+                "workers: " + workers.size(),
+                "steps: " + num_steps,
+                "null steps: " + null_steps,
+                "num_sequences_generated: " + num_sequences_generated),
+            String.join(
+                ", ",
+                "allSequences: " + numGeneratedSequences(),
+                "regresson seqs: " + outRegressionSeqs.size(),
+                "error seqs: " + outErrorSeqs.size(),
+                "invalid seqs: " + invalidSequenceCount,
+                "num_failed_output_test: " + num_failed_output_test))
+        + ")";
+  }
+}
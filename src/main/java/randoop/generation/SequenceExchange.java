@@ -0,0 +1,143 @@
+package randoop.generation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import randoop.sequence.Sequence;
+import randoop.util.FingerprintFilter;
+
+/**
+ * The state shared by the workers of a {@link ParallelGenerator}.
+ *
+ * <p>Each worker keeps its own component manager, and publishes here every sequence that it adds to
+ * it. Before each step, a worker adds to its component manager the sequences published by the other
+ * workers since its previous step. The exchange also records the fingerprint of every sequence
+ * created by any worker, so that no two workers execute the same sequence, and every primitive
+ * value added as a component, so that its sequence is added only once.
+ */
+final class SequenceExchange {
+
+  /** Once every worker has taken this many sequences, they are removed from {@link #published}. */
+  private static final int MIN_DISCARDED = 1024;
+
+  /** The fingerprints of the sequences created by any worker. Guarded by itself. */
+  private final FingerprintFilter allSequences = ForwardGenerator.newSequenceFilter();
+
+  /** Every primitive value whose sequence was added to the components by any worker. */
+  private final Set<Object> primitiveValues = ConcurrentHashMap.newKeySet();
+
+  /**
+   * The sequences that were published and that some worker has not taken yet, in the order they
+   * were published. Guarded by {@code this}.
+   */
+  private final List<Sequence> published = new ArrayList<>();
+
+  /** The worker that published each element of {@link #published}. Guarded by {@code this}. */
+  private final List<Integer> publishers = new ArrayList<>();
+
+  /**
+   * For each worker, the index in {@link #published} of the first sequence it has not taken yet.
+   * Guarded by {@code this}.
+   */
+  private final int[] cursors;
+
+  /**
+   * Creates the state shared by the given number of workers.
+   *
+   * @param numWorkers the number of workers
+   */
+  SequenceExchange(int numWorkers) {
+    if (numWorkers <= 0) {
+      throw new IllegalArgumentException("numWorkers must be positive: " + numWorkers);
+    }
+    this.cursors = new int[numWorkers];
+  }
+
+  /**
+   * Records that a worker created the given sequence.
+   *
+   * @param sequence a sequence that was just created
+   * @return true if no worker created the sequence before
+   */
+  boolean claim(Sequence sequence) {
+    synchronized (allSequences) {
+      return allSequences.add(sequence.fingerprintHigh(), sequence.fingerprintLow());
+    }
+  }
+
+  /**
+   * Records that a worker is about to add a sequence for the given primitive value to the
+   * components.
+   *
+   * @param value a primitive wrapper or a String
+   * @return true if no worker added a sequence for the value before
+   */
+  boolean claimPrimitive(Object value) {
+    return primitiveValues.add(value);
+  }
+
+  /**
+   * Publishes a sequence that a worker added to its component manager.
+   *
+   * @param worker the index of the worker
+   * @param sequence the sequence that the worker added
+   */
+  synchronized void publish(int worker, Sequence sequence) {
+    published.add(sequence);
+    publishers.add(worker);
+  }
+
+  /**
+   * Returns the sequences published by other workers since the previous call by the given worker.
+   *
+   * @param worker the index of the worker
+   * @return the sequences published by the other workers that {@code worker} has not taken yet
+   */
+  List<Sequence> takeNewSequences(int worker) {
+    List<Sequence> result;
+    synchronized (this) {
+      int size = published.size();
+      if (cursors[worker] == size) {
+        return Collections.emptyList();
+      }
+      result = new ArrayList<>(size - cursors[worker]);
+      for (int i = cursors[worker]; i < size; i++) {
+        if (publishers.get(i) != worker) {
+          result.add(published.get(i));
+        }
+      }
+      cursors[worker] = size;
+      discardTakenSequences();
+    }
+    return result;
+  }
+
+  /** Removes from {@link #published} the sequences that every worker has taken. */
+  private void discardTakenSequences() {
+    int taken = Integer.MAX_VALUE;
+    for (int cursor : cursors) {
+      taken = Math.min(taken, cursor);
+    }
+    if (taken < MIN_DISCARDED || taken < published.size() / 2) {
+      return;
+    }
+    published.subList(0, taken).clear();
+    publishers.subList(0, taken).clear();
+    for (int i = 0; i < cursors.length; i++) {
+      cursors[i] -= taken;
+    }
+  }
+
+  /**
+   * Returns the number of sequences created by all the workers.
+   *
+   * @return the number of distinct sequences claimed by any worker
+   */
+  int numSequences() {
+    synchronized (allSequences) {
+      return allSequences.size();
+    }
+  }
+}
@@ -1,19 +1,51 @@
 package randoop.generation;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import randoop.sequence.Sequence;
+import randoop.util.ListOfLists;
 import randoop.util.Randomness;
+import randoop.util.SimpleArrayList;
 import randoop.util.SimpleList;
+import randoop.util.WeightedSampler;
 
 /**
  * Select input sequences, favoring shorter sequences. This makes Randoop produce smaller JUnit
  * tests.
+ *
+ * <p>The weight of a sequence is the inverse of its size. The candidates are usually a list that
+ * the component manager keeps for each queried type, possibly in a {@link ListOfLists} with
+ * literals; these lists only grow. The weights of the elements of each such list are kept in a
+ * {@link WeightedSampler}, which is extended with the elements appended since the last selection,
+ * so a selection takes time proportional to the number of lists plus the logarithm of their size,
+ * rather than to the number of candidates.
  */
 public class SmallTestsSequenceSelection implements InputSequenceSelector {
 
-  /** Map from a sequence to its weight. */
-  private final Map<Sequence, Double> weightMap = new HashMap<>();
+  /** The weights of lists with fewer elements are computed on every selection. */
+  private static final int MIN_CACHED_SIZE = 16;
+
+  /**
+   * The maximum number of lists whose weights are cached. The cache is emptied by {@link #reset}
+   * when the component manager removes sequences, so it does not keep them alive.
+   */
+  private static final int MAX_CACHED_LISTS = 1024;
+
+  /** Map from a list of candidates to the weights of its elements, least recently used first. */
+  private final Map<IdentityKey, WeightedSampler<Sequence>> samplers =
+      new LinkedHashMap<IdentityKey, WeightedSampler<Sequence>>(16, 0.75f, true) {
+        private static final long serialVersionUID = 20240601L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<IdentityKey, WeightedSampler<Sequence>> e) {
+          return size() > MAX_CACHED_LISTS;
+        }
+      };
+
+  @Override
+  public void reset() {
+    samplers.clear();
+  }
 
   /**
    * Pick a sequence from the candidate list using a weighting that favors shorter sequences.
@@ -23,28 +55,130 @@ public class SmallTestsSequenceSelection implements InputSequenceSelector {
    */
   @Override
   public Sequence selectInputSequence(SimpleList<Sequence> candidates) {
-    double totalWeight = updateWeightMapForCandidates(candidates);
-    return Randomness.randomMemberWeighted(candidates, weightMap, totalWeight);
+    if (candidates.isEmpty()) {
+      throw new IllegalArgumentException("Empty list");
+    }
+    double totalWeight = totalWeight(candidates);
+    return select(candidates, Randomness.randomWeightedPoint(totalWeight));
   }
 
   /**
-   * Update the weight for any sequence not currently in the map, and compute the total weight.
+   * Returns the weight of a sequence.
    *
-   * @param candidates the elements to compute a weight for
+   * @param sequence a candidate sequence
+   * @return the weight of {@code sequence}
+   */
+  private static double weight(Sequence sequence) {
+    return 1 / (double) sequence.size();
+  }
+
+  /**
+   * Computes the total weight of a list of candidates, updating the cached weights of its sublists.
+   *
+   * @param candidates the elements to compute the total weight of
    * @return the total weight of all the candidates
    */
-  private double updateWeightMapForCandidates(SimpleList<Sequence> candidates) {
+  private double totalWeight(SimpleList<Sequence> candidates) {
+    if (candidates instanceof ListOfLists) {
+      double totalWeight = 0;
+      for (SimpleList<Sequence> list : ((ListOfLists<Sequence>) candidates).lists) {
+        totalWeight += totalWeight(list);
+      }
+      return totalWeight;
+    }
+    WeightedSampler<Sequence> sampler = sampler(candidates);
+    if (sampler != null) {
+      return sampler.totalWeight();
+    }
+    double totalWeight = 0;
+    for (int i = 0; i < candidates.size(); i++) {
+      totalWeight += weight(candidates.get(i));
+    }
+    return totalWeight;
+  }
 
-    double totalWeight = 0.0;
+  /**
+   * Returns the candidate that corresponds to the given point, that is, the first candidate for
+   * which the total weight of the candidates up to and including it is greater than {@code point}.
+   *
+   * @param candidates the elements to select from; {@link #totalWeight} must have been called on
+   *     them
+   * @param point a point in [0, totalWeight(candidates))
+   * @return the selected candidate
+   */
+  private Sequence select(SimpleList<Sequence> candidates, double point) {
+    if (candidates instanceof ListOfLists) {
+      SimpleList<Sequence> lastNonEmpty = null;
+      for (SimpleList<Sequence> list : ((ListOfLists<Sequence>) candidates).lists) {
+        if (list.isEmpty()) {
+          continue;
+        }
+        double weight = totalWeight(list);
+        if (point < weight) {
+          return select(list, point);
+        }
+        point -= weight;
+        lastNonEmpty = list;
+      }
+      // Only reached because of rounding error.
+      assert lastNonEmpty != null;
+      return select(lastNonEmpty, totalWeight(lastNonEmpty));
+    }
+    WeightedSampler<Sequence> sampler = sampler(candidates);
+    if (sampler != null) {
+      return sampler.get(sampler.indexAt(point));
+    }
+    double currentPoint = 0;
     for (int i = 0; i < candidates.size(); i++) {
-      Sequence candidate = candidates.get(i);
-      Double weight = weightMap.get(candidate);
-      if (weight == null) {
-        weight = 1 / (double) candidate.size();
+      currentPoint += weight(candidates.get(i));
+      if (currentPoint > point) {
+        return candidates.get(i);
       }
-      totalWeight += weight;
-      weightMap.put(candidate, weight);
     }
-    return totalWeight;
+    return candidates.get(candidates.size() - 1);
+  }
+
+  /**
+   * Returns the cached weights of a list of candidates, after adding the weights of the elements
+   * appended to it since the last call.
+   *
+   * @param candidates a list of candidates
+   * @return the weights of the elements of {@code candidates}, or null if they are not cached
+   */
+  private WeightedSampler<Sequence> sampler(SimpleList<Sequence> candidates) {
+    if (!(candidates instanceof SimpleArrayList) || candidates.size() < MIN_CACHED_SIZE) {
+      return null;
+    }
+    IdentityKey key = new IdentityKey(candidates);
+    WeightedSampler<Sequence> sampler = samplers.get(key);
+    if (sampler == null || sampler.size() > candidates.size()) {
+      // New, or not only appended to since it was cached.
+      sampler = new WeightedSampler<>(candidates.size());
+      samplers.put(key, sampler);
+    }
+    for (int i = sampler.size(); i < candidates.size(); i++) {
+      Sequence candidate = candidates.get(i);
+      sampler.add(candidate, weight(candidate));
+    }
+    return sampler;
+  }
+
+  /** Wraps an object, so that it is compared by identity. */
+  private static final class IdentityKey {
+    private final Object object;
+
+    IdentityKey(Object object) {
+      this.object = object;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof IdentityKey && ((IdentityKey) other).object == object;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(object);
+    }
   }
 }
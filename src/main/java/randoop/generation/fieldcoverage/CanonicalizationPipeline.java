@@ -0,0 +1,206 @@
+package randoop.generation.fieldcoverage;
+
+import canonicalizer.CanonicalizerConfig;
+import canonicalizer.ObjectCanonicalizer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import randoop.generation.fieldcoverage.store.CompactFieldExtensions;
+import randoop.generation.fieldcoverage.store.FieldExtensionsDictionary;
+import representations.FieldExtensions;
+
+/**
+ * Class {@code CanonicalizationPipeline} canonicalizes objects on worker threads, so that the heavy
+ * {@link ObjectCanonicalizer} work does not delay the execution of sequences.
+ *
+ * <p>Requests wait in a bounded queue. When the queue is full, {@link #submit(List)} blocks until a
+ * worker takes a request (backpressure), so that pending objects cannot use unbounded memory.
+ * {@link #flush()} waits until every submitted request is processed.
+ */
+public class CanonicalizationPipeline {
+
+  private final CanonicalizerConfig config;
+  private final FieldExtensionsDictionary dictionary;
+  private final ThreadPoolExecutor executor;
+
+  /** One permit per request that can be queued or in progress. */
+  private final Semaphore capacity;
+
+  /** Each worker reuses its own canonicalizer. */
+  private final ThreadLocal<ObjectCanonicalizer> canonicalizers;
+
+  /** The number of requests submitted and not yet processed. */
+  private final AtomicInteger pending = new AtomicInteger();
+
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder traversals = new LongAdder();
+  private final LongAdder lagNanos = new LongAdder();
+  private final LongAdder backpressureWaits = new LongAdder();
+
+  /** The lag of the last processed request, in nanoseconds. */
+  private volatile long lastLagNanos = 0;
+
+  /**
+   * Creates a pipeline and starts its workers.
+   *
+   * @param config the configuration of the canonicalizers
+   * @param dictionary the dictionary of the field extensions produced by the pipeline
+   * @param workers the number of worker threads
+   * @param queueSize how many requests can wait to be processed before {@link #submit(List)} blocks
+   */
+  CanonicalizationPipeline(
+      CanonicalizerConfig config,
+      FieldExtensionsDictionary dictionary,
+      int workers,
+      int queueSize) {
+    this.config = config;
+    this.dictionary = dictionary;
+    this.capacity = new Semaphore((int) Math.min(Integer.MAX_VALUE, (long) queueSize + workers));
+    this.canonicalizers = ThreadLocal.withInitial(() -> new ObjectCanonicalizer(this.config));
+    AtomicInteger threadCount = new AtomicInteger();
+    ExecutorService executorService =
+        Executors.newFixedThreadPool(
+            workers,
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "CanonicalizationWorker-" + threadCount.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.executor = (ThreadPoolExecutor) executorService;
+  }
+
+  /**
+   * Queues objects to be canonicalized, blocking while the queue is full.
+   *
+   * @param objects the objects to canonicalize; they must not change until they are canonicalized
+   * @return the field/value tuples of all the objects, once they are canonicalized. Actions that
+   *     depend on the result complete before {@link #flush()} returns, if they are added before the
+   *     result is available
+   */
+  public CompletableFuture<CompactFieldExtensions> submit(List<Object> objects) {
+    if (!capacity.tryAcquire()) {
+      backpressureWaits.increment();
+      capacity.acquireUninterruptibly();
+    }
+    pending.incrementAndGet();
+    requests.increment();
+    long submitted = System.nanoTime();
+    CompletableFuture<CompactFieldExtensions> result = new CompletableFuture<>();
+    try {
+      executor.execute(
+          () -> {
+            try {
+              result.complete(canonicalize(objects, submitted));
+            } catch (Throwable e) {
+              result.completeExceptionally(e);
+            } finally {
+              // After completing the result, so that dependent actions finish before flush()
+              // returns.
+              done();
+            }
+          });
+    } catch (RuntimeException e) {
+      done();
+      throw e;
+    }
+    return result;
+  }
+
+  private CompactFieldExtensions canonicalize(List<Object> objects, long submitted) {
+    ObjectCanonicalizer canonicalizer = canonicalizers.get();
+    CompactFieldExtensions result = new CompactFieldExtensions(dictionary);
+    for (Object object : objects) {
+      canonicalizer.canonicalize(object);
+      result.addAll((FieldExtensions) canonicalizer.getObjectRepresentation());
+    }
+    traversals.add(objects.size());
+    long lag = System.nanoTime() - submitted;
+    lagNanos.add(lag);
+    lastLagNanos = lag;
+    return result;
+  }
+
+  private void done() {
+    capacity.release();
+    if (pending.decrementAndGet() == 0) {
+      synchronized (pending) {
+        pending.notifyAll();
+      }
+    }
+  }
+
+  /** Waits until every submitted request is processed. */
+  public void flush() {
+    synchronized (pending) {
+      while (pending.get() > 0) {
+        try {
+          pending.wait();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new RuntimeException("Interrupted while flushing the canonicalization pipeline", e);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the number of requests waiting for a worker.
+   *
+   * @return the number of queued requests
+   */
+  public int queueDepth() {
+    return executor.getQueue().size();
+  }
+
+  /**
+   * Returns the time between the submission and the end of the last processed request.
+   *
+   * @return the lag of the last request, in milliseconds
+   */
+  public double lastLagMillis() {
+    return lastLagNanos / 1_000_000.0;
+  }
+
+  /**
+   * Returns the average time between the submission and the end of a request.
+   *
+   * @return the average lag, in milliseconds
+   */
+  public double averageLagMillis() {
+    long count = requests.sum() - pending.get();
+    return count <= 0 ? 0 : lagNanos.sum() / 1_000_000.0 / count;
+  }
+
+  /**
+   * Returns how many requests were submitted.
+   *
+   * @return the number of submitted requests
+   */
+  public long requests() {
+    return requests.sum();
+  }
+
+  /**
+   * Returns how many objects were canonicalized by the workers.
+   *
+   * @return the number of traversals performed by the workers
+   */
+  public long traversals() {
+    return traversals.sum();
+  }
+
+  /**
+   * Returns how many times {@link #submit(List)} had to wait because the queue was full.
+   *
+   * @return the number of submissions delayed by backpressure
+   */
+  public long backpressureWaits() {
+    return backpressureWaits.sum();
+  }
+}
@@ -3,52 +3,95 @@ package randoop.generation.fieldcoverage;
 import canonicalizer.CanonicalizerConfig;
 import canonicalizer.ObjectCanonicalizer;
 import java.io.PrintStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Logger;
 import randoop.generation.fieldcoverage.canonizationanalysis.CanonizationAnalyzer;
+import randoop.generation.fieldcoverage.store.CompactFieldExtensions;
+import randoop.generation.fieldcoverage.store.FieldExtensionsDictionary;
+import randoop.generation.fieldcoverage.store.ShardedFieldExtensions;
+import randoop.main.GenInputsAbstract;
 import randoop.sequence.ExecutableSequence;
-import representations.FieldExtension;
 import representations.FieldExtensions;
 
 /**
  * Class {@code FieldMetricsAnalyzer} is responsible for collecting and calculating all metrics
  * associated with Field Coverage.
  *
+ * <p>This class is thread-safe, so sequences can be canonicalized and added to the analysis from
+ * several threads. Field/value tuples are kept in {@link ShardedFieldExtensions}, and counters in
+ * {@link LongAdder}s. The final set of tuples, and every metric except "Distinct Objects Seen", do
+ * not depend on the order in which sequences are added; "Distinct Objects Seen" counts the
+ * sequences that added a new tuple, so sequences should be added in a fixed order, as {@code
+ * GenTests} does, for it to be deterministic.
+ *
  * @see <a href="https://dl.acm.org/doi/10.1145/2950290.2950336">Field-exhaustive testing</a>
  */
 public class FieldCoverage {
 
   private final Logger logger = LoggerFactory.getLogger(FieldCoverage.class);
-  private static FieldCoverage instance;
+
+  /** Holds the instance, which is created the first time {@link #getInstance()} is called. */
+  private static class InstanceHolder {
+    private static final FieldCoverage INSTANCE = new FieldCoverage();
+  }
 
   public static FieldCoverage getInstance() {
-    if (instance == null) {
-      instance = new FieldCoverage();
-    }
-    return instance;
+    return InstanceHolder.INSTANCE;
   }
 
+  /** The number of shards of the sets of field/value tuples. */
+  private static final int SHARDS = 16;
+
   private final CanonicalizerConfig canonicalizerConfig;
   private final ObjectCanonicalizer objectCanonicalizer;
   private final CanonizationAnalyzer canonizationAnalyzer;
   private final PrintStream output;
-  private final FieldExtensions fieldExtensions;
+  private final FieldExtensionsDictionary dictionary;
+  private final ShardedFieldExtensions fieldExtensions;
+
+  /** The field/value pairs covered by the sequences that executed normally during generation. */
+  private final ShardedFieldExtensions generationFieldExtensions;
+
+  /**
+   * Canonicalizes values off the execution thread, or null if {@link
+   * FieldOptionsManager#canonicalizationPipeline()} is false.
+   */
+  private final CanonicalizationPipeline pipeline;
 
   public FieldCoverage() {
     output = FieldOptionsManager.getInstance().outputStream();
-    canonicalizerConfig = new CanonicalizerConfig();
-    configure(canonicalizerConfig);
+    canonicalizerConfig = newCanonicalizerConfig();
     this.canonizationAnalyzer = new CanonizationAnalyzer();
     this.objectCanonicalizer = new ObjectCanonicalizer(canonicalizerConfig);
-    this.fieldExtensions = new FieldExtensions();
+    this.dictionary = new FieldExtensionsDictionary();
+    this.fieldExtensions = new ShardedFieldExtensions(dictionary, SHARDS);
+    this.generationFieldExtensions = new ShardedFieldExtensions(dictionary, SHARDS);
+    if (FieldOptionsManager.getInstance().canonicalizationPipeline()) {
+      this.pipeline =
+          new CanonicalizationPipeline(
+              canonicalizerConfig,
+              dictionary,
+              FieldOptionsManager.getInstance().canonicalizationWorkers(),
+              FieldOptionsManager.getInstance().canonicalizationQueueSize());
+    } else {
+      this.pipeline = null;
+    }
   }
 
   // Metrics values
-  private long objectSeen = 0;
-  private long distinctObjectsSeen = 0;
-  private long fieldsSeen = 0;
-  private long distinctFieldsSeen = 0;
+  private final LongAdder objectSeen = new LongAdder();
+  private final LongAdder distinctObjectsSeen = new LongAdder();
+  private final LongAdder fieldsSeen = new LongAdder();
+  private final LongAdder distinctFieldsSeen = new LongAdder();
+  private final LongAdder canonicalizationTraversals = new LongAdder();
+  private final LongAdder canonicalizationTraversalsSaved = new LongAdder();
+
+  // Generation values
+  private final LongAdder generatedSequences = new LongAdder();
+  private final LongAdder filteredSequences = new LongAdder();
 
-  private boolean newFieldValuePairsSeen = false;
+  private volatile boolean newFieldValuePairsSeen = false;
 
   public boolean newFieldValuePairsSeen() {
     return newFieldValuePairsSeen;
@@ -66,6 +109,67 @@ public class FieldCoverage {
     return (FieldExtensions) canonicalizer.getObjectRepresentation();
   }
 
+  /**
+   * Creates an empty set of field extensions that shares its dictionary with all the field
+   * extensions collected by this object.
+   *
+   * @return a new, empty, set of field extensions
+   */
+  public CompactFieldExtensions newFieldExtensions() {
+    return new CompactFieldExtensions(dictionary);
+  }
+
+  /**
+   * Creates a canonicalizer to be used during the execution of a single sequence. The canonicalizer
+   * is incremental if {@link FieldOptionsManager#incrementalCanonicalization()} is {@code true},
+   * and defers work to a {@link CanonicalizationPipeline} if {@link
+   * FieldOptionsManager#canonicalizationPipeline()} is {@code true}.
+   *
+   * @param fieldExtensions where the new canonicalizer will store the field/value tuples
+   * @return a new canonicalizer for a sequence execution
+   */
+  public SequenceCanonicalizer newSequenceCanonicalizer(CompactFieldExtensions fieldExtensions) {
+    return new SequenceCanonicalizer(
+        canonicalizerConfig,
+        fieldExtensions,
+        FieldOptionsManager.getInstance().incrementalCanonicalization(),
+        pipeline);
+  }
+
+  /**
+   * Waits until all the canonicalization work deferred to the pipeline is done. Does nothing if
+   * there is no pipeline.
+   */
+  public void flush() {
+    if (pipeline != null) {
+      pipeline.flush();
+    }
+  }
+
+  /**
+   * Returns a short description of the state of the canonicalization pipeline, for progress
+   * messages.
+   *
+   * @return the queue depth and lag of the pipeline, or null if there is no pipeline
+   */
+  public String pipelineStatus() {
+    if (pipeline == null) {
+      return null;
+    }
+    return String.format(
+        "canonicalization queue=%d, lag=%.1fms", pipeline.queueDepth(), pipeline.lastLagMillis());
+  }
+
+  /**
+   * Adds the traversal counters of a sequence canonicalizer, once the sequence finished executing.
+   *
+   * @param sequenceCanonicalizer the canonicalizer used to execute a sequence
+   */
+  public void addTraversalCounts(SequenceCanonicalizer sequenceCanonicalizer) {
+    canonicalizationTraversals.add(sequenceCanonicalizer.traversals());
+    canonicalizationTraversalsSaved.add(sequenceCanonicalizer.traversalsSaved());
+  }
+
   /**
    * Adds field extensions from an ExecutableSequence to the object variability analysis
    *
@@ -75,22 +179,20 @@ public class FieldCoverage {
     if (!eseq.hasFieldExtensions()) {
       throw new IllegalArgumentException("The sequence has no field extensions");
     }
-    FieldExtensions fieldExtensions = eseq.getFieldExtensions();
-    newFieldValuePairsSeen = false;
-    long fieldsSavedBefore = this.fieldExtensions.size();
-    this.fieldExtensions.addAll(fieldExtensions);
-    long fieldsSavedAfter = this.fieldExtensions.size();
+    CompactFieldExtensions fieldExtensions = eseq.getFieldExtensions();
     long fieldsInLastCanonization = fieldExtensions.size();
-    long newDistinctFieldsSeen = fieldsSavedAfter - fieldsSavedBefore;
+    long newDistinctFieldsSeen = this.fieldExtensions.addAll(fieldExtensions);
+    newFieldValuePairsSeen = newDistinctFieldsSeen > 0;
     if (newDistinctFieldsSeen > 0) {
-      newFieldValuePairsSeen = true;
-      distinctObjectsSeen++;
+      distinctObjectsSeen.increment();
     }
-    fieldsSeen += fieldsInLastCanonization;
-    distinctFieldsSeen += newDistinctFieldsSeen;
-    objectSeen++;
+    fieldsSeen.add(fieldsInLastCanonization);
+    distinctFieldsSeen.add(newDistinctFieldsSeen);
+    objectSeen.increment();
     if (FieldOptionsManager.getInstance().canonizationDetailedAnalysis()) {
-      detailedCanonizationAnalysis(fieldExtensions);
+      synchronized (canonizationAnalyzer) {
+        canonizationAnalyzer.parseFieldExtensions(fieldExtensions);
+      }
     }
     logger.info("Is new object: " + this.objectCanonicalizer.lastObjectIsNew());
     logger.info("Distinct objects:\n" + distinctObjectsSeen);
@@ -102,15 +204,73 @@ public class FieldCoverage {
     logger.info("Last object rep:\n---Start---\n" + fieldExtensions + "\n---End---");
   }
 
-  private void detailedCanonizationAnalysis(FieldExtensions lastObjectRep) {
-    for (String field : lastObjectRep.getFields()) {
-      FieldExtension fieldExtension = lastObjectRep.getExtensionForField(field);
-      for (String obj : fieldExtension.getDomain()) {
-        for (String value : fieldExtension.getValues(obj)) {
-          this.canonizationAnalyzer.parseRawFieldExtension(field, obj, value);
-        }
-      }
+  /**
+   * Adds the field extensions of a sequence that executed normally during generation to the
+   * field/value pairs covered so far during generation.
+   *
+   * @param eseq the generated sequence
+   * @return how many field/value pairs of {@code eseq} were not covered by a previous sequence
+   */
+  public int addGeneratedFieldExtensions(ExecutableSequence eseq) {
+    if (!eseq.hasFieldExtensions()) {
+      throw new IllegalArgumentException("The sequence has no field extensions");
     }
+    generatedSequences.increment();
+    return generationFieldExtensions.addAll(eseq.getFieldExtensions());
+  }
+
+  /**
+   * Like {@link #addGeneratedFieldExtensions(ExecutableSequence)}, but does not wait for the
+   * field/value pairs that the canonicalization pipeline is still computing: they are added to the
+   * pairs covered during generation once they are ready, and at the latest by {@link #flush()}.
+   *
+   * @param eseq the generated sequence
+   */
+  public void addGeneratedFieldExtensionsWhenReady(ExecutableSequence eseq) {
+    if (!eseq.hasFieldExtensions()) {
+      throw new IllegalArgumentException("The sequence has no field extensions");
+    }
+    CompletableFuture<CompactFieldExtensions> pending = eseq.getPendingFieldExtensions();
+    if (pending == null) {
+      addGeneratedFieldExtensions(eseq);
+      return;
+    }
+    generatedSequences.increment();
+    generationFieldExtensions.addAll(eseq.getExecutionFieldExtensions());
+    pending.thenAccept(generationFieldExtensions::addAll);
+  }
+
+  /**
+   * Records that a generated sequence was excluded from the component pool because it did not cover
+   * new field/value pairs.
+   */
+  public void sequenceFiltered() {
+    filteredSequences.increment();
+  }
+
+  /**
+   * Prints the metrics collected during generation into the output set by {@link
+   * FieldOptionsManager#outputStream()}.
+   *
+   * @param poolSize the number of sequences in the component pool at the end of generation
+   * @param generationMillis the duration of generation, in milliseconds
+   */
+  public void printGenerationMetrics(int poolSize, long generationMillis) {
+    long pairsCovered = generationFieldExtensions.size();
+    output.println("Field Coverage Generation Metrics:");
+    output.println(
+        "Statement Filtering: "
+            + (GenInputsAbstract.field_coverage_statement_filtering ? "enabled" : "disabled"));
+    output.println("Sequences Executed Normally: " + generatedSequences);
+    output.println("Sequences Filtered: " + filteredSequences);
+    output.println("Component Pool Size: " + poolSize);
+    output.println("Field/Value Pairs Covered: " + pairsCovered);
+    output.println(
+        "Field/Value Pairs per Second: "
+            + (generationMillis == 0 ? 0 : pairsCovered * 1000.0f / generationMillis));
+    output.println(
+        "Executions per Field/Value Pair: "
+            + (pairsCovered == 0 ? 0 : (float) generatedSequences.sum() / pairsCovered));
   }
 
   /** Prints all Field metrics into the output set by {@link FieldOptionsManager#outputStream()} */
@@ -123,20 +283,51 @@ public class FieldCoverage {
     output.println("Variability (simple): " + simpleObjectVariability() + "%");
     output.println("Variability (fields): " + fieldsVariability() + "%");
     output.println("Field Coverage Metric: " + objectCanonicalizer.storageSize());
+    long pipelineTraversals = (pipeline == null) ? 0 : pipeline.traversals();
+    output.println(
+        "Canonicalization Traversals: " + (canonicalizationTraversals.sum() + pipelineTraversals));
+    output.println("Canonicalization Traversals Saved: " + canonicalizationTraversalsSaved);
+    if (pipeline != null) {
+      output.println("Canonicalization Traversals Deferred: " + pipelineTraversals);
+      output.println("Canonicalization Pipeline Requests: " + pipeline.requests());
+      output.println(
+          "Canonicalization Pipeline Average Lag: "
+              + String.format("%.3f", pipeline.averageLagMillis())
+              + " ms");
+      output.println(
+          "Canonicalization Pipeline Backpressure Waits: " + pipeline.backpressureWaits());
+    }
+    output.println("Field Extensions Dictionary: " + dictionary);
+    output.println(
+        "Field Extensions Memory (compact, estimated): "
+            + (fieldExtensions.estimatedSizeInBytes() + dictionary.estimatedSizeInBytes())
+            + " bytes");
+    output.println(
+        "Field Extensions Memory (String-based, estimated): "
+            + fieldExtensions.snapshot().estimatedStringBasedSizeInBytes()
+            + " bytes");
     if (FieldOptionsManager.getInstance().canonizationDetailedAnalysis()) {
-      output.println("Canonization Analysis:\n" + canonizationAnalyzer);
+      synchronized (canonizationAnalyzer) {
+        output.println("Canonization Analysis:\n" + canonizationAnalyzer);
+      }
     }
   }
 
   private float fieldsVariability() {
-    return ((float) distinctFieldsSeen / fieldsSeen) * 100.0f;
+    return ((float) distinctFieldsSeen.sum() / fieldsSeen.sum()) * 100.0f;
   }
 
   private float simpleObjectVariability() {
-    return ((float) distinctObjectsSeen / objectSeen) * 100.0f;
+    return ((float) distinctObjectsSeen.sum() / objectSeen.sum()) * 100.0f;
   }
 
-  private void configure(CanonicalizerConfig cfg) {
+  /**
+   * Creates a canonicalizer configuration from the options of the field coverage {@code .env} file.
+   *
+   * @return a new configuration, which stores field extensions
+   */
+  public static CanonicalizerConfig newCanonicalizerConfig() {
+    CanonicalizerConfig cfg = new CanonicalizerConfig();
     String dontSaveFieldRegex = FieldOptionsManager.getInstance().dontSaveFieldsRegex();
     if (dontSaveFieldRegex != null) {
       cfg.setDontSaveFieldsRegex(dontSaveFieldRegex);
@@ -159,5 +350,6 @@ public class FieldCoverage {
     cfg.setMaxBFDepth(FieldOptionsManager.getInstance().maxBFDepth());
     cfg.setSaveArrayNullValues(FieldOptionsManager.getInstance().saveArrayNullValues());
     cfg.setStorageType(ObjectCanonicalizer.StorageType.FIELDEXT);
+    return cfg;
   }
 }
@@ -11,18 +11,24 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import randoop.generation.fieldcoverage.canonizationanalysis.CanonizationAnalyzer;
+import randoop.generation.fieldcoverage.io.FieldExtensionsFileUtils;
 import randoop.main.GenInputsAbstract;
 
 public class FieldOptionsManager {
 
-  private static FieldOptionsManager instance = null;
+  /**
+   * Holds the instance, which is created the first time {@link #getInstance()} is called, from the
+   * value of {@link GenInputsAbstract#field_coverage_env} at that time.
+   */
+  private static class InstanceHolder {
+    private static final FieldOptionsManager INSTANCE =
+        new FieldOptionsManager(Paths.get(GenInputsAbstract.field_coverage_env));
+  }
+
   private final Dotenv dotenv;
 
   public static FieldOptionsManager getInstance() {
-    if (instance == null) {
-      instance = new FieldOptionsManager(Paths.get(GenInputsAbstract.field_coverage_env));
-    }
-    return instance;
+    return InstanceHolder.INSTANCE;
   }
 
   private FieldOptionsManager(Path env) {
@@ -144,6 +150,29 @@ public class FieldOptionsManager {
     return Boolean.parseBoolean(dotenv.get("FIELD_EXTENSIONS_SAVE_TO_FILE", "false"));
   }
 
+  public FieldExtensionsFileUtils.Format fieldExtensionsFileFormat() {
+    String fieldExtensionsFileFormatRaw =
+        dotenv.get("FIELD_EXTENSIONS_FILE_FORMAT", FieldExtensionsFileUtils.Format.JSON.name());
+    if (Arrays.stream(FieldExtensionsFileUtils.Format.values())
+        .noneMatch(f -> f.toString().equals(fieldExtensionsFileFormatRaw))) {
+      throw new IllegalArgumentException(
+          "Invalid value for FIELD_EXTENSIONS_FILE_FORMAT (" + fieldExtensionsFileFormatRaw + ")");
+    }
+    return FieldExtensionsFileUtils.Format.valueOf(fieldExtensionsFileFormatRaw);
+  }
+
+  public boolean saveFieldExtensionsToArchive() {
+    return Boolean.parseBoolean(dotenv.get("FIELD_EXTENSIONS_ARCHIVE", "false"));
+  }
+
+  public boolean compressFieldExtensionsFiles() {
+    return Boolean.parseBoolean(dotenv.get("FIELD_EXTENSIONS_FILE_COMPRESSION", "false"));
+  }
+
+  public int fieldExtensionsWriterQueueSize() {
+    return positiveInt("FIELD_EXTENSIONS_WRITER_QUEUE_SIZE", "1024");
+  }
+
   public boolean includeSequenceWhenSavingExtensionsToFile() {
     return Boolean.parseBoolean(dotenv.get("INCLUDE_SEQUENCE_WHEN_SAVING_TO_FILE", "false"));
   }
@@ -152,9 +181,25 @@ public class FieldOptionsManager {
     return Boolean.parseBoolean(dotenv.get("INCLUDE_ERROR_REVEALING_TESTS", "false"));
   }
 
+  public boolean incrementalCanonicalization() {
+    return Boolean.parseBoolean(dotenv.get("INCREMENTAL_CANONICALIZATION", "false"));
+  }
+
+  public boolean canonicalizationPipeline() {
+    return Boolean.parseBoolean(dotenv.get("CANONICALIZATION_PIPELINE", "false"));
+  }
+
+  public int canonicalizationWorkers() {
+    return positiveInt("CANONICALIZATION_WORKERS", "1");
+  }
+
+  public int canonicalizationQueueSize() {
+    return positiveInt("CANONICALIZATION_QUEUE_SIZE", "1024");
+  }
+
   private PrintStream outputStream = null;
 
-  public PrintStream outputStream() {
+  public synchronized PrintStream outputStream() {
     if (outputStream != null) {
       return outputStream;
     }
@@ -250,6 +295,26 @@ public class FieldOptionsManager {
     return outputFile;
   }
 
+  private int positiveInt(String key, String defaultValue) {
+    String rawValue = dotenv.get(key, defaultValue);
+    int value;
+    try {
+      value = toInt(rawValue);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(
+          "Invalid value for key " + key + ", expecting an int, got " + rawValue + ", instead", e);
+    }
+    if (value <= 0) {
+      throw new IllegalArgumentException(
+          "Invalid value for key "
+              + key
+              + ", expecting a positive int, got "
+              + value
+              + ", instead");
+    }
+    return value;
+  }
+
   private int toInt(String value) throws NumberFormatException {
     if (value == null) {
       throw new IllegalArgumentException("null value, this should have been checked before!");
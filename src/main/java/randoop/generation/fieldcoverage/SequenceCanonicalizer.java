@@ -0,0 +1,209 @@
+package randoop.generation.fieldcoverage;
+
+import canonicalizer.CanonicalizerConfig;
+import canonicalizer.ObjectCanonicalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import randoop.generation.fieldcoverage.store.CompactFieldExtensions;
+import representations.FieldExtensions;
+
+/**
+ * Class {@code SequenceCanonicalizer} canonicalizes the values consumed and produced while a single
+ * sequence is executed, accumulating the resulting field/value tuples into one {@link
+ * CompactFieldExtensions}.
+ *
+ * <p>A single {@link ObjectCanonicalizer} is used for the whole execution, instead of creating one
+ * for each value. When incremental canonicalization is enabled (see {@link
+ * FieldOptionsManager#incrementalCanonicalization()}), an object that was already traversed is only
+ * traversed again if its state could have changed since then, i.e., if it was the receiver or an
+ * argument of a statement executed after its last traversal. Since field extensions are sets,
+ * skipping an unchanged object does not change the result.
+ *
+ * <p>Incremental canonicalization assumes that a statement only modifies objects reachable from its
+ * inputs through the inputs themselves. Objects that are mutated through aliases or static state
+ * are not re-traversed until they are used as an input again, so the field extensions can differ
+ * from those of a non-incremental canonicalizer. This is why it is off by default.
+ *
+ * <p>When a {@link CanonicalizationPipeline} is given, the values whose state can never change
+ * (strings and boxed primitives) are canonicalized by the pipeline once the sequence finishes
+ * executing (see {@link #finish()}). Every other value may reach objects that the next sequence
+ * changes, through static fields, caches or interned objects, while a worker traverses it. So it is
+ * canonicalized on the calling thread, at the same point as without a pipeline, and the field
+ * extensions are the same with and without a pipeline.
+ */
+public class SequenceCanonicalizer {
+
+  private final ObjectCanonicalizer canonicalizer;
+  private final CompactFieldExtensions fieldExtensions;
+  private final boolean incremental;
+
+  /** Where to canonicalize values whose state can never change, or null. */
+  private final CanonicalizationPipeline pipeline;
+
+  /**
+   * Immutable values to be canonicalized by {@link #pipeline} when the sequence finishes. They are
+   * compared by equality, since equal immutable values have the same field extensions.
+   */
+  private final Set<Object> deferred = new LinkedHashSet<>();
+
+  /** Objects whose current state is already included in {@link #fieldExtensions}. */
+  private final Set<Object> traversed = Collections.newSetFromMap(new IdentityHashMap<>());
+
+  /** Whether {@code null} was already canonicalized. */
+  private boolean nullTraversed = false;
+
+  private long traversals = 0;
+  private long traversalsSaved = 0;
+
+  /**
+   * Creates a canonicalizer for the execution of a single sequence.
+   *
+   * @param config the configuration for the underlying {@link ObjectCanonicalizer}
+   * @param fieldExtensions where to accumulate the field/value tuples
+   * @param incremental whether to skip objects whose state could not have changed
+   * @param pipeline where to canonicalize values whose state can never change, or null to
+   *     canonicalize everything on the calling thread
+   */
+  SequenceCanonicalizer(
+      CanonicalizerConfig config,
+      CompactFieldExtensions fieldExtensions,
+      boolean incremental,
+      CanonicalizationPipeline pipeline) {
+    this.canonicalizer = new ObjectCanonicalizer(config);
+    this.fieldExtensions = fieldExtensions;
+    this.incremental = incremental;
+    this.pipeline = pipeline;
+  }
+
+  /**
+   * Canonicalizes the inputs of a statement, before the statement is executed.
+   *
+   * @param inputs the runtime values of the statement inputs
+   */
+  public void canonicalizeInputs(Object[] inputs) {
+    for (Object input : inputs) {
+      canonicalizeOrDefer(input);
+    }
+  }
+
+  /**
+   * Records that a statement was executed with the given inputs. The inputs are considered
+   * modified, so they will be traversed again the next time they are canonicalized.
+   *
+   * @param inputs the runtime values of the statement inputs
+   */
+  public void statementExecuted(Object[] inputs) {
+    if (!incremental) {
+      return;
+    }
+    for (Object input : inputs) {
+      if (!isImmutable(input)) {
+        traversed.remove(input);
+      }
+    }
+  }
+
+  /**
+   * Canonicalizes the value returned by a statement that executed normally.
+   *
+   * @param output the runtime value returned by the statement
+   */
+  public void canonicalizeOutput(Object output) {
+    canonicalizeOrDefer(output);
+  }
+
+  /**
+   * Canonicalizes a value, or defers it to the pipeline if its state can never change.
+   *
+   * @param object the value to canonicalize
+   */
+  private void canonicalizeOrDefer(Object object) {
+    if (pipeline != null && isImmutable(object)) {
+      defer(object);
+    } else {
+      canonicalize(object);
+    }
+  }
+
+  /**
+   * Submits the values whose canonicalization was deferred to the pipeline. Must be called once,
+   * after the sequence finishes executing.
+   *
+   * @return the field/value tuples of the deferred values, or null if there is no pipeline or
+   *     nothing was deferred
+   */
+  public CompletableFuture<CompactFieldExtensions> finish() {
+    if (pipeline == null || deferred.isEmpty()) {
+      return null;
+    }
+    List<Object> objects = new ArrayList<>(deferred);
+    deferred.clear();
+    return pipeline.submit(objects);
+  }
+
+  private void defer(Object object) {
+    deferred.add(object);
+  }
+
+  private void canonicalize(Object object) {
+    if (incremental) {
+      boolean seen = (object == null) ? nullTraversed : traversed.contains(object);
+      if (seen) {
+        traversalsSaved++;
+        return;
+      }
+      if (object == null) {
+        nullTraversed = true;
+      } else {
+        traversed.add(object);
+      }
+    }
+    canonicalizer.canonicalize(object);
+    fieldExtensions.addAll((FieldExtensions) canonicalizer.getObjectRepresentation());
+    traversals++;
+  }
+
+  /**
+   * Returns true if the state of the given object cannot be changed, and it reaches no object whose
+   * state can. Enums and classes are not included: their fields can be changed.
+   *
+   * @param object the object to check
+   * @return true if {@code object} is null, a boxed primitive, or a String
+   */
+  private static boolean isImmutable(Object object) {
+    return object == null
+        || object instanceof String
+        || object instanceof Integer
+        || object instanceof Long
+        || object instanceof Short
+        || object instanceof Byte
+        || object instanceof Double
+        || object instanceof Float
+        || object instanceof Boolean
+        || object instanceof Character;
+  }
+
+  /**
+   * Returns how many heap traversals were performed.
+   *
+   * @return the number of objects canonicalized
+   */
+  public long traversals() {
+    return traversals;
+  }
+
+  /**
+   * Returns how many heap traversals were skipped because the object was already traversed and
+   * could not have changed.
+   *
+   * @return the number of traversals saved
+   */
+  public long traversalsSaved() {
+    return traversalsSaved;
+  }
+}
@@ -3,6 +3,7 @@ package randoop.generation.fieldcoverage.canonizationanalysis;
 import java.util.*;
 import java.util.stream.Collectors;
 import randoop.generation.fieldcoverage.FieldOptionsManager;
+import randoop.generation.fieldcoverage.store.CompactFieldExtensions;
 
 public class CanonizationAnalyzer {
 
@@ -43,6 +44,15 @@ public class CanonizationAnalyzer {
     this.csvFriendly = FieldOptionsManager.getInstance().csvFriendlyReport();
   }
 
+  /**
+   * Parses every (field, source, value) tuple of the given field extensions.
+   *
+   * @param fieldExtensions the field extensions to analyze
+   */
+  public void parseFieldExtensions(CompactFieldExtensions fieldExtensions) {
+    fieldExtensions.forEach(this::parseRawFieldExtension);
+  }
+
   public void parseRawFieldExtension(String fieldRaw, String objectRaw, String valueRaw) {
     Field field = new Field(objectRaw, fieldRaw);
     int objectID = field.getObjectID();
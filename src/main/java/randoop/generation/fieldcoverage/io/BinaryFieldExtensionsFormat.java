@@ -0,0 +1,242 @@
+package randoop.generation.fieldcoverage.io;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Reads and writes {@link IOFieldExtensions} in a compact binary format. A binary file is
+ * structured as follows:
+ *
+ * <ul>
+ *   <li>the magic bytes {@code FEXB}
+ *   <li>the format version (one byte)
+ *   <li>flags (one byte); if bit 0 is set, everything after the flags is compressed with {@link
+ *       java.util.zip.Deflater}
+ *   <li>strings_count, followed by {@code strings_count} length-prefixed UTF8 strings. Every field,
+ *       source and value is stored only once, and referred to by its index in this table
+ *   <li>fields_count, followed by, for each field, its index, sources_count, and for each source,
+ *       its index, values_count and the indices of its values
+ *   <li>a boolean that is true if the sequence is included, followed by the sequence as a
+ *       length-prefixed UTF8 string
+ * </ul>
+ *
+ * All counts, lengths and indices are unsigned variable-length integers (seven bits per byte, least
+ * significant group first).
+ */
+public final class BinaryFieldExtensionsFormat {
+
+  /** The first bytes of every binary field extensions file. */
+  private static final byte[] MAGIC = {'F', 'E', 'X', 'B'};
+
+  private static final int VERSION = 1;
+
+  private static final int COMPRESSED_FLAG = 0x1;
+
+  /**
+   * The largest count or length for which space is allocated before reading, so that a corrupt
+   * count does not allocate more memory than the data it describes.
+   */
+  private static final int MAX_PREALLOCATED = 8192;
+
+  private BinaryFieldExtensionsFormat() {
+    throw new Error("Do not instantiate");
+  }
+
+  /**
+   * Returns true if the given bytes are the beginning of a binary field extensions file.
+   *
+   * @param header the first bytes of a file
+   * @param length how many bytes of {@code header} were read
+   * @return true if {@code header} starts with the magic bytes of the binary format
+   */
+  static boolean isBinary(byte[] header, int length) {
+    return length >= MAGIC.length && Arrays.equals(Arrays.copyOf(header, MAGIC.length), MAGIC);
+  }
+
+  /**
+   * Returns the number of bytes needed by {@link #isBinary(byte[], int)}.
+   *
+   * @return the length of the magic bytes
+   */
+  static int headerLength() {
+    return MAGIC.length;
+  }
+
+  /**
+   * Writes field extensions in binary format. The stream is not closed.
+   *
+   * @param fieldExtensions the field extensions to write
+   * @param out where to write the field extensions
+   * @param compress whether to compress the field extensions
+   * @throws IOException if writing fails
+   */
+  public static void write(IOFieldExtensions fieldExtensions, OutputStream out, boolean compress)
+      throws IOException {
+    out.write(MAGIC);
+    out.write(VERSION);
+    out.write(compress ? COMPRESSED_FLAG : 0);
+    DeflaterOutputStream deflater = compress ? new DeflaterOutputStream(out) : null;
+    DataOutputStream data = new DataOutputStream(compress ? deflater : out);
+
+    Map<String, Integer> indices = new HashMap<>();
+    List<String> strings = new ArrayList<>();
+    for (IOField field : fieldExtensions.fields()) {
+      intern(field.getName(), indices, strings);
+      for (IOSource source : field.getSources()) {
+        intern(source.getName(), indices, strings);
+        for (String value : source.getValues()) {
+          intern(value, indices, strings);
+        }
+      }
+    }
+
+    writeVarInt(data, strings.size());
+    for (String string : strings) {
+      writeString(data, string);
+    }
+    writeVarInt(data, fieldExtensions.fields().size());
+    for (IOField field : fieldExtensions.fields()) {
+      writeVarInt(data, indices.get(field.getName()));
+      writeVarInt(data, field.getSources().size());
+      for (IOSource source : field.getSources()) {
+        writeVarInt(data, indices.get(source.getName()));
+        writeVarInt(data, source.getValues().size());
+        for (String value : source.getValues()) {
+          writeVarInt(data, indices.get(value));
+        }
+      }
+    }
+    String sequence = fieldExtensions.sequence();
+    data.writeBoolean(sequence != null);
+    if (sequence != null) {
+      writeString(data, sequence);
+    }
+    data.flush();
+    if (deflater != null) {
+      deflater.finish();
+    }
+  }
+
+  /**
+   * Reads field extensions in binary format, including the magic bytes. The stream is not closed.
+   *
+   * @param in where to read the field extensions from
+   * @return the field extensions read from {@code in}
+   * @throws IOException if reading fails, or the data is truncated, corrupt, or not in this version
+   *     of the binary format
+   */
+  public static IOFieldExtensions read(InputStream in) throws IOException {
+    DataInputStream header = new DataInputStream(in);
+    byte[] magic = new byte[MAGIC.length];
+    header.readFully(magic);
+    if (!isBinary(magic, magic.length)) {
+      throw new IOException("Not a binary field extensions file");
+    }
+    int version = header.readUnsignedByte();
+    if (version != VERSION) {
+      throw new IOException("Unsupported binary field extensions version: " + version);
+    }
+    int flags = header.readUnsignedByte();
+    DataInputStream data =
+        (flags & COMPRESSED_FLAG) != 0 ? new DataInputStream(new InflaterInputStream(in)) : header;
+
+    int stringsCount = readVarInt(data);
+    List<String> strings = new ArrayList<>(Math.min(stringsCount, MAX_PREALLOCATED));
+    for (int i = 0; i < stringsCount; i++) {
+      strings.add(readString(data));
+    }
+    IOFieldExtensions fieldExtensions = new IOFieldExtensions();
+    int fieldsCount = readVarInt(data);
+    for (int f = 0; f < fieldsCount; f++) {
+      IOField field = new IOField(string(strings, readVarInt(data)));
+      int sourcesCount = readVarInt(data);
+      for (int s = 0; s < sourcesCount; s++) {
+        IOSource source = new IOSource(string(strings, readVarInt(data)));
+        int valuesCount = readVarInt(data);
+        for (int v = 0; v < valuesCount; v++) {
+          source.addValue(string(strings, readVarInt(data)));
+        }
+        field.addSource(source);
+      }
+      fieldExtensions.addField(field);
+    }
+    if (data.readBoolean()) {
+      fieldExtensions.setSequence(readString(data));
+    }
+    return fieldExtensions;
+  }
+
+  private static void intern(String string, Map<String, Integer> indices, List<String> strings) {
+    if (!indices.containsKey(string)) {
+      indices.put(string, strings.size());
+      strings.add(string);
+    }
+  }
+
+  private static String string(List<String> strings, int index) throws IOException {
+    if (index >= strings.size()) {
+      throw new IOException("String index out of bounds: " + index);
+    }
+    return strings.get(index);
+  }
+
+  private static void writeString(DataOutputStream out, String string) throws IOException {
+    byte[] bytes = string.getBytes(UTF_8);
+    writeVarInt(out, bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    int length = readVarInt(in);
+    if (length <= MAX_PREALLOCATED) {
+      byte[] bytes = new byte[length];
+      in.readFully(bytes);
+      return new String(bytes, UTF_8);
+    }
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(MAX_PREALLOCATED);
+    byte[] buffer = new byte[MAX_PREALLOCATED];
+    for (int remaining = length; remaining > 0; ) {
+      int chunk = Math.min(remaining, buffer.length);
+      in.readFully(buffer, 0, chunk);
+      bytes.write(buffer, 0, chunk);
+      remaining -= chunk;
+    }
+    return new String(bytes.toByteArray(), UTF_8);
+  }
+
+  private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      out.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.writeByte(value);
+  }
+
+  private static int readVarInt(DataInputStream in) throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      int b = in.readUnsignedByte();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        if (value < 0) {
+          throw new IOException("Malformed variable-length integer");
+        }
+        return value;
+      }
+    }
+    throw new IOException("Malformed variable-length integer");
+  }
+}
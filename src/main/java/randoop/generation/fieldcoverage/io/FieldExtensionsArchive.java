@@ -0,0 +1,248 @@
+package randoop.generation.fieldcoverage.io;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A read-only archive with the field extensions of many tests, written by {@link
+ * FieldExtensionsArchiveWriter}. The archive is memory-mapped, and only the index is read when it
+ * is opened, so the field extensions of a single test can be loaded without parsing the others.
+ *
+ * <p>The format of an archive file is as follows:
+ *
+ * <ul>
+ *   <li>the magic bytes {@code FEXA}, and the format version (one byte)
+ *   <li>the entries, one after the other, each in the format of {@link BinaryFieldExtensionsFormat}
+ *   <li>the index: entries_count (an int), followed by, for each entry, its name (an int length
+ *       followed by UTF8 bytes), offset (a long) and length (an int)
+ *   <li>the offset of the index (a long), and the magic bytes {@code FEXA}
+ * </ul>
+ */
+public class FieldExtensionsArchive implements AutoCloseable {
+
+  public static final String FILE_EXTENSION = ".fexta";
+
+  private static final byte[] MAGIC = {'F', 'E', 'X', 'A'};
+
+  private static final int VERSION = 1;
+
+  /** The length of the header: the magic bytes and the version. */
+  private static final int HEADER_LENGTH = MAGIC.length + 1;
+
+  /** The length of the footer: the index offset and the magic bytes. */
+  private static final int FOOTER_LENGTH = Long.BYTES + MAGIC.length;
+
+  private final File file;
+  private final FileChannel channel;
+  private final MappedByteBuffer buffer;
+
+  /** Maps each entry name to its offset and length in the archive. */
+  private final Map<String, long[]> index;
+
+  /**
+   * Opens an archive, and reads its index.
+   *
+   * @param file the archive to open
+   */
+  public FieldExtensionsArchive(File file) {
+    this.file = file;
+    try {
+      this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to load from file: " + file.getAbsolutePath(), e);
+    }
+    try {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException(
+            "Archive "
+                + file.getAbsolutePath()
+                + " is too large to be mapped ("
+                + size
+                + " bytes)");
+      }
+      this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      this.index = readIndex();
+    } catch (IOException | RuntimeException e) {
+      try {
+        channel.close();
+      } catch (IOException closeException) {
+        e.addSuppressed(closeException);
+      }
+      if (e instanceof RuntimeException) {
+        throw (RuntimeException) e;
+      }
+      throw new RuntimeException("Failed to load from file: " + file.getAbsolutePath(), e);
+    }
+  }
+
+  /**
+   * Returns the names of the entries of this archive, in the order in which they were written.
+   *
+   * @return the names of the entries of this archive
+   */
+  public Set<String> names() {
+    return Collections.unmodifiableSet(index.keySet());
+  }
+
+  /**
+   * Returns true if this archive has an entry with the given name.
+   *
+   * @param name the name of an entry
+   * @return true if this archive contains {@code name}
+   */
+  public boolean contains(String name) {
+    return index.containsKey(name);
+  }
+
+  /**
+   * Returns the number of entries of this archive.
+   *
+   * @return the number of entries of this archive
+   */
+  public int size() {
+    return index.size();
+  }
+
+  /**
+   * Loads the field extensions of a single entry.
+   *
+   * @param name the name of the entry
+   * @return the field extensions stored under {@code name}
+   */
+  public IOFieldExtensions load(String name) {
+    long[] location = index.get(name);
+    if (location == null) {
+      throw new IllegalArgumentException("No entry " + name + " in " + file.getAbsolutePath());
+    }
+    ByteBuffer entry = buffer.duplicate();
+    entry.position((int) location[0]);
+    entry.limit((int) (location[0] + location[1]));
+    try {
+      return BinaryFieldExtensionsFormat.read(new ByteBufferInputStream(entry));
+    } catch (IOException e) {
+      throw new RuntimeException(
+          "Failed to load entry " + name + " from file: " + file.getAbsolutePath(), e);
+    }
+  }
+
+  @Override
+  public void close() {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to close file: " + file.getAbsolutePath(), e);
+    }
+  }
+
+  /**
+   * Returns true if the given file is an archive, judging by its name.
+   *
+   * @param file a file
+   * @return true if the name of {@code file} ends with {@link #FILE_EXTENSION}
+   */
+  public static boolean isArchive(File file) {
+    return file.getName().endsWith(FILE_EXTENSION);
+  }
+
+  static void writeHeader(DataOutputStream out) throws IOException {
+    out.write(MAGIC);
+    out.writeByte(VERSION);
+  }
+
+  static void writeFooter(DataOutputStream out, long indexOffset) throws IOException {
+    out.writeLong(indexOffset);
+    out.write(MAGIC);
+  }
+
+  private Map<String, long[]> readIndex() throws IOException {
+    int size = buffer.limit();
+    if (size < HEADER_LENGTH + FOOTER_LENGTH) {
+      throw new IOException("Not a field extensions archive");
+    }
+    ByteBuffer header = buffer.duplicate();
+    byte[] magic = new byte[MAGIC.length];
+    header.get(magic);
+    int version = header.get();
+    ByteBuffer footer = buffer.duplicate();
+    footer.position(size - FOOTER_LENGTH);
+    long indexOffset = footer.getLong();
+    byte[] footerMagic = new byte[MAGIC.length];
+    footer.get(footerMagic);
+    if (!Arrays.equals(magic, MAGIC) || !Arrays.equals(footerMagic, MAGIC)) {
+      throw new IOException("Not a field extensions archive, or not completely written");
+    }
+    if (version != VERSION) {
+      throw new IOException("Unsupported field extensions archive version: " + version);
+    }
+    if (indexOffset < HEADER_LENGTH || indexOffset > size - FOOTER_LENGTH) {
+      throw new IOException("Corrupted field extensions archive index");
+    }
+
+    ByteBuffer in = buffer.duplicate();
+    in.position((int) indexOffset);
+    in.limit(size - FOOTER_LENGTH);
+    Map<String, long[]> result = new LinkedHashMap<>();
+    try {
+      int count = in.getInt();
+      for (int i = 0; i < count; i++) {
+        int nameLength = in.getInt();
+        if (nameLength < 0 || nameLength > in.remaining()) {
+          throw new IOException("Corrupted field extensions archive index");
+        }
+        byte[] name = new byte[nameLength];
+        in.get(name);
+        long offset = in.getLong();
+        int length = in.getInt();
+        if (offset < HEADER_LENGTH || length < 0 || offset + length > indexOffset) {
+          throw new IOException("Corrupted field extensions archive index");
+        }
+        result.put(new String(name, UTF_8), new long[] {offset, length});
+      }
+    } catch (BufferUnderflowException e) {
+      throw new IOException("Corrupted field extensions archive index", e);
+    }
+    return result;
+  }
+
+  /** An input stream over the remaining bytes of a buffer. */
+  private static class ByteBufferInputStream extends InputStream {
+    private final ByteBuffer buffer;
+
+    ByteBufferInputStream(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) {
+      if (length == 0) {
+        return 0;
+      }
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+      int n = Math.min(length, buffer.remaining());
+      buffer.get(bytes, offset, n);
+      return n;
+    }
+  }
+}
@@ -0,0 +1,118 @@
+package randoop.generation.fieldcoverage.io;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Appends the field extensions of many tests to a single archive file, that can be read with {@link
+ * FieldExtensionsArchive}. See {@link FieldExtensionsArchive} for the format of the file.
+ *
+ * <p>Nothing can be read from the archive until {@link #close()} writes its index.
+ */
+public class FieldExtensionsArchiveWriter implements AutoCloseable {
+
+  private final File file;
+  private final DataOutputStream out;
+  private final boolean compress;
+
+  /** Maps each entry name to its offset and length in the archive. */
+  private final Map<String, long[]> index = new LinkedHashMap<>();
+
+  /** The current length of the archive. */
+  private long position;
+
+  private boolean closed = false;
+
+  /**
+   * Creates a new, empty, archive.
+   *
+   * @param file the archive to create; it must not exist
+   * @param compress whether to compress the entries
+   */
+  public FieldExtensionsArchiveWriter(File file, boolean compress) {
+    if (file.exists()) {
+      throw new IllegalArgumentException("File " + file.getAbsoluteFile() + " already exists");
+    }
+    if (!file.getName().endsWith(FieldExtensionsArchive.FILE_EXTENSION)) {
+      throw new IllegalArgumentException("Wrong extension for file  " + file.getAbsoluteFile());
+    }
+    this.file = file;
+    this.compress = compress;
+    try {
+      this.out =
+          new DataOutputStream(
+              new BufferedOutputStream(
+                  Files.newOutputStream(file.toPath(), StandardOpenOption.CREATE_NEW)));
+      FieldExtensionsArchive.writeHeader(out);
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to create file: " + file.getAbsolutePath(), e);
+    }
+    this.position = out.size();
+  }
+
+  /**
+   * Appends the field extensions of a test.
+   *
+   * @param name the name of the entry, e.g., the name of the test method
+   * @param fieldExtensions the field extensions of the test
+   */
+  public void append(String name, IOFieldExtensions fieldExtensions) {
+    if (closed) {
+      throw new IllegalStateException("The archive is closed");
+    }
+    if (index.containsKey(name)) {
+      throw new IllegalArgumentException("Duplicate entry " + name + " in " + file);
+    }
+    ByteArrayOutputStream entry = new ByteArrayOutputStream();
+    try {
+      BinaryFieldExtensionsFormat.write(fieldExtensions, entry, compress);
+      entry.writeTo(out);
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to save file: " + file.getAbsolutePath(), e);
+    }
+    index.put(name, new long[] {position, entry.size()});
+    position += entry.size();
+  }
+
+  /**
+   * Returns the number of entries appended so far.
+   *
+   * @return the number of entries in the archive
+   */
+  public int size() {
+    return index.size();
+  }
+
+  /** Writes the index of the archive, and closes it. */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      long indexOffset = position;
+      out.writeInt(index.size());
+      for (Map.Entry<String, long[]> entry : index.entrySet()) {
+        byte[] name = entry.getKey().getBytes(UTF_8);
+        out.writeInt(name.length);
+        out.write(name);
+        out.writeLong(entry.getValue()[0]);
+        out.writeInt((int) entry.getValue()[1]);
+      }
+      FieldExtensionsArchive.writeFooter(out, indexOffset);
+      out.close();
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to save file: " + file.getAbsolutePath(), e);
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package randoop.generation.fieldcoverage.io;
+
+import java.io.File;
+import java.util.Locale;
+
+/**
+ * Command-line tool that converts {@code .fexts} files between the formats of {@link
+ * FieldExtensionsFileUtils.Format}.
+ *
+ * <p>Usage: {@code FieldExtensionsConverter (json|binary|binary-compressed) <from> <to>}, where
+ * {@code from} is either a {@code .fexts} file, a directory, or a {@link FieldExtensionsArchive}.
+ * If {@code from} is a directory, every {@code .fexts} file in it is converted into the directory
+ * {@code to}, which is created if needed. If {@code from} is an archive, each of its entries is
+ * extracted to a {@code .fexts} file in the directory {@code to}.
+ */
+public class FieldExtensionsConverter {
+
+  private FieldExtensionsConverter() {
+    throw new Error("Do not instantiate");
+  }
+
+  public static void main(String[] args) {
+    if (args.length != 3) {
+      System.err.println(
+          "Usage: FieldExtensionsConverter (json|binary|binary-compressed) <from> <to>");
+      System.exit(1);
+    }
+    FieldExtensionsFileUtils.Format format;
+    boolean compress = false;
+    switch (args[0].toLowerCase(Locale.ROOT)) {
+      case "json":
+        format = FieldExtensionsFileUtils.Format.JSON;
+        break;
+      case "binary":
+        format = FieldExtensionsFileUtils.Format.BINARY;
+        break;
+      case "binary-compressed":
+        format = FieldExtensionsFileUtils.Format.BINARY;
+        compress = true;
+        break;
+      default:
+        System.err.println("Unknown format: " + args[0]);
+        System.exit(1);
+        return;
+    }
+    File from = new File(args[1]);
+    File to = new File(args[2]);
+    int converted = convert(from, to, format, compress);
+    System.out.println("Converted " + converted + " field extensions files");
+  }
+
+  /**
+   * Converts a {@code .fexts} file, all the {@code .fexts} files in a directory, or all the entries
+   * of an archive.
+   *
+   * @param from a {@code .fexts} file, a directory, or an archive
+   * @param to the file to create, or the directory where to create the converted files if {@code
+   *     from} is a directory or an archive
+   * @param format the format of the new files
+   * @param compress whether to compress the new files; only used for the binary format
+   * @return the number of files converted
+   */
+  public static int convert(
+      File from, File to, FieldExtensionsFileUtils.Format format, boolean compress) {
+    if (!from.isDirectory() && !FieldExtensionsArchive.isArchive(from)) {
+      FieldExtensionsFileUtils.convert(from, to, format, compress);
+      return 1;
+    }
+    if (!to.isDirectory() && !to.mkdirs()) {
+      throw new IllegalArgumentException("Could not create directory " + to.getAbsolutePath());
+    }
+    if (FieldExtensionsArchive.isArchive(from)) {
+      try (FieldExtensionsArchive archive = new FieldExtensionsArchive(from)) {
+        for (String name : archive.names()) {
+          FieldExtensionsFileUtils.write(
+              archive.load(name), FieldExtensionsFileUtils.resolve(to, name), format, compress);
+        }
+        return archive.size();
+      }
+    }
+    File[] files =
+        from.listFiles((dir, name) -> name.endsWith(FieldExtensionsFileUtils.FILE_EXTENSION));
+    if (files == null) {
+      throw new IllegalArgumentException("Could not list directory " + from.getAbsolutePath());
+    }
+    for (File file : files) {
+      FieldExtensionsFileUtils.convert(file, new File(to, file.getName()), format, compress);
+    }
+    return files.length;
+  }
+}
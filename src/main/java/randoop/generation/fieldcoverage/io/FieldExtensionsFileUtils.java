@@ -4,14 +4,13 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
 import java.io.*;
 import java.nio.file.Files;
-import java.util.LinkedList;
-import java.util.List;
 import randoop.generation.fieldcoverage.FieldOptionsManager;
+import randoop.generation.fieldcoverage.store.CompactFieldExtensions;
+import randoop.generation.fieldcoverage.store.FieldExtensionsDictionary;
 import randoop.sequence.ExecutableSequence;
-import representations.FieldExtension;
-import representations.FieldExtensions;
 
 /**
  * A class to save/load FileExtensions {@link representations.FieldExtensions} to/from files. The
@@ -36,39 +35,94 @@ import representations.FieldExtensions;
  *             <hr>
  *       </ul>
  * </ul>
+ *
+ * Files can also be saved in the binary format described in {@link BinaryFieldExtensionsFormat},
+ * see {@link Format}. {@link #load(File)} reads both formats.
  */
 public class FieldExtensionsFileUtils {
 
   public static final String FILE_EXTENSION = ".fexts";
 
   /**
-   * Save field extensions {@link representations.FieldExtensions} to a file
+   * Save field extensions {@link representations.FieldExtensions} to a file, in the format given by
+   * {@link FieldOptionsManager#fieldExtensionsFileFormat()}
    *
    * @param from the sequence from which the extensions come from
    * @param folder the folder where to save the field extensions
    * @param name the name of the new file (without the file extension)
    */
   public static void save(ExecutableSequence from, File folder, String name) {
+    save(from, resolve(folder, name));
+  }
+
+  public static void save(ExecutableSequence from, File to) {
+    write(
+        toIOFieldExtensions(from),
+        to,
+        FieldOptionsManager.getInstance().fieldExtensionsFileFormat(),
+        FieldOptionsManager.getInstance().compressFieldExtensionsFiles());
+  }
+
+  /**
+   * Returns the file where to save field extensions, after checking that it can be created.
+   *
+   * @param folder the folder where to save the field extensions
+   * @param name the name of the new file (without the file extension)
+   * @return the file {@code name} + {@link #FILE_EXTENSION} in {@code folder}
+   */
+  static File resolve(File folder, String name) {
+    return resolve(folder, name, FILE_EXTENSION);
+  }
+
+  /**
+   * Returns the file where to save field extensions, after checking that it can be created.
+   *
+   * @param folder the folder where to save the field extensions
+   * @param name the name of the new file (without the file extension)
+   * @param extension the file extension
+   * @return the file {@code name} + {@code extension} in {@code folder}
+   */
+  static File resolve(File folder, String name, String extension) {
     IOError ioError = checkFile(folder, Mode.SAVE_TO_FOLDER);
     if (ioError != IOError.NONE) {
       throwException(ioError, folder);
     }
-    FieldExtensions fieldExtensions = from.getFieldExtensions();
+    if (name == null || name.replaceAll("\\s+", "").isEmpty()) {
+      throw new IllegalArgumentException("Name is null or empty");
+    }
+    String filename = name + extension;
+    return folder.toPath().resolve(filename).toFile();
+  }
+
+  /**
+   * Converts the field extensions of a sequence to their serializable representation, including the
+   * sequence if {@link FieldOptionsManager#includeSequenceWhenSavingExtensionsToFile()} is true.
+   *
+   * @param from the sequence from which the extensions come from
+   * @return the serializable representation of the field extensions of {@code from}
+   */
+  static IOFieldExtensions toIOFieldExtensions(ExecutableSequence from) {
+    CompactFieldExtensions fieldExtensions = from.getFieldExtensions();
     if (fieldExtensions == null) {
       throw new IllegalArgumentException("Field extensions are null");
     }
-    if (name == null || name.replaceAll("\\s+", "").isEmpty()) {
-      throw new IllegalArgumentException("Name is null or empty");
+    IOFieldExtensions ioFieldExtensions = toIOFieldExtensions(fieldExtensions);
+    if (FieldOptionsManager.getInstance().includeSequenceWhenSavingExtensionsToFile()) {
+      ioFieldExtensions.addFrom(from);
     }
-    String filename = name + FILE_EXTENSION;
-    File to = folder.toPath().resolve(filename).toFile();
-    save(from, to);
+    return ioFieldExtensions;
   }
 
-  @SuppressWarnings({
-    "JdkObsolete", // for LinkedList
-  })
-  public static void save(ExecutableSequence from, File to) {
+  /**
+   * Writes field extensions to a new file.
+   *
+   * @param ioFieldExtensions the field extensions to write
+   * @param to the file to create
+   * @param format the format of the file
+   * @param compress whether to compress the file; only used for {@link Format#BINARY}
+   */
+  public static void write(
+      IOFieldExtensions ioFieldExtensions, File to, Format format, boolean compress) {
     IOError ioError = checkFile(to, Mode.SAVE);
     if (ioError != IOError.NONE) {
       throwException(ioError, to);
@@ -80,52 +134,129 @@ public class FieldExtensionsFileUtils {
     } catch (IOException e) {
       throw new RuntimeException("Failed to create file: " + to.getAbsolutePath(), e);
     }
-    FieldExtensions fieldExtensions = from.getFieldExtensions();
-    IOFieldExtensions ioFieldExtensions = new IOFieldExtensions();
-    List<String> fields = new LinkedList<>(fieldExtensions.getFields());
-    for (String field : fields) {
-      IOField ioField = new IOField(field);
-      FieldExtension fieldExtension = fieldExtensions.getExtensionForField(field);
-      List<String> sources = new LinkedList<>(fieldExtension.getDomain());
-      for (String src : sources) {
-        IOSource ioSource = new IOSource(src);
-        List<String> values = new LinkedList<>(fieldExtension.getValues(src));
-        for (String value : values) {
-          ioSource.addValue(value);
-        }
-        ioField.addSource(ioSource);
-      }
-      ioFieldExtensions.addField(ioField);
-    }
-
-    if (FieldOptionsManager.getInstance().includeSequenceWhenSavingExtensionsToFile()) {
-      ioFieldExtensions.addFrom(from);
-    }
 
-    Gson gson = new GsonBuilder().setPrettyPrinting().serializeNulls().create();
-
-    try (BufferedWriter writer = Files.newBufferedWriter(to.toPath(), UTF_8)) {
-      gson.toJson(ioFieldExtensions, writer);
+    try {
+      switch (format) {
+        case JSON:
+          {
+            Gson gson = new GsonBuilder().setPrettyPrinting().serializeNulls().create();
+            try (BufferedWriter writer = Files.newBufferedWriter(to.toPath(), UTF_8)) {
+              gson.toJson(ioFieldExtensions, writer);
+            }
+            break;
+          }
+        case BINARY:
+          {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(to.toPath()))) {
+              BinaryFieldExtensionsFormat.write(ioFieldExtensions, out, compress);
+            }
+            break;
+          }
+      }
     } catch (IOException e) {
       throw new RuntimeException("Failed to save file: " + to.getAbsolutePath(), e);
     }
   }
 
+  /**
+   * Converts field extensions to their serializable representation. Fields and sources are grouped,
+   * in the order given by {@link CompactFieldExtensions#toSortedArray()}.
+   *
+   * @param fieldExtensions the field extensions to convert
+   * @return the serializable representation of {@code fieldExtensions}
+   */
+  public static IOFieldExtensions toIOFieldExtensions(CompactFieldExtensions fieldExtensions) {
+    FieldExtensionsDictionary dictionary = fieldExtensions.dictionary();
+    IOFieldExtensions ioFieldExtensions = new IOFieldExtensions();
+    IOField ioField = null;
+    IOSource ioSource = null;
+    for (long tuple : fieldExtensions.toSortedArray()) {
+      String field = dictionary.field(tuple);
+      String source = dictionary.source(tuple);
+      if (ioField == null || !ioField.getName().equals(field)) {
+        ioField = new IOField(field);
+        ioFieldExtensions.addField(ioField);
+        ioSource = null;
+      }
+      if (ioSource == null || !ioSource.getName().equals(source)) {
+        ioSource = new IOSource(source);
+        ioField.addSource(ioSource);
+      }
+      ioSource.addValue(dictionary.value(tuple));
+    }
+    return ioFieldExtensions;
+  }
+
+  /**
+   * Loads field extensions from a file, in either of the formats of {@link Format}. The format is
+   * detected from the contents of the file.
+   *
+   * @param from the file to load
+   * @return the field extensions stored in {@code from}
+   */
   public static IOFieldExtensions load(File from) {
     IOError ioError = checkFile(from, Mode.LOAD);
     if (ioError != IOError.NONE) {
       throwException(ioError, from);
     }
-    Gson gson = new GsonBuilder().serializeNulls().create();
     IOFieldExtensions ioFieldExtensions;
-    try (BufferedReader bufferedReader = Files.newBufferedReader(from.toPath(), UTF_8)) {
-      ioFieldExtensions = gson.fromJson(bufferedReader, IOFieldExtensions.class);
-    } catch (IOException e) {
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(from.toPath()))) {
+      if (formatOf(in) == Format.BINARY) {
+        ioFieldExtensions = BinaryFieldExtensionsFormat.read(in);
+      } else {
+        Gson gson = new GsonBuilder().serializeNulls().create();
+        ioFieldExtensions =
+            gson.fromJson(new InputStreamReader(in, UTF_8), IOFieldExtensions.class);
+      }
+    } catch (IOException | JsonParseException e) {
       throw new RuntimeException("Failed to load from file: " + from.getAbsolutePath(), e);
     }
     return ioFieldExtensions;
   }
 
+  /**
+   * Returns the format of the data in a stream, without consuming it.
+   *
+   * @param in a stream that supports {@link InputStream#mark(int)}
+   * @return the format of the data in {@code in}
+   * @throws IOException if reading fails
+   */
+  private static Format formatOf(InputStream in) throws IOException {
+    int headerLength = BinaryFieldExtensionsFormat.headerLength();
+    byte[] header = new byte[headerLength];
+    in.mark(headerLength);
+    int read = 0;
+    while (read < headerLength) {
+      int n = in.read(header, read, headerLength - read);
+      if (n < 0) {
+        break;
+      }
+      read += n;
+    }
+    in.reset();
+    return BinaryFieldExtensionsFormat.isBinary(header, read) ? Format.BINARY : Format.JSON;
+  }
+
+  /**
+   * Converts a field extensions file, in any format, to a new file in the given format.
+   *
+   * @param from the file to convert
+   * @param to the file to create
+   * @param format the format of the new file
+   * @param compress whether to compress the new file; only used for {@link Format#BINARY}
+   */
+  public static void convert(File from, File to, Format format, boolean compress) {
+    write(load(from), to, format, compress);
+  }
+
+  /** The formats in which field extensions can be saved. */
+  public enum Format {
+    /** Pretty-printed JSON, as described in {@link FieldExtensionsFileUtils} */
+    JSON,
+    /** A compact binary format, as described in {@link BinaryFieldExtensionsFormat} */
+    BINARY
+  }
+
   public enum Mode {
     /** Used to load {@link representations.FieldExtensions} from a file */
     LOAD,
@@ -181,7 +312,7 @@ public class FieldExtensionsFileUtils {
     if ((mode == Mode.LOAD) && !file.isFile()) {
       return IOError.IS_NOT_FILE;
     }
-    if ((mode == Mode.LOAD) && file.canRead()) {
+    if ((mode == Mode.LOAD) && !file.canRead()) {
       return IOError.NO_PERMISSIONS;
     }
     return IOError.NONE;
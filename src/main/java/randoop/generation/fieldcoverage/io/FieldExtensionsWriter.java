@@ -0,0 +1,223 @@
+package randoop.generation.fieldcoverage.io;
+
+import java.io.File;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import randoop.generation.fieldcoverage.FieldOptionsManager;
+import randoop.sequence.ExecutableSequence;
+
+/**
+ * Writes the field extensions of tests on a background thread, so that test generation does not
+ * wait for them to be written. Field extensions are either written to one {@code .fexts} file per
+ * test, or appended to a single {@link FieldExtensionsArchive}.
+ *
+ * <p>The field extensions of a sequence are converted to {@link IOFieldExtensions} on the calling
+ * thread, and queued to be written. The queue is bounded: when it is full, {@link
+ * #save(ExecutableSequence, String)} blocks until a file is written. {@link #close()} waits for all
+ * queued files to be written, and reports the first failure, if any.
+ */
+public class FieldExtensionsWriter implements AutoCloseable {
+
+  /** A file waiting to be written. */
+  private static class PendingFile {
+    final IOFieldExtensions fieldExtensions;
+    final String name;
+
+    PendingFile(IOFieldExtensions fieldExtensions, String name) {
+      this.fieldExtensions = fieldExtensions;
+      this.name = name;
+    }
+  }
+
+  /** Queued to tell the background thread that there are no more files to write. */
+  private static final PendingFile END = new PendingFile(null, null);
+
+  private final BlockingQueue<PendingFile> queue;
+  private final FieldExtensionsFileUtils.Format format;
+  private final boolean compress;
+  private final Thread thread;
+
+  /** The folder where to write one file per test, or null when writing to {@link #archive}. */
+  private final File folder;
+
+  /** The archive where to append the field extensions of all tests, or null. */
+  private final FieldExtensionsArchiveWriter archive;
+
+  /** The first failure of the background thread, or null. */
+  private volatile RuntimeException failure = null;
+
+  private boolean closed = false;
+
+  private FieldExtensionsWriter(
+      File folder,
+      FieldExtensionsArchiveWriter archive,
+      FieldExtensionsFileUtils.Format format,
+      boolean compress,
+      int queueSize) {
+    this.folder = folder;
+    this.archive = archive;
+    this.queue = new ArrayBlockingQueue<>(queueSize);
+    this.format = format;
+    this.compress = compress;
+    this.thread = new Thread(this::writeQueuedFiles, "FieldExtensionsWriter");
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  /**
+   * Creates a writer configured by {@link FieldOptionsManager}: it writes to an archive if {@link
+   * FieldOptionsManager#saveFieldExtensionsToArchive()} is true, and to one file per test
+   * otherwise.
+   *
+   * @param folder the folder where to save the field extensions
+   * @param archiveName the name of the archive (without the file extension), if one is used
+   * @return a new writer
+   */
+  public static FieldExtensionsWriter create(File folder, String archiveName) {
+    FieldOptionsManager options = FieldOptionsManager.getInstance();
+    if (options.saveFieldExtensionsToArchive()) {
+      return toArchive(
+          FieldExtensionsFileUtils.resolve(
+              folder, archiveName, FieldExtensionsArchive.FILE_EXTENSION),
+          options.compressFieldExtensionsFiles(),
+          options.fieldExtensionsWriterQueueSize());
+    }
+    return toFolder(
+        folder,
+        options.fieldExtensionsFileFormat(),
+        options.compressFieldExtensionsFiles(),
+        options.fieldExtensionsWriterQueueSize());
+  }
+
+  /**
+   * Creates a writer that writes one {@code .fexts} file per test, and starts its background
+   * thread.
+   *
+   * @param folder the folder where to save the field extensions
+   * @param format the format of the files to write
+   * @param compress whether to compress the files; only used for the binary format
+   * @param queueSize how many files can be waiting to be written before {@link
+   *     #save(ExecutableSequence, String)} blocks
+   * @return a new writer
+   */
+  public static FieldExtensionsWriter toFolder(
+      File folder, FieldExtensionsFileUtils.Format format, boolean compress, int queueSize) {
+    FieldExtensionsFileUtils.IOError ioError =
+        FieldExtensionsFileUtils.checkFile(folder, FieldExtensionsFileUtils.Mode.SAVE_TO_FOLDER);
+    if (ioError != FieldExtensionsFileUtils.IOError.NONE) {
+      throw new IllegalArgumentException(
+          "Can't save field extensions to " + folder.getAbsoluteFile() + " (" + ioError + ")");
+    }
+    return new FieldExtensionsWriter(folder, null, format, compress, queueSize);
+  }
+
+  /**
+   * Creates a writer that appends the field extensions of all tests to a new archive, and starts
+   * its background thread.
+   *
+   * @param archive the archive to create
+   * @param compress whether to compress the entries of the archive
+   * @param queueSize how many entries can be waiting to be written before {@link
+   *     #save(ExecutableSequence, String)} blocks
+   * @return a new writer
+   */
+  public static FieldExtensionsWriter toArchive(File archive, boolean compress, int queueSize) {
+    return new FieldExtensionsWriter(
+        null,
+        new FieldExtensionsArchiveWriter(archive, compress),
+        FieldExtensionsFileUtils.Format.BINARY,
+        compress,
+        queueSize);
+  }
+
+  /**
+   * Queues the field extensions of a sequence to be written.
+   *
+   * @param from the sequence from which the extensions come from
+   * @param name the name of the new file (without the file extension) or archive entry
+   * @see FieldExtensionsFileUtils#save(ExecutableSequence, File, String)
+   */
+  public void save(ExecutableSequence from, String name) {
+    if (closed) {
+      throw new IllegalStateException("The writer is closed");
+    }
+    if (failure != null) {
+      throw failure;
+    }
+    if (name == null || name.replaceAll("\\s+", "").isEmpty()) {
+      throw new IllegalArgumentException("Name is null or empty");
+    }
+    IOFieldExtensions fieldExtensions = FieldExtensionsFileUtils.toIOFieldExtensions(from);
+    put(new PendingFile(fieldExtensions, name));
+  }
+
+  /**
+   * Waits until all queued files are written, and stops the background thread.
+   *
+   * @throws RuntimeException if writing a file failed
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    put(END);
+    try {
+      thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while writing field extensions", e);
+    }
+    if (archive != null) {
+      try {
+        archive.close();
+      } catch (RuntimeException e) {
+        if (failure == null) {
+          failure = e;
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private void put(PendingFile pendingFile) {
+    try {
+      queue.put(pendingFile);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while writing field extensions", e);
+    }
+  }
+
+  private void writeQueuedFiles() {
+    while (true) {
+      PendingFile pendingFile;
+      try {
+        pendingFile = queue.take();
+      } catch (InterruptedException e) {
+        failure = new RuntimeException("Interrupted while writing field extensions", e);
+        return;
+      }
+      if (pendingFile == END) {
+        return;
+      }
+      if (failure != null) {
+        // Keep draining the queue, so that producers do not block forever.
+        continue;
+      }
+      try {
+        if (archive != null) {
+          archive.append(pendingFile.name, pendingFile.fieldExtensions);
+        } else {
+          File to = FieldExtensionsFileUtils.resolve(folder, pendingFile.name);
+          FieldExtensionsFileUtils.write(pendingFile.fieldExtensions, to, format, compress);
+        }
+      } catch (RuntimeException e) {
+        failure = e;
+      }
+    }
+  }
+}
@@ -29,6 +29,10 @@ public class IOFieldExtensions {
     this.from = from.toCodeString();
   }
 
+  public void setSequence(String from) {
+    this.from = from;
+  }
+
   public List<IOField> fields() {
     return fields;
   }
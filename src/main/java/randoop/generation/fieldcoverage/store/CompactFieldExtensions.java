@@ -0,0 +1,247 @@
+package randoop.generation.fieldcoverage.store;
+
+import randoop.util.LongHashSet;
+import representations.FieldExtension;
+import representations.FieldExtensions;
+
+/**
+ * Class {@code CompactFieldExtensions} is a memory-efficient alternative to {@link
+ * representations.FieldExtensions}. Each (field, source, value) tuple is interned through a {@link
+ * FieldExtensionsDictionary}, which can be shared by many instances, and stored as a single {@code
+ * long} in a primitive set.
+ *
+ * <p>Use {@link #toFieldExtensions()} and {@link #addAll(FieldExtensions)} to convert from and to
+ * the String-based representation used by the heap canonicalizer.
+ */
+public class CompactFieldExtensions {
+
+  /** Receives the (field, source, value) tuples of a {@link CompactFieldExtensions}. */
+  @FunctionalInterface
+  public interface TupleConsumer {
+    /**
+     * Accepts a tuple.
+     *
+     * @param field the field
+     * @param source the object that holds the field
+     * @param value the value of the field
+     */
+    void accept(String field, String source, String value);
+  }
+
+  private final FieldExtensionsDictionary dictionary;
+  private final LongHashSet tuples;
+
+  /**
+   * Creates an empty set of field extensions.
+   *
+   * @param dictionary the dictionary used to intern tuples
+   */
+  public CompactFieldExtensions(FieldExtensionsDictionary dictionary) {
+    this.dictionary = dictionary;
+    this.tuples = new LongHashSet();
+  }
+
+  /**
+   * Returns the dictionary used to intern the tuples of this object.
+   *
+   * @return the dictionary used by this object
+   */
+  public FieldExtensionsDictionary dictionary() {
+    return dictionary;
+  }
+
+  /**
+   * Adds a tuple.
+   *
+   * @param field the field
+   * @param source the object that holds the field
+   * @param value the value of the field
+   * @return true if the tuple was not already present, false if it was present or cannot be encoded
+   *     by {@link #dictionary()}
+   */
+  public boolean add(String field, String source, String value) {
+    long tuple = dictionary.encode(field, source, value);
+    return tuple >= 0 && tuples.add(tuple);
+  }
+
+  /**
+   * Adds an encoded tuple.
+   *
+   * @param tuple a tuple encoded by {@link #dictionary()}
+   * @return true if the tuple was not already present
+   */
+  public boolean add(long tuple) {
+    return tuples.add(tuple);
+  }
+
+  /**
+   * Adds all the tuples of a String-based field extensions.
+   *
+   * @param fieldExtensions the tuples to add
+   * @return how many tuples were not already present
+   */
+  public int addAll(FieldExtensions fieldExtensions) {
+    int added = 0;
+    for (String field : fieldExtensions.getFields()) {
+      FieldExtension fieldExtension = fieldExtensions.getExtensionForField(field);
+      for (String source : fieldExtension.getDomain()) {
+        for (String value : fieldExtension.getValues(source)) {
+          if (add(field, source, value)) {
+            added++;
+          }
+        }
+      }
+    }
+    return added;
+  }
+
+  /**
+   * Adds all the tuples of another compact field extensions, which must use the same dictionary.
+   *
+   * @param other the tuples to add
+   * @return how many tuples were not already present
+   */
+  public int addAll(CompactFieldExtensions other) {
+    if (other.dictionary != dictionary) {
+      throw new IllegalArgumentException("Field extensions use a different dictionary");
+    }
+    return tuples.addAll(other.tuples);
+  }
+
+  /**
+   * Returns true if the given tuple is present.
+   *
+   * @param field the field
+   * @param source the object that holds the field
+   * @param value the value of the field
+   * @return true if the tuple is present
+   */
+  public boolean contains(String field, String source, String value) {
+    long tuple = dictionary.lookup(field, source, value);
+    return tuple >= 0 && tuples.contains(tuple);
+  }
+
+  /**
+   * Returns true if the given encoded tuple is present.
+   *
+   * @param tuple a tuple encoded by {@link #dictionary()}
+   * @return true if the tuple is present
+   */
+  public boolean contains(long tuple) {
+    return tuples.contains(tuple);
+  }
+
+  /**
+   * Returns the number of tuples.
+   *
+   * @return the number of tuples
+   */
+  public int size() {
+    return tuples.size();
+  }
+
+  /**
+   * Returns true if there are no tuples.
+   *
+   * @return true if there are no tuples
+   */
+  public boolean isEmpty() {
+    return tuples.isEmpty();
+  }
+
+  /**
+   * Returns the encoded tuples, in no particular order.
+   *
+   * @return the encoded tuples
+   */
+  public long[] toArray() {
+    return tuples.toArray();
+  }
+
+  /**
+   * Returns the encoded tuples, grouped by field and then by source.
+   *
+   * @return the encoded tuples, sorted
+   */
+  public long[] toSortedArray() {
+    return tuples.toSortedArray();
+  }
+
+  /**
+   * Passes every tuple to the given consumer. Tuples are grouped by field, and then by source.
+   *
+   * @param consumer the consumer of the tuples
+   */
+  public void forEach(TupleConsumer consumer) {
+    for (long tuple : tuples.toSortedArray()) {
+      consumer.accept(dictionary.field(tuple), dictionary.source(tuple), dictionary.value(tuple));
+    }
+  }
+
+  /**
+   * Returns the String-based representation of these field extensions.
+   *
+   * @return a new {@link FieldExtensions} with the same tuples as this object
+   */
+  public FieldExtensions toFieldExtensions() {
+    FieldExtensions result = new FieldExtensions();
+    forEach(result::addPairToField);
+    return result;
+  }
+
+  /**
+   * Returns an approximation of the number of bytes of heap used by this object, excluding the
+   * (shared) dictionary.
+   *
+   * @return the approximate size of this object in bytes
+   */
+  public long estimatedSizeInBytes() {
+    return 16 + tuples.estimatedSizeInBytes();
+  }
+
+  /**
+   * Returns an approximation of the number of bytes of heap that a {@link FieldExtensions} with the
+   * same tuples would use, assuming that strings are not shared with other field extensions.
+   *
+   * @return the approximate size in bytes of the equivalent {@link FieldExtensions}
+   */
+  public long estimatedStringBasedSizeInBytes() {
+    long bytes = MemoryEstimates.HASH_CONTAINER;
+    int lastField = -1;
+    int lastSource = -1;
+    for (long tuple : tuples.toSortedArray()) {
+      int fieldId = FieldExtensionsDictionary.fieldId(tuple);
+      int sourceId = FieldExtensionsDictionary.sourceId(tuple);
+      if (fieldId != lastField) {
+        // entry in the fields map, a FieldExtension and its map
+        bytes += MemoryEstimates.HASH_ENTRY + 24 + MemoryEstimates.HASH_CONTAINER;
+        bytes += MemoryEstimates.stringSizeInBytes(dictionary.field(tuple));
+        lastField = fieldId;
+        lastSource = -1;
+      }
+      if (sourceId != lastSource) {
+        // entry in the sources map and the set of values
+        bytes += MemoryEstimates.HASH_ENTRY + MemoryEstimates.HASH_CONTAINER;
+        bytes += MemoryEstimates.stringSizeInBytes(dictionary.source(tuple));
+        lastSource = sourceId;
+      }
+      bytes +=
+          MemoryEstimates.HASH_ENTRY + MemoryEstimates.stringSizeInBytes(dictionary.value(tuple));
+    }
+    return bytes;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    forEach(
+        (field, source, value) ->
+            sb.append(field)
+                .append(": ")
+                .append(source)
+                .append(" -> ")
+                .append(value)
+                .append(System.lineSeparator()));
+    return sb.toString();
+  }
+}
@@ -0,0 +1,171 @@
+package randoop.generation.fieldcoverage.store;
+
+/**
+ * Class {@code FieldExtensionsDictionary} interns the fields, sources and values of field
+ * extensions, and encodes each (field, source, value) tuple as a single {@code long}.
+ *
+ * <p>The encoding uses {@value #FIELD_BITS} bits for the field id, {@value #SOURCE_BITS} bits for
+ * the source id and {@value #VALUE_BITS} bits for the value id, with the field id in the most
+ * significant bits. The sign bit is never set, so sorting encoded tuples groups them by field, and
+ * then by source.
+ *
+ * <p>When the fields, sources or values are too many to be encoded, tuples that would need a new id
+ * are not encoded, and are therefore not recorded by {@link CompactFieldExtensions}. Generation
+ * goes on with the tuples that can be encoded.
+ */
+public class FieldExtensionsDictionary {
+
+  static final int FIELD_BITS = 16;
+  static final int SOURCE_BITS = 20;
+  static final int VALUE_BITS = 27;
+
+  private static final long SOURCE_MASK = (1L << SOURCE_BITS) - 1;
+  private static final long VALUE_MASK = (1L << VALUE_BITS) - 1;
+
+  private final StringDictionary fields;
+  private final StringDictionary sources;
+  private final StringDictionary values;
+
+  /** Creates an empty dictionary, which can hold as many strings as the encoding allows. */
+  public FieldExtensionsDictionary() {
+    this(1 << FIELD_BITS, 1 << SOURCE_BITS, 1 << VALUE_BITS);
+  }
+
+  /**
+   * Creates an empty dictionary that holds fewer strings than the encoding allows, for testing.
+   *
+   * @param maxFields the maximum number of distinct fields
+   * @param maxSources the maximum number of distinct sources
+   * @param maxValues the maximum number of distinct values
+   */
+  FieldExtensionsDictionary(int maxFields, int maxSources, int maxValues) {
+    this.fields = new StringDictionary("fields", maxFields);
+    this.sources = new StringDictionary("sources", maxSources);
+    this.values = new StringDictionary("values", maxValues);
+  }
+
+  /**
+   * Interns a (field, source, value) tuple.
+   *
+   * @param field the field
+   * @param source the object that holds the field
+   * @param value the value of the field
+   * @return the encoded tuple, or -1 if there are too many distinct fields, sources or values to
+   *     encode it
+   */
+  public long encode(String field, String source, String value) {
+    int fieldId = fields.intern(field);
+    int sourceId = sources.intern(source);
+    int valueId = values.intern(value);
+    if (fieldId < 0 || sourceId < 0 || valueId < 0) {
+      return -1;
+    }
+    return encode(fieldId, sourceId, valueId);
+  }
+
+  /**
+   * Encodes a tuple of ids.
+   *
+   * @param fieldId the id of the field
+   * @param sourceId the id of the source
+   * @param valueId the id of the value
+   * @return the encoded tuple
+   */
+  static long encode(int fieldId, int sourceId, int valueId) {
+    return ((long) fieldId << (SOURCE_BITS + VALUE_BITS))
+        | ((long) sourceId << VALUE_BITS)
+        | valueId;
+  }
+
+  /**
+   * Returns the encoding of a tuple, without interning any of its components.
+   *
+   * @param field the field
+   * @param source the object that holds the field
+   * @param value the value of the field
+   * @return the encoded tuple, or -1 if some component was never interned
+   */
+  public long lookup(String field, String source, String value) {
+    int fieldId = fields.idOf(field);
+    int sourceId = sources.idOf(source);
+    int valueId = values.idOf(value);
+    if (fieldId < 0 || sourceId < 0 || valueId < 0) {
+      return -1;
+    }
+    return encode(fieldId, sourceId, valueId);
+  }
+
+  static int fieldId(long tuple) {
+    return (int) (tuple >>> (SOURCE_BITS + VALUE_BITS));
+  }
+
+  static int sourceId(long tuple) {
+    return (int) ((tuple >>> VALUE_BITS) & SOURCE_MASK);
+  }
+
+  static int valueId(long tuple) {
+    return (int) (tuple & VALUE_MASK);
+  }
+
+  /**
+   * Returns the field of an encoded tuple.
+   *
+   * @param tuple an encoded tuple
+   * @return the field of {@code tuple}
+   */
+  public String field(long tuple) {
+    return fields.get(fieldId(tuple));
+  }
+
+  /**
+   * Returns the source of an encoded tuple.
+   *
+   * @param tuple an encoded tuple
+   * @return the source of {@code tuple}
+   */
+  public String source(long tuple) {
+    return sources.get(sourceId(tuple));
+  }
+
+  /**
+   * Returns the value of an encoded tuple.
+   *
+   * @param tuple an encoded tuple
+   * @return the value of {@code tuple}
+   */
+  public String value(long tuple) {
+    return values.get(valueId(tuple));
+  }
+
+  /**
+   * Returns an approximation of the number of bytes of heap used by this dictionary.
+   *
+   * @return the approximate size of this dictionary in bytes
+   */
+  public long estimatedSizeInBytes() {
+    return fields.estimatedSizeInBytes()
+        + sources.estimatedSizeInBytes()
+        + values.estimatedSizeInBytes();
+  }
+
+  /**
+   * Returns how many tuples could not be encoded because some dictionary was full.
+   *
+   * @return an upper bound of the number of calls to {@link #encode(String, String, String)} that
+   *     returned -1
+   */
+  public long rejected() {
+    return fields.rejected() + sources.rejected() + values.rejected();
+  }
+
+  @Override
+  public String toString() {
+    return "fields: "
+        + fields.size()
+        + ", sources: "
+        + sources.size()
+        + ", values: "
+        + values.size()
+        + (rejected() == 0 ? "" : ", rejected tuples: " + rejected());
+  }
+}
@@ -0,0 +1,32 @@
+package randoop.generation.fieldcoverage.store;
+
+/**
+ * Rough estimates of heap usage, used to compare field extension representations. They assume a
+ * 64-bit JVM with compressed references.
+ */
+final class MemoryEstimates {
+
+  /** Estimated bytes of a {@code HashMap} or {@code HashSet} entry, including its table slot. */
+  static final long HASH_ENTRY = 32 + 8;
+
+  /** Estimated bytes of an empty {@code HashMap} or {@code HashSet}. */
+  static final long HASH_CONTAINER = 48 + 16;
+
+  private MemoryEstimates() {
+    throw new Error("Do not instantiate");
+  }
+
+  /**
+   * Returns the estimated size of a string, including its backing array.
+   *
+   * @param string the string
+   * @return the estimated size of {@code string} in bytes, or 0 if it is null
+   */
+  static long stringSizeInBytes(String string) {
+    if (string == null) {
+      return 0;
+    }
+    // String object plus array header and two bytes per char
+    return 24 + 16 + 2L * string.length();
+  }
+}
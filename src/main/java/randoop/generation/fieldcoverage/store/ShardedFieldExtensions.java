@@ -0,0 +1,160 @@
+package randoop.generation.fieldcoverage.store;
+
+import randoop.util.LongHashSet;
+
+/**
+ * Class {@code ShardedFieldExtensions} is a thread-safe set of (field, source, value) tuples,
+ * encoded by a {@link FieldExtensionsDictionary}. Tuples are spread over several shards, each with
+ * its own lock, so that threads adding the field extensions of different sequences rarely contend.
+ *
+ * <p>The contents of the set, and hence its size, do not depend on the order in which tuples are
+ * added, nor on the number of shards.
+ */
+public class ShardedFieldExtensions {
+
+  private final FieldExtensionsDictionary dictionary;
+  private final LongHashSet[] shards;
+  private final int mask;
+
+  /**
+   * Creates an empty set of field extensions.
+   *
+   * @param dictionary the dictionary used to intern tuples
+   * @param shards the number of shards; rounded up to a power of two
+   */
+  public ShardedFieldExtensions(FieldExtensionsDictionary dictionary, int shards) {
+    if (shards <= 0) {
+      throw new IllegalArgumentException("Number of shards must be positive: " + shards);
+    }
+    int count = Integer.highestOneBit(shards);
+    if (count < shards) {
+      count <<= 1;
+    }
+    this.dictionary = dictionary;
+    this.shards = new LongHashSet[count];
+    for (int i = 0; i < count; i++) {
+      this.shards[i] = new LongHashSet();
+    }
+    this.mask = count - 1;
+  }
+
+  /**
+   * Returns the dictionary used to intern the tuples of this object.
+   *
+   * @return the dictionary used by this object
+   */
+  public FieldExtensionsDictionary dictionary() {
+    return dictionary;
+  }
+
+  /**
+   * Adds all the tuples of a compact field extensions, which must use the same dictionary.
+   *
+   * @param other the tuples to add
+   * @return how many tuples were not already present
+   */
+  public int addAll(CompactFieldExtensions other) {
+    if (other.dictionary() != dictionary) {
+      throw new IllegalArgumentException("Field extensions use a different dictionary");
+    }
+    long[] tuples = other.toArray();
+    if (tuples.length == 0) {
+      return 0;
+    }
+    // Group the tuples by shard, so that each shard is locked at most once.
+    int[] counts = new int[shards.length + 1];
+    for (long tuple : tuples) {
+      counts[shardOf(tuple) + 1]++;
+    }
+    for (int i = 1; i < counts.length; i++) {
+      counts[i] += counts[i - 1];
+    }
+    long[] grouped = new long[tuples.length];
+    int[] next = counts.clone();
+    for (long tuple : tuples) {
+      grouped[next[shardOf(tuple)]++] = tuple;
+    }
+    int added = 0;
+    for (int shard = 0; shard < shards.length; shard++) {
+      if (counts[shard] == counts[shard + 1]) {
+        continue;
+      }
+      LongHashSet set = shards[shard];
+      synchronized (set) {
+        for (int i = counts[shard]; i < counts[shard + 1]; i++) {
+          if (set.add(grouped[i])) {
+            added++;
+          }
+        }
+      }
+    }
+    return added;
+  }
+
+  /**
+   * Returns true if the given encoded tuple is present.
+   *
+   * @param tuple a tuple encoded by {@link #dictionary()}
+   * @return true if the tuple is present
+   */
+  public boolean contains(long tuple) {
+    LongHashSet set = shards[shardOf(tuple)];
+    synchronized (set) {
+      return set.contains(tuple);
+    }
+  }
+
+  /**
+   * Returns the number of tuples.
+   *
+   * @return the number of tuples
+   */
+  public int size() {
+    int size = 0;
+    for (LongHashSet set : shards) {
+      synchronized (set) {
+        size += set.size();
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Returns a copy of the tuples currently in this set.
+   *
+   * @return a new {@link CompactFieldExtensions} with the tuples of this set
+   */
+  public CompactFieldExtensions snapshot() {
+    CompactFieldExtensions result = new CompactFieldExtensions(dictionary);
+    for (LongHashSet set : shards) {
+      long[] tuples;
+      synchronized (set) {
+        tuples = set.toArray();
+      }
+      for (long tuple : tuples) {
+        result.add(tuple);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns an approximation of the number of bytes of heap used by this object, excluding the
+   * (shared) dictionary.
+   *
+   * @return the approximate size of this object in bytes
+   */
+  public long estimatedSizeInBytes() {
+    long bytes = 16 + 16 + 8L * shards.length;
+    for (LongHashSet set : shards) {
+      synchronized (set) {
+        bytes += set.estimatedSizeInBytes();
+      }
+    }
+    return bytes;
+  }
+
+  private int shardOf(long tuple) {
+    return (int) ((tuple * 0xC2B2AE3D27D4EB4FL) >>> 40) & mask;
+  }
+}
@@ -0,0 +1,142 @@
+package randoop.generation.fieldcoverage.store;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Class {@code StringDictionary} maps strings to consecutive {@code int} ids, so that each distinct
+ * string is stored only once. Ids are assigned in order of first appearance, starting at 0.
+ *
+ * <p>When the dictionary is full, new strings are not interned: a warning is printed once, and
+ * {@link #intern(String)} returns -1 for them. Strings that were already interned keep their ids.
+ *
+ * <p>This class is thread-safe. Looking up a string that was already interned does not lock.
+ */
+public class StringDictionary {
+
+  private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+  /** The interned strings, indexed by id. Replaced by a larger copy when full. */
+  private volatile String[] strings = new String[16];
+
+  private volatile int size = 0;
+  private final String name;
+  private final int maxSize;
+
+  /** How many new strings were not interned because the dictionary was full. */
+  private long rejected = 0;
+
+  /**
+   * Creates an empty dictionary.
+   *
+   * @param name the name of this dictionary, used in error messages
+   * @param maxSize the maximum amount of strings this dictionary can hold
+   */
+  public StringDictionary(String name, int maxSize) {
+    this.name = name;
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Returns the id of a string, assigning a new id if the string was not seen before.
+   *
+   * @param string the string to intern
+   * @return the id of {@code string}, or -1 if a new id is needed but the dictionary is full
+   */
+  public int intern(String string) {
+    Integer id = ids.get(string);
+    if (id != null) {
+      return id;
+    }
+    return internNew(string);
+  }
+
+  private synchronized int internNew(String string) {
+    Integer id = ids.get(string);
+    if (id != null) {
+      return id;
+    }
+    if (size >= maxSize) {
+      if (rejected++ == 0) {
+        System.out.println(
+            "Warning: dictionary for "
+                + name
+                + " is full ("
+                + maxSize
+                + " distinct values), new "
+                + name
+                + " will be ignored");
+      }
+      return -1;
+    }
+    int newId = size;
+    if (newId == strings.length) {
+      strings = Arrays.copyOf(strings, Math.min(2 * strings.length, maxSize));
+    }
+    strings[newId] = string;
+    size = newId + 1;
+    // Publishing the id after the string guarantees that get(newId) sees the string.
+    ids.put(string, newId);
+    return newId;
+  }
+
+  /**
+   * Returns the id of a string, without assigning a new one.
+   *
+   * @param string the string to look for
+   * @return the id of {@code string}, or -1 if it was never interned
+   */
+  public int idOf(String string) {
+    Integer id = ids.get(string);
+    return id == null ? -1 : id;
+  }
+
+  /**
+   * Returns the string with the given id.
+   *
+   * @param id an id returned by {@link #intern(String)}
+   * @return the string with id {@code id}
+   */
+  public String get(int id) {
+    if (id < 0 || id >= size) {
+      throw new IndexOutOfBoundsException("No string with id " + id + " in dictionary " + name);
+    }
+    return strings[id];
+  }
+
+  /**
+   * Returns the number of distinct strings in this dictionary.
+   *
+   * @return the number of distinct strings in this dictionary
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns how many times a new string could not be interned because this dictionary was full.
+   *
+   * @return the number of calls to {@link #intern(String)} that returned -1
+   */
+  public synchronized long rejected() {
+    return rejected;
+  }
+
+  /**
+   * Returns an approximation of the number of bytes of heap used by this dictionary, including the
+   * strings themselves.
+   *
+   * @return the approximate size of this dictionary in bytes
+   */
+  public long estimatedSizeInBytes() {
+    long bytes = 0;
+    String[] strings = this.strings;
+    int size = Math.min(this.size, strings.length);
+    for (int i = 0; i < size; i++) {
+      // map entry, boxed id, array slot, and the string itself
+      bytes += 32 + 16 + 8 + MemoryEstimates.stringSizeInBytes(strings[i]);
+    }
+    return bytes;
+  }
+}
@@ -0,0 +1,107 @@
+package randoop.instrument;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntConsumer;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * The classes covered since they were last polled, as one bit per class. The covered-class agent
+ * ({@code CoveredClassTransformer}) gives each class it instruments an id, stored in its static
+ * field {@link #ID_FIELD_NAME}, and inserts a call to {@link #mark} with that id at the beginning
+ * of each method and constructor. {@link CoveredClassVisitor} then reads and clears the bits with
+ * {@link #drain}, without calling into the classes.
+ *
+ * <p>The bits are stored in pages of {@link #WORDS_PER_PAGE} words. The last element of each page
+ * has a bit set for each of its words that may have a bit set, so that a poll visits only those
+ * words.
+ */
+public final class CoveredClassBitmap {
+
+  private CoveredClassBitmap() {
+    throw new IllegalStateException("no instances");
+  }
+
+  /** The name of the static field that holds the id of an instrumented class. */
+  public static final String ID_FIELD_NAME = "randoop_classId";
+
+  /** The number of words of bits in a page. */
+  private static final int WORDS_PER_PAGE = 64;
+
+  /** The log2 of the number of ids in a page. */
+  private static final int PAGE_SHIFT = 12;
+
+  /** The maximum number of pages, enough for 2^24 classes. */
+  private static final int MAX_PAGES = 1 << 12;
+
+  /** Bitwise or. */
+  private static final LongBinaryOperator OR = (a, b) -> a | b;
+
+  /** The pages, allocated as ids are assigned. */
+  private static final AtomicReferenceArray<AtomicLongArray> pages =
+      new AtomicReferenceArray<>(MAX_PAGES);
+
+  /** The next id to assign. */
+  private static final AtomicInteger nextId = new AtomicInteger(0);
+
+  /**
+   * Returns a new id for a class, for which {@link #mark} may then be called.
+   *
+   * @return the id
+   */
+  public static int newId() {
+    int id = nextId.getAndIncrement();
+    int page = id >>> PAGE_SHIFT;
+    if (page >= MAX_PAGES) {
+      throw new IllegalStateException("Too many instrumented classes: " + id);
+    }
+    if (pages.get(page) == null) {
+      pages.compareAndSet(page, null, new AtomicLongArray(WORDS_PER_PAGE + 1));
+    }
+    return id;
+  }
+
+  /**
+   * Records that the class with the given id is covered. Called by instrumented code.
+   *
+   * @param id the id of the class, returned by {@link #newId}
+   */
+  public static void mark(int id) {
+    AtomicLongArray page = pages.get(id >>> PAGE_SHIFT);
+    int word = (id >>> 6) & (WORDS_PER_PAGE - 1);
+    long bit = 1L << id;
+    // Most calls are to classes that are already marked, and do not write.
+    if ((page.get(word) & bit) == 0) {
+      page.getAndAccumulate(word, bit, OR);
+      page.getAndAccumulate(WORDS_PER_PAGE, 1L << word, OR);
+    }
+  }
+
+  /**
+   * Clears the bits of all the classes, passing the id of each class that was marked to the given
+   * action.
+   *
+   * @param action the action to perform on the id of each marked class
+   */
+  public static void drain(IntConsumer action) {
+    int numPages = Math.min((nextId.get() + (1 << PAGE_SHIFT) - 1) >>> PAGE_SHIFT, MAX_PAGES);
+    for (int p = 0; p < numPages; p++) {
+      AtomicLongArray page = pages.get(p);
+      if (page == null || page.get(WORDS_PER_PAGE) == 0) {
+        continue;
+      }
+      long dirtyWords = page.getAndSet(WORDS_PER_PAGE, 0);
+      while (dirtyWords != 0) {
+        int word = Long.numberOfTrailingZeros(dirtyWords);
+        dirtyWords &= dirtyWords - 1;
+        long bits = page.getAndSet(word, 0);
+        int base = (p << PAGE_SHIFT) + (word << 6);
+        while (bits != 0) {
+          action.accept(base + Long.numberOfTrailingZeros(bits));
+          bits &= bits - 1;
+        }
+      }
+    }
+  }
+}
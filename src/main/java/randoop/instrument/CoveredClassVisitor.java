@@ -1,7 +1,8 @@
 package randoop.instrument;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 import randoop.ExecutionVisitor;
 import randoop.sequence.ExecutableSequence;
@@ -9,11 +10,15 @@ import randoop.sequence.ExecutableSequence;
 /**
  * A {@link ExecutionVisitor} that polls a set of coverage instrumented classes and adds each
  * covered class to an {@link ExecutableSequence} after it is executed.
+ *
+ * <p>The classes are polled by draining the {@link CoveredClassBitmap}, in which the instrumented
+ * classes mark their ids, so that a poll takes time proportional to the number of classes covered
+ * rather than to the number of classes polled.
  */
 public class CoveredClassVisitor implements ExecutionVisitor {
 
-  /** The classes to be polled. */
-  private Set<Class<?>> classes;
+  /** The classes to be polled, indexed by their id in the {@link CoveredClassBitmap}. */
+  private final Class<?>[] classesById;
 
   /**
    * Creates a visitor to poll the given classes for coverage by sequence executions.
@@ -21,7 +26,17 @@ public class CoveredClassVisitor implements ExecutionVisitor {
    * @param classes the set of classes to poll for coverage by a sequence
    */
   public CoveredClassVisitor(Set<Class<?>> classes) {
-    this.classes = classes;
+    Map<Integer, Class<?>> ids = new HashMap<>();
+    int maxId = -1;
+    for (Class<?> c : classes) {
+      int id = classId(c);
+      ids.put(id, c);
+      maxId = Math.max(maxId, id);
+    }
+    this.classesById = new Class<?>[maxId + 1];
+    for (Map.Entry<Integer, Class<?>> entry : ids.entrySet()) {
+      classesById[entry.getKey()] = entry.getValue();
+    }
   }
 
   /**
@@ -31,34 +46,31 @@ public class CoveredClassVisitor implements ExecutionVisitor {
    */
   @Override
   public void visitAfterSequence(ExecutableSequence eseq) {
-    for (Class<?> c : classes) {
-      if (checkAndReset(c)) {
-        eseq.addCoveredClass(c);
-      }
-    }
+    CoveredClassBitmap.drain(
+        id -> {
+          if (id < classesById.length && classesById[id] != null) {
+            eseq.addCoveredClass(classesById[id]);
+          }
+        });
   }
 
   /**
-   * Calls the coverage instrumentation method.
+   * Returns the id of an instrumented class in the {@link CoveredClassBitmap}.
    *
-   * @param c the class for which method is to be called
-   * @return true if the instrumentation method is true, false otherwise
+   * @param c the class
+   * @return the value of the id field that the instrumentation added to the class
    */
-  private boolean checkAndReset(Class<?> c) {
+  private static int classId(Class<?> c) {
     try {
-      Method m = c.getMethod("randoop_checkAndReset");
-      m.setAccessible(true);
-      return (boolean) m.invoke(null);
-    } catch (NoSuchMethodException e) {
-      throw new Error("Cannot find instrumentation method: " + e);
+      Field f = c.getDeclaredField(CoveredClassBitmap.ID_FIELD_NAME);
+      f.setAccessible(true);
+      return f.getInt(null);
+    } catch (NoSuchFieldException e) {
+      throw new Error("Cannot find instrumentation field: " + e);
     } catch (SecurityException e) {
-      throw new Error("Security error when accessing instrumentation method: " + e);
+      throw new Error("Security error when accessing instrumentation field: " + e);
     } catch (IllegalAccessException e) {
-      throw new Error("Cannot access instrumentation method: " + e);
-    } catch (IllegalArgumentException e) {
-      throw new Error("Bad argument to instrumentation method: " + e);
-    } catch (InvocationTargetException e) {
-      throw new Error("Bad invocation of instrumentation method: " + e);
+      throw new Error("Cannot access instrumentation field: " + e);
     }
   }
 
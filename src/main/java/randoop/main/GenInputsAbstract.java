@@ -342,6 +342,15 @@ public abstract class GenInputsAbstract extends CommandHandler {
   @Option("Whether to check if test sequences are compilable")
   public static boolean check_compilable = true;
 
+  /**
+   * How many sequences to check for compilability at once, when {@code --check-compilable} is true.
+   * The sequences are compiled as the methods of a single class, which is much faster than
+   * compiling each one separately. Sequences are classified as regression or error-revealing tests
+   * when their batch is compiled. Use 1 to compile each sequence as soon as it is generated.
+   */
+  @Option("Number of sequences to compile together when checking compilability")
+  public static int check_compilable_batch_size = 16;
+
   /**
    * Classes that must occur in a test. Randoop will only output tests whose source code has at
    * least one use of a member of a class whose name matches the regular expression.
@@ -475,6 +484,14 @@ public abstract class GenInputsAbstract extends CommandHandler {
   @Option("Use specifications for JDK classes to classify behaviors for methods/constructors")
   public static boolean use_jdk_specifications = true;
 
+  /**
+   * Directory in which to keep the compiled conditions of specifications. A later run with the same
+   * specifications and classpath loads the conditions from this directory instead of compiling
+   * them. If not set, the conditions are compiled on every run.
+   */
+  @Option("Directory for the compiled conditions of specifications")
+  public static Path condition_cache_dir = null;
+
   /**
    * Make Randoop proceed, instead of failing, if the Java condition text of a specification cannot
    * be compiled.
@@ -546,6 +563,18 @@ public abstract class GenInputsAbstract extends CommandHandler {
   @Option("Maximum number of tests to ouput")
   public static int output_limit = LIMIT_DEFAULT;
 
+  /**
+   * The number of generators that run in parallel, each in its own thread. The generators share the
+   * sequences that they add to the component pool, and never generate the same sequence. Each
+   * generator gets an equal share of {@code --attempted-limit}, {@code --generated-limit}, and
+   * {@code --output-limit}, and runs until {@code --time-limit}.
+   *
+   * <p>With more than one generator, Randoop is nondeterministic, and the code under test is
+   * executed concurrently, so it should be thread-safe.
+   */
+  @Option("Number of generators to run in parallel")
+  public static int generation_workers = 1;
+
   /**
    * Wraps the three ways of limiting Randoop test generation.
    *
@@ -700,6 +729,15 @@ public abstract class GenInputsAbstract extends CommandHandler {
     INVOCATIONS
   }
 
+  /**
+   * With {@code --bloodhound-update-mode=INVOCATIONS}, Bloodhound updates coverage information
+   * after this many successful invocations. Each update re-analyzes only the classes whose coverage
+   * changed since the previous one.
+   */
+  @Unpublicized
+  @Option("Number of successful invocations between updates of Bloodhound's coverage information")
+  public static int bloodhound_update_interval = 100;
+
   // Implementation note: when checking whether a String S exceeds the given
   // maxlength, we test if UtilPlume.escapeJava(S), because this is
   // the length of the string that will actually be printed out as code.
@@ -738,25 +776,121 @@ public abstract class GenInputsAbstract extends CommandHandler {
   @Option("How to choose tests for Randoop to extend")
   public static InputSelectionMode input_selection = InputSelectionMode.UNIFORM;
 
+  public enum StateMatchingMode {
+    /** Every value is new. */
+    NONE,
+    /** A value is a duplicate if it equals a previous value, according to its equals method. */
+    EQUALS,
+    /**
+     * A value is a duplicate if its heap, up to the {@code MAX_FIELD_DISTANCE} of the {@code
+     * --field-coverage-env} file, has the same shape and the same primitive values as the heap of a
+     * previous value.
+     */
+    CANONICAL_HEAP
+  }
+
   /**
-   * Clear the component set each time it contains the given number of inputs.
+   * How Randoop determines that a value created by a new test duplicates a value created by a
+   * previous test. A duplicate value is not used as an input to create new tests, which keeps
+   * structurally identical objects out of the component set.
+   */
+  @Option("How to detect values that duplicate previously created values")
+  public static StateMatchingMode state_matching = StateMatchingMode.NONE;
+
+  public enum DuplicateSequenceMode {
+    /**
+     * Keep every generated sequence, and compare a new sequence to them with {@code equals}. This
+     * uses the most memory.
+     */
+    EQUALS,
+    /**
+     * Keep a 128-bit fingerprint of every generated sequence. A new sequence is a duplicate if its
+     * fingerprint was seen before.
+     */
+    FINGERPRINT,
+    /**
+     * Keep the fingerprints in a Bloom filter of fixed size, given by {@code
+     * --bloom-filter-megabytes}. Some new sequences are discarded as duplicates, more and more of
+     * them as the filter fills up.
+     */
+    BLOOM_FILTER
+  }
+
+  /**
+   * How Randoop detects that a newly generated sequence duplicates a previously generated one, in
+   * which case it is discarded without being executed.
+   *
+   * <p>Other than {@code EQUALS}, the modes do not keep the generated sequences, except when {@code
+   * --log} or {@code --debug-checks} is given, which need them.
+   */
+  @Option("How to detect sequences that were previously generated")
+  public static DuplicateSequenceMode duplicate_sequences = DuplicateSequenceMode.EQUALS;
+
+  /** The size of the Bloom filter used by {@code --duplicate-sequences=BLOOM_FILTER}. */
+  @Option("Size in megabytes of the Bloom filter of generated sequences")
+  public static int bloom_filter_megabytes = 64;
+
+  /**
+   * Shrink the component set, as specified by {@code --pool-eviction}, each time it contains the
+   * given number of inputs.
    *
    * <p>Randoop stores previously-generated tests in a "component" set, and uses them to generate
    * new tests. Setting this variable to a small number can sometimes result in a greater variety of
    * tests generated during a single run.
    */
-  @Option("Clear the component set when it gets this big")
+  @Option("Shrink the component set when it gets this big")
   public static int clear = 100000000;
 
   /**
-   * Clear the component set each time Randoop uses this much memory.
+   * Shrink the component set, as specified by {@code --pool-eviction}, each time Randoop uses this
+   * much memory.
    *
    * <p>Setting this variable to a smaller number may prevent an out-of-memory exception or a run
    * that is slow due to thrashing and garbage collection.
    */
-  @Option("Clear the component set when Randoop uses this much memory")
+  @Option("Shrink the component set when Randoop uses this much memory")
   public static long clear_memory = 4000000000L; // default: 4G
 
+  public enum PoolEvictionPolicy {
+    /** Remove all the generated sequences; only the seed sequences remain. */
+    CLEAR,
+    /** Remove the sequences that were least recently selected as inputs for new sequences. */
+    LRU,
+    /**
+     * Remove the sequences that were least often inputs of new sequences that were added to the
+     * component set, that is, that created new values or (with {@code
+     * --field-coverage-statement-filtering}) covered new field values.
+     */
+    LOW_UTILITY,
+    /** Remove the sequences that were added to the component set first. */
+    OLDEST
+  }
+
+  /**
+   * How Randoop shrinks the component set when it reaches the size given by {@code --clear} or the
+   * memory given by {@code --clear-memory}. Other than {@code CLEAR}, the policies remove the
+   * fraction {@code --pool-eviction-fraction} of the generated sequences, so that the values built
+   * up so far are not all lost at once. Seed sequences are never removed.
+   */
+  @Option("How to shrink the component set when it gets too big")
+  public static PoolEvictionPolicy pool_eviction = PoolEvictionPolicy.LRU;
+
+  /** The fraction of the generated sequences that {@code --pool-eviction} removes at a time. */
+  @Option("Fraction of the component set to remove when it gets too big")
+  public static double pool_eviction_fraction = 0.5;
+
+  /**
+   * Copy the statements of a new sequence into a single list when they are stored in more than this
+   * many nested lists.
+   *
+   * <p>Randoop builds a new sequence by concatenating existing ones and appending a statement,
+   * which nests the lists that store their statements. Accessing a statement takes time
+   * proportional to the nesting depth, so flattening deep sequences speeds up their execution and
+   * output, at the cost of copying their statements. 0 means never flatten.
+   */
+  @Option("Flatten sequences whose statements are nested deeper than this")
+  public static int sequence_flatten_depth = 16;
+
   ///////////////////////////////////////////////////////////////////
   /** Maximum number of tests to write to each JUnit file. */
   @OptionGroup("Outputting the JUnit tests")
@@ -863,6 +997,24 @@ public abstract class GenInputsAbstract extends CommandHandler {
   // CircleCI runs out of memory during test generation if 2500m.
   public static String jvm_max_memory = "3000m";
 
+  /**
+   * The number of separate JVMs in which Randoop executes each new sequence before executing it
+   * during generation. A sequence that does not terminate within {@code
+   * --execution-process-timeout}, that terminates its JVM, or that throws an {@code
+   * OutOfMemoryError} or {@code StackOverflowError}, is discarded instead of being executed by
+   * Randoop itself. These JVMs use {@code --jvm-max-memory}. If 0, Randoop executes the sequences
+   * only in its own JVM.
+   */
+  @Option("Number of JVMs that first execute each sequence, to discard the harmful ones")
+  public static int execution_processes = 0;
+
+  /**
+   * The maximum number of milliseconds that one of the {@code --execution-processes} JVMs may take
+   * to execute a sequence. Only meaningful with {@code --execution-processes}.
+   */
+  @Option("Maximum number of milliseconds a sequence may run in an execution process")
+  public static int execution_process_timeout = 5000;
+
   @Unpublicized
   @Option("Store all output to stdout and stderr in the ExecutionOutcome.")
   public static boolean capture_output = false;
@@ -965,6 +1117,41 @@ public abstract class GenInputsAbstract extends CommandHandler {
       throw new RandoopUsageError("--null-ratio must be between 0 and 1, inclusive.");
     }
 
+    if (check_compilable_batch_size <= 0) {
+      throw new RandoopUsageError(
+          "--check-compilable-batch-size must be positive but was " + check_compilable_batch_size);
+    }
+
+    if (generation_workers <= 0) {
+      throw new RandoopUsageError(
+          "--generation-workers must be positive but was " + generation_workers);
+    }
+
+    if (!(pool_eviction_fraction > 0 && pool_eviction_fraction <= 1)) {
+      throw new RandoopUsageError(
+          "--pool-eviction-fraction must be in (0, 1] but was " + pool_eviction_fraction);
+    }
+
+    if (bloom_filter_megabytes <= 0 || bloom_filter_megabytes > 16384) {
+      throw new RandoopUsageError(
+          "--bloom-filter-megabytes must be between 1 and 16384 but was " + bloom_filter_megabytes);
+    }
+
+    if (execution_processes < 0) {
+      throw new RandoopUsageError(
+          "--execution-processes must be non-negative but was " + execution_processes);
+    }
+
+    if (execution_process_timeout <= 0) {
+      throw new RandoopUsageError(
+          "--execution-process-timeout must be positive but was " + execution_process_timeout);
+    }
+
+    if (sequence_flatten_depth < 0) {
+      throw new RandoopUsageError(
+          "--sequence-flatten-depth must be non-negative but was " + sequence_flatten_depth);
+    }
+
     if (maxsize <= 0) {
       throw new RandoopUsageError(
           "Maximum sequence size --maxsize must be greater than zero but was " + maxsize);
@@ -981,6 +1168,27 @@ public abstract class GenInputsAbstract extends CommandHandler {
           "Invalid parameter combination: --deterministic with --usethreads");
     }
 
+    if (deterministic && generation_workers > 1) {
+      throw new RandoopUsageError(
+          "Invalid parameter combination: --deterministic with --generation-workers > 1");
+    }
+
+    if (generation_workers > 1 && capture_output) {
+      throw new RandoopUsageError(
+          "Invalid parameter combination: --capture-output with --generation-workers > 1");
+    }
+
+    if (generation_workers > 1 && require_covered_classes != null) {
+      throw new RandoopUsageError(
+          "Invalid parameter combination: --require-covered-classes with --generation-workers > 1");
+    }
+
+    // Whether a sequence exceeds --execution-process-timeout depends on the load of the machine.
+    if (deterministic && execution_processes > 0) {
+      throw new RandoopUsageError(
+          "Invalid parameter combination: --deterministic with --execution-processes");
+    }
+
     if (deterministic && time_limit != 0) {
       throw new RandoopUsageError(
           "Invalid parameter combination: --deterministic without --time-limit=0");
@@ -1003,6 +1211,11 @@ public abstract class GenInputsAbstract extends CommandHandler {
           "Invalid parameter combination: --deterministic with --bloodhound-update-mode=time");
     }
 
+    if (bloodhound_update_interval <= 0) {
+      throw new RandoopUsageError(
+          "--bloodhound-update-interval must be positive but was " + bloodhound_update_interval);
+    }
+
     if (ReflectionExecutor.call_timeout != ReflectionExecutor.CALL_TIMEOUT_DEFAULT
         && !ReflectionExecutor.usethreads) {
       throw new RandoopUsageError(
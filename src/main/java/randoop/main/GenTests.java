@@ -31,6 +31,7 @@ import java.util.Set;
 import java.util.StringJoiner;
 import java.util.StringTokenizer;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 import org.checkerframework.checker.signature.qual.ClassGetName;
@@ -44,11 +45,12 @@ import randoop.Globals;
 import randoop.MethodReplacements;
 import randoop.condition.RandoopSpecificationError;
 import randoop.condition.SpecificationCollection;
+import randoop.execution.IsolatedSequenceExecutor;
 import randoop.execution.TestEnvironment;
 import randoop.generation.*;
 import randoop.generation.fieldcoverage.FieldCoverage;
 import randoop.generation.fieldcoverage.FieldOptionsManager;
-import randoop.generation.fieldcoverage.io.FieldExtensionsFileUtils;
+import randoop.generation.fieldcoverage.io.FieldExtensionsWriter;
 import randoop.instrument.CoveredClassVisitor;
 import randoop.operation.Operation;
 import randoop.operation.OperationParseException;
@@ -397,9 +399,14 @@ public class GenTests extends GenInputsAbstract {
     components.addAll(SeedSequences.defaultSeeds());
     components.addAll(operationModel.getAnnotatedTestValues());
 
-    ComponentManager componentMgr = new ComponentManager(components);
-    operationModel.addClassLiterals(
-        componentMgr, GenInputsAbstract.literals_file, GenInputsAbstract.literals_level);
+    OperationModel model = operationModel;
+    Supplier<ComponentManager> componentManagers =
+        () -> {
+          ComponentManager componentMgr = new ComponentManager(components);
+          model.addClassLiterals(
+              componentMgr, GenInputsAbstract.literals_file, GenInputsAbstract.literals_level);
+          return componentMgr;
+        };
 
     RandoopListenerManager listenerMgr = new RandoopListenerManager();
     MultiMap<Type, TypedClassOperation> sideEffectFreeMethodsByType = readSideEffectFreeMethods();
@@ -412,14 +419,28 @@ public class GenTests extends GenInputsAbstract {
     /*
      * Create the generator for this session.
      */
-    AbstractGenerator explorer =
-        new ForwardGenerator(
-            operations,
-            sideEffectFreeMethods,
-            new GenInputsAbstract.Limits(),
-            componentMgr,
-            listenerMgr,
-            classesUnderTest);
+    AbstractGenerator explorer;
+    if (GenInputsAbstract.generation_workers > 1) {
+      explorer =
+          new ParallelGenerator(
+              GenInputsAbstract.generation_workers,
+              operations,
+              sideEffectFreeMethods,
+              new GenInputsAbstract.Limits(),
+              componentManagers,
+              /* stopper= */ null,
+              listenerMgr,
+              classesUnderTest);
+    } else {
+      explorer =
+          new ForwardGenerator(
+              operations,
+              sideEffectFreeMethods,
+              new GenInputsAbstract.Limits(),
+              componentManagers.get(),
+              listenerMgr,
+              classesUnderTest);
+    }
 
     // log setup.
     operationModel.log();
@@ -461,13 +482,25 @@ public class GenTests extends GenInputsAbstract {
 
     // Define test predicate to decide which test sequences will be output.
     // It returns true if the sequence should be output.
+    // When compilability is checked in batches, the generator checks it separately. Parallel
+    // generators always check it separately, since each needs its own compiler.
+    boolean batchCompilable =
+        GenInputsAbstract.check_compilable
+            && (GenInputsAbstract.check_compilable_batch_size > 1
+                || GenInputsAbstract.generation_workers > 1)
+            && !GenInputsAbstract.dont_output_tests;
     Predicate<ExecutableSequence> isOutputTest =
         createTestOutputPredicate(
             excludeSet,
             operationModel.getCoveredClassesGoal(),
-            GenInputsAbstract.require_classname_in_test);
+            GenInputsAbstract.require_classname_in_test,
+            GenInputsAbstract.check_compilable && !batchCompilable);
 
     explorer.setTestPredicate(isOutputTest);
+    if (batchCompilable) {
+      explorer.setCompilableTestPredicate(
+          () -> createCompilableTestPredicate(true), GenInputsAbstract.check_compilable_batch_size);
+    }
 
     /*
      * Setup visitors
@@ -501,10 +534,21 @@ public class GenTests extends GenInputsAbstract {
     // System.out.println("isLoggingOn = " + Log.isLoggingOn());
     if (Log.isLoggingOn()) {
       Log.logPrintf("Initial sequences (seeds):%n");
-      componentMgr.log();
+      explorer.componentManager.log();
+    }
+
+    IsolatedSequenceExecutor isolatedExecutor = null;
+    if (GenInputsAbstract.execution_processes > 0) {
+      isolatedExecutor =
+          new IsolatedSequenceExecutor(
+              createTestEnvironment(classpath),
+              GenInputsAbstract.execution_processes,
+              GenInputsAbstract.execution_process_timeout);
+      explorer.setIsolatedExecutor(isolatedExecutor);
     }
 
     // Generate tests
+    long generationStart = System.currentTimeMillis();
     try {
       explorer.createAndClassifySequences();
     } catch (SequenceExceptionError e) {
@@ -524,6 +568,20 @@ public class GenTests extends GenInputsAbstract {
       System.out.printf(
           "createAndClassifySequences threw an exception%n%s%n", UtilPlume.stackTraceToString(e));
       throw e;
+    } finally {
+      if (isolatedExecutor != null) {
+        isolatedExecutor.close();
+      }
+    }
+
+    if (GenInputsAbstract.field_coverage_metrics
+        || GenInputsAbstract.field_coverage_statement_filtering) {
+      // Wait for the canonicalization work deferred during generation.
+      FieldCoverage.getInstance().flush();
+      FieldCoverage.getInstance()
+          .printGenerationMetrics(
+              explorer.componentManager.numGeneratedSequences(),
+              System.currentTimeMillis() - generationStart);
     }
 
     // post generation
@@ -565,14 +623,7 @@ public class GenTests extends GenInputsAbstract {
     }
 
     if (!GenInputsAbstract.no_regression_tests) {
-      final TestEnvironment testEnvironment =
-          new TestEnvironment(convertClasspathToAbsolute(classpath));
-      String agentPathString = MethodReplacements.getAgentPath();
-      String agentArgs = MethodReplacements.getAgentArgs();
-      if (agentPathString != null && !agentPathString.isEmpty()) {
-        Path agentPath = Paths.get(agentPathString);
-        testEnvironment.setReplaceCallAgent(agentPath, agentArgs);
-      }
+      final TestEnvironment testEnvironment = createTestEnvironment(classpath);
 
       List<ExecutableSequence> regressionSequences = explorer.getRegressionSequences();
 
@@ -810,6 +861,24 @@ public class GenTests extends GenInputsAbstract {
     return ops;
   }
 
+  /**
+   * Creates the environment for running tests and other processes with the given classpath and with
+   * the replacecall agent, if any.
+   *
+   * @param classpath the classpath of the processes
+   * @return the environment for running tests and other processes
+   */
+  private TestEnvironment createTestEnvironment(String classpath) {
+    TestEnvironment testEnvironment = new TestEnvironment(convertClasspathToAbsolute(classpath));
+    String agentPathString = MethodReplacements.getAgentPath();
+    String agentArgs = MethodReplacements.getAgentArgs();
+    if (agentPathString != null && !agentPathString.isEmpty()) {
+      Path agentPath = Paths.get(agentPathString);
+      testEnvironment.setReplaceCallAgent(agentPath, agentArgs);
+    }
+    return testEnvironment;
+  }
+
   /**
    * Convert each element of the given classpath from a relative to an absolute path.
    *
@@ -887,27 +956,41 @@ public class GenTests extends GenInputsAbstract {
               1,
               numTests);
 
-      for (int i = 0; i < numFiles; i++) {
-        List<ExecutableSequence> partition =
-            testSequences.subList(i * testsperfile, Math.min((i + 1) * testsperfile, numTests));
-        String testClassName = classNamePrefix + i;
-        testClasses.add(testClassName);
-        CompilationUnit classAST =
-            junitCreator.createTestClass(testClassName, methodNameGenerator, partition);
-        String classSource = classAST.toString();
-        Path testFile =
-            codeWriter.writeClassCode(
-                GenInputsAbstract.junit_package_name, testClassName, classSource);
-        if (FieldOptionsManager.getInstance().saveFieldExtensionsToFile()
-            && fieldExtensionsConsiderTests) {
-          File folder = testFile.getParent().toFile();
-          for (ExecutableSequence es : partition) {
-            String fieldExtensionsName = fieldExtensionsNameGenerator.next();
-            FieldExtensionsFileUtils.save(es, folder, fieldExtensionsName);
+      boolean saveFieldExtensions =
+          FieldOptionsManager.getInstance().saveFieldExtensionsToFile()
+              && fieldExtensionsConsiderTests;
+      // Field extensions are written in the background, while test classes are written.
+      FieldExtensionsWriter fieldExtensionsWriter = null;
+
+      try {
+        for (int i = 0; i < numFiles; i++) {
+          List<ExecutableSequence> partition =
+              testSequences.subList(i * testsperfile, Math.min((i + 1) * testsperfile, numTests));
+          String testClassName = classNamePrefix + i;
+          testClasses.add(testClassName);
+          CompilationUnit classAST =
+              junitCreator.createTestClass(testClassName, methodNameGenerator, partition);
+          String classSource = classAST.toString();
+          Path testFile =
+              codeWriter.writeClassCode(
+                  GenInputsAbstract.junit_package_name, testClassName, classSource);
+          if (saveFieldExtensions) {
+            if (fieldExtensionsWriter == null) {
+              File folder = testFile.getParent().toFile();
+              fieldExtensionsWriter = FieldExtensionsWriter.create(folder, classNamePrefix);
+            }
+            for (ExecutableSequence es : partition) {
+              String fieldExtensionsName = fieldExtensionsNameGenerator.next();
+              fieldExtensionsWriter.save(es, fieldExtensionsName);
+            }
+          }
+          if (GenInputsAbstract.progressdisplay) {
+            System.out.printf("Created file %s%n", testFile.toAbsolutePath());
           }
         }
-        if (GenInputsAbstract.progressdisplay) {
-          System.out.printf("Created file %s%n", testFile.toAbsolutePath());
+      } finally {
+        if (fieldExtensionsWriter != null) {
+          fieldExtensionsWriter.close();
         }
       }
 
@@ -1176,6 +1259,25 @@ public class GenTests extends GenInputsAbstract {
    */
   public Predicate<ExecutableSequence> createTestOutputPredicate(
       Set<Sequence> excludeSet, Set<Class<?>> coveredClasses, Pattern includePattern) {
+    return createTestOutputPredicate(
+        excludeSet, coveredClasses, includePattern, GenInputsAbstract.check_compilable);
+  }
+
+  /**
+   * Builds the test predicate that determines whether a particular sequence will be included in the
+   * output based on command-line arguments. A true result means the test is a candidate for output.
+   *
+   * @param excludeSet the set of sequences to exclude
+   * @param coveredClasses the list of classes to test for coverage
+   * @param includePattern the pattern for method name inclusion
+   * @param checkCompilable whether the predicate checks that the sequence is compilable
+   * @return the predicate
+   */
+  private Predicate<ExecutableSequence> createTestOutputPredicate(
+      Set<Sequence> excludeSet,
+      Set<Class<?>> coveredClasses,
+      Pattern includePattern,
+      boolean checkCompilable) {
     if (GenInputsAbstract.dont_output_tests) {
       return new AlwaysFalse<>();
     }
@@ -1206,20 +1308,30 @@ public class GenTests extends GenInputsAbstract {
 
     Predicate<ExecutableSequence> isOutputTest = baseTest.and(checkTest);
 
-    if (GenInputsAbstract.check_compilable) {
-      JUnitCreator junitCreator =
-          JUnitCreator.getTestCreator(
-              junit_package_name,
-              beforeAllFixtureBody,
-              afterAllFixtureBody,
-              beforeEachFixtureBody,
-              afterEachFixtureBody);
-      isOutputTest = isOutputTest.and(new CompilableTestPredicate(junitCreator, this));
+    if (checkCompilable) {
+      isOutputTest = isOutputTest.and(createCompilableTestPredicate(false));
     }
 
     return isOutputTest;
   }
 
+  /**
+   * Creates the predicate that checks whether sequences are compilable.
+   *
+   * @param batched true if the predicate checks batches of sequences
+   * @return the predicate
+   */
+  private CompilableTestPredicate createCompilableTestPredicate(boolean batched) {
+    JUnitCreator junitCreator =
+        JUnitCreator.getTestCreator(
+            junit_package_name,
+            beforeAllFixtureBody,
+            afterAllFixtureBody,
+            beforeEachFixtureBody,
+            afterEachFixtureBody);
+    return new CompilableTestPredicate(junitCreator, this, batched);
+  }
+
   /**
    * Creates the test check generator for this run based on the command-line arguments. The goal of
    * the generator is to produce all appropriate checks for each sequence it is applied to.
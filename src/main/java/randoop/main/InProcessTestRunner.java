@@ -0,0 +1,414 @@
+package randoop.main;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.Permission;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import randoop.compile.InMemoryClassLoader;
+import randoop.compile.SequenceCompiler;
+import randoop.compile.SequenceCompilerException;
+
+/**
+ * Compiles a JUnit test class in memory and runs it in the current JVM, for {@link Minimize}. It
+ * gives the same JUnit output as compiling the class with {@code javac} and running it with {@code
+ * java org.junit.runner.JUnitCore}, without starting a process for either.
+ *
+ * <p>Each run loads the classes of the suite classpath, including JUnit, with a new class loader,
+ * so that the static state left by one version of the test class does not affect the next. The
+ * version of the test class is loaded by a child of that class loader.
+ *
+ * <p>A run that cannot be isolated in this JVM throws {@link UnreliableRunException}: one that
+ * times out, whose thread cannot be stopped, and one that calls {@code System.exit}, which is
+ * intercepted while the runner is open. The caller should then run the test class in a new process
+ * instead.
+ *
+ * <p>A runner is not thread-safe: each thread uses its own runner.
+ */
+final class InProcessTestRunner implements AutoCloseable {
+
+  /** The name of the class that runs JUnit tests. */
+  private static final String JUNIT_CORE = "org.junit.runner.JUnitCore";
+
+  /** The compiler for the versions of the test class. */
+  private final SequenceCompiler compiler;
+
+  /** The classpath for running the test class. */
+  private final URL[] classpath;
+
+  /** The number of seconds allowed for the whole test class to run. */
+  private final int timeoutLimit;
+
+  /** The thread group of the threads that run the tests, and of the threads that they start. */
+  private final ThreadGroup threadGroup;
+
+  /** The thread that runs the tests, so that a run can be abandoned when it times out. */
+  private final ExecutorService executor;
+
+  /** True if {@code System.exit} is intercepted for the threads of {@link #threadGroup}. */
+  private final boolean exitGuarded;
+
+  /** The reason that later runs cannot be trusted, or null if every run so far was isolated. */
+  private @Nullable String unreliable = null;
+
+  /** True if a run timed out, so that its thread may still be running. */
+  private boolean timedOut = false;
+
+  /**
+   * Creates a runner that compiles and runs test classes as {@link Minimize} does in a separate
+   * process.
+   *
+   * @param file the Java file of the test class
+   * @param userClassPath the classpath to compile and run the test class, or null
+   * @param executionDir the directory in which relative classpath entries are resolved, or null for
+   *     the current directory
+   * @param timeoutLimit the number of seconds allowed for the whole test class to run
+   */
+  InProcessTestRunner(
+      Path file, @Nullable String userClassPath, @Nullable Path executionDir, int timeoutLimit) {
+    Path base = (executionDir == null ? Paths.get("") : executionDir).toAbsolutePath();
+
+    List<String> compileClasspath = new ArrayList<>();
+    compileClasspath.add(base.toString());
+    List<String> userEntries = splitClasspath(userClassPath);
+    for (String entry : userEntries) {
+      compileClasspath.add(base.resolve(entry).toString());
+    }
+    this.compiler =
+        new SequenceCompiler(
+            Arrays.asList("-classpath", String.join(Minimize.PATH_SEPARATOR, compileClasspath)));
+
+    List<URL> urls = new ArrayList<>();
+    urls.add(toURL(base));
+    if (file.getParent() != null) {
+      urls.add(toURL(base.resolve(file.getParent())));
+    }
+    for (String entry : userEntries) {
+      urls.add(toURL(base.resolve(entry)));
+    }
+    this.classpath = urls.toArray(new URL[0]);
+    this.timeoutLimit = timeoutLimit;
+    this.threadGroup = new ThreadGroup("minimizer-test-runner");
+    this.executor =
+        Executors.newSingleThreadExecutor(
+            runnable -> {
+              Thread thread = new Thread(threadGroup, runnable, "minimizer-test-runner");
+              // A daemon thread does not keep the JVM alive if a test never finishes.
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.exitGuarded = ExitGuard.add(threadGroup);
+  }
+
+  /**
+   * Returns the entries of a classpath.
+   *
+   * @param classpath a classpath, or null
+   * @return the non-empty entries of {@code classpath}
+   */
+  private static List<String> splitClasspath(@Nullable String classpath) {
+    List<String> entries = new ArrayList<>();
+    if (classpath != null) {
+      for (String entry : classpath.split(Minimize.PATH_SEPARATOR)) {
+        if (!entry.isEmpty()) {
+          entries.add(entry);
+        }
+      }
+    }
+    return entries;
+  }
+
+  /**
+   * Returns the URL of a classpath entry.
+   *
+   * @param entry a directory or jar file
+   * @return the URL of {@code entry}
+   */
+  private static URL toURL(Path entry) {
+    try {
+      return entry.toUri().toURL();
+    } catch (MalformedURLException e) {
+      throw new RandoopBug("Bad classpath entry " + entry, e);
+    }
+  }
+
+  /**
+   * Returns a class loader for the suite classpath. Its parent is the platform class loader, so
+   * that it does not load Randoop's own classes, or its version of JUnit.
+   *
+   * @return a new class loader for the suite classpath
+   */
+  private URLClassLoader newSuiteLoader() {
+    return new URLClassLoader(classpath, ClassLoader.getSystemClassLoader().getParent());
+  }
+
+  /**
+   * Returns true if this runner can run tests: JUnit is on the suite classpath, and calls to {@code
+   * System.exit} can be intercepted in this JVM.
+   *
+   * @return true if JUnit can be loaded from the suite classpath and {@code System.exit} is guarded
+   */
+  boolean canRunTests() {
+    if (!exitGuarded) {
+      return false;
+    }
+    URLClassLoader suiteLoader = newSuiteLoader();
+    try {
+      Class.forName(JUNIT_CORE, false, suiteLoader);
+      return true;
+    } catch (ClassNotFoundException | LinkageError e) {
+      return false;
+    } finally {
+      closeQuietly(suiteLoader);
+    }
+  }
+
+  /**
+   * Compiles and runs a version of the test class, and returns its JUnit output.
+   *
+   * @param packageName the package of the test class, or null for the default package
+   * @param className the simple name of the test class
+   * @param javaSource the source text of the test class
+   * @return the JUnit output, or null if the class does not compile or cannot be run
+   * @throws UnreliableRunException if the run, or an earlier run, timed out or called {@code
+   *     System.exit}
+   */
+  @Nullable String compileAndRun(@Nullable String packageName, String className, String javaSource)
+      throws UnreliableRunException {
+    if (unreliable != null) {
+      throw new UnreliableRunException(unreliable);
+    }
+    Map<String, byte[]> classFiles;
+    try {
+      classFiles = compiler.compileToClassFiles(packageName, className, javaSource);
+    } catch (SequenceCompilerException e) {
+      return null;
+    }
+    return run(packageName == null ? className : packageName + "." + className, classFiles);
+  }
+
+  /**
+   * Runs the tests of a compiled test class with JUnit, and returns the output of JUnit.
+   *
+   * @param testClassName the binary name of the test class
+   * @param classFiles the class files of the test class, by binary name
+   * @return the output of JUnit, or null if the class cannot be run
+   * @throws UnreliableRunException if the run times out or calls {@code System.exit}
+   */
+  private @Nullable String run(String testClassName, Map<String, byte[]> classFiles)
+      throws UnreliableRunException {
+    URLClassLoader suiteLoader = newSuiteLoader();
+    InMemoryClassLoader testLoader = new InMemoryClassLoader(classFiles, suiteLoader);
+    Future<String> future = executor.submit(() -> runJUnit(testLoader, testClassName));
+    String output;
+    try {
+      output = future.get(timeoutLimit, TimeUnit.SECONDS);
+    } catch (TimeoutException e) {
+      // The thread cannot be stopped, and may still change the state of this JVM.
+      future.cancel(true);
+      timedOut = true;
+      unreliable = "A test did not finish within " + timeoutLimit + " seconds";
+      throw new UnreliableRunException(unreliable);
+    } catch (ExecutionException e) {
+      output = null;
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      output = null;
+    }
+    closeQuietly(suiteLoader);
+    if (ExitGuard.exitCalled(threadGroup)) {
+      unreliable = "A test called System.exit";
+      throw new UnreliableRunException(unreliable);
+    }
+    return output;
+  }
+
+  /**
+   * Runs the tests of a class with JUnit, as {@code JUnitCore.main} does but without exiting.
+   *
+   * @param loader the class loader for the test class
+   * @param testClassName the binary name of the test class
+   * @return the output of JUnit
+   * @throws ReflectiveOperationException if JUnit or the test class cannot be loaded or called
+   * @throws UnsupportedEncodingException if UTF-8 is not supported
+   */
+  private static String runJUnit(ClassLoader loader, String testClassName)
+      throws ReflectiveOperationException, UnsupportedEncodingException {
+    Class<?> testClass = Class.forName(testClassName, false, loader);
+    Class<?> jUnitCoreClass = Class.forName(JUNIT_CORE, true, loader);
+    Class<?> listenerClass =
+        Class.forName("org.junit.runner.notification.RunListener", true, loader);
+    Class<?> textListenerClass = Class.forName("org.junit.internal.TextListener", true, loader);
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    PrintStream out = new PrintStream(bytes, true, UTF_8.name());
+    Object jUnitCore = jUnitCoreClass.getConstructor().newInstance();
+    Object listener = textListenerClass.getConstructor(PrintStream.class).newInstance(out);
+    jUnitCoreClass.getMethod("addListener", listenerClass).invoke(jUnitCore, listener);
+    // JUnit reports the failures of the tests in its output, so an exception here is a failure of
+    // JUnit itself.
+    jUnitCoreClass
+        .getMethod("run", Class[].class)
+        .invoke(jUnitCore, (Object) new Class<?>[] {testClass});
+    out.flush();
+    return bytes.toString(UTF_8.name());
+  }
+
+  /**
+   * Closes a class loader, ignoring failures.
+   *
+   * @param loader the class loader to close
+   */
+  private static void closeQuietly(URLClassLoader loader) {
+    try {
+      loader.close();
+    } catch (IOException e) {
+      // The class loader only holds open jar files.
+    }
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+    // After a timeout, a test thread may still be running, so System.exit stays intercepted.
+    if (!timedOut) {
+      ExitGuard.remove(threadGroup);
+    }
+  }
+
+  /**
+   * Thrown when a run of the test class cannot be isolated from this JVM, so that neither it nor
+   * later runs in the same runner can be trusted.
+   */
+  static final class UnreliableRunException extends IOException {
+
+    /** Unique identifier for serialization. */
+    private static final long serialVersionUID = 20201018L;
+
+    /**
+     * Creates an {@link UnreliableRunException}.
+     *
+     * @param message the reason that the run cannot be trusted
+     */
+    UnreliableRunException(String message) {
+      super(message);
+    }
+  }
+
+  /**
+   * Intercepts calls to {@code System.exit} from the threads of the runners, while any runner is
+   * open. It is a security manager that permits everything else, and is installed only if no other
+   * security manager is.
+   */
+  @SuppressWarnings("removal") // SecurityManager is deprecated for removal in recent JDKs
+  private static final class ExitGuard extends SecurityManager {
+
+    /** The installed guard, or null if none is installed. */
+    private static @Nullable ExitGuard installed = null;
+
+    /** The thread groups whose calls to {@code System.exit} are intercepted. */
+    private final Set<ThreadGroup> guarded = ConcurrentHashMap.newKeySet();
+
+    /** The thread groups in which {@code System.exit} was called. */
+    private final Set<ThreadGroup> exited = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Intercepts {@code System.exit} for the threads of a thread group, installing the guard if
+     * needed.
+     *
+     * @param group the thread group of a runner
+     * @return true if calls to {@code System.exit} from {@code group} are intercepted, false if the
+     *     guard cannot be installed
+     */
+    static synchronized boolean add(ThreadGroup group) {
+      if (installed == null) {
+        ExitGuard guard = new ExitGuard();
+        try {
+          if (System.getSecurityManager() != null) {
+            return false;
+          }
+          System.setSecurityManager(guard);
+        } catch (SecurityException | UnsupportedOperationException e) {
+          // Recent JDKs do not allow a security manager to be installed at run time.
+          return false;
+        }
+        installed = guard;
+      }
+      installed.guarded.add(group);
+      return true;
+    }
+
+    /**
+     * Stops intercepting {@code System.exit} for a thread group, and uninstalls the guard if no
+     * thread group is left.
+     *
+     * @param group the thread group of a runner
+     */
+    static synchronized void remove(ThreadGroup group) {
+      if (installed == null) {
+        return;
+      }
+      installed.guarded.remove(group);
+      installed.exited.remove(group);
+      if (installed.guarded.isEmpty()) {
+        if (System.getSecurityManager() == installed) {
+          System.setSecurityManager(null);
+        }
+        installed = null;
+      }
+    }
+
+    /**
+     * Returns true if {@code System.exit} was called by a thread of a thread group.
+     *
+     * @param group the thread group of a runner
+     * @return true if a thread of {@code group} called {@code System.exit}
+     */
+    static synchronized boolean exitCalled(ThreadGroup group) {
+      return installed != null && installed.exited.contains(group);
+    }
+
+    @Override
+    public void checkExit(int status) {
+      for (ThreadGroup group = Thread.currentThread().getThreadGroup();
+          group != null;
+          group = group.getParent()) {
+        if (guarded.contains(group)) {
+          exited.add(group);
+          throw new SecurityException("System.exit(" + status + ") called by a test");
+        }
+      }
+    }
+
+    @Override
+    public void checkPermission(Permission perm) {
+      // Everything other than System.exit is permitted.
+    }
+
+    @Override
+    public void checkPermission(Permission perm, Object context) {
+      // Everything other than System.exit is permitted.
+    }
+  }
+}
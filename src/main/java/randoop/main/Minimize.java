@@ -6,6 +6,7 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 import com.github.javaparser.JavaParser;
 import com.github.javaparser.ParseResult;
 import com.github.javaparser.Problem;
+import com.github.javaparser.Range;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.ImportDeclaration;
 import com.github.javaparser.ast.Node;
@@ -37,11 +38,13 @@ import com.github.javaparser.ast.type.PrimitiveType;
 import com.github.javaparser.ast.type.ReferenceType;
 import com.github.javaparser.ast.type.Type;
 import com.github.javaparser.ast.visitor.CloneVisitor;
+import com.github.javaparser.metamodel.PropertyMetaModel;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.StringReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -59,6 +62,8 @@ import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -66,6 +71,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.IntFunction;
 import org.apache.commons.exec.CommandLine;
 import org.apache.commons.exec.DefaultExecuteResultHandler;
 import org.apache.commons.exec.DefaultExecutor;
@@ -73,10 +79,12 @@ import org.apache.commons.exec.ExecuteWatchdog;
 import org.apache.commons.exec.PumpStreamHandler;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.plumelib.options.Option;
 import org.plumelib.options.OptionGroup;
 import org.plumelib.options.Options;
 import randoop.Globals;
+import randoop.main.InProcessTestRunner.UnreliableRunException;
 import randoop.output.ClassRenamingVisitor;
 import randoop.output.ClassTypeNameSimplifyVisitor;
 import randoop.output.ClassTypeVisitor;
@@ -95,16 +103,25 @@ import randoop.output.PrimitiveAndWrappedTypeVarNameCollector;
  * </ol>
  *
  * <p>The minimizer will only attempt to minimize methods that are annotated with the @Test
- * annotation. In a method that contains a failing assertion, the minimizer will iterate through the
- * statements of the method, from last to first. For each statement, it tries possible replacement
- * statements, from most minimized to least minimized. Removing the statement is the most a
- * statement can be minimized. Leaving the statement unchanged is the least that the statement can
- * be minimized.
+ * annotation. In a method that contains a failing assertion, the minimizer first tries to remove
+ * chunks of consecutive statements, as in delta debugging. Then it will iterate through the
+ * remaining statements of the method, from last to first. For each statement, it tries possible
+ * replacement statements, from most minimized to least minimized. Removing the statement is the
+ * most a statement can be minimized. Leaving the statement unchanged is the least that the
+ * statement can be minimized.
  *
  * <p>If a replacement causes the output test suite to fail differently than the original test
  * suite, the algorithm tries a different replacement. If no replacement allows the output test
  * suite to fail in the same way as the original test suite, the algorithm adds back the original
- * version of the current statement and continues.
+ * version of the current statement and continues. Two failures are the same if they have the same
+ * stack trace, and are thrown by the same statement of the original test suite: a failing assertion
+ * is not replaced by an identical one elsewhere in the test.
+ *
+ * <p>By default, each version of the test suite is compiled in memory and run in the minimizer's
+ * JVM, and the test methods are minimized in parallel (see {@link InProcessTestRunner}). Otherwise,
+ * or if a version times out or calls {@code System.exit}, or if the result fails differently when
+ * run in a new process, each version is written to disk, compiled by {@code javac}, and run by
+ * {@code java} in new processes.
  */
 public class Minimize extends CommandHandler {
 
@@ -137,6 +154,21 @@ public class Minimize extends CommandHandler {
   @Option("Verbose, flag for verbose output")
   public static boolean verboseminimizer = false;
 
+  /**
+   * Compile and run the versions of the test suite in the minimizer's JVM, rather than in a new
+   * process for each. The minimized test suite is then checked in a new process, and minimized
+   * again with new processes if it fails differently there, or if a version times out or calls
+   * System.exit.
+   */
+  @SuppressWarnings("WeakerAccess")
+  @Option("Compile and run the test suite in the minimizer's JVM")
+  public static boolean minimizeinprocess = true;
+
+  /** The number of test methods minimized at the same time, when minimizing in-process. */
+  @SuppressWarnings("WeakerAccess")
+  @Option("Number of test methods to minimize in parallel")
+  public static int minimizethreads = Runtime.getRuntime().availableProcessors();
+
   /** An instance of a Java parser. */
   private static final JavaParser javaParser = new JavaParser();
 
@@ -160,7 +192,7 @@ public class Minimize extends CommandHandler {
   }
 
   /** Path separator as defined by the system, used to separate elements of the classpath. */
-  private static final String PATH_SEPARATOR = System.getProperty("path.separator");
+  static final String PATH_SEPARATOR = System.getProperty("path.separator");
 
   /** The suffix to postpend onto the name of the minimized file and class. */
   private static final String SUFFIX = "Minimized";
@@ -214,6 +246,11 @@ public class Minimize extends CommandHandler {
           "Minimizer timout must be positive, was given as " + Minimize.minimizetimeout + ".");
     }
 
+    if (Minimize.minimizethreads <= 0) {
+      throw new RandoopCommandError(
+          "Minimizer threads must be positive, was given as " + Minimize.minimizethreads + ".");
+    }
+
     // File object pointing to the file to be minimized.
     final Path originalFile = Paths.get(suitepath);
 
@@ -343,24 +380,40 @@ public class Minimize extends CommandHandler {
     // expectedOutput is a map from method name to failure stack trace with
     // line numbers removed.
     String runResult = runJavaFile(minimizedFile, classPath, packageName, timeoutLimit);
-    Map<String, String> expectedOutput = normalizeJUnitOutput(runResult);
+    Map<String, String> expectedOutput =
+        normalizeJUnitOutput(runResult, compilationUnit, minimizedFile.getFileName().toString());
+
+    SuiteCheck processCheck =
+        processCheck(minimizedFile, classPath, packageName, expectedOutput, timeoutLimit);
+
+    CompilationUnit result = null;
+    if (minimizeinprocess) {
+      result =
+          minimizeInProcess(
+              compilationUnit,
+              packageName,
+              minimizedFile,
+              classPath,
+              timeoutLimit,
+              minimizethreads,
+              verboseOutput);
+      if (result != null && !processCheck.isCorrect(result)) {
+        System.out.println(
+            "The test suite minimized in-process fails differently in a new process."
+                + " Minimizing again with new processes.");
+        result = null;
+      }
+    }
 
-    // Minimize the Java test suite.
-    minimizeTestSuite(
-        compilationUnit, packageName, minimizedFile, classPath, expectedOutput, timeoutLimit);
+    if (result == null) {
+      // Minimize the Java test suite.
+      minimizeTestSuite(compilationUnit, processCheck);
 
-    // Cleanup: simplify type names and sort the import statements.
-    compilationUnit =
-        simplifyTypeNames(
-            compilationUnit,
-            packageName,
-            minimizedFile,
-            classPath,
-            expectedOutput,
-            timeoutLimit,
-            verboseOutput);
+      // Cleanup: simplify type names and sort the import statements.
+      result = simplifyTypeNames(compilationUnit, processCheck, verboseOutput);
+    }
 
-    writeToFile(compilationUnit, minimizedFile);
+    writeToFile(result, minimizedFile);
 
     // Delete the .class file associated with the minimized Java file.
     cleanUp(minimizedFile, verboseOutput);
@@ -372,23 +425,277 @@ public class Minimize extends CommandHandler {
   }
 
   /**
-   * Visit and minimize every JUnit test method within a compilation unit.
+   * Checks whether a version of the test suite is a correct minimization: it compiles, runs, and
+   * fails in the same way as the original test suite.
+   */
+  @FunctionalInterface
+  private interface SuiteCheck {
+    /**
+     * Returns true if the given version of the test suite fails in the same way as the original.
+     *
+     * @param compilationUnit the version of the test suite
+     * @return true if {@code compilationUnit} is a correct minimization of the test suite
+     * @throws IOException if the test suite cannot be written to file
+     */
+    boolean isCorrect(CompilationUnit compilationUnit) throws IOException;
+  }
+
+  /**
+   * Returns a check that writes each version of the test suite to the given file, then compiles and
+   * runs it in new processes.
    *
-   * @param compilationUnit the compilation unit to minimize; is modified by side effect
-   * @param packageName the package that the Java file is in
    * @param file the Java file that is being minimized; is modified by side effect
    * @param classpath classpath used to compile and run the Java file
+   * @param packageName the package that the Java file is in
    * @param expectedOutput expected JUnit output when the Java file is compiled and run
    * @param timeoutLimit number of seconds allowed for the whole test suite to run
-   * @throws IOException thrown if minimized method can't be written to file
+   * @return a check that uses new processes
    */
-  private static void minimizeTestSuite(
+  private static SuiteCheck processCheck(
+      Path file,
+      String classpath,
+      String packageName,
+      Map<String, String> expectedOutput,
+      int timeoutLimit) {
+    return compilationUnit -> {
+      writeToFile(compilationUnit, file);
+      return checkCorrectlyMinimized(
+          file, compilationUnit, classpath, packageName, expectedOutput, timeoutLimit);
+    };
+  }
+
+  /**
+   * Minimize the test suite by compiling and running its versions in this JVM, with an {@link
+   * InProcessTestRunner}. Each test method is minimized in a copy of the test class that has no
+   * other test methods, so that the test methods can be minimized in parallel, and each run only
+   * runs one test.
+   *
+   * <p>The result is not checked in a new process, as the original test suite was; the caller
+   * should do so.
+   *
+   * @param compilationUnit the compilation unit of the test suite; is not modified
+   * @param packageName the package that the Java file is in
+   * @param file the Java file that is being minimized
+   * @param classpath classpath used to compile and run the Java file
+   * @param timeoutLimit number of seconds allowed for the whole test suite to run
+   * @param threads the number of test methods to minimize at the same time
+   * @param verboseOutput whether to produce verbose output
+   * @return the minimized test suite, or null if the test suite cannot be run in this JVM, or a run
+   *     times out or calls {@code System.exit}
+   * @throws IOException if the minimization is interrupted
+   */
+  private static @Nullable CompilationUnit minimizeInProcess(
       CompilationUnit compilationUnit,
       String packageName,
       Path file,
       String classpath,
-      Map<String, String> expectedOutput,
-      int timeoutLimit)
+      int timeoutLimit,
+      int threads,
+      boolean verboseOutput)
+      throws IOException {
+    System.out.println("Minimizing test suite.");
+
+    String className = FilenameUtils.getBaseName(file.toString());
+    String fileName = file.getFileName().toString();
+    Path executionDir = getExecutionDirectory(file, packageName);
+
+    // Copies keep the positions of the statements in the original test suite, which identify the
+    // failing statements.
+    CompilationUnit result = compilationUnit.clone();
+    List<MethodDeclaration> testMethods = getTestMethods(result);
+    int numberOfRunners = Math.max(1, Math.min(threads, testMethods.size()));
+
+    // Each thread takes a runner for as long as it minimizes a test method.
+    List<InProcessTestRunner> allRunners = new ArrayList<>(numberOfRunners);
+    BlockingQueue<InProcessTestRunner> runners = new ArrayBlockingQueue<>(numberOfRunners);
+    ExecutorService executor = Executors.newFixedThreadPool(numberOfRunners);
+    try {
+      for (int i = 0; i < numberOfRunners; i++) {
+        InProcessTestRunner runner =
+            new InProcessTestRunner(file, classpath, executionDir, timeoutLimit);
+        allRunners.add(runner);
+        runners.add(runner);
+      }
+      InProcessTestRunner runner = runners.peek();
+      if (!runner.canRunTests()) {
+        System.out.println(
+            "JUnit is not on the suite classpath, or System.exit cannot be intercepted;"
+                + " minimizing with new processes.");
+        return null;
+      }
+      String output = runner.compileAndRun(packageName, className, result.toString());
+      if (output == null) {
+        System.out.println("Cannot run the test suite in-process; minimizing with new processes.");
+        return null;
+      }
+      Map<String, String> expectedOutput = normalizeJUnitOutput(output, result, fileName);
+
+      // Find all the names of the primitive and wrapped types.
+      Set<String> primitiveAndWrappedTypes = new HashSet<>();
+      new PrimitiveAndWrappedTypeVarNameCollector().visit(result, primitiveAndWrappedTypes);
+
+      List<Future<@Nullable MethodDeclaration>> minimizedMethods = new ArrayList<>();
+      for (MethodDeclaration method : testMethods) {
+        String methodName = method.getNameAsString();
+        CompilationUnit copy = result.clone();
+        minimizedMethods.add(
+            executor.submit(
+                () ->
+                    minimizeMethodInProcess(
+                        copy,
+                        methodName,
+                        packageName,
+                        className,
+                        fileName,
+                        primitiveAndWrappedTypes,
+                        runners)));
+      }
+
+      for (int i = 0; i < testMethods.size(); i++) {
+        MethodDeclaration minimizedMethod;
+        try {
+          minimizedMethod = minimizedMethods.get(i).get();
+        } catch (InterruptedException e) {
+          throw new InterruptedIOException("Minimization was interrupted");
+        } catch (ExecutionException e) {
+          Throwable cause = e.getCause();
+          if (cause instanceof UnreliableRunException) {
+            throw (UnreliableRunException) cause;
+          } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+          } else if (cause instanceof Error) {
+            throw (Error) cause;
+          }
+          throw new IOException(cause);
+        }
+        if (minimizedMethod == null) {
+          System.out.println(
+              "Cannot run test method "
+                  + testMethods.get(i).getName()
+                  + " in-process; minimizing with new processes.");
+          return null;
+        }
+        minimizedMethod.getBody().ifPresent(testMethods.get(i)::setBody);
+        printProgress(i + 1, testMethods.size(), testMethods.get(i).getName());
+      }
+
+      SuiteCheck check =
+          version -> {
+            InProcessTestRunner r = takeRunner(runners);
+            try {
+              String versionOutput = r.compileAndRun(packageName, className, version.toString());
+              return versionOutput != null
+                  && expectedOutput.equals(normalizeJUnitOutput(versionOutput, version, fileName));
+            } finally {
+              runners.add(r);
+            }
+          };
+      return simplifyTypeNames(result, check, verboseOutput);
+    } catch (UnreliableRunException e) {
+      System.out.println(e.getMessage() + " in-process; minimizing with new processes.");
+      return null;
+    } finally {
+      executor.shutdownNow();
+      try {
+        // Let the threads that are minimizing other test methods stop, before closing their
+        // runners.
+        executor.awaitTermination(timeoutLimit, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      for (InProcessTestRunner r : allRunners) {
+        r.close();
+      }
+    }
+  }
+
+  /**
+   * Minimize one test method of a test suite in this JVM, in a copy of the test class that has no
+   * other test methods.
+   *
+   * @param compilationUnit a copy of the test suite; is modified by side effect
+   * @param methodName the name of the test method to minimize
+   * @param packageName the package that the test suite is in
+   * @param className the simple name of the test class
+   * @param fileName the name of the Java file of the test class
+   * @param primitiveAndWrappedTypes the names of all primitive and wrapped type variables of the
+   *     test suite
+   * @param runners the runners to compile and run the test class with; one is taken while the
+   *     method is minimized
+   * @return the minimized method, or null if the copy of the test class cannot be run in this JVM
+   * @throws UnreliableRunException if a run times out or calls {@code System.exit}
+   * @throws IOException if the minimization is interrupted
+   */
+  private static @Nullable MethodDeclaration minimizeMethodInProcess(
+      CompilationUnit compilationUnit,
+      String methodName,
+      String packageName,
+      String className,
+      String fileName,
+      Set<String> primitiveAndWrappedTypes,
+      BlockingQueue<InProcessTestRunner> runners)
+      throws IOException {
+    MethodDeclaration method = null;
+    for (MethodDeclaration testMethod : getTestMethods(compilationUnit)) {
+      if (method == null && testMethod.getNameAsString().equals(methodName)) {
+        method = testMethod;
+      } else {
+        testMethod.remove();
+      }
+    }
+    if (method == null) {
+      throw new RandoopBug("Did not find test method " + methodName);
+    }
+
+    InProcessTestRunner runner = takeRunner(runners);
+    try {
+      String output = runner.compileAndRun(packageName, className, compilationUnit.toString());
+      if (output == null) {
+        return null;
+      }
+      Map<String, String> expectedOutput = normalizeJUnitOutput(output, compilationUnit, fileName);
+      minimizeMethod(
+          method,
+          compilationUnit,
+          primitiveAndWrappedTypes,
+          version -> {
+            if (Thread.currentThread().isInterrupted()) {
+              throw new InterruptedIOException("Minimization was interrupted");
+            }
+            String versionOutput = runner.compileAndRun(packageName, className, version.toString());
+            return versionOutput != null
+                && expectedOutput.equals(normalizeJUnitOutput(versionOutput, version, fileName));
+          });
+      return method;
+    } finally {
+      runners.add(runner);
+    }
+  }
+
+  /**
+   * Takes a runner from the given queue, waiting for one if needed.
+   *
+   * @param runners the available runners
+   * @return a runner, which the caller returns to {@code runners} when done with it
+   * @throws InterruptedIOException if interrupted while waiting
+   */
+  private static InProcessTestRunner takeRunner(BlockingQueue<InProcessTestRunner> runners)
+      throws InterruptedIOException {
+    try {
+      return runners.take();
+    } catch (InterruptedException e) {
+      throw new InterruptedIOException("Minimization was interrupted");
+    }
+  }
+
+  /**
+   * Visit and minimize every JUnit test method within a compilation unit.
+   *
+   * @param compilationUnit the compilation unit to minimize; is modified by side effect
+   * @param check checks each version of the test suite
+   * @throws IOException thrown if minimized method can't be written to file
+   */
+  private static void minimizeTestSuite(CompilationUnit compilationUnit, SuiteCheck check)
       throws IOException {
     System.out.println("Minimizing test suite.");
 
@@ -402,14 +709,12 @@ public class Minimize extends CommandHandler {
 
           // Minimize the method only if it is a JUnit test method.
           if (isTestMethod(method)) {
-            minimizeMethod(
-                method,
-                compilationUnit,
-                packageName,
-                file,
-                classpath,
-                expectedOutput,
-                timeoutLimit);
+            // Find all the names of the primitive and wrapped types.
+            Set<String> primitiveAndWrappedTypes = new HashSet<>();
+            new PrimitiveAndWrappedTypeVarNameCollector()
+                .visit(compilationUnit, primitiveAndWrappedTypes);
+
+            minimizeMethod(method, compilationUnit, primitiveAndWrappedTypes, check);
             printProgress(++numberOfMinimizedTests, numberOfTestMethods, method.getName());
           }
         }
@@ -436,26 +741,22 @@ public class Minimize extends CommandHandler {
   }
 
   /**
-   * Minimize a method by minimizing each statement in turn.
+   * Minimize a method by removing chunks of statements, then minimizing each remaining statement in
+   * turn.
    *
    * @param method the method to minimize; is modified by side effect
    * @param compilationUnit compilation unit for the Java file that we are minimizing; is modified
    *     by side effect
-   * @param packageName the package that the Java file is in
-   * @param file the Java file that is being minimized; is modified by side effect
-   * @param classpath classpath needed to compile and run the Java file
-   * @param expectedOutput expected output from running the JUnit test suite
-   * @param timeoutLimit number of seconds allowed for the whole test suite to run
+   * @param primitiveAndWrappedTypes set containing the names of all primitive and wrapped type
+   *     variables
+   * @param check checks each version of the test suite
    * @throws IOException thrown if write to file fails
    */
   private static void minimizeMethod(
       MethodDeclaration method,
       CompilationUnit compilationUnit,
-      String packageName,
-      Path file,
-      String classpath,
-      Map<String, String> expectedOutput,
-      int timeoutLimit)
+      Set<String> primitiveAndWrappedTypes,
+      SuiteCheck check)
       throws IOException {
     Optional<BlockStmt> oBlockStmt = method.getBody();
     if (!oBlockStmt.isPresent()) {
@@ -468,9 +769,8 @@ public class Minimize extends CommandHandler {
     // from a passing assertion.
     Map<String, String> primitiveValues = new HashMap<>();
 
-    // Find all the names of the primitive and wrapped types.
-    Set<String> primitiveAndWrappedTypes = new HashSet<>();
-    new PrimitiveAndWrappedTypeVarNameCollector().visit(compilationUnit, primitiveAndWrappedTypes);
+    removeStatementChunks(
+        statements, compilationUnit, primitiveValues, primitiveAndWrappedTypes, check);
 
     // Iterate through the list of statements, from last to first.
     for (int i = statements.size() - 1; i >= 0; i--) {
@@ -494,9 +794,8 @@ public class Minimize extends CommandHandler {
           statements.add(i, stmt);
         }
 
-        // Write, compile, and run the new Java file.
-        writeToFile(compilationUnit, file);
-        if (checkCorrectlyMinimized(file, classpath, packageName, expectedOutput, timeoutLimit)) {
+        // Compile and run the new Java file.
+        if (check.isCorrect(compilationUnit)) {
           // No compilation or runtime issues, obtained output is the same as the expected output.
           // Use simplification of this statement and continue with next statement.
           replacementFound = true;
@@ -526,6 +825,110 @@ public class Minimize extends CommandHandler {
     }
   }
 
+  /**
+   * Remove chunks of consecutive statements, in the manner of delta debugging (ddmin). First try to
+   * remove each half of the statements, then each quarter, and so on down to chunks of two
+   * statements. After a chunk is removed, the statements are split into fewer chunks again. When
+   * most statements of a failing test are irrelevant to the failure, this takes far fewer runs of
+   * the test suite than removing one statement at a time. Single statements are left to {@link
+   * #minimizeMethod}, which also tries to simplify them.
+   *
+   * @param statements the statements of a method body; is modified by side effect
+   * @param compilationUnit compilation unit for the Java file that we are minimizing
+   * @param primitiveValues map from primitive variable name to the variable's value; modified to
+   *     hold the values asserted by removed assertions
+   * @param primitiveAndWrappedTypes set containing the names of all primitive and wrapped type
+   *     variables
+   * @param check checks each version of the test suite
+   * @throws IOException thrown if write to file fails
+   */
+  private static void removeStatementChunks(
+      List<Statement> statements,
+      CompilationUnit compilationUnit,
+      Map<String, String> primitiveValues,
+      Set<String> primitiveAndWrappedTypes,
+      SuiteCheck check)
+      throws IOException {
+    int numberOfChunks = 2;
+    while (true) {
+      int size = statements.size();
+      int chunkSize = (size + numberOfChunks - 1) / numberOfChunks;
+      if (chunkSize < 2) {
+        return;
+      }
+      boolean removed = false;
+      // Iterate through the chunks, from last to first.
+      for (int start = ((size - 1) / chunkSize) * chunkSize; start >= 0; start -= chunkSize) {
+        int end = Math.min(start + chunkSize, size);
+        if (removeStatements(
+            statements,
+            start,
+            end,
+            compilationUnit,
+            primitiveValues,
+            primitiveAndWrappedTypes,
+            check)) {
+          removed = true;
+          break;
+        }
+      }
+      if (removed) {
+        numberOfChunks = Math.max(numberOfChunks - 1, 2);
+      } else {
+        numberOfChunks *= 2;
+      }
+    }
+  }
+
+  /**
+   * Remove a range of statements if the test suite still fails in the same way without them.
+   *
+   * @param statements the statements of a method body; is modified by side effect
+   * @param start the index of the first statement to remove
+   * @param end the index after the last statement to remove
+   * @param compilationUnit compilation unit for the Java file that we are minimizing
+   * @param primitiveValues map from primitive variable name to the variable's value; modified to
+   *     hold the values asserted by the removed assertions
+   * @param primitiveAndWrappedTypes set containing the names of all primitive and wrapped type
+   *     variables
+   * @param check checks each version of the test suite
+   * @return true if the statements were removed
+   * @throws IOException thrown if write to file fails
+   */
+  private static boolean removeStatements(
+      List<Statement> statements,
+      int start,
+      int end,
+      CompilationUnit compilationUnit,
+      Map<String, String> primitiveValues,
+      Set<String> primitiveAndWrappedTypes,
+      SuiteCheck check)
+      throws IOException {
+    List<Statement> removed = new ArrayList<>(statements.subList(start, end));
+    List<Comment> orphanComments = new ArrayList<>();
+    for (Statement stmt : removed) {
+      getOrphanCommentsBeforeThisChildNode(stmt, orphanComments);
+    }
+    Node parent = removed.get(0).getParentNode().get();
+
+    for (int i = end - 1; i >= start; i--) {
+      statements.remove(i);
+    }
+    if (check.isCorrect(compilationUnit)) {
+      for (Comment oc : orphanComments) {
+        parent.removeOrphanComment(oc);
+      }
+      for (int i = removed.size() - 1; i >= 0; i--) {
+        storeValueFromAssertion(removed.get(i), primitiveValues, primitiveAndWrappedTypes);
+      }
+      return true;
+    }
+    for (int i = 0; i < removed.size(); i++) {
+      statements.add(start + i, removed.get(i));
+    }
+    return false;
+  }
+
   /**
    * If {@code currStmt} is an assertion about a primitive value, store the value associated with
    * the variable in the {@code primitiveValues} map.
@@ -887,24 +1290,13 @@ public class Minimize extends CommandHandler {
    *
    * @param compilationUnit compilation unit containing an AST for a Java file, the compilation unit
    *     will be modified if a correct minimization of the method is found
-   * @param packageName the package that the Java file is in
-   * @param file the Java file to simplify; is modified by side effect
-   * @param classpath classpath needed to compile and run the Java file
-   * @param expectedOutput expected standard output from running the JUnit test suite
-   * @param timeoutLimit number of seconds allowed for the whole test suite to run
+   * @param check checks each version of the test suite
    * @param verboseOutput whether or not to output information about minimization status
    * @return {@code CompilationUnit} with fully-qualified type names simplified to simple type names
    * @throws IOException thrown if write to file fails
    */
   private static CompilationUnit simplifyTypeNames(
-      CompilationUnit compilationUnit,
-      String packageName,
-      Path file,
-      String classpath,
-      Map<String, String> expectedOutput,
-      int timeoutLimit,
-      boolean verboseOutput)
-      throws IOException {
+      CompilationUnit compilationUnit, SuiteCheck check, boolean verboseOutput) throws IOException {
     if (verboseOutput) {
       System.out.println("Adding imports and simplifying type names.");
     }
@@ -935,8 +1327,7 @@ public class Minimize extends CommandHandler {
       new FieldAccessTypeNameSimplifyVisitor().visit(compUnitWithSimpleTypeNames, type);
 
       // Check that the simplification is correct.
-      writeToFile(compUnitWithSimpleTypeNames, file);
-      if (checkCorrectlyMinimized(file, classpath, packageName, expectedOutput, timeoutLimit)) {
+      if (check.isCorrect(compUnitWithSimpleTypeNames)) {
         result = compUnitWithSimpleTypeNames;
       }
     }
@@ -951,6 +1342,7 @@ public class Minimize extends CommandHandler {
    * or run-time errors. The file should fail in the same way as the original file.
    *
    * @param file the file being checked
+   * @param compilationUnit the version of the test suite in {@code file}
    * @param classpath classpath needed to compile/run the Java file
    * @param packageName the package that the Java file is in
    * @param expectedOutput expected output of running the JUnit test suite
@@ -960,6 +1352,7 @@ public class Minimize extends CommandHandler {
    */
   private static boolean checkCorrectlyMinimized(
       Path file,
+      CompilationUnit compilationUnit,
       String classpath,
       String packageName,
       Map<String, String> expectedOutput,
@@ -974,7 +1367,8 @@ public class Minimize extends CommandHandler {
     String runResult = runJavaFile(file, classpath, packageName, timeoutLimit);
 
     // Compare the standard output with the expected output.
-    return expectedOutput.equals(normalizeJUnitOutput(runResult));
+    return expectedOutput.equals(
+        normalizeJUnitOutput(runResult, compilationUnit, file.getFileName().toString()));
   }
 
   /**
@@ -1157,7 +1551,42 @@ public class Minimize extends CommandHandler {
    * @return a map from method name to the method's failure stack trace. The stack trace will not
    *     contain any line numbers.
    */
-  private static Map<String, String> normalizeJUnitOutput(String input) {
+  static Map<String, String> normalizeJUnitOutput(String input) {
+    return normalizeOutput(input, null, null);
+  }
+
+  /**
+   * Normalize the standard output obtained from running a version of the test suite, as {@link
+   * #normalizeJUnitOutput(String)} does, and identify the failing statements. Each stack frame in
+   * the test class is followed by the position of its statement in the original test suite, which
+   * does not change as other statements are removed. Two failures with the same stack trace, thrown
+   * by identical assertions, are thus told apart.
+   *
+   * @param input the {@code String} produced from running {@code version}
+   * @param version the version of the test suite that was run. Its statements that were not added
+   *     by the minimizer have their positions in the original test suite.
+   * @param fileName the name of the Java file of the test class, as it appears in stack traces
+   * @return a map from method name to the method's failure stack trace. The stack trace will not
+   *     contain any line numbers.
+   */
+  static Map<String, String> normalizeJUnitOutput(
+      String input, CompilationUnit version, String fileName) {
+    return normalizeOutput(input, fileName, originalStatementPositions(version));
+  }
+
+  /**
+   * Normalize the standard output obtained from running a JUnit test suite.
+   *
+   * @param input the {@code String} produced from running a JUnit test suite
+   * @param fileName the name of the Java file of the test class, or null to not identify the
+   *     statements of the test class
+   * @param statementAtLine returns the description of the statement at a line of the test class, or
+   *     null to not identify the statements of the test class
+   * @return a map from method name to the method's failure stack trace. The stack trace will not
+   *     contain any line numbers.
+   */
+  private static Map<String, String> normalizeOutput(
+      String input, @Nullable String fileName, @Nullable IntFunction<String> statementAtLine) {
     BufferedReader bufReader = new BufferedReader(new StringReader(input));
 
     String methodName = null;
@@ -1194,8 +1623,23 @@ public class Minimize extends CommandHandler {
           // where a line number will appear.
           int lParenIndex = line.indexOf('(');
           if (lParenIndex >= 0) {
+            String location = line.substring(lParenIndex);
             // Remove the substring containing the line number.
             line = line.substring(0, lParenIndex);
+            // Replace the line number in the test class by the statement at it.
+            String testClassLocation = "(" + fileName + ":";
+            if (statementAtLine != null
+                && location.startsWith(testClassLocation)
+                && location.endsWith(")")) {
+              try {
+                int lineNumber =
+                    Integer.parseInt(
+                        location.substring(testClassLocation.length(), location.length() - 1));
+                line += " " + statementAtLine.apply(lineNumber);
+              } catch (NumberFormatException e) {
+                // Not a line number; keep the frame without it.
+              }
+            }
           }
           result.append(line).append(Globals.lineSep);
         }
@@ -1208,6 +1652,74 @@ public class Minimize extends CommandHandler {
     return resultMap;
   }
 
+  /**
+   * Returns a function from a line of the text of a version of the test suite to the position in
+   * the original test suite of the innermost statement at that line. The text is reparsed, and its
+   * statements are matched in order with those of {@code version}, which keep the positions they
+   * were parsed at.
+   *
+   * @param version a version of the test suite
+   * @return a function from a line of {@code version.toString()} to a description of the original
+   *     position of the statement at that line
+   */
+  private static IntFunction<String> originalStatementPositions(CompilationUnit version) {
+    List<Statement> statements = new ArrayList<>();
+    collectStatements(version, statements);
+    List<Statement> printedStatements = new ArrayList<>();
+    // The parser is not thread-safe, and versions are checked in parallel.
+    ParseResult<CompilationUnit> printed = new JavaParser().parse(version.toString());
+    if (printed.isSuccessful() && printed.getResult().isPresent()) {
+      collectStatements(printed.getResult().get(), printedStatements);
+    }
+    return line -> {
+      if (printedStatements.size() != statements.size()) {
+        return "[unknown statement]";
+      }
+      Statement statement = null;
+      for (int i = 0; i < printedStatements.size(); i++) {
+        Optional<Range> range = printedStatements.get(i).getRange();
+        if (range.isPresent() && range.get().begin.line <= line && line <= range.get().end.line) {
+          // Statements are in pre-order, so a later one is nested in an earlier one.
+          statement = statements.get(i);
+        }
+      }
+      if (statement == null) {
+        return "[no statement]";
+      }
+      Optional<Range> original = statement.getRange();
+      if (!original.isPresent()) {
+        return "[new statement]";
+      }
+      return "[statement at " + original.get().begin.line + ":" + original.get().begin.column + "]";
+    };
+  }
+
+  /**
+   * Adds the statements of an AST to a list, in pre-order. The order is that of the properties of
+   * each node, which, unlike the order of {@link Node#getChildNodes}, does not change when a node
+   * is removed and added back.
+   *
+   * @param node the root of the AST
+   * @param statements the list to add the statements to
+   */
+  private static void collectStatements(Node node, List<Statement> statements) {
+    if (node instanceof Statement) {
+      statements.add((Statement) node);
+    }
+    for (PropertyMetaModel property : node.getMetaModel().getAllPropertyMetaModels()) {
+      if (property.isNode() || property.isNodeList()) {
+        Object value = property.getValue(node);
+        if (value instanceof Node) {
+          collectStatements((Node) value, statements);
+        } else if (value instanceof NodeList) {
+          for (Node child : (NodeList<?>) value) {
+            collectStatements(child, statements);
+          }
+        }
+      }
+    }
+  }
+
   /**
    * Write a compilation unit to a Java file.
    *
@@ -1434,18 +1946,28 @@ public class Minimize extends CommandHandler {
    * @return the number of unit test methods in compilationUnit
    */
   private static int getNumberOfTestMethods(CompilationUnit compilationUnit) {
-    int numberOfTestMethods = 0;
+    return getTestMethods(compilationUnit).size();
+  }
+
+  /**
+   * Return the JUnit test methods of a compilation unit.
+   *
+   * @param compilationUnit the compilation unit whose test methods to return
+   * @return the unit test methods in compilationUnit, in order
+   */
+  private static List<MethodDeclaration> getTestMethods(CompilationUnit compilationUnit) {
+    List<MethodDeclaration> testMethods = new ArrayList<>();
     for (TypeDeclaration<?> type : compilationUnit.getTypes()) {
       for (BodyDeclaration<?> member : type.getMembers()) {
         if (member instanceof MethodDeclaration) {
           MethodDeclaration method = (MethodDeclaration) member;
           if (isTestMethod(method)) {
-            numberOfTestMethods += 1;
+            testMethods.add(method);
           }
         }
       }
     }
-    return numberOfTestMethods;
+    return testMethods;
   }
 
   /**
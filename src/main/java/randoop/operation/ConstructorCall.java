@@ -12,6 +12,8 @@ import randoop.types.ClassOrInterfaceType;
 import randoop.types.Type;
 import randoop.types.TypeTuple;
 import randoop.util.ConstructorReflectionCode;
+import randoop.util.MethodHandleBinding;
+import randoop.util.MethodHandleCode;
 import randoop.util.ReflectionExecutor;
 import randoop.util.Util;
 
@@ -27,6 +29,9 @@ public final class ConstructorCall extends CallableOperation {
 
   private final Constructor<?> constructor;
 
+  /** Calls {@link #constructor} through a method handle. */
+  private final MethodHandleBinding binding;
+
   // Cached values (for improved performance). Their values
   // are computed upon the first invocation of the respective
   // getter method.
@@ -42,6 +47,7 @@ public final class ConstructorCall extends CallableOperation {
     if (constructor == null) throw new IllegalArgumentException("constructor should not be null.");
     this.constructor = constructor;
     this.constructor.setAccessible(true);
+    this.binding = new MethodHandleBinding(constructor);
   }
 
   /**
@@ -174,6 +180,12 @@ public final class ConstructorCall extends CallableOperation {
         return new ExceptionalExecution(new NullPointerException(message), 0);
       }
     }
+    if (ReflectionExecutor.invocation_mode == ReflectionExecutor.InvocationMode.METHOD_HANDLE) {
+      MethodHandleCode code = binding.newCode(statementInput);
+      if (code != null) {
+        return ReflectionExecutor.executeReflectionCode(code);
+      }
+    }
     ConstructorReflectionCode code =
         new ConstructorReflectionCode(this.constructor, statementInput);
 
@@ -13,6 +13,8 @@ import randoop.sequence.Variable;
 import randoop.types.Type;
 import randoop.types.TypeTuple;
 import randoop.util.Log;
+import randoop.util.MethodHandleBinding;
+import randoop.util.MethodHandleCode;
 import randoop.util.MethodReflectionCode;
 import randoop.util.ReflectionExecutor;
 
@@ -38,6 +40,9 @@ public final class MethodCall extends CallableOperation {
   private final Method method;
   private final boolean isStatic;
 
+  /** Calls {@link #method} through a method handle. */
+  private final MethodHandleBinding binding;
+
   /**
    * getMethod returns Method object of this MethodCall.
    *
@@ -60,6 +65,7 @@ public final class MethodCall extends CallableOperation {
     this.method = method;
     this.method.setAccessible(true);
     this.isStatic = Modifier.isStatic(method.getModifiers() & Modifier.methodModifiers());
+    this.binding = new MethodHandleBinding(method);
   }
 
   /**
@@ -162,14 +168,23 @@ public final class MethodCall extends CallableOperation {
       paramsStartIndex = 1;
     }
 
-    Object[] params = new Object[paramsLength];
-    for (int i = 0; i < params.length; i++) {
-      params[i] = input[i + paramsStartIndex];
-      if (Log.isLoggingOn()) {
-        Log.logPrintf("  Param %d = %s%n", i, Log.toStringAndClass(params[i]));
+    if (Log.isLoggingOn()) {
+      for (int i = 0; i < paramsLength; i++) {
+        Log.logPrintf("  Param %d = %s%n", i, Log.toStringAndClass(input[i + paramsStartIndex]));
       }
     }
 
+    if (ReflectionExecutor.invocation_mode == ReflectionExecutor.InvocationMode.METHOD_HANDLE) {
+      // The handle takes the receiver and the arguments in a single array, as they are given.
+      MethodHandleCode code = binding.newCode(input);
+      if (code != null) {
+        return ReflectionExecutor.executeReflectionCode(code);
+      }
+    }
+
+    Object[] params = new Object[paramsLength];
+    System.arraycopy(input, paramsStartIndex, params, 0, paramsLength);
+
     MethodReflectionCode code = new MethodReflectionCode(this.method, receiver, params);
 
     return ReflectionExecutor.executeReflectionCode(code);
@@ -24,6 +24,7 @@ import randoop.types.Substitution;
 import randoop.types.Type;
 import randoop.types.TypeTuple;
 import randoop.types.TypeVariable;
+import randoop.util.Fingerprints;
 
 /**
  * Type decorator of {@link Operation} objects. An operation has zero or more input types, and one
@@ -50,6 +51,9 @@ public abstract class TypedOperation implements Operation, Comparable<TypedOpera
   /** The specification for this operation. */
   private ExecutableSpecification execSpec;
 
+  /** The fingerprint of this operation, or 0 if it has not been computed yet. */
+  private volatile long fingerprint = 0;
+
   /**
    * Create typed operation for the given {@link Operation}.
    *
@@ -320,6 +324,33 @@ public abstract class TypedOperation implements Operation, Comparable<TypedOpera
    */
   public abstract String toParsableString();
 
+  /**
+   * Returns a 64-bit hash of this operation. Operations that are equal have the same fingerprint,
+   * and operations that are not equal are assumed to have different fingerprints.
+   *
+   * @return the fingerprint of this operation
+   */
+  public long fingerprint() {
+    long result = fingerprint;
+    if (result == 0) {
+      // The parsable string does not include the type arguments of a generic operation.
+      result =
+          Fingerprints.hash(
+              getOperation().getClass().getName()
+                  + " : "
+                  + toParsableString()
+                  + " : "
+                  + inputTypes
+                  + " -> "
+                  + outputType);
+      if (result == 0) {
+        result = 1;
+      }
+      fingerprint = result;
+    }
+    return result;
+  }
+
   /**
    * Constructs a {@link TypedOperation} for a constructor object.
    *
@@ -49,8 +49,8 @@ import randoop.sequence.ExecutableSequence;
 @SuppressWarnings("deprecation") // TODO: fix. "new ClassOrInterfaceType()" does not handle generics
 public class JUnitCreator {
 
-  /** An instance of a Java parser. */
-  static JavaParser javaParser = new JavaParser();
+  /** An instance of a Java parser for each thread, since a parser is not thread-safe. */
+  static final ThreadLocal<JavaParser> javaParser = ThreadLocal.withInitial(JavaParser::new);
 
   /** The "public" modifier. */
   private final NodeList<Modifier> PUBLIC = new NodeList<>(Modifier.publicModifier());
@@ -225,7 +225,11 @@ public class JUnitCreator {
     //         new NodeList<AnnotationExpr>(PrimitiveType.forClass(PrimitiveType.booleanType())),
     //         new NodeList<VariableDeclarator>(debugVariable));
     BodyDeclaration<?> debugField =
-        javaParser.parseBodyDeclaration("public static boolean debug=false;").getResult().get();
+        javaParser
+            .get()
+            .parseBodyDeclaration("public static boolean debug=false;")
+            .getResult()
+            .get();
 
     bodyDeclarations.add(debugField);
 
@@ -304,7 +308,7 @@ public class JUnitCreator {
     // TODO make sequence generate list of JavaParser statements
     String sequenceBlockString = "{ " + testSequence.toCodeString() + " }";
     // try {
-    BlockStmt sequenceBlock = javaParser.parseBlock(sequenceBlockString).getResult().get();
+    BlockStmt sequenceBlock = javaParser.get().parseBlock(sequenceBlockString).getResult().get();
     statements.addAll(sequenceBlock.getStatements());
     // }
     // catch (ParseException e) {
@@ -410,7 +414,11 @@ public class JUnitCreator {
 
     String failureVariableName = "hadFailure";
     Statement hadFailureDecl =
-        javaParser.parseStatement("boolean " + failureVariableName + " = false;").getResult().get();
+        javaParser
+            .get()
+            .parseStatement("boolean " + failureVariableName + " = false;")
+            .getResult()
+            .get();
     bodyStatements.add(hadFailureDecl);
 
     NameGenerator instanceNameGen = new NameGenerator("t");
@@ -529,6 +537,6 @@ public class JUnitCreator {
       blockText.append(line).append(Globals.lineSep);
     }
     blockText.append(Globals.lineSep).append("}");
-    return javaParser.parseBlock(blockText.toString()).getResult().get();
+    return javaParser.get().parseBlock(blockText.toString()).getResult().get();
   }
 }
@@ -3,6 +3,8 @@ package randoop.sequence;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import randoop.ExceptionalExecution;
 import randoop.ExecutionOutcome;
 import randoop.ExecutionVisitor;
@@ -11,7 +13,10 @@ import randoop.NormalExecution;
 import randoop.NotExecuted;
 import randoop.condition.ExpectedOutcomeTable;
 import randoop.generation.fieldcoverage.FieldCoverage;
+import randoop.generation.fieldcoverage.SequenceCanonicalizer;
+import randoop.generation.fieldcoverage.store.CompactFieldExtensions;
 import randoop.main.GenInputsAbstract;
+import randoop.main.RandoopBug;
 import randoop.operation.TypedOperation;
 import randoop.test.Check;
 import randoop.test.InvalidChecks;
@@ -23,7 +28,6 @@ import randoop.types.Type;
 import randoop.util.IdentityMultiMap;
 import randoop.util.Log;
 import randoop.util.ProgressDisplay;
-import representations.FieldExtensions;
 
 /**
  * An ExecutableSequence wraps a {@link Sequence} with functionality for executing the sequence, via
@@ -99,23 +103,73 @@ public class ExecutableSequence {
   public List<Sequence> componentSequences = Collections.emptyList();
 
   /** Field/value tuples obtained from this sequence */
-  private FieldExtensions fieldExtensions;
+  private CompactFieldExtensions fieldExtensions;
 
   /** Describes whether field extensions were set or not */
   private boolean fieldExtensionsSet = false;
 
+  /** Field/value tuples still being computed by the canonicalization pipeline, or null */
+  private CompletableFuture<CompactFieldExtensions> pendingFieldExtensions;
+
   /**
-   * Returns field/value tuples obtained from this sequence.
+   * Returns field/value tuples obtained from this sequence. Waits for the tuples being computed by
+   * the canonicalization pipeline, if any.
    *
    * @return Field/value tuples obtained from this sequence
    */
-  public FieldExtensions getFieldExtensions() {
+  public CompactFieldExtensions getFieldExtensions() {
+    if (!fieldExtensionsSet) {
+      throw new IllegalStateException("Field extensions not set for this sequence");
+    }
+    mergePendingFieldExtensions();
+    return fieldExtensions;
+  }
+
+  /**
+   * Returns the field/value tuples of this sequence computed while it executed, without waiting for
+   * the tuples being computed by the canonicalization pipeline.
+   *
+   * @return the field/value tuples computed while this sequence executed
+   */
+  public CompactFieldExtensions getExecutionFieldExtensions() {
     if (!fieldExtensionsSet) {
       throw new IllegalStateException("Field extensions not set for this sequence");
     }
     return fieldExtensions;
   }
 
+  /**
+   * Returns the field/value tuples of this sequence that are still being computed by the
+   * canonicalization pipeline. They are merged into the tuples of this sequence the next time
+   * {@link #getFieldExtensions()} is called.
+   *
+   * @return the tuples being computed by the canonicalization pipeline, or null if there are none
+   */
+  public CompletableFuture<CompactFieldExtensions> getPendingFieldExtensions() {
+    return pendingFieldExtensions;
+  }
+
+  /**
+   * Waits for the canonicalization pipeline to compute the field/value tuples of the values of this
+   * sequence whose canonicalization was deferred, and adds them to {@link #fieldExtensions}.
+   */
+  private void mergePendingFieldExtensions() {
+    if (pendingFieldExtensions == null) {
+      return;
+    }
+    try {
+      fieldExtensions.addAll(pendingFieldExtensions.get());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while waiting for field extensions", e);
+    } catch (ExecutionException e) {
+      throw new RandoopBug(
+          "Failed to canonicalize the values of sequence " + sequence, e.getCause());
+    } finally {
+      pendingFieldExtensions = null;
+    }
+  }
+
   /**
    * Returns whether this sequence has field extensions calculated
    *
@@ -301,26 +355,31 @@ public class ExecutableSequence {
 
     long startTime = System.nanoTime();
     long canonizationTime = 0L;
+    SequenceCanonicalizer canonicalizer = null;
     try { // try statement for timing
 
       visitor.initialize(this);
 
       this.reset();
 
+      if (GenInputsAbstract.field_coverage_metrics
+          || GenInputsAbstract.field_coverage_statement_filtering) {
+        if (!this.fieldExtensionsSet) {
+          this.fieldExtensionsSet = true;
+          this.fieldExtensions = FieldCoverage.getInstance().newFieldExtensions();
+        }
+        mergePendingFieldExtensions();
+        canonicalizer = FieldCoverage.getInstance().newSequenceCanonicalizer(this.fieldExtensions);
+      }
+
       for (int i = 0; i < this.sequence.size(); i++) {
 
         // Collect the input values to i-th statement.
         Object[] inputValues = getRuntimeInputs(executionResults.outcomes, sequence.getInputs(i));
-        if (GenInputsAbstract.field_coverage_metrics) {
-          canonizationTime = System.nanoTime();
-          if (!this.fieldExtensionsSet) {
-            this.fieldExtensionsSet = true;
-            this.fieldExtensions = new FieldExtensions();
-          }
-          for (Object inValue : inputValues) {
-            this.fieldExtensions.addAll(FieldCoverage.getInstance().canonicalize(inValue));
-          }
-          canonizationTime = System.nanoTime() - canonizationTime;
+        if (canonicalizer != null) {
+          long inputCanonizationTime = System.nanoTime();
+          canonicalizer.canonicalizeInputs(inputValues);
+          canonizationTime += System.nanoTime() - inputCanonizationTime;
         }
 
         if (i == this.sequence.size() - 1) {
@@ -344,14 +403,14 @@ public class ExecutableSequence {
         // make sure statement executed
         ExecutionOutcome statementResult = getResult(i);
 
-        if (GenInputsAbstract.field_coverage_metrics) {
+        if (canonicalizer != null) {
           long outputCanonizationTime = System.nanoTime();
+          canonicalizer.statementExecuted(inputValues);
           if (statementResult instanceof NormalExecution) {
             Object outputValue = ((NormalExecution) statementResult).getRuntimeValue();
-            this.fieldExtensions.addAll(FieldCoverage.getInstance().canonicalize(outputValue));
+            canonicalizer.canonicalizeOutput(outputValue);
           }
-          outputCanonizationTime = System.nanoTime() - outputCanonizationTime;
-          canonizationTime += outputCanonizationTime;
+          canonizationTime += System.nanoTime() - outputCanonizationTime;
         }
 
         if (statementResult instanceof NotExecuted) {
@@ -394,6 +453,12 @@ public class ExecutableSequence {
     } finally {
       exectime = System.nanoTime() - startTime;
       exectime -= canonizationTime;
+      if (canonicalizer != null) {
+        long finishTime = System.nanoTime();
+        pendingFieldExtensions = canonicalizer.finish();
+        exectime -= System.nanoTime() - finishTime;
+        FieldCoverage.getInstance().addTraversalCounts(canonicalizer);
+      }
     }
   }
 
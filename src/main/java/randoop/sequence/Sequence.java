@@ -19,6 +19,7 @@ import randoop.operation.TypedOperation;
 import randoop.types.JavaTypes;
 import randoop.types.NonParameterizedType;
 import randoop.types.Type;
+import randoop.util.Fingerprints;
 import randoop.util.ListOfLists;
 import randoop.util.Log;
 import randoop.util.OneMoreElementList;
@@ -54,38 +55,74 @@ public final class Sequence {
 
   /** Create a new, empty sequence. */
   public Sequence() {
-    this(new SimpleArrayList<Statement>(), 0, 0);
+    this(new SimpleArrayList<Statement>(), 0, 0, 0, 0);
   }
 
   /**
    * Create a sequence that has the given statements and hashCode (hashCode is for optimization).
    *
-   * <p>See {@link #computeHashcode(SimpleList)} for details on the hashCode.
+   * <p>See {@link #computeHashcode(SimpleList)} for details on the hashCode, and {@link
+   * #fingerprintHigh()} for details on the fingerprint.
    *
    * @param statements the statements of the new sequence
    * @param hashCode the hashcode for the new sequence
    * @param netSize the net size for the new sequence
+   * @param fingerprintHigh the high half of the fingerprint of the new sequence
+   * @param fingerprintLow the low half of the fingerprint of the new sequence
    */
-  private Sequence(SimpleList<Statement> statements, int hashCode, int netSize) {
+  private Sequence(
+      SimpleList<Statement> statements,
+      int hashCode,
+      int netSize,
+      long fingerprintHigh,
+      long fingerprintLow) {
     if (statements == null) {
       throw new IllegalArgumentException("`statements' argument cannot be null");
     }
-    this.statements = statements;
+    this.statements = flattenIfDeep(statements);
     this.savedHashCode = hashCode;
     this.savedNetSize = netSize;
+    this.fingerprintHigh = fingerprintHigh;
+    this.fingerprintLow = fingerprintLow;
     this.computeLastStatementInfo();
     this.activeFlags = new BitSet(this.size());
     this.setAllActiveFlags();
     this.checkRep();
   }
 
+  /**
+   * Returns the given statements, copied into a {@link SimpleArrayList} if accessing them would
+   * traverse more than {@link GenInputsAbstract#sequence_flatten_depth} nested lists. Concatenating
+   * and extending sequences nests their statement lists, so without flattening, accessing a
+   * statement of a sequence built over many generation steps gets slower and slower.
+   *
+   * @param statements the statements of a sequence
+   * @return {@code statements}, or a flat copy of them
+   */
+  private static SimpleList<Statement> flattenIfDeep(SimpleList<Statement> statements) {
+    int maxDepth = GenInputsAbstract.sequence_flatten_depth;
+    if (maxDepth <= 0 || statements.depth() <= maxDepth) {
+      return statements;
+    }
+    SimpleArrayList<Statement> flat = new SimpleArrayList<>(statements.size());
+    for (int i = 0; i < statements.size(); i++) {
+      flat.add(statements.get(i));
+    }
+    return flat;
+  }
+
   /**
    * Create a sequence with the given statements.
    *
    * @param statements the statements
    */
   public Sequence(SimpleList<Statement> statements) {
-    this(statements, computeHashcode(statements), computeNetSize(statements));
+    this(
+        statements,
+        computeHashcode(statements),
+        computeNetSize(statements),
+        computeFingerprint(statements, FINGERPRINT_BASE_HIGH, false),
+        computeFingerprint(statements, FINGERPRINT_BASE_LOW, true));
   }
 
   /**
@@ -170,7 +207,13 @@ public final class Sequence {
     return new Sequence(
         new OneMoreElementList<>(this.statements, statement),
         this.savedHashCode + statement.hashCode(),
-        newNetSize);
+        newNetSize,
+        Fingerprints.addMod(
+            Fingerprints.multiplyMod(this.fingerprintHigh, FINGERPRINT_BASE_HIGH),
+            fingerprintElement(statement, false)),
+        Fingerprints.addMod(
+            Fingerprints.multiplyMod(this.fingerprintLow, FINGERPRINT_BASE_LOW),
+            fingerprintElement(statement, true)));
   }
 
   /**
@@ -208,12 +251,30 @@ public final class Sequence {
     List<SimpleList<Statement>> statements1 = new ArrayList<>();
     int newHashCode = 0;
     int newNetSize = 0;
+    long newFingerprintHigh = 0;
+    long newFingerprintLow = 0;
     for (Sequence c : sequences) {
       newHashCode += c.savedHashCode;
       newNetSize += c.savedNetSize;
+      int size = c.size();
+      newFingerprintHigh =
+          Fingerprints.addMod(
+              Fingerprints.multiplyMod(
+                  newFingerprintHigh, Fingerprints.powerMod(FINGERPRINT_BASE_HIGH, size)),
+              c.fingerprintHigh);
+      newFingerprintLow =
+          Fingerprints.addMod(
+              Fingerprints.multiplyMod(
+                  newFingerprintLow, Fingerprints.powerMod(FINGERPRINT_BASE_LOW, size)),
+              c.fingerprintLow);
       statements1.add(c.statements);
     }
-    return new Sequence(new ListOfLists<>(statements1), newHashCode, newNetSize);
+    return new Sequence(
+        new ListOfLists<>(statements1),
+        newHashCode,
+        newNetSize,
+        newFingerprintHigh,
+        newFingerprintLow);
   }
 
   /**
@@ -589,12 +650,83 @@ public final class Sequence {
   // A saved copy of this sequence's net size to avoid recomputation.
   private final int savedNetSize;
 
+  // The base of the polynomial hash of each half of the fingerprint; arbitrary values less than
+  // Fingerprints.PRIME.
+  private static final long FINGERPRINT_BASE_HIGH = 0x1DB4F0B9A3E6F1C7L;
+  private static final long FINGERPRINT_BASE_LOW = 0x0A8C3E5F71B2D469L;
+
+  // The halves of this sequence's fingerprint; see fingerprintHigh().
+  private final long fingerprintHigh;
+  private final long fingerprintLow;
+
   // See comment at computeHashCode method for notes on hashCode.
   @Override
   public final int hashCode() {
     return savedHashCode;
   }
 
+  /**
+   * Returns the high half of the 128-bit fingerprint of this sequence. Sequences that are equal
+   * have the same fingerprint, and sequences that are not equal are assumed to have different
+   * fingerprints. Unlike {@link #hashCode()}, the fingerprint depends on the order of the
+   * statements.
+   *
+   * <p>Each half of the fingerprint is a polynomial hash, modulo {@link Fingerprints#PRIME}, of the
+   * fingerprints of the statements, with a different base for each half. It is computed
+   * incrementally when a sequence is extended or concatenated, like the hashCode.
+   *
+   * @return the high half of the fingerprint of this sequence
+   */
+  public long fingerprintHigh() {
+    return fingerprintHigh;
+  }
+
+  /**
+   * Returns the low half of the 128-bit fingerprint of this sequence.
+   *
+   * @return the low half of the fingerprint of this sequence
+   * @see #fingerprintHigh()
+   */
+  public long fingerprintLow() {
+    return fingerprintLow;
+  }
+
+  /**
+   * Returns the term of a statement in the polynomial hash of one half of a fingerprint.
+   *
+   * @param statement a statement
+   * @param low true for the low half of the fingerprint, false for the high half
+   * @return a value between 1 and {@code Fingerprints.PRIME - 1}
+   */
+  private static long fingerprintElement(Statement statement, boolean low) {
+    long fingerprint = statement.fingerprint();
+    if (low) {
+      fingerprint = Fingerprints.mix(fingerprint ^ 0x5851F42D4C957F2DL);
+    }
+    long element = Fingerprints.reduce(fingerprint);
+    // A term of 0 would make a sequence and the sequence with that statement prepended collide.
+    return element == 0 ? 1 : element;
+  }
+
+  /**
+   * Computes one half of the fingerprint of a list of statements.
+   *
+   * @param statements the statements
+   * @param base the base of the polynomial hash
+   * @param low true for the low half of the fingerprint, false for the high half
+   * @return the half of the fingerprint of the statements
+   */
+  private static long computeFingerprint(SimpleList<Statement> statements, long base, boolean low) {
+    long fingerprint = 0;
+    for (int i = 0; i < statements.size(); i++) {
+      fingerprint =
+          Fingerprints.addMod(
+              Fingerprints.multiplyMod(fingerprint, base),
+              fingerprintElement(statements.get(i), low));
+    }
+    return fingerprint;
+  }
+
   /**
    * True iff this sequence contains a statement at the given index.
    *
@@ -946,7 +1078,6 @@ public final class Sequence {
           throw new SequenceParseException(msg, statements, statementCount);
         }
 
-        System.out.println("operation string: " + opStr);
         // Parse operation.
         TypedOperation operation;
         try {
@@ -1073,8 +1204,9 @@ public final class Sequence {
    * Return a subsequence of this sequence that contains the statement at the given index. It does
    * not necessarily contain the first element of this sequence.
    *
-   * <p>The result depends on the compositional structure of this sequence. The implementation
-   * avoids allocating new objects.
+   * <p>The result depends on the compositional structure of this sequence, which is lost when its
+   * statements are flattened (see {@link GenInputsAbstract#sequence_flatten_depth}). The
+   * implementation avoids allocating new objects.
    *
    * @param index the statement position in this sequence
    * @return the sequence containing the index position
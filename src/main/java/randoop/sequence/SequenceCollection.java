@@ -2,6 +2,10 @@ package randoop.sequence;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -14,7 +18,6 @@ import randoop.main.GenInputsAbstract;
 import randoop.reflection.TypeInstantiator;
 import randoop.types.ClassOrInterfaceType;
 import randoop.types.Type;
-import randoop.util.ListOfLists;
 import randoop.util.Log;
 import randoop.util.SimpleArrayList;
 import randoop.util.SimpleList;
@@ -31,7 +34,9 @@ import randoop.util.SimpleList;
 //
 // To find all the sequences that create values of a given type, Randoop first uses the {@code
 // SubTypeSet} to find the set {@code T} of feasible subtypes, and returns the range of {@code T}
-// (that is, all the sequences mapped to by any t&isin;T) in the sequence map.
+// (that is, all the sequences mapped to by any t&isin;T) in the sequence map. The result is
+// cached for each queried type, and the new sequences of each type in T are appended to it, so
+// that repeated queries, which are the common case, take constant time.
 public class SequenceCollection {
 
   /** For each type, all the sequences that produce one or more values of exactly the given type. */
@@ -52,6 +57,59 @@ public class SequenceCollection {
   /** Number of sequences in the collection: sum of sizes of all values in sequenceMap. */
   private int sequenceCount = 0;
 
+  /**
+   * The number of times that a type with no sequences in this collection got one. A query that
+   * returns no sequences can only return some after this changes.
+   */
+  private int typeVersion = 0;
+
+  /**
+   * For each type that was queried by {@link #getSequencesForType} with {@code exactMatch} and
+   * {@code onlyReceivers} false, the sequences that produce a value of a subtype of it: the
+   * concatenation of the lists of {@link #sequenceMap} for all its subtypes. It is computed on the
+   * first query, and then kept up to date as sequences are added, so a query takes constant time.
+   */
+  private Map<Type, SimpleArrayList<Sequence>> candidates = new HashMap<>();
+
+  /** Like {@link #candidates}, for the queries with {@code onlyReceivers} true. */
+  private Map<Type, SimpleArrayList<Sequence>> receiverCandidates = new HashMap<>();
+
+  /**
+   * For each type of {@link #sequenceMap}, the lists of {@link #candidates} and {@link
+   * #receiverCandidates} that contain its sequences, and to which its new sequences are appended.
+   */
+  private Map<Type, List<SimpleArrayList<Sequence>>> candidateLists = new HashMap<>();
+
+  /**
+   * For each sequence in {@link #sequenceMap}, the information used to choose the sequences to
+   * remove when the collection gets too big. Keyed by identity, like the lists of {@link
+   * #sequenceMap}.
+   */
+  private Map<Sequence, ComponentInfo> componentInfo = new IdentityHashMap<>();
+
+  /**
+   * A logical clock, incremented each time a sequence is added or used, that orders the events
+   * recorded in {@link #componentInfo}.
+   */
+  private long clock = 0;
+
+  /** What is known about the use of a sequence of the collection. */
+  private static final class ComponentInfo {
+    /** When the sequence was added. */
+    final long added;
+
+    /** When the sequence was last selected as an input, or when it was added. */
+    long lastUsed;
+
+    /** How many new sequences that were added to the collection had this sequence as an input. */
+    int utility = 0;
+
+    ComponentInfo(long added) {
+      this.added = added;
+      this.lastUsed = added;
+    }
+  }
+
   private void checkRep() {
     if (!GenInputsAbstract.debug_checks) {
       return;
@@ -72,15 +130,37 @@ public class SequenceCollection {
     return sequenceCount;
   }
 
+  /**
+   * Returns a number that changes whenever this collection gets its first sequence that produces a
+   * value of some type. Until it changes, a query that returned no sequences returns none again.
+   *
+   * @return the number of times that a type with no sequences in this collection got one
+   */
+  public int typeVersion() {
+    return typeVersion;
+  }
+
   /** Removes all sequences from this collection. */
   public void clear() {
     Log.logPrintf("Clearing sequence collection.%n");
     this.sequenceMap = new LinkedHashMap<>();
     this.typeSet = new SubTypeSet(false);
     sequenceCount = 0;
+    this.componentInfo = new IdentityHashMap<>();
+    clearCandidates();
     checkRep();
   }
 
+  /** Discards the cached results of {@link #getSequencesForType}. */
+  private void clearCandidates() {
+    this.candidates = new HashMap<>();
+    this.receiverCandidates = new HashMap<>();
+    this.candidateLists = new HashMap<>();
+    for (Type type : sequenceMap.keySet()) {
+      candidateLists.put(type, new ArrayList<>());
+    }
+  }
+
   /** Create a new, empty collection. */
   public SequenceCollection() {
     this(new ArrayList<Sequence>());
@@ -163,13 +243,39 @@ public class SequenceCollection {
           // This adds all the supertypes, not just immediate ones.
           typesAndSupertypes.addAll(((ClassOrInterfaceType) type).getSuperTypes());
         }
-        typeSet.add(type);
+        if (!sequenceMap.containsKey(type)) {
+          typeSet.add(type);
+          addCandidateLists(type);
+        }
         updateCompatibleMap(sequence, type);
       }
     }
     checkRep();
   }
 
+  /**
+   * Records in {@link #candidateLists} which cached query results include the sequences of a type
+   * that is new to this collection.
+   *
+   * @param type a type that was just added to {@link #typeSet}
+   */
+  private void addCandidateLists(Type type) {
+    List<SimpleArrayList<Sequence>> lists = new ArrayList<>();
+    for (Map.Entry<Type, SimpleArrayList<Sequence>> entry : candidates.entrySet()) {
+      if (typeSet.getMatches(entry.getKey()).contains(type)) {
+        lists.add(entry.getValue());
+      }
+    }
+    if (!type.isNonreceiverType()) {
+      for (Map.Entry<Type, SimpleArrayList<Sequence>> entry : receiverCandidates.entrySet()) {
+        if (typeSet.getMatches(entry.getKey()).contains(type)) {
+          lists.add(entry.getValue());
+        }
+      }
+    }
+    candidateLists.put(type, lists);
+  }
+
   /**
    * Add the entry (type, sequeence) to sequenceMap.
    *
@@ -184,9 +290,110 @@ public class SequenceCollection {
     }
     Log.logPrintf(
         "Adding sequence #%d of type %s of length %d%n", set.size() + 1, type, sequence.size());
+    if (set.isEmpty()) {
+      typeVersion++;
+    }
     boolean added = set.add(sequence);
     assert added;
+    for (SimpleArrayList<Sequence> candidateList : candidateLists.get(type)) {
+      candidateList.add(sequence);
+    }
     sequenceCount++;
+    if (!componentInfo.containsKey(sequence)) {
+      componentInfo.put(sequence, new ComponentInfo(++clock));
+    }
+  }
+
+  /**
+   * Records that a sequence was selected as an input for a new sequence. Does nothing if the
+   * sequence is not in this collection.
+   *
+   * @param sequence the selected sequence
+   */
+  public void recordUse(Sequence sequence) {
+    ComponentInfo info = componentInfo.get(sequence);
+    if (info != null) {
+      info.lastUsed = ++clock;
+    }
+  }
+
+  /**
+   * Records that a sequence was an input of a new sequence that was added to the collection. Does
+   * nothing if the sequence is not in this collection.
+   *
+   * @param sequence the input sequence
+   */
+  public void recordUseful(Sequence sequence) {
+    ComponentInfo info = componentInfo.get(sequence);
+    if (info != null) {
+      info.utility++;
+    }
+  }
+
+  /**
+   * Removes a fraction of the sequences of this collection, chosen according to a policy. A
+   * sequence that creates values of several types is removed for all of them.
+   *
+   * @param policy which sequences to remove; must not be {@code CLEAR}
+   * @param fraction the fraction of the removable sequences to remove, between 0 and 1
+   * @param keep the sequences that must not be removed
+   * @return the number of sequences removed
+   */
+  public int evict(
+      GenInputsAbstract.PoolEvictionPolicy policy, double fraction, Collection<Sequence> keep) {
+    Comparator<ComponentInfo> order;
+    switch (policy) {
+      case LRU:
+        order = Comparator.comparingLong(info -> info.lastUsed);
+        break;
+      case LOW_UTILITY:
+        order =
+            Comparator.<ComponentInfo>comparingInt(info -> info.utility)
+                .thenComparingLong(info -> info.added);
+        break;
+      case OLDEST:
+        order = Comparator.comparingLong(info -> info.added);
+        break;
+      default:
+        throw new Error("Unhandled pool eviction policy: " + policy);
+    }
+
+    List<Map.Entry<Sequence, ComponentInfo>> candidates = new ArrayList<>();
+    for (Map.Entry<Sequence, ComponentInfo> entry : componentInfo.entrySet()) {
+      if (!keep.contains(entry.getKey())) {
+        candidates.add(entry);
+      }
+    }
+    int count = (int) Math.ceil(candidates.size() * fraction);
+    if (count == 0) {
+      return 0;
+    }
+    candidates.sort(Map.Entry.comparingByValue(order));
+    Set<Sequence> evicted = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (Map.Entry<Sequence, ComponentInfo> entry : candidates.subList(0, count)) {
+      evicted.add(entry.getKey());
+    }
+    componentInfo.keySet().removeAll(evicted);
+
+    // The lists are replaced rather than modified, because clients such as
+    // SmallTestsSequenceSelection assume that a list is only appended to. A type whose sequences are
+    // all removed stays in the map, with an empty list, so that the map and typeSet remain
+    // consistent.
+    sequenceCount = 0;
+    for (Map.Entry<Type, SimpleArrayList<Sequence>> entry : sequenceMap.entrySet()) {
+      SimpleArrayList<Sequence> remaining = new SimpleArrayList<>(entry.getValue().size());
+      for (Sequence sequence : entry.getValue()) {
+        if (!evicted.contains(sequence)) {
+          remaining.add(sequence);
+        }
+      }
+      entry.setValue(remaining);
+      sequenceCount += remaining.size();
+    }
+    clearCandidates();
+    Log.logPrintf("Evicted %d sequences (%s); %d remain.%n", count, policy, componentInfo.size());
+    checkRep();
+    return count;
   }
 
   /**
@@ -213,30 +420,36 @@ public class SequenceCollection {
 
     Log.logPrintf("getSequencesForType(%s, %s, %s)%n", type, exactMatch, onlyReceivers);
 
-    List<SimpleList<Sequence>> resultList = new ArrayList<>();
-
+    SimpleList<Sequence> selector;
     if (exactMatch) {
-      SimpleList<Sequence> l = this.sequenceMap.get(type);
-      if (l != null) {
-        resultList.add(l);
+      selector = this.sequenceMap.get(type);
+      if (selector == null) {
+        selector = new SimpleArrayList<>(0);
       }
     } else {
-      for (Type compatibleType : typeSet.getMatches(type)) {
-        Log.logPrintf(
-            "candidate compatibleType (isNonreceiverType=%s): %s%n",
-            compatibleType.isNonreceiverType(), compatibleType);
-        if (!(onlyReceivers && compatibleType.isNonreceiverType())) {
-          SimpleArrayList<Sequence> newMethods = this.sequenceMap.get(compatibleType);
-          Log.logPrintf("  Adding %d methods.%n", newMethods.size());
-          resultList.add(newMethods);
+      Map<Type, SimpleArrayList<Sequence>> cache = onlyReceivers ? receiverCandidates : candidates;
+      SimpleArrayList<Sequence> result = cache.get(type);
+      if (result == null) {
+        result = new SimpleArrayList<>();
+        for (Type compatibleType : typeSet.getMatches(type)) {
+          Log.logPrintf(
+              "candidate compatibleType (isNonreceiverType=%s): %s%n",
+              compatibleType.isNonreceiverType(), compatibleType);
+          if (!(onlyReceivers && compatibleType.isNonreceiverType())) {
+            SimpleArrayList<Sequence> newMethods = this.sequenceMap.get(compatibleType);
+            Log.logPrintf("  Adding %d methods.%n", newMethods.size());
+            result.addAll(newMethods);
+            candidateLists.get(compatibleType).add(result);
+          }
         }
+        cache.put(type, result);
       }
+      selector = result;
     }
 
-    if (resultList.isEmpty()) {
+    if (selector.isEmpty()) {
       Log.logPrintf("getSequencesForType: found no sequences matching type %s%n", type);
     }
-    SimpleList<Sequence> selector = new ListOfLists<>(resultList);
     Log.logPrintf("getSequencesForType(%s) => %s sequences.%n", type, selector.size());
     return selector;
   }
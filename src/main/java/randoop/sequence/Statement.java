@@ -11,6 +11,7 @@ import randoop.operation.TypedOperation;
 import randoop.sequence.Sequence.RelativeNegativeIndex;
 import randoop.types.Type;
 import randoop.types.TypeTuple;
+import randoop.util.Fingerprints;
 
 /**
  * Statement represents a Java statement, such as a method call {@code Foo f = m(i1...iN)} or a
@@ -30,6 +31,9 @@ public final class Statement {
   // See that class for an explanation.
   final List<RelativeNegativeIndex> inputs;
 
+  /** The fingerprint of this statement; see {@link #fingerprint()}. */
+  private final long fingerprint;
+
   /**
    * Create a new statement of type statement that takes as input the given values.
    *
@@ -39,6 +43,11 @@ public final class Statement {
   public Statement(TypedOperation operation, List<RelativeNegativeIndex> inputVariables) {
     this.operation = operation;
     this.inputs = new ArrayList<>(inputVariables);
+    long fingerprint = operation.fingerprint();
+    for (RelativeNegativeIndex input : inputs) {
+      fingerprint = Fingerprints.mix(fingerprint * 0x100000001b3L + input.index);
+    }
+    this.fingerprint = fingerprint;
   }
 
   /**
@@ -83,6 +92,17 @@ public final class Statement {
     return java.util.Objects.hash(operation, inputs);
   }
 
+  /**
+   * Returns a 64-bit hash of this statement, computed from the fingerprint of its operation and
+   * from its inputs. Statements that are equal have the same fingerprint, and statements that are
+   * not equal are assumed to have different fingerprints.
+   *
+   * @return the fingerprint of this statement
+   */
+  long fingerprint() {
+    return fingerprint;
+  }
+
   public Type getOutputType() {
     return operation.getOutputType();
   }
@@ -117,7 +137,8 @@ public final class Statement {
     StringBuilder b = new StringBuilder();
     b.append(variableName);
     b.append(" =  ");
-    b.append(operation.getClass().getSimpleName());
+    // The id that OperationParser uses to select the parser of the operation.
+    b.append(operation.getOperation().getClass().getSimpleName());
     b.append(" : ");
     b.append(operation.toParsableString());
     b.append(" : ");
@@ -1,6 +1,7 @@
 package randoop.sequence;
 
 import java.lang.reflect.Array;
+import java.util.Collections;
 import java.util.Map;
 import java.util.WeakHashMap;
 import java.util.regex.Pattern;
@@ -174,8 +175,12 @@ public class Value {
     return s.length() <= GenInputsAbstract.string_maxlen;
   }
 
-  /** Used to increase performance of stringLengthOk method. */
-  private static Map<String, Boolean> escapedStringLengthOkCached = new WeakHashMap<>();
+  /**
+   * Used to increase performance of stringLengthOk method. Synchronized, because parallel
+   * generators check strings concurrently.
+   */
+  private static Map<String, Boolean> escapedStringLengthOkCached =
+      Collections.synchronizedMap(new WeakHashMap<>());
 
   /**
    * Returns true if the given string, when quoted for inclusion in a Java program, is no longer
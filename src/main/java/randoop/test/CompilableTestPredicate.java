@@ -1,12 +1,21 @@
 package randoop.test;
 
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.Range;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.PackageDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Predicate;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
 import randoop.compile.SequenceCompiler;
 import randoop.main.GenTests;
 import randoop.output.JUnitCreator;
@@ -16,8 +25,18 @@ import randoop.util.Log;
 
 /**
  * {@code TestPredicate} that returns true if the given {@link ExecutableSequence} is compilable.
+ *
+ * <p>{@link #test(List)} checks several sequences with a single compilation, which is much faster
+ * than checking them one at a time.
  */
 public class CompilableTestPredicate implements Predicate<ExecutableSequence> {
+
+  /** The prefix of the names of the test methods. */
+  private static final String METHOD_NAME_PREFIX = "theSequence";
+
+  /** Parser for the source of a batch of sequences, to find the lines of each method. */
+  private final JavaParser javaParser = new JavaParser();
+
   /** The compiler for sequence code. */
   private final SequenceCompiler compiler;
 
@@ -44,10 +63,28 @@ public class CompilableTestPredicate implements Predicate<ExecutableSequence> {
    * @param genTests the {@link GenTests} instance to report compilation failures
    */
   public CompilableTestPredicate(JUnitCreator junitCreator, GenTests genTests) {
+    this(junitCreator, genTests, false);
+  }
+
+  /**
+   * Creates a predicate using the given {@link JUnitCreator} to construct the test class for the
+   * sequences.
+   *
+   * @param junitCreator the {@link JUnitCreator} for this Randoop run
+   * @param genTests the {@link GenTests} instance to report compilation failures
+   * @param batched true if the predicate is used through {@link #test(List)}
+   */
+  public CompilableTestPredicate(JUnitCreator junitCreator, GenTests genTests, boolean batched) {
     List<String> compilerOptions = new ArrayList<>();
-    // only need to know an error exists:
-    compilerOptions.add("-Xmaxerrs");
-    compilerOptions.add("1");
+    if (batched) {
+      // need to know every method that has an error:
+      compilerOptions.add("-Xmaxerrs");
+      compilerOptions.add(String.valueOf(Integer.MAX_VALUE));
+    } else {
+      // only need to know an error exists:
+      compilerOptions.add("-Xmaxerrs");
+      compilerOptions.add("1");
+    }
     // no class generation:
     compilerOptions.add("-implicit:none");
     // no annotation processing: (note that -proc:only does not produce correct results)
@@ -59,7 +96,7 @@ public class CompilableTestPredicate implements Predicate<ExecutableSequence> {
     this.compiler = new SequenceCompiler(compilerOptions);
     this.junitCreator = junitCreator;
     this.classNameGenerator = new NameGenerator("RandoopTemporarySeqTest");
-    this.methodNameGenerator = new NameGenerator("theSequence");
+    this.methodNameGenerator = new NameGenerator(METHOD_NAME_PREFIX);
     this.genTests = genTests;
   }
 
@@ -80,13 +117,124 @@ public class CompilableTestPredicate implements Predicate<ExecutableSequence> {
     String packageName = oPkg.isPresent() ? oPkg.get().getName().toString() : null;
     boolean result = testSource(testClassName, source, packageName);
     if (!result) {
-      genTests.incrementSequenceCompileFailureCount();
-      Log.logPrintf(
-          "%nCompilableTestPredicate => false for%n%nsequence =%n%s%nsource =%n%s%n", eseq, source);
+      reportFailure(eseq, source);
     }
     return result;
   }
 
+  /**
+   * Indicates which of the given sequences are compilable.
+   *
+   * <p>The sequences are compiled together, as the methods of one class. The errors are mapped back
+   * to the methods that contain them, and only the sequences of those methods are rejected; the
+   * others are compiled again, because an error can hide errors in other methods. If an error is
+   * outside every method, the sequences are compiled one at a time.
+   *
+   * @param eseqs the sequences to check
+   * @return an array whose i-th element is true if the i-th sequence can be compiled
+   */
+  public boolean[] test(List<ExecutableSequence> eseqs) {
+    boolean[] result = new boolean[eseqs.size()];
+    List<Integer> remaining = new ArrayList<>(eseqs.size());
+    for (int i = 0; i < eseqs.size(); i++) {
+      remaining.add(i);
+    }
+    while (!remaining.isEmpty()) {
+      List<ExecutableSequence> batch = new ArrayList<>(remaining.size());
+      for (int i : remaining) {
+        batch.add(eseqs.get(i));
+      }
+      String testClassName = classNameGenerator.next();
+      CompilationUnit source =
+          junitCreator.createTestClass(testClassName, new NameGenerator(METHOD_NAME_PREFIX), batch);
+      Optional<PackageDeclaration> oPkg = source.getPackageDeclaration();
+      String packageName = oPkg.isPresent() ? oPkg.get().getName().toString() : null;
+      String sourceText = source.toString();
+      DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+      if (compiler.isCompilable(packageName, testClassName, sourceText, diagnostics)) {
+        for (int i : remaining) {
+          result[i] = true;
+        }
+        break;
+      }
+      Set<Integer> failed = failingMethods(sourceText, diagnostics);
+      if (failed == null) {
+        for (int i : remaining) {
+          result[i] = test(eseqs.get(i));
+        }
+        break;
+      }
+      List<Integer> stillRemaining = new ArrayList<>(remaining.size());
+      for (int j = 0; j < remaining.size(); j++) {
+        if (failed.contains(j)) {
+          reportFailure(batch.get(j), source);
+        } else {
+          stillRemaining.add(remaining.get(j));
+        }
+      }
+      remaining = stillRemaining;
+    }
+    return result;
+  }
+
+  /**
+   * Returns the indices of the test methods that contain the errors of a compilation.
+   *
+   * @param sourceText the source of the class, whose test methods are named {@code
+   *     METHOD_NAME_PREFIX + i}
+   * @param diagnostics the diagnostics of the compilation of {@code sourceText}
+   * @return the indices of the methods that contain errors, or null if some error is not in a test
+   *     method, or if there are no errors
+   */
+  private Set<Integer> failingMethods(
+      String sourceText, DiagnosticCollector<JavaFileObject> diagnostics) {
+    ParseResult<CompilationUnit> parsed = javaParser.parse(sourceText);
+    if (!parsed.getResult().isPresent()) {
+      return null;
+    }
+    List<Integer> indices = new ArrayList<>();
+    List<Range> ranges = new ArrayList<>();
+    for (MethodDeclaration method : parsed.getResult().get().findAll(MethodDeclaration.class)) {
+      String name = method.getNameAsString();
+      Optional<Range> range = method.getRange();
+      if (name.startsWith(METHOD_NAME_PREFIX) && range.isPresent()) {
+        indices.add(Integer.parseInt(name.substring(METHOD_NAME_PREFIX.length())));
+        ranges.add(range.get());
+      }
+    }
+    Set<Integer> failed = new LinkedHashSet<>();
+    for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+      if (diagnostic.getKind() != Diagnostic.Kind.ERROR) {
+        continue;
+      }
+      long line = diagnostic.getLineNumber();
+      int method = -1;
+      for (int i = 0; i < ranges.size(); i++) {
+        if (ranges.get(i).begin.line <= line && line <= ranges.get(i).end.line) {
+          method = indices.get(i);
+          break;
+        }
+      }
+      if (method == -1) {
+        return null;
+      }
+      failed.add(method);
+    }
+    return failed.isEmpty() ? null : failed;
+  }
+
+  /**
+   * Records that a sequence is not compilable.
+   *
+   * @param eseq the sequence
+   * @param source the source of the class that contains the sequence
+   */
+  private void reportFailure(ExecutableSequence eseq, CompilationUnit source) {
+    genTests.incrementSequenceCompileFailureCount();
+    Log.logPrintf(
+        "%nCompilableTestPredicate => false for%n%nsequence =%n%s%nsource =%n%s%n", eseq, source);
+  }
+
   /**
    * Return true if the given source code compiles without error. This is here to allow the
    * mechanics of the predicate to be tested directly. Otherwise, we have to create a broken {@link
@@ -2,10 +2,10 @@ package randoop.types;
 
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * {@code NonParameterizedType} represents a non-parameterized class, interface, enum, or the
@@ -18,7 +18,7 @@ public class NonParameterizedType extends ClassOrInterfaceType {
   private final Class<?> runtimeType;
 
   /** A cache of all NonParameterizedTypes that have been created. */
-  private static final Map<Class<?>, NonParameterizedType> cache = new HashMap<>();
+  private static final Map<Class<?>, NonParameterizedType> cache = new ConcurrentHashMap<>();
 
   /**
    * Create a {@link NonParameterizedType} object for the runtime class.
@@ -30,7 +30,10 @@ public class NonParameterizedType extends ClassOrInterfaceType {
     NonParameterizedType cached = cache.get(runtimeType);
     if (cached == null) {
       cached = new NonParameterizedType(runtimeType);
-      cache.put(runtimeType, cached);
+      NonParameterizedType previous = cache.putIfAbsent(runtimeType, cached);
+      if (previous != null) {
+        cached = previous;
+      }
     }
     return cached;
   }
@@ -2,9 +2,9 @@ package randoop.types;
 
 import java.lang.reflect.Type;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -18,7 +18,7 @@ import java.util.stream.Collectors;
 public abstract class ParameterizedType extends ClassOrInterfaceType {
 
   /** A cache of all ParameterizedTypes that have been created. */
-  private static final Map<Class<?>, GenericClassType> cache = new HashMap<>();
+  private static final Map<Class<?>, GenericClassType> cache = new ConcurrentHashMap<>();
 
   /**
    * Creates a {@link GenericClassType} for the given reflective {@link Class} object.
@@ -34,7 +34,10 @@ public abstract class ParameterizedType extends ClassOrInterfaceType {
     GenericClassType cached = cache.get(typeClass);
     if (cached == null) {
       cached = new GenericClassType(typeClass);
-      cache.put(typeClass, cached);
+      GenericClassType previous = cache.putIfAbsent(typeClass, cached);
+      if (previous != null) {
+        cached = previous;
+      }
     }
     return cached;
   }
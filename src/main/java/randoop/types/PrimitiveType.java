@@ -1,7 +1,7 @@
 package randoop.types;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Represents a Java primitive type. Corresponds to primitive types as defined in JLS <a
@@ -14,7 +14,7 @@ public class PrimitiveType extends Type {
   private final Class<?> runtimeClass;
 
   /** All the PrimitiveTypes that have been created. */
-  private static Map<Class<?>, PrimitiveType> cache = new HashMap<>();
+  private static Map<Class<?>, PrimitiveType> cache = new ConcurrentHashMap<>();
 
   /**
    * Creates a primitive type from the given runtime class.
@@ -26,7 +26,10 @@ public class PrimitiveType extends Type {
     PrimitiveType cached = cache.get(runtimeClass);
     if (cached == null) {
       cached = new PrimitiveType(runtimeClass);
-      cache.put(runtimeClass, cached);
+      PrimitiveType previous = cache.putIfAbsent(runtimeClass, cached);
+      if (previous != null) {
+        cached = previous;
+      }
     }
     return cached;
   }
@@ -0,0 +1,83 @@
+package randoop.util;
+
+/**
+ * A Bloom filter of 128-bit fingerprints. It uses a fixed amount of memory, however many
+ * fingerprints are added, at the cost of false positives: a fingerprint that was never added may be
+ * reported as present. The probability of a false positive grows as the filter fills up; it is
+ * about {@code (1 - e^(-k*n/m))^k} after {@code n} fingerprints were added to a filter of {@code m}
+ * bits with {@code k} hash functions.
+ *
+ * <p>There are no false negatives: a fingerprint that was added is always reported as present.
+ */
+public final class BloomFilter implements FingerprintFilter {
+
+  /** The bits of the filter. */
+  private final long[] bits;
+
+  /** The number of bits of the filter. */
+  private final long numBits;
+
+  /** The number of bits set for each fingerprint. */
+  private final int numHashes;
+
+  /** The number of fingerprints added that were not reported as present. */
+  private int size = 0;
+
+  /**
+   * Creates an empty Bloom filter.
+   *
+   * @param numBytes the size of the filter, in bytes
+   * @param numHashes the number of bits set for each fingerprint
+   */
+  public BloomFilter(long numBytes, int numHashes) {
+    if (numBytes < 8 || numBytes / 8 > Integer.MAX_VALUE - 8) {
+      throw new IllegalArgumentException("Bad size for a Bloom filter: " + numBytes);
+    }
+    if (numHashes <= 0) {
+      throw new IllegalArgumentException("numHashes must be positive: " + numHashes);
+    }
+    this.bits = new long[(int) (numBytes / 8)];
+    this.numBits = 64L * bits.length;
+    this.numHashes = numHashes;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Sets the bits of the fingerprint, given by double hashing of its two halves.
+   */
+  @Override
+  public boolean add(long high, long low) {
+    long hash1 = Fingerprints.mix(high);
+    long hash2 = Fingerprints.mix(low) | 1;
+    boolean added = false;
+    for (int i = 0; i < numHashes; i++) {
+      long bit = ((hash1 + i * hash2) >>> 1) % numBits;
+      int word = (int) (bit >>> 6);
+      long mask = 1L << bit;
+      if ((bits[word] & mask) == 0) {
+        bits[word] |= mask;
+        added = true;
+      }
+    }
+    if (added) {
+      size++;
+    }
+    return added;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the probability that a fingerprint that was never added is reported as present, given
+   * the number of fingerprints added so far.
+   *
+   * @return the expected false positive rate of this filter
+   */
+  public double falsePositiveRate() {
+    return Math.pow(1 - Math.exp(-(double) numHashes * size / numBits), numHashes);
+  }
+}
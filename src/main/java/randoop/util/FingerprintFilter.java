@@ -0,0 +1,27 @@
+package randoop.util;
+
+/**
+ * A set of 128-bit fingerprints, each given as two {@code long} halves, that is used to detect
+ * values that were seen before. Depending on the implementation, a new fingerprint may be reported
+ * as already present.
+ */
+public interface FingerprintFilter {
+
+  /**
+   * Adds a fingerprint to this filter.
+   *
+   * @param high the high half of the fingerprint
+   * @param low the low half of the fingerprint
+   * @return true if the fingerprint was not already in this filter; false if it was, or possibly
+   *     (if this filter is not exact) if it was not
+   */
+  boolean add(long high, long low);
+
+  /**
+   * Returns the number of fingerprints that were added to this filter for the first time, that is,
+   * the number of calls to {@link #add} that returned true.
+   *
+   * @return the number of fingerprints in this filter
+   */
+  int size();
+}
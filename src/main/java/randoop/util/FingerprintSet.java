@@ -0,0 +1,135 @@
+package randoop.util;
+
+/**
+ * An exact {@link FingerprintFilter}: a set of 128-bit fingerprints, stored in an open-addressing
+ * hash table with linear probing. Each fingerprint takes 16 bytes (plus the unused slots of the
+ * table).
+ *
+ * <p>Elements cannot be removed.
+ */
+public final class FingerprintSet implements FingerprintFilter {
+
+  /** The value of both halves of an empty slot of {@link #table}. */
+  private static final long EMPTY = 0L;
+
+  /** The table is grown when it is more than this full. */
+  private static final double MAX_LOAD_FACTOR = 0.6;
+
+  /**
+   * The hash table. Slot {@code i} holds the high half of a fingerprint at index {@code 2*i} and
+   * its low half at index {@code 2*i+1}, or {@link #EMPTY} at both if it is unused.
+   */
+  private long[] table;
+
+  /** Whether the fingerprint with both halves {@link #EMPTY} is an element of this set. */
+  private boolean containsEmpty = false;
+
+  /** The number of elements stored in {@link #table}. */
+  private int tableSize = 0;
+
+  /** When {@link #tableSize} reaches this value, the table is grown. */
+  private int resizeThreshold;
+
+  /** Creates an empty set. */
+  public FingerprintSet() {
+    allocate(1024);
+  }
+
+  /**
+   * Allocates an empty table.
+   *
+   * @param capacity the number of slots, a power of 2
+   */
+  private void allocate(int capacity) {
+    table = new long[2 * capacity];
+    resizeThreshold = (int) (capacity * MAX_LOAD_FACTOR);
+  }
+
+  @Override
+  public boolean add(long high, long low) {
+    if (high == EMPTY && low == EMPTY) {
+      if (containsEmpty) {
+        return false;
+      }
+      containsEmpty = true;
+      return true;
+    }
+    int i = find(table, high, low);
+    if (table[i] == high && table[i + 1] == low) {
+      return false;
+    }
+    table[i] = high;
+    table[i + 1] = low;
+    tableSize++;
+    if (tableSize >= resizeThreshold) {
+      grow();
+    }
+    return true;
+  }
+
+  /**
+   * Returns true if this set contains the given fingerprint.
+   *
+   * @param high the high half of the fingerprint
+   * @param low the low half of the fingerprint
+   * @return true if the fingerprint is in this set
+   */
+  public boolean contains(long high, long low) {
+    if (high == EMPTY && low == EMPTY) {
+      return containsEmpty;
+    }
+    int i = find(table, high, low);
+    return table[i] == high && table[i + 1] == low;
+  }
+
+  @Override
+  public int size() {
+    return tableSize + (containsEmpty ? 1 : 0);
+  }
+
+  /**
+   * Returns an approximation of the number of bytes of heap used by this set.
+   *
+   * @return the approximate size of this set in bytes
+   */
+  public long estimatedSizeInBytes() {
+    // object header and fields, plus array header and contents
+    return 32 + 16 + 8L * table.length;
+  }
+
+  /**
+   * Returns the index in a table of the slot that holds a fingerprint, or of the empty slot where
+   * it would be stored.
+   *
+   * @param table a hash table, in the format of {@link #table}
+   * @param high the high half of the fingerprint
+   * @param low the low half of the fingerprint
+   * @return the index of the high half of the slot
+   */
+  private static int find(long[] table, long high, long low) {
+    int mask = (table.length >>> 1) - 1;
+    int slot = (int) Fingerprints.mix(high ^ low) & mask;
+    while (true) {
+      int i = 2 * slot;
+      if ((table[i] == high && table[i + 1] == low)
+          || (table[i] == EMPTY && table[i + 1] == EMPTY)) {
+        return i;
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  private void grow() {
+    long[] oldTable = table;
+    allocate(oldTable.length);
+    for (int i = 0; i < oldTable.length; i += 2) {
+      long high = oldTable[i];
+      long low = oldTable[i + 1];
+      if (high != EMPTY || low != EMPTY) {
+        int j = find(table, high, low);
+        table[j] = high;
+        table[j + 1] = low;
+      }
+    }
+  }
+}
@@ -0,0 +1,115 @@
+package randoop.util;
+
+/**
+ * Hash functions for computing fingerprints: hashes that are wide enough that distinct values are
+ * assumed to have distinct hashes.
+ *
+ * <p>Besides hashes of strings, this class provides arithmetic modulo the Mersenne prime {@link
+ * #PRIME} = 2^61-1, for polynomial hashes of lists that can be extended and concatenated without
+ * rehashing their elements. Unlike polynomial hashes modulo 2^64, such hashes do not collide
+ * systematically on lists with a regular structure.
+ */
+public final class Fingerprints {
+
+  private Fingerprints() {
+    throw new IllegalStateException("no instances");
+  }
+
+  /** The modulus of polynomial hashes, 2^61-1. */
+  public static final long PRIME = (1L << 61) - 1;
+
+  /**
+   * Returns a 64-bit hash of a string: FNV-1a over its characters, followed by {@link #mix}.
+   *
+   * @param string the string to hash
+   * @return the fingerprint of {@code string}
+   */
+  public static long hash(String string) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < string.length(); i++) {
+      hash ^= string.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    return mix(hash);
+  }
+
+  /**
+   * Returns a 64-bit value each of whose bits depends on every bit of the argument: the finalizer
+   * of MurmurHash3.
+   *
+   * @param value the value to mix
+   * @return the mixed value
+   */
+  public static long mix(long value) {
+    value ^= value >>> 33;
+    value *= 0xff51afd7ed558ccdL;
+    value ^= value >>> 33;
+    value *= 0xc4ceb9fe1a85ec53L;
+    value ^= value >>> 33;
+    return value;
+  }
+
+  /**
+   * Reduces a value modulo {@link #PRIME}.
+   *
+   * @param value a value, interpreted as unsigned
+   * @return {@code value} modulo {@link #PRIME}, between 0 and {@code PRIME - 1}
+   */
+  public static long reduce(long value) {
+    long result = (value & PRIME) + (value >>> 61);
+    // The sum is less than PRIME + 8, so one subtraction suffices.
+    return result >= PRIME ? result - PRIME : result;
+  }
+
+  /**
+   * Returns {@code (a + b) mod PRIME}.
+   *
+   * @param a a value between 0 and {@code PRIME - 1}
+   * @param b a value between 0 and {@code PRIME - 1}
+   * @return the sum modulo {@link #PRIME}
+   */
+  public static long addMod(long a, long b) {
+    return reduce(a + b);
+  }
+
+  /**
+   * Returns {@code (a * b) mod PRIME}, without overflow.
+   *
+   * @param a a value between 0 and {@code PRIME - 1}
+   * @param b a value between 0 and {@code PRIME - 1}
+   * @return the product modulo {@link #PRIME}
+   */
+  public static long multiplyMod(long a, long b) {
+    // Split the operands into 30-bit high and 31-bit low halves; 2^61 is 1 modulo PRIME.
+    long aHigh = a >>> 31;
+    long aLow = a & 0x7FFFFFFFL;
+    long bHigh = b >>> 31;
+    long bLow = b & 0x7FFFFFFFL;
+    long middle = aLow * bHigh + aHigh * bLow;
+    // The sum is less than 2^64, so it does not overflow as an unsigned value.
+    return reduce(
+        (aHigh * bHigh << 1) + (middle >>> 30) + ((middle & 0x3FFFFFFFL) << 31) + aLow * bLow);
+  }
+
+  /**
+   * Returns {@code base^exponent mod PRIME}.
+   *
+   * @param base a value between 0 and {@code PRIME - 1}
+   * @param exponent a non-negative exponent
+   * @return the power modulo {@link #PRIME}
+   */
+  public static long powerMod(long base, int exponent) {
+    if (exponent < 0) {
+      throw new IllegalArgumentException("Negative exponent: " + exponent);
+    }
+    long result = 1;
+    while (exponent != 0) {
+      if ((exponent & 1) != 0) {
+        result = multiplyMod(result, base);
+      }
+      base = multiplyMod(base, base);
+      exponent >>>= 1;
+    }
+    return result;
+  }
+}
@@ -0,0 +1,156 @@
+package randoop.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of durations, in nanoseconds. Durations are recorded in logarithmic buckets, each
+ * power of 2 being split into {@code 2^SUB_BUCKET_BITS} linear sub-buckets, so that a percentile is
+ * reported with a relative error of at most 1/8. The count, the sum, and the maximum are exact.
+ *
+ * <p>The histogram may be updated and read by several threads at once. Reads are not atomic with
+ * respect to concurrent updates.
+ */
+public final class LatencyHistogram {
+
+  /** The log2 of the number of sub-buckets of each power of 2. */
+  private static final int SUB_BUCKET_BITS = 3;
+
+  /** The number of sub-buckets of each power of 2. */
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  /** The number of buckets needed for all non-negative longs. */
+  private static final int NUM_BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) << SUB_BUCKET_BITS;
+
+  /** The number of durations recorded in each bucket. */
+  private final AtomicLongArray buckets = new AtomicLongArray(NUM_BUCKETS);
+
+  /** The number of durations recorded. */
+  private final LongAdder count = new LongAdder();
+
+  /** The sum of the durations recorded. */
+  private final LongAdder sum = new LongAdder();
+
+  /** The largest duration recorded, or 0. */
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+  /**
+   * Records a duration.
+   *
+   * @param nanos the duration, in nanoseconds; negative durations are recorded as 0
+   */
+  public void record(long nanos) {
+    nanos = Math.max(nanos, 0);
+    buckets.incrementAndGet(bucket(nanos));
+    count.increment();
+    sum.add(nanos);
+    max.accumulate(nanos);
+  }
+
+  /** Removes all the recorded durations. */
+  public void reset() {
+    for (int i = 0; i < NUM_BUCKETS; i++) {
+      buckets.set(i, 0);
+    }
+    count.reset();
+    sum.reset();
+    max.reset();
+  }
+
+  /**
+   * Returns the number of durations recorded.
+   *
+   * @return the number of durations recorded
+   */
+  public long count() {
+    return count.sum();
+  }
+
+  /**
+   * Returns the mean of the durations recorded.
+   *
+   * @return the mean duration in nanoseconds, or NaN if no duration was recorded
+   */
+  public double mean() {
+    return sum.sum() / count.doubleValue();
+  }
+
+  /**
+   * Returns the largest duration recorded.
+   *
+   * @return the largest duration in nanoseconds, or 0 if no duration was recorded
+   */
+  public long max() {
+    return max.get();
+  }
+
+  /**
+   * Returns an upper bound on the given percentile of the durations recorded, within 1/8 of its
+   * value.
+   *
+   * @param percentile the percentile, between 0 and 100
+   * @return the percentile in nanoseconds, or 0 if no duration was recorded
+   */
+  public long percentile(double percentile) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("percentile must be between 0 and 100: " + percentile);
+    }
+    long total = count();
+    if (total == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+    long seen = 0;
+    for (int i = 0; i < NUM_BUCKETS; i++) {
+      seen += buckets.get(i);
+      if (seen >= rank) {
+        return Math.min(highestValue(i), max());
+      }
+    }
+    return max();
+  }
+
+  /**
+   * Returns the median, the 90th and 99th percentiles, and the maximum of the durations, in
+   * milliseconds.
+   *
+   * @return a one-line summary of the distribution of the durations
+   */
+  public String toMillisString() {
+    return String.format(
+        "median %.3g, 90%% %.3g, 99%% %.3g, max %.3g",
+        percentile(50) / 1e6, percentile(90) / 1e6, percentile(99) / 1e6, max() / 1e6);
+  }
+
+  /**
+   * Returns the bucket of a duration.
+   *
+   * @param nanos a non-negative duration
+   * @return the index of the bucket of {@code nanos}
+   */
+  static int bucket(long nanos) {
+    if (nanos < SUB_BUCKETS) {
+      return (int) nanos;
+    }
+    int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+    int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) | subBucket;
+  }
+
+  /**
+   * Returns the largest duration in a bucket.
+   *
+   * @param bucket the index of a bucket
+   * @return the largest duration whose bucket is {@code bucket}
+   */
+  static long highestValue(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int exponent = (bucket >>> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+    long subBucket = bucket & (SUB_BUCKETS - 1);
+    long width = 1L << (exponent - SUB_BUCKET_BITS);
+    return ((SUB_BUCKETS | subBucket) << (exponent - SUB_BUCKET_BITS)) + width - 1;
+  }
+}
@@ -26,6 +26,9 @@ public class ListOfLists<T> implements SimpleList<T>, Serializable {
   /** The size of this collection. */
   private int totalelements;
 
+  /** One more than the largest depth of the lists. See {@link SimpleList#depth()}. */
+  private int depth;
+
   /**
    * Create a ListOfLists from ... a list of lists.
    *
@@ -46,6 +49,7 @@ public class ListOfLists<T> implements SimpleList<T>, Serializable {
       }
       this.totalelements += l.size();
       this.cumulativeSize[i] = this.totalelements;
+      this.depth = Math.max(this.depth, l.depth() + 1);
     }
   }
 
@@ -61,6 +65,7 @@ public class ListOfLists<T> implements SimpleList<T>, Serializable {
       }
       this.totalelements += l.size();
       this.cumulativeSize[i] = this.totalelements;
+      this.depth = Math.max(this.depth, l.depth() + 1);
     }
   }
 
@@ -79,14 +84,9 @@ public class ListOfLists<T> implements SimpleList<T>, Serializable {
     if (index < 0 || index > this.totalelements - 1) {
       throw new IllegalArgumentException("index must be between 0 and size()-1");
     }
-    int previousListSize = 0;
-    for (int i = 0; i < this.cumulativeSize.length; i++) {
-      if (index < this.cumulativeSize[i]) {
-        return this.lists.get(i).get(index - previousListSize);
-      }
-      previousListSize = this.cumulativeSize[i];
-    }
-    throw new RandoopBug("Indexing error in ListOfLists");
+    int i = listIndex(index);
+    int previousListSize = (i == 0) ? 0 : this.cumulativeSize[i - 1];
+    return this.lists.get(i).get(index - previousListSize);
   }
 
   @Override
@@ -94,15 +94,39 @@ public class ListOfLists<T> implements SimpleList<T>, Serializable {
     if (index < 0 || index > this.totalelements - 1) {
       throw new IllegalArgumentException("index must be between 0 and size()-1");
     }
-    int previousListSize = 0;
-    for (int i = 0; i < this.cumulativeSize.length; i++) {
-      if (index < this.cumulativeSize[i]) {
-        // Recurse.
-        return lists.get(i).getSublist(index - previousListSize);
+    int i = listIndex(index);
+    int previousListSize = (i == 0) ? 0 : this.cumulativeSize[i - 1];
+    // Recurse.
+    return lists.get(i).getSublist(index - previousListSize);
+  }
+
+  @Override
+  public int depth() {
+    return depth;
+  }
+
+  /**
+   * Returns the position, in {@link #lists}, of the list that contains the element at the given
+   * index. Uses binary search over {@link #cumulativeSize}.
+   *
+   * @param index an index between 0 and size()-1
+   * @return the smallest i such that {@code index < cumulativeSize[i]}
+   */
+  private int listIndex(int index) {
+    int low = 0;
+    int high = this.cumulativeSize.length - 1;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (index < this.cumulativeSize[mid]) {
+        high = mid;
+      } else {
+        low = mid + 1;
       }
-      previousListSize = cumulativeSize[i];
     }
-    throw new RandoopBug("indexing error in ListOfLists");
+    if (index >= this.cumulativeSize[low]) {
+      throw new RandoopBug("Indexing error in ListOfLists");
+    }
+    return low;
   }
 
   @Override
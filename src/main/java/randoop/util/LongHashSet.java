@@ -0,0 +1,221 @@
+package randoop.util;
+
+import java.util.Arrays;
+
+/**
+ * A set of {@code long} values, stored in an open-addressing hash table with linear probing. Unlike
+ * a {@code HashSet<Long>}, it does not box its elements, so each element takes 8 bytes (plus the
+ * unused slots of the table).
+ *
+ * <p>Elements cannot be removed.
+ */
+public final class LongHashSet {
+
+  /** The value that marks an empty slot of {@link #table}. */
+  private static final long EMPTY = 0L;
+
+  /** The table is grown when it is more than this full. */
+  private static final double MAX_LOAD_FACTOR = 0.6;
+
+  /** The hash table. A slot holds {@link #EMPTY} if it is unused. */
+  private long[] table;
+
+  /** Whether {@link #EMPTY} is an element of this set; it cannot be stored in {@link #table}. */
+  private boolean containsEmpty = false;
+
+  /** The number of elements stored in {@link #table}. */
+  private int tableSize = 0;
+
+  /** When {@link #tableSize} reaches this value, the table is grown. */
+  private int resizeThreshold;
+
+  /** Creates an empty set. */
+  public LongHashSet() {
+    this(16);
+  }
+
+  /**
+   * Creates an empty set that can hold {@code expectedSize} elements without being resized.
+   *
+   * @param expectedSize the number of elements expected to be added
+   */
+  public LongHashSet(int expectedSize) {
+    if (expectedSize < 0) {
+      throw new IllegalArgumentException("Negative expected size: " + expectedSize);
+    }
+    int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / MAX_LOAD_FACTOR)) * 2);
+    allocate(capacity);
+  }
+
+  private void allocate(int capacity) {
+    table = new long[capacity];
+    resizeThreshold = (int) (capacity * MAX_LOAD_FACTOR);
+  }
+
+  /**
+   * Adds a value to this set.
+   *
+   * @param value the value to add
+   * @return true if the value was not already in this set
+   */
+  public boolean add(long value) {
+    if (value == EMPTY) {
+      if (containsEmpty) {
+        return false;
+      }
+      containsEmpty = true;
+      return true;
+    }
+    int mask = table.length - 1;
+    int i = mix(value) & mask;
+    while (table[i] != EMPTY) {
+      if (table[i] == value) {
+        return false;
+      }
+      i = (i + 1) & mask;
+    }
+    table[i] = value;
+    tableSize++;
+    if (tableSize >= resizeThreshold) {
+      grow();
+    }
+    return true;
+  }
+
+  /**
+   * Returns true if this set contains the given value.
+   *
+   * @param value the value to look for
+   * @return true if {@code value} is in this set
+   */
+  public boolean contains(long value) {
+    if (value == EMPTY) {
+      return containsEmpty;
+    }
+    int mask = table.length - 1;
+    int i = mix(value) & mask;
+    while (table[i] != EMPTY) {
+      if (table[i] == value) {
+        return true;
+      }
+      i = (i + 1) & mask;
+    }
+    return false;
+  }
+
+  /**
+   * Adds all the elements of the given set to this set.
+   *
+   * @param other the set whose elements to add
+   * @return how many elements of {@code other} were not already in this set
+   */
+  public int addAll(LongHashSet other) {
+    int added = 0;
+    if (other.containsEmpty && add(EMPTY)) {
+      added++;
+    }
+    for (long value : other.table) {
+      if (value != EMPTY && add(value)) {
+        added++;
+      }
+    }
+    return added;
+  }
+
+  /**
+   * Returns the number of elements in this set.
+   *
+   * @return the number of elements in this set
+   */
+  public int size() {
+    return tableSize + (containsEmpty ? 1 : 0);
+  }
+
+  /**
+   * Returns true if this set has no elements.
+   *
+   * @return true if this set has no elements
+   */
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /** Removes all the elements of this set. */
+  public void clear() {
+    Arrays.fill(table, EMPTY);
+    tableSize = 0;
+    containsEmpty = false;
+  }
+
+  /**
+   * Returns the elements of this set, in no particular order.
+   *
+   * @return a new array with the elements of this set
+   */
+  public long[] toArray() {
+    long[] result = new long[size()];
+    int j = 0;
+    if (containsEmpty) {
+      result[j++] = EMPTY;
+    }
+    for (long value : table) {
+      if (value != EMPTY) {
+        result[j++] = value;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the elements of this set in ascending order.
+   *
+   * @return a new sorted array with the elements of this set
+   */
+  public long[] toSortedArray() {
+    long[] result = toArray();
+    Arrays.sort(result);
+    return result;
+  }
+
+  /**
+   * Returns an approximation of the number of bytes of heap used by this set.
+   *
+   * @return the approximate size of this set in bytes
+   */
+  public long estimatedSizeInBytes() {
+    // object header and fields, plus array header and contents
+    return 32 + 16 + 8L * table.length;
+  }
+
+  private void grow() {
+    long[] oldTable = table;
+    allocate(oldTable.length * 2);
+    int mask = table.length - 1;
+    for (long value : oldTable) {
+      if (value != EMPTY) {
+        int i = mix(value) & mask;
+        while (table[i] != EMPTY) {
+          i = (i + 1) & mask;
+        }
+        table[i] = value;
+      }
+    }
+  }
+
+  /**
+   * Spreads the bits of a value, so that values that differ only in their high bits do not end up
+   * in the same slot.
+   *
+   * @param value the value to hash
+   * @return a hash code for the value
+   */
+  private static int mix(long value) {
+    long h = value * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(toSortedArray());
+  }
+}
@@ -0,0 +1,224 @@
+package randoop.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A method or constructor, bound on first use to a {@link MethodHandle} that takes all its inputs
+ * in an {@code Object[]} and returns an {@code Object}. The conversions between {@code Object} and
+ * the parameter and return types are created once, so a call is a single {@code invokeExact}.
+ *
+ * <p>The inputs are the receiver (for an instance method) or the enclosing instance (for the
+ * constructor of an inner class), followed by the arguments. As with reflection, a primitive
+ * parameter accepts a boxed value that can be widened to it, and a call to a {@code void} method
+ * returns null.
+ *
+ * <p>A binding may be shared by several threads.
+ */
+public final class MethodHandleBinding {
+
+  /** The type of the handles: all inputs in an array, and the result as an Object. */
+  private static final MethodType SPREAD_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+  /** The primitive numeric types, each of which can be widened to the ones after it. */
+  private static final List<Class<?>> NUMERIC_TYPES =
+      Arrays.<Class<?>>asList(
+          byte.class, short.class, int.class, long.class, float.class, double.class);
+
+  /** Maps each boxed primitive type to the corresponding primitive type. */
+  private static final Map<Class<?>, Class<?>> UNBOXED_TYPES = new HashMap<>();
+
+  static {
+    UNBOXED_TYPES.put(Boolean.class, boolean.class);
+    UNBOXED_TYPES.put(Byte.class, byte.class);
+    UNBOXED_TYPES.put(Character.class, char.class);
+    UNBOXED_TYPES.put(Short.class, short.class);
+    UNBOXED_TYPES.put(Integer.class, int.class);
+    UNBOXED_TYPES.put(Long.class, long.class);
+    UNBOXED_TYPES.put(Float.class, float.class);
+    UNBOXED_TYPES.put(Double.class, double.class);
+  }
+
+  /** The method or constructor. */
+  private final Executable executable;
+
+  /**
+   * True if calling {@link #executable} may initialize its declaring class: it is a static method
+   * or a constructor.
+   */
+  private final boolean mayInitialize;
+
+  /** The handle, of type {@link #SPREAD_TYPE}, or null if it was not created yet. */
+  private volatile MethodHandle handle = null;
+
+  /** The types of the inputs of {@link #handle}; null if it was not created yet. */
+  private volatile Class<?>[] inputTypes = null;
+
+  /** True if no handle can be created, so the executable must be called by reflection. */
+  private volatile boolean unbindable = false;
+
+  /** True if the declaring class of {@link #executable} is known to be initialized. */
+  private volatile boolean initialized = false;
+
+  /**
+   * Creates a binding for a method, which must be accessible.
+   *
+   * @param method the method
+   */
+  public MethodHandleBinding(Method method) {
+    this.executable = method;
+    this.mayInitialize = Modifier.isStatic(method.getModifiers());
+  }
+
+  /**
+   * Creates a binding for a constructor, which must be accessible.
+   *
+   * @param constructor the constructor
+   */
+  public MethodHandleBinding(Constructor<?> constructor) {
+    this.executable = constructor;
+    this.mayInitialize = true;
+  }
+
+  /**
+   * Returns code that calls the method or constructor through its handle, creating the handle if
+   * needed.
+   *
+   * @param inputs the receiver or enclosing instance, if any, followed by the arguments
+   * @return the code for the call, or null if no handle can be created, in which case the call must
+   *     be made by reflection
+   */
+  public MethodHandleCode newCode(Object[] inputs) {
+    MethodHandle h = handle;
+    if (h == null) {
+      if (unbindable) {
+        return null;
+      }
+      h = bind();
+      if (h == null) {
+        return null;
+      }
+    }
+    return new MethodHandleCode(this, h, inputs);
+  }
+
+  /**
+   * Creates {@link #handle}. Does not initialize the declaring class, which is done by the code
+   * under the timeout of the {@link ReflectionExecutor}.
+   *
+   * @return the handle, or null if it cannot be created
+   */
+  private MethodHandle bind() {
+    MethodHandle direct;
+    try {
+      MethodHandles.Lookup lookup = MethodHandles.lookup();
+      if (executable instanceof Method) {
+        direct = lookup.unreflect((Method) executable);
+      } else {
+        direct = lookup.unreflectConstructor((Constructor<?>) executable);
+      }
+      direct = direct.asFixedArity();
+      MethodHandle spread = direct.asSpreader(Object[].class, direct.type().parameterCount());
+      inputTypes = direct.type().parameterArray();
+      handle = spread.asType(SPREAD_TYPE);
+    } catch (Throwable e) {
+      // For example, a signature-polymorphic method, or one whose accessibility could not be set.
+      Log.logPrintf("Cannot create a method handle for %s: %s%n", executable, e);
+      unbindable = true;
+      return null;
+    }
+    return handle;
+  }
+
+  /**
+   * Initializes the declaring class of the method or constructor, unless this is known to be
+   * unnecessary. Reflection does this before calling the method or constructor, and reports a
+   * failure as an error of the call itself rather than as an exception thrown by it.
+   *
+   * @throws ReflectionCode.ReflectionCodeException if the class cannot be initialized
+   */
+  void ensureInitialized() {
+    if (initialized || !mayInitialize) {
+      return;
+    }
+    Class<?> declaringClass = executable.getDeclaringClass();
+    try {
+      Class.forName(declaringClass.getName(), true, declaringClass.getClassLoader());
+    } catch (ClassNotFoundException e) {
+      // The class cannot be found by name; the call initializes it.
+    } catch (Throwable e) {
+      throw new ReflectionCode.ReflectionCodeException(
+          "error initializing " + declaringClass.getName() + " to call " + executable, e);
+    }
+    initialized = true;
+  }
+
+  /**
+   * Returns true if the given inputs can be passed to the method or constructor: there is one for
+   * each of its inputs, and each is null or an instance of the input type, or a boxed value that
+   * can be widened to it if it is primitive. Otherwise the handle throws an exception before the
+   * call, where reflection throws an {@link IllegalArgumentException}.
+   *
+   * @param inputs the receiver or enclosing instance, if any, followed by the arguments
+   * @return true if the inputs have the right number and types
+   */
+  boolean acceptsInputs(Object[] inputs) {
+    Class<?>[] types = inputTypes;
+    if (inputs.length != types.length) {
+      return false;
+    }
+    for (int i = 0; i < types.length; i++) {
+      Object input = inputs[i];
+      if (types[i].isPrimitive()) {
+        if (input == null) {
+          return false;
+        }
+        Class<?> unboxed = UNBOXED_TYPES.get(input.getClass());
+        if (unboxed == null || !isWidening(unboxed, types[i])) {
+          return false;
+        }
+      } else if (input != null && !types[i].isInstance(input)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns true if a value of a primitive type can be converted to another primitive type by an
+   * identity or widening conversion.
+   *
+   * @param from the type of the value
+   * @param to the type of the parameter
+   * @return true if a {@code from} value can be passed as a {@code to} value
+   */
+  private static boolean isWidening(Class<?> from, Class<?> to) {
+    if (from == to) {
+      return true;
+    }
+    int toIndex = NUMERIC_TYPES.indexOf(to);
+    if (from == char.class) {
+      return toIndex >= NUMERIC_TYPES.indexOf(int.class);
+    }
+    int fromIndex = NUMERIC_TYPES.indexOf(from);
+    return fromIndex != -1 && toIndex > fromIndex;
+  }
+
+  /**
+   * Returns the method or constructor.
+   *
+   * @return the method or constructor called through this binding
+   */
+  public Executable getExecutable() {
+    return executable;
+  }
+}
@@ -0,0 +1,65 @@
+package randoop.util;
+
+import static randoop.Globals.lineSep;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Arrays;
+
+/**
+ * Wraps a method or constructor, through its {@link MethodHandleBinding}, together with its inputs,
+ * ready for execution. Can be run only once.
+ *
+ * <p>The outcome is the same as that of {@link MethodReflectionCode} or {@link
+ * ConstructorReflectionCode}: an exception thrown by the method or constructor is recorded as
+ * thrown, and inputs that cannot be passed to it are a bug in Randoop.
+ */
+public final class MethodHandleCode extends ReflectionCode {
+
+  /** The binding of the method or constructor to be called. */
+  private final MethodHandleBinding binding;
+
+  /** The handle of {@link #binding}. */
+  private final MethodHandle handle;
+
+  /** The receiver or enclosing instance, if any, followed by the arguments. */
+  private final Object[] inputs;
+
+  /**
+   * Create a new MethodHandleCode to represent a call. Use {@link MethodHandleBinding#newCode}.
+   *
+   * @param binding the binding of the method or constructor to be called
+   * @param handle the handle of {@code binding}
+   * @param inputs the receiver or enclosing instance, if any, followed by the arguments
+   */
+  MethodHandleCode(MethodHandleBinding binding, MethodHandle handle, Object[] inputs) {
+    this.binding = binding;
+    this.handle = handle;
+    this.inputs = inputs;
+  }
+
+  @Override
+  public void runReflectionCodeRaw() {
+    Log.logPrintf("runReflectionCodeRaw: %s%n", binding.getExecutable());
+    binding.ensureInitialized();
+    try {
+      this.retval = (Object) handle.invokeExact(inputs);
+    } catch (Throwable e) {
+      if (!binding.acceptsInputs(inputs)) {
+        // The handle threw the exception before the call.
+        String message =
+            String.format(
+                "error invoking %s on %d inputs:", binding.getExecutable(), inputs.length);
+        for (Object input : inputs) {
+          message += lineSep + "  " + input;
+        }
+        throw new ReflectionCodeException(message, e);
+      }
+      this.exceptionThrown = e;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "Call to " + binding.getExecutable() + " inputs: " + Arrays.toString(inputs) + status();
+  }
+}
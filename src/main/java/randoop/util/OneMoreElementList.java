@@ -12,10 +12,14 @@ public final class OneMoreElementList<T> implements SimpleList<T>, Serializable
   public final SimpleList<T> list;
   public final int size;
 
+  /** One more than the depth of {@link #list}. See {@link SimpleList#depth()}. */
+  private final int depth;
+
   public OneMoreElementList(SimpleList<T> list, T extraElement) {
     this.list = list;
     this.lastElement = extraElement;
     this.size = list.size() + 1;
+    this.depth = list.depth() + 1;
   }
 
   @Override
@@ -51,6 +55,11 @@ public final class OneMoreElementList<T> implements SimpleList<T>, Serializable
     throw new IndexOutOfBoundsException("No such index: " + index);
   }
 
+  @Override
+  public int depth() {
+    return depth;
+  }
+
   @Override
   public List<T> toJDKList() {
     List<T> result = new ArrayList<>();
@@ -9,6 +9,7 @@ import org.plumelib.util.UtilPlume;
 import randoop.Globals;
 import randoop.generation.AbstractGenerator;
 import randoop.generation.RandoopListenerManager;
+import randoop.generation.fieldcoverage.FieldCoverage;
 import randoop.main.GenInputsAbstract;
 
 /** Modified from Daikon.FileIOProgress. */
@@ -65,6 +66,7 @@ public class ProgressDisplay extends Thread {
         + generator.num_sequences_generated
         + ", failing inputs="
         + generator.num_failing_sequences
+        + pipelineStatus()
         + (withTime
             ? ("      ("
                 + Instant.now()
@@ -74,6 +76,22 @@ public class ProgressDisplay extends Thread {
             : "");
   }
 
+  /**
+   * Returns the state of the field coverage canonicalization pipeline, to be appended to a progress
+   * message.
+   *
+   * @return the queue depth and lag of the canonicalization pipeline, preceded by a comma, or the
+   *     empty string if there is no pipeline
+   */
+  private static String pipelineStatus() {
+    if (!GenInputsAbstract.field_coverage_metrics
+        && !GenInputsAbstract.field_coverage_statement_filtering) {
+      return "";
+    }
+    String status = FieldCoverage.getInstance().pipelineStatus();
+    return (status == null) ? "" : ", " + status;
+  }
+
   /**
    * Clients should set this variable instead of calling Thread.stop(), which is deprecated.
    * Typically a client calls "display()" before setting this.
@@ -32,6 +32,34 @@ public final class Randomness {
    */
   private static Random random = new Random(DEFAULT_SEED);
 
+  /**
+   * The random generator of the current thread, if it was given its own by {@link
+   * #setThreadSeed(long)}. Parallel generators give each worker thread its own generator, so that
+   * the workers do not contend for {@link #random}.
+   */
+  private static final ThreadLocal<Random> threadRandom = new ThreadLocal<>();
+
+  /**
+   * True if some thread may have its own random generator. Avoids the thread-local lookup in the
+   * common, single-threaded, case.
+   */
+  private static volatile boolean threadRandomInUse = false;
+
+  /**
+   * Returns the random generator of the current thread.
+   *
+   * @return the generator set by {@link #setThreadSeed(long)} for this thread, or the shared one
+   */
+  private static Random random() {
+    if (threadRandomInUse) {
+      Random result = threadRandom.get();
+      if (result != null) {
+        return result;
+      }
+    }
+    return random;
+  }
+
   /**
    * Sets the seed of this random number generator.
    *
@@ -43,6 +71,24 @@ public final class Randomness {
     logSelection("[Random object]", "setSeed", seed);
   }
 
+  /**
+   * Gives the current thread its own random number generator, with the given seed. Until {@link
+   * #clearThreadSeed()} is called, the random choices of this thread are independent of those of
+   * other threads.
+   *
+   * @param seed the initial seed of the generator of the current thread
+   */
+  public static void setThreadSeed(long seed) {
+    threadRandomInUse = true;
+    threadRandom.set(new Random(seed));
+    logSelection("[Random object]", "setThreadSeed", seed);
+  }
+
+  /** Makes the current thread use the shared random number generator again. */
+  public static void clearThreadSeed() {
+    threadRandom.remove();
+  }
+
   /** Number of calls to the underlying Random instance that this wraps. */
   private static int totalCallsToRandom = 0;
 
@@ -66,7 +112,7 @@ public final class Randomness {
    */
   public static int nextRandomInt(int i) {
     incrementCallsToRandom("nextRandomInt");
-    int value = Randomness.random.nextInt(i);
+    int value = random().nextInt(i);
     logSelection(value, "nextRandomInt", i);
     return value;
   }
@@ -152,7 +198,7 @@ public final class Randomness {
 
     // Select a random point in interval and find its corresponding element.
     incrementCallsToRandom("randomMemberWeighted(SimpleList)");
-    double chosenPoint = Randomness.random.nextDouble() * totalWeight;
+    double chosenPoint = random().nextDouble() * totalWeight;
     if (GenInputsAbstract.selection_log != null) {
       try {
         GenInputsAbstract.selection_log.write(String.format("chosenPoint = %s%n", chosenPoint));
@@ -178,6 +224,45 @@ public final class Randomness {
     throw new RandoopBug("Unable to select random member");
   }
 
+  /**
+   * Randomly selects an element from a weighted sampler, with probability proportional to its
+   * weight. Unlike {@link #randomMemberWeighted(SimpleList, Map, double)}, this takes O(log n)
+   * time.
+   *
+   * @param <T> the type of the elements
+   * @param sampler the elements to select from, and their weights
+   * @return a randomly selected element from {@code sampler}
+   */
+  public static <T> T randomMemberWeighted(WeightedSampler<T> sampler) {
+    if (sampler.size() == 0) {
+      throw new IllegalArgumentException("Empty sampler");
+    }
+    int index = sampler.indexAt(randomWeightedPoint(sampler.totalWeight()));
+    logSelection(index, "randomMemberWeighted", sampler);
+    return sampler.get(index);
+  }
+
+  /**
+   * Returns a point selected uniformly at random from [0, totalWeight). Clients that store weights
+   * in their own data structures use it to select an element with probability proportional to its
+   * weight, as {@link #randomMemberWeighted(SimpleList, Map, double)} does.
+   *
+   * @param totalWeight the total weight of the elements to select from
+   * @return a random point in [0, totalWeight)
+   */
+  public static double randomWeightedPoint(double totalWeight) {
+    incrementCallsToRandom("randomWeightedPoint");
+    double chosenPoint = random().nextDouble() * totalWeight;
+    if (GenInputsAbstract.selection_log != null) {
+      try {
+        GenInputsAbstract.selection_log.write(String.format("chosenPoint = %s%n", chosenPoint));
+      } catch (IOException e) {
+        throw new Error("Problem writing to selection-log", e);
+      }
+    }
+    return chosenPoint;
+  }
+
   /**
    * Return a random member of the set, selected uniformly at random.
    *
@@ -205,7 +290,7 @@ public final class Randomness {
     }
     double falseProb = 1 - trueProb;
     incrementCallsToRandom("weightedCoinFlip");
-    boolean result = Randomness.random.nextDouble() >= falseProb;
+    boolean result = random().nextDouble() >= falseProb;
     logSelection(result, "weightedCoinFlip", trueProb);
     return result;
   }
@@ -230,7 +315,7 @@ public final class Randomness {
     }
     double falseProbNormalized = falseProb / totalProb;
     incrementCallsToRandom("randomBoolFromDistribution");
-    boolean result = Randomness.random.nextDouble() >= falseProbNormalized;
+    boolean result = random().nextDouble() >= falseProbNormalized;
     logSelection(result, "randomBoolFromDistribution", falseProb + ", " + trueProb);
     return result;
   }
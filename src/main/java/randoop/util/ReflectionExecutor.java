@@ -1,5 +1,6 @@
 package randoop.util;
 
+import java.util.concurrent.ConcurrentLinkedDeque;
 import org.plumelib.options.Option;
 import org.plumelib.options.OptionGroup;
 import randoop.ExceptionalExecution;
@@ -10,9 +11,10 @@ import randoop.main.RandoopBug;
 /**
  * Static methods that executes the code of a ReflectionCode object.
  *
- * <p>This class maintains an "executor" thread. Code is executed on that thread. If the code takes
- * longer than the specified timeout, the thread is killed and a TimeoutExceededException exception
- * is reported.
+ * <p>With {@link #usethreads}, this class maintains a pool of "runner" threads, and code is
+ * executed on an idle one. If the code takes longer than the specified timeout, the thread is
+ * killed, a TimeoutExceededException exception is reported, and the thread is replaced by a new one
+ * for later calls.
  */
 public final class ReflectionExecutor {
 
@@ -28,8 +30,10 @@ public final class ReflectionExecutor {
    *
    * <p>Use this option if Randoop does not terminate, which is usually due to execution of code
    * under test that results in an infinite loop or that waits for user input. The downside of this
-   * option is a BIG (order-of-magnitude) decrease in generation speed. The tests are not run in
-   * parallel, merely in isolation.
+   * option is a decrease in generation speed, since every call is handed to another thread (the
+   * threads are reused until a call times out). The tests are not run in parallel, merely in
+   * isolation. Since threads are reused, values that the code under test stores in a {@code
+   * ThreadLocal} are seen by later calls, as without this option.
    */
   @OptionGroup("Threading")
   @Option("Execute each test in a separate thread, with timeout")
@@ -45,33 +49,73 @@ public final class ReflectionExecutor {
   @Option("Maximum number of milliseconds a test may run. Only meaningful with --usethreads")
   public static int call_timeout = CALL_TIMEOUT_DEFAULT;
 
-  // Execution statistics.
-  private static long normal_exec_duration = 0;
-  private static int normal_exec_count = 0;
-  private static long excep_exec_duration = 0;
-  private static int excep_exec_count = 0;
+  /** How methods and constructors under test are called. */
+  public enum InvocationMode {
+    /** Call them with {@code Method.invoke} and {@code Constructor.newInstance}. */
+    REFLECTION,
+    /**
+     * Call them through a method handle, created on first use, that takes the boxed inputs in an
+     * array; it is faster after the first call. A method or constructor for which no handle can be
+     * created is called by reflection.
+     */
+    METHOD_HANDLE
+  }
+
+  /**
+   * How methods and constructors under test are called. The outcome of a call does not depend on
+   * it, only the speed of calls.
+   */
+  @Option("How to call methods and constructors under test")
+  public static InvocationMode invocation_mode = InvocationMode.METHOD_HANDLE;
+
+  /**
+   * The runner threads that are not running any code. A runner is created when none is idle, and is
+   * discarded when a call it runs exceeds the timeout.
+   */
+  private static final ConcurrentLinkedDeque<RunnerThread> idleRunners =
+      new ConcurrentLinkedDeque<>();
+
+  // Execution statistics. Histograms, because parallel generators execute code concurrently.
+  private static final LatencyHistogram normal_exec_times = new LatencyHistogram();
+  private static final LatencyHistogram excep_exec_times = new LatencyHistogram();
 
   public static void resetStatistics() {
-    normal_exec_duration = 0;
-    normal_exec_count = 0;
-    excep_exec_duration = 0;
-    excep_exec_count = 0;
+    normal_exec_times.reset();
+    excep_exec_times.reset();
   }
 
   public static int normalExecs() {
-    return normal_exec_count;
+    return (int) normal_exec_times.count();
   }
 
   public static int excepExecs() {
-    return excep_exec_count;
+    return (int) excep_exec_times.count();
   }
 
   public static double normalExecAvgMillis() {
-    return ((normal_exec_duration / (double) normal_exec_count) / Math.pow(10, 6));
+    return normal_exec_times.mean() / Math.pow(10, 6);
   }
 
   public static double excepExecAvgMillis() {
-    return ((excep_exec_duration / (double) excep_exec_count) / Math.pow(10, 6));
+    return excep_exec_times.mean() / Math.pow(10, 6);
+  }
+
+  /**
+   * Returns the durations of the calls that terminated normally.
+   *
+   * @return the histogram of the durations of normal executions
+   */
+  public static LatencyHistogram normalExecTimes() {
+    return normal_exec_times;
+  }
+
+  /**
+   * Returns the durations of the calls that threw an exception, not including timeouts.
+   *
+   * @return the histogram of the durations of exceptional executions
+   */
+  public static LatencyHistogram excepExecTimes() {
+    return excep_exec_times;
   }
 
   /**
@@ -96,55 +140,55 @@ public final class ReflectionExecutor {
     long duration = System.nanoTime() - start;
 
     if (code.getExceptionThrown() != null) {
-      // Add duration to running average for exceptional execution.
-      excep_exec_duration += duration;
-      assert excep_exec_duration > 0; // check no overflow.
-      excep_exec_count++;
+      excep_exec_times.record(duration);
       // System.out.println("exceptional execution: " + code);
       return new ExceptionalExecution(code.getExceptionThrown(), duration);
     } else {
-      // Add duration to running average for normal execution.
-      normal_exec_duration += duration;
-      assert normal_exec_duration > 0; // check no overflow.
-      normal_exec_count++;
+      normal_exec_times.record(duration);
       // System.out.println("normal execution: " + code);
       return new NormalExecution(code.getReturnValue(), duration);
     }
   }
 
   /**
-   * Executes code.runReflectionCode() in its own thread.
+   * Executes code.runReflectionCode() in a runner thread, reusing an idle runner if there is one.
    *
    * @param code the {@link ReflectionCode} to be executed
    * @throws TimeoutExceededException if execution times out
+   * @throws RandoopBug if running the code throws an exception, which indicates a bug in Randoop
    */
   @SuppressWarnings({"deprecation", "DeprecatedThreadMethods"})
   private static void executeReflectionCodeThreaded(ReflectionCode code)
       throws TimeoutExceededException {
 
-    RunnerThread runnerThread = new RunnerThread(null);
-    runnerThread.setup(code);
+    RunnerThread runnerThread = idleRunners.pollFirst();
+    if (runnerThread == null || !runnerThread.isAlive()) {
+      runnerThread = new RunnerThread(null);
+      runnerThread.start();
+    }
 
     try {
 
-      // Start the test.
-      runnerThread.start();
-
       // If test doesn't finish in time, suspend it.
-      runnerThread.join(call_timeout);
-
-      if (!runnerThread.runFinished) {
+      if (!runnerThread.execute(code, call_timeout)) {
         Log.logPrintf("Exceeded timeout: aborting execution of call: %s%n", runnerThread.getCode());
         // TODO: is it possible to log the test being executed?
         // (Maybe not here, but it has been previously logged.)
 
         // We use this deprecated method because it's the only way to
-        // stop a thread no matter what it's doing.
+        // stop a thread no matter what it's doing.  The runner is not reused, even if it survives.
         runnerThread.stop();
 
         throw new TimeoutExceededException();
       }
 
+      Throwable failure = runnerThread.getFailure();
+      // Most recently used first, so that the same few runners keep being reused.
+      idleRunners.addFirst(runnerThread);
+      if (failure != null) { // bug in Randoop
+        throw new RandoopBug("code=" + code, failure);
+      }
+
     } catch (java.lang.InterruptedException e) {
       throw new IllegalStateException(
           "A RunnerThread thread shouldn't be interrupted by anyone! (This may be a bug in Randoop;"
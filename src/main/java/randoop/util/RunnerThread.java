@@ -1,23 +1,31 @@
 package randoop.util;
 
+/**
+ * A daemon thread that runs {@link ReflectionCode} on behalf of {@link ReflectionExecutor}. A
+ * runner thread runs one call at a time, and is reused for further calls unless a call exceeds its
+ * timeout, in which case the runner is abandoned.
+ *
+ * <p>A call that interrupts the runner does not affect later calls: the interrupt status is cleared
+ * after each call, and an idle runner ignores interrupts. Values that a call stores in a {@link
+ * ThreadLocal} are kept, and seen by later calls on the same runner, just as when all calls run on
+ * the main thread without {@code --usethreads}.
+ */
 public class RunnerThread extends Thread {
 
-  // Fields assigned when calling setup(..)
+  /** Guards {@link #code}, {@link #runFinished}, and {@link #failure}. */
+  private final Object lock = new Object();
+
+  /** The code to run, or that is running; null when the runner is idle. */
   private ReflectionCode code;
 
-  // Fields assigned when calling run()
+  /** True once {@link #code} has been run. */
   boolean runFinished;
 
-  // The state of the thread.
-  private NextCallMustBe state;
-
-  private enum NextCallMustBe {
-    SETUP,
-    RUN
-  }
+  /** The exception that escaped {@link #code}, or null if it returned normally. */
+  private Throwable failure;
 
   /**
-   * Create a new runner thread.
+   * Create a new runner thread. The caller must start it.
    *
    * @param threadGroup the group for this thread
    */
@@ -25,36 +33,92 @@ public class RunnerThread extends Thread {
     super(threadGroup, "randoop.util.RunnerThread");
     this.code = null;
     this.runFinished = false;
-    this.state = NextCallMustBe.SETUP;
+    this.setDaemon(true);
     this.setUncaughtExceptionHandler(RandoopUncaughtRunnerThreadExceptionHandler.getHandler());
   }
 
-  public void setup(ReflectionCode code) {
-    if (state != NextCallMustBe.SETUP) throw new IllegalStateException();
+  /**
+   * Runs the given code in this thread, and waits until it finishes or the timeout elapses.
+   *
+   * @param code the code to run
+   * @param timeoutMillis the maximum time to wait, in milliseconds
+   * @return true if the code finished within the timeout
+   * @throws InterruptedException if the calling thread is interrupted while waiting
+   */
+  boolean execute(ReflectionCode code, long timeoutMillis) throws InterruptedException {
     if (code == null) throw new IllegalArgumentException("code cannot be null.");
-    this.code = code;
-    this.state = NextCallMustBe.RUN;
+    long deadline = System.nanoTime() + timeoutMillis * 1000000;
+    synchronized (lock) {
+      if (this.code != null) throw new IllegalStateException();
+      this.code = code;
+      this.runFinished = false;
+      this.failure = null;
+      lock.notifyAll();
+      while (!runFinished) {
+        long remainingNanos = deadline - System.nanoTime();
+        if (remainingNanos <= 0) {
+          return false;
+        }
+        lock.wait(remainingNanos / 1000000, (int) (remainingNanos % 1000000));
+      }
+      this.code = null;
+      return true;
+    }
   }
 
   @Override
   public final void run() {
-    if (state != NextCallMustBe.RUN) throw new IllegalStateException();
-    runFinished = false;
-    executeReflectionCode();
-    runFinished = true;
-    this.state = NextCallMustBe.SETUP;
+    while (true) {
+      ReflectionCode next;
+      synchronized (lock) {
+        while (code == null || runFinished) {
+          try {
+            lock.wait();
+          } catch (InterruptedException e) {
+            // Only the code under test interrupts runners; the runner must stay usable.
+          }
+        }
+        next = code;
+      }
+      Throwable thrown = null;
+      try {
+        next.runReflectionCode();
+      } catch (ThreadDeath e) { // the runner was abandoned and stopped
+        throw e;
+      } catch (Throwable e) { // bug in Randoop; reported by the caller
+        thrown = e;
+      }
+      // Clear an interrupt left by the code under test, which would otherwise affect the next call.
+      Thread.interrupted();
+      synchronized (lock) {
+        failure = thrown;
+        runFinished = true;
+        lock.notifyAll();
+      }
+    }
   }
 
-  private void executeReflectionCode() throws ReflectionCode.ReflectionCodeException {
-    code.runReflectionCode();
+  /**
+   * Return the exception thrown by {@link ReflectionCode#runReflectionCode} in the last call that
+   * finished. Such an exception is a bug in Randoop, since that method catches the exceptions of
+   * the code under test.
+   *
+   * @return the exception thrown by the last call, or null if it returned normally
+   */
+  Throwable getFailure() {
+    synchronized (lock) {
+      return failure;
+    }
   }
 
   /**
-   * Return the ReflectionCode that is being, or was, run.
+   * Return the ReflectionCode that is being run.
    *
-   * @return the ReflectionCode that is being, or was, run
+   * @return the ReflectionCode that is being run, or null if this runner is idle
    */
   public ReflectionCode getCode() {
-    return code;
+    synchronized (lock) {
+      return code;
+    }
   }
 }
@@ -27,6 +27,11 @@ public class SimpleArrayList<E> extends ArrayList<E> implements SimpleList<E>, S
     return this;
   }
 
+  @Override
+  public int depth() {
+    return 0;
+  }
+
   @Override
   public List<E> toJDKList() {
     return new ArrayList<>(this);
@@ -29,6 +29,11 @@ import java.util.List;
  * <p>When extending a Sequence with a new statement, we store the old sequence's statements plus
  * the new statement in a {@code OneMoreElementList}, which takes up only 2 references in memory
  * (and constant creation time).
+ *
+ * <p>Repeated concatenation and extension nest these lists, which makes {@link #get} slower on the
+ * resulting list. {@link randoop.sequence.Sequence} copies the statements of a sequence into a
+ * {@link SimpleArrayList} when their {@link #depth()} exceeds {@code
+ * GenInputsAbstract.sequence_flatten_depth}.
  */
 public interface SimpleList<T> {
 
@@ -66,6 +71,15 @@ public interface SimpleList<T> {
    */
   public SimpleList<T> getSublist(int index);
 
+  /**
+   * Return the number of nested lists that {@link #get} may traverse to reach an element. A list
+   * that stores its elements directly, such as a {@link SimpleArrayList}, has depth 0; a list that
+   * is built from other lists has a depth one more than the deepest of them.
+   *
+   * @return the depth of this list
+   */
+  public int depth();
+
   // TODO: Replace some uses of this, such as direct implementations of toString.
   /**
    * Returns a java.util.List version of this list. Caution: this operation can be expensive.
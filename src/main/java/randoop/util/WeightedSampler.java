@@ -0,0 +1,231 @@
+package randoop.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A list of elements with non-negative weights, from which an element can be selected with
+ * probability proportional to its weight.
+ *
+ * <p>The weights are stored in a Fenwick tree (binary indexed tree), so appending an element,
+ * changing a weight, computing the total weight, and selecting an element all take O(log n) time,
+ * instead of the O(n) time of {@link Randomness#randomMemberWeighted(SimpleList, java.util.Map,
+ * double)}. Element i is selected for a point p in [0, totalWeight) when the sum of the weights of
+ * elements 0..i-1 is at most p and the sum of the weights of elements 0..i is greater than p, as in
+ * {@link Randomness#randomMemberWeighted(SimpleList, java.util.Map, double)}, so both select the
+ * same element for the same random point, up to floating-point rounding.
+ *
+ * <p>Each change of a weight updates several sums, which accumulates rounding error. The sums are
+ * recomputed from the weights after every n changes, which keeps the amortized cost of a change
+ * O(log n).
+ *
+ * @param <T> the type of the elements
+ */
+public final class WeightedSampler<T> {
+
+  /** The elements, in the order in which they were added. */
+  private final List<T> elements;
+
+  /** The weight of each element. Only the first {@code size()} values are meaningful. */
+  private double[] weights;
+
+  /**
+   * The Fenwick tree: {@code tree[i]} is the sum of the weights of elements {@code i -
+   * lowestOneBit(i)} to {@code i - 1}. {@code tree[0]} is unused.
+   */
+  private double[] tree;
+
+  /** The number of weight changes since the sums were last recomputed. */
+  private int changesSinceRebuild = 0;
+
+  /** Creates an empty sampler. */
+  public WeightedSampler() {
+    this(16);
+  }
+
+  /**
+   * Creates an empty sampler.
+   *
+   * @param initialCapacity the number of elements that can be added before the sampler grows
+   */
+  public WeightedSampler(int initialCapacity) {
+    if (initialCapacity < 0) {
+      throw new IllegalArgumentException("Negative capacity: " + initialCapacity);
+    }
+    this.elements = new ArrayList<>(initialCapacity);
+    this.weights = new double[Math.max(initialCapacity, 1)];
+    this.tree = new double[Math.max(initialCapacity, 1) + 1];
+  }
+
+  /**
+   * Returns the number of elements.
+   *
+   * @return the number of elements
+   */
+  public int size() {
+    return elements.size();
+  }
+
+  /**
+   * Returns the element at the given index.
+   *
+   * @param index the index of an element
+   * @return the element at {@code index}
+   */
+  public T get(int index) {
+    return elements.get(index);
+  }
+
+  /**
+   * Returns the weight of the element at the given index.
+   *
+   * @param index the index of an element
+   * @return the weight of the element at {@code index}
+   */
+  public double getWeight(int index) {
+    checkIndex(index);
+    return weights[index];
+  }
+
+  /**
+   * Appends an element.
+   *
+   * @param element the element to add
+   * @param weight the weight of the element; must be non-negative and finite
+   * @return the index of the new element
+   */
+  public int add(T element, double weight) {
+    checkWeight(weight);
+    int index = elements.size();
+    if (index == weights.length) {
+      int capacity = weights.length * 2;
+      weights = Arrays.copyOf(weights, capacity);
+      tree = Arrays.copyOf(tree, capacity + 1);
+    }
+    elements.add(element);
+    weights[index] = weight;
+    // tree[node] covers the elements of the nodes just below it, plus the new element.
+    int node = index + 1;
+    double sum = weight;
+    for (int child = node - 1; child > node - Integer.lowestOneBit(node); ) {
+      sum += tree[child];
+      child -= Integer.lowestOneBit(child);
+    }
+    tree[node] = sum;
+    return index;
+  }
+
+  /**
+   * Changes the weight of an element.
+   *
+   * @param index the index of the element
+   * @param weight the new weight; must be non-negative and finite
+   */
+  public void setWeight(int index, double weight) {
+    checkIndex(index);
+    checkWeight(weight);
+    double delta = weight - weights[index];
+    weights[index] = weight;
+    if (delta == 0) {
+      return;
+    }
+    if (++changesSinceRebuild > elements.size()) {
+      rebuild();
+      return;
+    }
+    for (int node = index + 1; node <= elements.size(); node += Integer.lowestOneBit(node)) {
+      tree[node] += delta;
+    }
+  }
+
+  /**
+   * Returns the sum of the weights of all the elements.
+   *
+   * @return the total weight
+   */
+  public double totalWeight() {
+    double sum = 0;
+    for (int node = elements.size(); node > 0; node -= Integer.lowestOneBit(node)) {
+      sum += tree[node];
+    }
+    return sum;
+  }
+
+  /**
+   * Returns the index of the element that corresponds to the given point: the smallest index i such
+   * that the sum of the weights of elements 0..i is greater than {@code point}. An element with
+   * weight zero is never returned.
+   *
+   * @param point a value in [0, totalWeight())
+   * @return the index of the element that contains {@code point}
+   */
+  public int indexAt(double point) {
+    int size = elements.size();
+    if (size == 0) {
+      throw new IllegalStateException("No elements to select from");
+    }
+    int position = 0;
+    double remaining = point;
+    for (int step = Integer.highestOneBit(size); step > 0; step >>= 1) {
+      int node = position + step;
+      if (node <= size && tree[node] <= remaining) {
+        position = node;
+        remaining -= tree[node];
+      }
+    }
+    // Rounding error can land on an element with weight zero, or past the last element.
+    for (int i = position; i < size; i++) {
+      if (weights[i] > 0) {
+        return i;
+      }
+    }
+    for (int i = Math.min(position, size) - 1; i >= 0; i--) {
+      if (weights[i] > 0) {
+        return i;
+      }
+    }
+    throw new IllegalStateException("All weights are zero");
+  }
+
+  /**
+   * Selects an element at random, with probability proportional to its weight.
+   *
+   * @return the selected element
+   * @see Randomness#randomMemberWeighted(WeightedSampler)
+   */
+  public T sample() {
+    return Randomness.randomMemberWeighted(this);
+  }
+
+  /** Recomputes all the sums from the weights, discarding accumulated rounding error. */
+  public void rebuild() {
+    int size = elements.size();
+    Arrays.fill(tree, 0, size + 1, 0.0);
+    for (int node = 1; node <= size; node++) {
+      tree[node] += weights[node - 1];
+      int parent = node + Integer.lowestOneBit(node);
+      if (parent <= size) {
+        tree[parent] += tree[node];
+      }
+    }
+    changesSinceRebuild = 0;
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= elements.size()) {
+      throw new IndexOutOfBoundsException("No such element: " + index);
+    }
+  }
+
+  private static void checkWeight(double weight) {
+    if (!(weight >= 0) || Double.isInfinite(weight)) {
+      throw new IllegalArgumentException("Weight must be non-negative and finite: " + weight);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "WeightedSampler of size " + elements.size();
+  }
+}
@@ -6,6 +6,12 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.Modifier;
@@ -23,12 +29,22 @@ import com.github.javaparser.ast.stmt.ExpressionStmt;
 import com.github.javaparser.ast.stmt.ReturnStmt;
 import com.github.javaparser.ast.stmt.Statement;
 import com.github.javaparser.ast.type.PrimitiveType;
+import java.io.File;
+import java.io.IOException;
 import java.io.PrintStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.tools.Diagnostic;
 import javax.tools.JavaFileObject;
 import org.junit.Test;
@@ -73,6 +89,122 @@ public class SequenceCompilerTest {
     }
   }
 
+  @Test
+  public void compileAndLoadInMemoryTest() throws SequenceCompilerException {
+    SequenceCompiler compiler = getSequenceCompiler();
+    String simpleClass = createCompilableClass();
+
+    Class<?> first = compiler.compileAndLoad(null, "Simple", simpleClass);
+    assertFalse(Files.exists(Paths.get("Simple.class")));
+    // The same source is compiled once.
+    assertSame(first, compiler.compileAndLoad(null, "Simple", simpleClass));
+    // A different source with the same class name is loaded separately.
+    Class<?> other = compiler.compileAndLoad(null, "Simple", simpleClass + "\n");
+    assertNotSame(first, other);
+    assertEquals("Simple", other.getName());
+  }
+
+  @Test
+  public void compileAndLoadCachedTest() throws IOException, SequenceCompilerException {
+    Path directory = Files.createTempDirectory("classFileCache");
+    try {
+      ClassFileCache cache = new ClassFileCache(directory);
+      String simpleClass = createCompilableClass();
+      List<String> options = new ArrayList<>();
+      assertNull(cache.get(simpleClass, options));
+
+      SequenceCompiler compiler = new SequenceCompiler(options, cache);
+      Class<?> first = compiler.compileAndLoad(null, "Simple", simpleClass);
+      // The compiler adds its own options, so look for the file rather than the entry.
+      List<Path> files = new ArrayList<>();
+      try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+        stream.forEach(files::add);
+      }
+      assertEquals(1, files.size());
+
+      // Another compiler loads the class from the cache.
+      Class<?> second =
+          new SequenceCompiler(options, new ClassFileCache(directory))
+              .compileAndLoad(null, "Simple", simpleClass);
+      assertNotSame(first, second);
+      assertEquals("Simple", second.getName());
+
+      // A damaged file is compiled again.
+      Files.write(files.get(0), new byte[] {1, 2, 3});
+      Class<?> third =
+          new SequenceCompiler(options, new ClassFileCache(directory))
+              .compileAndLoad(null, "Simple", simpleClass);
+      assertEquals("Simple", third.getName());
+      assertTrue(Files.size(files.get(0)) > 3);
+
+      // A failed compilation is cached with its errors.
+      String badClass = createUncompilableClass();
+      List<String> messages = new ArrayList<>();
+      for (int i = 0; i < 2; i++) {
+        try {
+          new SequenceCompiler(options, new ClassFileCache(directory))
+              .compileAndLoad(null, "SimplyBad", badClass);
+          fail("should not compile");
+        } catch (SequenceCompilerException e) {
+          StringBuilder sb = new StringBuilder();
+          for (Diagnostic<? extends JavaFileObject> d : e.getDiagnostics().getDiagnostics()) {
+            sb.append(
+                String.format(
+                    "%s %d:%d %s%n",
+                    d.getKind(), d.getLineNumber(), d.getColumnNumber(), d.getMessage(null)));
+          }
+          messages.add(sb.toString());
+        }
+      }
+      assertFalse(messages.get(0).isEmpty());
+      assertEquals(messages.get(0), messages.get(1));
+    } finally {
+      try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+        for (Path file : stream) {
+          Files.delete(file);
+        }
+      }
+      Files.delete(directory);
+    }
+  }
+
+  @Test
+  public void cacheMissesAfterClasspathDirectoryChangesTest() throws IOException {
+    Path directory = Files.createTempDirectory("classFileCache");
+    Path classpathDirectory = Files.createTempDirectory("classpath");
+    String classpath = System.getProperty("java.class.path");
+    try {
+      System.setProperty(
+          "java.class.path", classpath + File.pathSeparator + classpathDirectory.toString());
+      String simpleClass = createCompilableClass();
+      List<String> options = new ArrayList<>();
+      new ClassFileCache(directory)
+          .putClassFiles(simpleClass, options, Collections.singletonMap("Simple", new byte[] {1}));
+      assertNotNull(new ClassFileCache(directory).get(simpleClass, options));
+
+      // A class file added to a classpath directory could change the result of compiling.
+      Files.createDirectories(classpathDirectory.resolve("p"));
+      Files.write(classpathDirectory.resolve("p/Dependency.class"), new byte[] {2});
+      ClassFileCache cache = new ClassFileCache(directory);
+      assertNull(cache.get(simpleClass, options));
+      cache.putClassFiles(simpleClass, options, Collections.singletonMap("Simple", new byte[] {1}));
+      assertNotNull(new ClassFileCache(directory).get(simpleClass, options));
+
+      // So could a class file that is rewritten.
+      Files.write(classpathDirectory.resolve("p/Dependency.class"), new byte[] {2, 3});
+      assertNull(new ClassFileCache(directory).get(simpleClass, options));
+    } finally {
+      System.setProperty("java.class.path", classpath);
+      for (Path root : new Path[] {directory, classpathDirectory}) {
+        try (Stream<Path> files = Files.walk(root)) {
+          for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+            Files.delete(file);
+          }
+        }
+      }
+    }
+  }
+
   private String createCompilableClass() {
     CompilationUnit compilationUnit = new CompilationUnit();
     ClassOrInterfaceDeclaration classDeclaration =
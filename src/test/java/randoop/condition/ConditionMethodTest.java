@@ -1,9 +1,14 @@
 package randoop.condition;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
 import org.junit.Rule;
 import org.junit.Test;
 import randoop.compile.SequenceCompiler;
@@ -108,6 +113,41 @@ public class ConditionMethodTest {
     }
   }
 
+  @Test
+  public void testMethodsCompiledTogether() throws Exception {
+    RawSignature prestate =
+        new RawSignature(null, "BatchCondition", "test", new Class<?>[] {String.class});
+    RawSignature poststate =
+        new RawSignature(null, "BatchCondition", "test", new Class<?>[] {String.class, int.class});
+    List<Method> methods =
+        ExecutableBooleanExpression.createMethods(
+            Arrays.asList(prestate, prestate, poststate),
+            Arrays.asList("(String s)", "(String s)", "(String s, int result)"),
+            Arrays.asList("s.isEmpty()", "s.length() > 2", "result == s.length()"),
+            getCompiler());
+    assertEquals(3, methods.size());
+    assertSame(methods.get(0).getDeclaringClass(), methods.get(2).getDeclaringClass());
+    assertTrue((boolean) methods.get(0).invoke(null, ""));
+    assertFalse((boolean) methods.get(1).invoke(null, "01"));
+    assertTrue((boolean) methods.get(2).invoke(null, "dummy", 5));
+  }
+
+  @Test
+  public void testMethodsCompiledTogetherWithError() throws Exception {
+    RawSignature signature =
+        new RawSignature(null, "BatchErrorCondition", "test", new Class<?>[] {String.class});
+    List<Method> methods =
+        ExecutableBooleanExpression.createMethods(
+            Arrays.asList(signature, signature, signature),
+            Arrays.asList("(String s)", "(String s)", "(String s)"),
+            Arrays.asList("s.isEmpty()", "t.isEmpty()", "s.length()"),
+            getCompiler());
+    // Only the methods with errors are left out.
+    assertTrue((boolean) methods.get(0).invoke(null, ""));
+    assertNull(methods.get(1));
+    assertNull(methods.get(2));
+  }
+
   private ExecutableBooleanExpression createCondition(
       RawSignature signature, String declarations, String conditionText, String comment) {
     Method method =
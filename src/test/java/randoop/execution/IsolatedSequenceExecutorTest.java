@@ -0,0 +1,75 @@
+package randoop.execution;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import randoop.main.GenInputsAbstract;
+import randoop.operation.TypedOperation;
+import randoop.sequence.Sequence;
+
+public class IsolatedSequenceExecutorTest {
+
+  private static String jvmMaxMemory;
+
+  private static IsolatedSequenceExecutor executor;
+
+  @BeforeClass
+  public static void setup() {
+    jvmMaxMemory = GenInputsAbstract.jvm_max_memory;
+    GenInputsAbstract.jvm_max_memory = "256m";
+    executor =
+        new IsolatedSequenceExecutor(
+            new TestEnvironment(System.getProperty("java.class.path")), 2, 2000);
+  }
+
+  @AfterClass
+  public static void teardown() {
+    executor.close();
+    GenInputsAbstract.jvm_max_memory = jvmMaxMemory;
+  }
+
+  public static class Behaviors {
+    public static int normal() {
+      return 1;
+    }
+
+    public static int exception() {
+      throw new IllegalStateException();
+    }
+
+    public static int loop() {
+      while (true) {
+        // loop.
+      }
+    }
+
+    public static int exit() {
+      System.exit(1);
+      return 0;
+    }
+
+    public static long[] hog() {
+      return new long[Integer.MAX_VALUE];
+    }
+  }
+
+  private static Sequence call(String methodName) throws NoSuchMethodException {
+    return new Sequence().extend(TypedOperation.forMethod(Behaviors.class.getMethod(methodName)));
+  }
+
+  @Test
+  public void testOutcomes() throws NoSuchMethodException {
+    assertEquals(IsolatedSequenceExecutor.Outcome.NORMAL, executor.execute(call("normal")));
+    assertEquals(IsolatedSequenceExecutor.Outcome.EXCEPTION, executor.execute(call("exception")));
+    assertEquals(IsolatedSequenceExecutor.Outcome.VM_ERROR, executor.execute(call("hog")));
+    assertEquals(IsolatedSequenceExecutor.Outcome.TIMEOUT, executor.execute(call("loop")));
+    assertEquals(IsolatedSequenceExecutor.Outcome.CRASH, executor.execute(call("exit")));
+    // The destroyed processes are replaced.
+    assertEquals(IsolatedSequenceExecutor.Outcome.NORMAL, executor.execute(call("normal")));
+    assertEquals(IsolatedSequenceExecutor.Outcome.NORMAL, executor.execute(call("normal")));
+    assertEquals(1, executor.numExecutions(IsolatedSequenceExecutor.Outcome.TIMEOUT));
+    assertEquals(3, executor.numExecutions(IsolatedSequenceExecutor.Outcome.NORMAL));
+  }
+}
@@ -0,0 +1,54 @@
+package randoop.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import canonicalizer.CanonicalizerConfig;
+import java.util.Arrays;
+import java.util.LinkedList;
+import org.junit.Test;
+
+public class CanonicalHeapMatcherTest {
+
+  /** A class without an {@code equals} method. */
+  private static class Node {
+    int value;
+    Node next;
+
+    Node(int value, Node next) {
+      this.value = value;
+      this.next = next;
+    }
+  }
+
+  @Test
+  public void testIsomorphicHeapsMatch() {
+    CanonicalHeapMatcher matcher = new CanonicalHeapMatcher(new CanonicalizerConfig());
+    assertTrue(matcher.add(new LinkedList<>(Arrays.asList(1, 2))));
+    assertFalse(matcher.add(new LinkedList<>(Arrays.asList(1, 2))));
+    assertTrue(matcher.add(new LinkedList<>(Arrays.asList(2, 1))));
+    assertTrue(matcher.add(new LinkedList<>(Arrays.asList(1, 2, 3))));
+    assertEquals(3, matcher.size());
+  }
+
+  @Test
+  public void testIdentityIsIgnored() {
+    CanonicalHeapMatcher matcher = new CanonicalHeapMatcher(new CanonicalizerConfig());
+    assertTrue(matcher.add(new Node(1, new Node(2, null))));
+    assertFalse(matcher.add(new Node(1, new Node(2, null))));
+    assertTrue(matcher.add(new Node(1, null)));
+    Node cycle = new Node(1, null);
+    cycle.next = cycle;
+    assertTrue(matcher.add(cycle));
+    assertEquals(3, matcher.size());
+  }
+
+  @Test
+  public void testFingerprint() {
+    assertEquals(
+        CanonicalHeapMatcher.fingerprint("value=1"), CanonicalHeapMatcher.fingerprint("value=1"));
+    assertTrue(
+        CanonicalHeapMatcher.fingerprint("value=1") != CanonicalHeapMatcher.fingerprint("value=2"));
+  }
+}
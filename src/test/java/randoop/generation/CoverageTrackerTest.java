@@ -0,0 +1,175 @@
+package randoop.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import org.jacoco.core.data.ExecutionDataWriter;
+import org.jacoco.core.instr.Instrumenter;
+import org.jacoco.core.runtime.IRuntime;
+import org.jacoco.core.runtime.LoggerRuntime;
+import org.jacoco.core.runtime.RuntimeData;
+import org.junit.Test;
+import randoop.types.ClassOrInterfaceType;
+
+public class CoverageTrackerTest {
+
+  /** A class under test with a few branches. */
+  public static class Signs {
+    public static String sign(int x) {
+      if (x < 0) {
+        return "negative";
+      } else if (x == 0) {
+        return "zero";
+      }
+      return "positive";
+    }
+
+    public static boolean isEven(int x) {
+      return x % 2 == 0;
+    }
+  }
+
+  /** Another class under test, whose coverage changes independently of {@link Signs}. */
+  public static class Ranges {
+    public static int clamp(int x, int low, int high) {
+      if (x < low) {
+        return low;
+      }
+      if (x > high) {
+        return high;
+      }
+      return x;
+    }
+  }
+
+  /** Loads the instrumented versions of the classes under test. */
+  private static class InstrumentedClassLoader extends ClassLoader {
+    /** The instrumented class files, by binary name. */
+    private final Map<String, byte[]> classFiles;
+
+    InstrumentedClassLoader(Map<String, byte[]> classFiles) {
+      super(CoverageTrackerTest.class.getClassLoader());
+      this.classFiles = classFiles;
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+      byte[] classFile = classFiles.get(name);
+      if (classFile == null) {
+        return super.loadClass(name, resolve);
+      }
+      synchronized (getClassLoadingLock(name)) {
+        Class<?> c = findLoadedClass(name);
+        if (c == null) {
+          c = defineClass(name, classFile, 0, classFile.length);
+        }
+        return c;
+      }
+    }
+  }
+
+  /**
+   * Reads the class file of a class, as {@link CoverageTracker} does.
+   *
+   * @param c a class
+   * @return the contents of the class file of {@code c}
+   */
+  private static byte[] classFile(Class<?> c) throws IOException {
+    try (InputStream in = c.getResourceAsStream('/' + c.getName().replace('.', '/') + ".class");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream()) {
+      byte[] buffer = new byte[8192];
+      int n;
+      while ((n = in.read(buffer)) != -1) {
+        bytes.write(buffer, 0, n);
+      }
+      return bytes.toByteArray();
+    }
+  }
+
+  /**
+   * Returns the execution data collected so far, in Jacoco's exec format, as the Jacoco agent does.
+   *
+   * @param data the execution data of the instrumented classes
+   * @return the execution data, which is not reset
+   */
+  private static byte[] dump(RuntimeData data) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ExecutionDataWriter writer = new ExecutionDataWriter(bytes);
+    data.collect(writer, writer, false);
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Returns a coverage tracker for the classes under test.
+   *
+   * @return a new coverage tracker that has not analyzed any class
+   */
+  private static CoverageTracker newTracker() {
+    Set<ClassOrInterfaceType> classes = new LinkedHashSet<>();
+    classes.add(ClassOrInterfaceType.forClass(Signs.class));
+    classes.add(ClassOrInterfaceType.forClass(Ranges.class));
+    return new CoverageTracker(classes);
+  }
+
+  @Test
+  public void testIncrementalUpdatesGiveSameCoverageAsFullAnalysis() throws Exception {
+    IRuntime runtime = new LoggerRuntime();
+    Instrumenter instrumenter = new Instrumenter(runtime);
+    Map<String, byte[]> instrumented = new HashMap<>();
+    for (Class<?> c : Arrays.asList(Signs.class, Ranges.class)) {
+      instrumented.put(c.getName(), instrumenter.instrument(classFile(c), c.getName()));
+    }
+    RuntimeData data = new RuntimeData();
+    runtime.startup(data);
+    try {
+      ClassLoader loader = new InstrumentedClassLoader(instrumented);
+      Method sign = loader.loadClass(Signs.class.getName()).getMethod("sign", int.class);
+      Method isEven = loader.loadClass(Signs.class.getName()).getMethod("isEven", int.class);
+      Method clamp =
+          loader
+              .loadClass(Ranges.class.getName())
+              .getMethod("clamp", int.class, int.class, int.class);
+
+      // Each step runs some calls before an update. Some steps cover nothing new, and some cover
+      // new branches of only one of the classes.
+      Object[][][] steps = {
+        {},
+        {{sign, 1}},
+        {{sign, 2}},
+        {{clamp, 5, 0, 10}},
+        {{sign, -1}, {isEven, 3}},
+        {{clamp, 5, 0, 10}, {sign, 1}},
+        {{isEven, 4}, {clamp, -1, 0, 10}},
+        {{sign, 0}, {clamp, 11, 0, 10}},
+      };
+      CoverageTracker incremental = newTracker();
+      for (Object[][] step : steps) {
+        for (Object[] call : step) {
+          ((Method) call[0]).invoke(null, Arrays.copyOfRange(call, 1, call.length));
+        }
+        byte[] executionData = dump(data);
+        incremental.updateBranchCoverageMap(executionData);
+        CoverageTracker full = newTracker();
+        full.updateBranchCoverageMap(executionData);
+
+        assertFalse(full.getBranchCoverageMap().isEmpty());
+        assertEquals(full.getBranchCoverageMap(), incremental.getBranchCoverageMap());
+      }
+      // Every branch is covered at the end.
+      for (Map.Entry<String, Double> entry : incremental.getBranchCoverageMap().entrySet()) {
+        assertEquals(entry.getKey(), 0.0, entry.getValue(), 0.0);
+      }
+    } finally {
+      runtime.shutdown();
+    }
+  }
+}
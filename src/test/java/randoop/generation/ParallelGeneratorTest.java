@@ -0,0 +1,138 @@
+package randoop.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static randoop.reflection.VisibilityPredicate.IS_PUBLIC;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import randoop.main.GenInputsAbstract;
+import randoop.main.GenTests;
+import randoop.main.OptionsCache;
+import randoop.operation.TypedOperation;
+import randoop.output.JUnitCreator;
+import randoop.reflection.DefaultReflectionPredicate;
+import randoop.reflection.OmitMethodsPredicate;
+import randoop.reflection.OperationExtractor;
+import randoop.sequence.ExecutableSequence;
+import randoop.sequence.Sequence;
+import randoop.test.CompilableTestPredicate;
+import randoop.test.ContractSet;
+import randoop.test.UBStack;
+import randoop.types.ClassOrInterfaceType;
+import randoop.util.MultiMap;
+import randoop.util.Randomness;
+
+public class ParallelGeneratorTest {
+
+  private static OptionsCache optionsCache;
+
+  @BeforeClass
+  public static void setup() {
+    optionsCache = new OptionsCache();
+    optionsCache.saveState();
+    GenInputsAbstract.progressdisplay = false;
+    // Each worker needs its own compilability predicate, see testParallelGeneration.
+    GenInputsAbstract.check_compilable = false;
+  }
+
+  @AfterClass
+  public static void restore() {
+    optionsCache.restoreState();
+  }
+
+  private static ParallelGenerator createGenerator(
+      int numWorkers, GenInputsAbstract.Limits limits) {
+    Randomness.setSeed(0);
+    List<ClassOrInterfaceType> types =
+        OperationExtractor.classListToTypeList(Collections.singletonList(UBStack.class));
+    List<TypedOperation> operations =
+        OperationExtractor.operations(types, new DefaultReflectionPredicate(), IS_PUBLIC);
+    assertFalse(operations.isEmpty());
+    ParallelGenerator generator =
+        new ParallelGenerator(
+            numWorkers,
+            operations,
+            new LinkedHashSet<TypedOperation>(),
+            limits,
+            () -> new ComponentManager(SeedSequences.defaultSeeds()),
+            null,
+            null,
+            null);
+    generator.setTestCheckGenerator(
+        GenTests.createTestCheckGenerator(
+            IS_PUBLIC, new ContractSet(), new MultiMap<>(), OmitMethodsPredicate.NO_OMISSION));
+    generator.setTestPredicate(
+        new GenTests()
+            .createTestOutputPredicate(
+                new LinkedHashSet<Sequence>(), new LinkedHashSet<Class<?>>(), null));
+    return generator;
+  }
+
+  @Test
+  public void testWorkersShareLimits() {
+    ParallelGenerator generator = createGenerator(3, new GenInputsAbstract.Limits(0, 200, 100, 10));
+    int attempted = 0;
+    int generated = 0;
+    int output = 0;
+    for (ForwardGenerator worker : generator.getWorkers()) {
+      assertEquals(0, worker.limits.time_limit_millis);
+      attempted += worker.limits.attempted_limit;
+      generated += worker.limits.generated_limit;
+      output += worker.limits.output_limit;
+    }
+    assertEquals(200, attempted);
+    assertEquals(100, generated);
+    assertEquals(10, output);
+    assertEquals(4, generator.getWorkers().get(0).limits.output_limit);
+    assertEquals(3, generator.getWorkers().get(2).limits.output_limit);
+  }
+
+  @Test
+  public void testParallelGeneration() {
+    ParallelGenerator generator =
+        createGenerator(4, new GenInputsAbstract.Limits(0, 400, 400, 400));
+    generator.setCompilableTestPredicate(
+        () ->
+            new CompilableTestPredicate(
+                JUnitCreator.getTestCreator(null, null, null, null, null), new GenTests(), true),
+        8);
+    generator.createAndClassifySequences();
+
+    // No two workers generated the same sequence.
+    int total = 0;
+    for (ForwardGenerator worker : generator.getWorkers()) {
+      assertTrue(worker.num_steps <= worker.limits.attempted_limit);
+      total += worker.getAllSequences().size();
+    }
+    Set<Sequence> allSequences = generator.getAllSequences();
+    assertEquals(total, allSequences.size());
+    assertEquals(total, generator.numGeneratedSequences());
+    assertTrue(generator.num_steps <= 400);
+
+    // The results of the workers are merged.
+    List<ExecutableSequence> regressionSeqs = new ArrayList<>();
+    for (ForwardGenerator worker : generator.getWorkers()) {
+      regressionSeqs.addAll(worker.outRegressionSeqs);
+    }
+    assertEquals(regressionSeqs, generator.outRegressionSeqs);
+    assertFalse(regressionSeqs.isEmpty());
+
+    boolean push = false;
+    boolean pop = false;
+    for (Sequence s : allSequences) {
+      String str = s.toCodeString();
+      if (str.contains("push")) push = true;
+      if (str.contains("pop")) pop = true;
+    }
+    assertTrue(push);
+    assertTrue(pop);
+  }
+}
@@ -0,0 +1,73 @@
+package randoop.generation.fieldcoverage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static randoop.reflection.VisibilityPredicate.IS_PUBLIC;
+
+import org.junit.Test;
+import randoop.DummyVisitor;
+import randoop.main.GenInputsAbstract;
+import randoop.main.GenTests;
+import randoop.operation.TypedOperation;
+import randoop.reflection.OmitMethodsPredicate;
+import randoop.sequence.ExecutableSequence;
+import randoop.sequence.Sequence;
+import randoop.test.ContractSet;
+import randoop.test.TestCheckGenerator;
+import randoop.util.MultiMap;
+
+public class FieldCoverageTest {
+
+  /** A class whose field/value pairs are covered only by this test. */
+  public static class Counter {
+    private int count;
+
+    public void increment() {
+      count++;
+    }
+  }
+
+  /**
+   * Executes a sequence that creates a {@link Counter} and increments it.
+   *
+   * @param increments how many times to increment the counter
+   * @return the executed sequence
+   */
+  private static ExecutableSequence executeCounterSequence(int increments)
+      throws NoSuchMethodException {
+    Sequence sequence =
+        new Sequence().extend(TypedOperation.forConstructor(Counter.class.getConstructor()));
+    TypedOperation increment = TypedOperation.forMethod(Counter.class.getMethod("increment"));
+    for (int i = 0; i < increments; i++) {
+      sequence = sequence.extend(increment, sequence.getVariable(0));
+    }
+    ExecutableSequence eseq = new ExecutableSequence(sequence);
+    TestCheckGenerator gen =
+        GenTests.createTestCheckGenerator(
+            IS_PUBLIC, new ContractSet(), new MultiMap<>(), OmitMethodsPredicate.NO_OMISSION);
+    eseq.execute(new DummyVisitor(), gen);
+    return eseq;
+  }
+
+  @Test
+  public void testGeneratedFieldExtensionsCountNewPairsOnly() throws NoSuchMethodException {
+    boolean oldFiltering = GenInputsAbstract.field_coverage_statement_filtering;
+    GenInputsAbstract.field_coverage_statement_filtering = true;
+    try {
+      FieldCoverage fieldCoverage = FieldCoverage.getInstance();
+      ExecutableSequence first = executeCounterSequence(1);
+      assertTrue(first.isNormalExecution());
+      assertTrue(first.hasFieldExtensions());
+      assertTrue(fieldCoverage.addGeneratedFieldExtensions(first) > 0);
+
+      // The same sequence covers nothing new, so generation filters it out.
+      assertEquals(0, fieldCoverage.addGeneratedFieldExtensions(executeCounterSequence(1)));
+      // A shorter sequence only covers states that the first sequence went through.
+      assertEquals(0, fieldCoverage.addGeneratedFieldExtensions(executeCounterSequence(0)));
+      // A new value of the count field is a new pair.
+      assertTrue(fieldCoverage.addGeneratedFieldExtensions(executeCounterSequence(2)) > 0);
+    } finally {
+      GenInputsAbstract.field_coverage_statement_filtering = oldFiltering;
+    }
+  }
+}
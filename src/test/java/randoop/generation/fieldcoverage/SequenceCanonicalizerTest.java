@@ -0,0 +1,185 @@
+package randoop.generation.fieldcoverage;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import canonicalizer.CanonicalizerConfig;
+import canonicalizer.ObjectCanonicalizer;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import org.junit.Test;
+import randoop.generation.fieldcoverage.store.CompactFieldExtensions;
+import randoop.generation.fieldcoverage.store.FieldExtensionsDictionary;
+import representations.FieldExtensions;
+
+public class SequenceCanonicalizerTest {
+
+  /** A mutable class whose last instance is reachable through a static field. */
+  private static class Node {
+    static Node last;
+
+    int value;
+    String name;
+    Node next;
+
+    Node(int value, String name) {
+      this.value = value;
+      this.name = name;
+      last = this;
+    }
+  }
+
+  /**
+   * Notifies a canonicalizer of the execution of a statement.
+   *
+   * @param canonicalizer the canonicalizer of the sequence
+   * @param inputs the inputs of the statement
+   * @param statement the statement, which returns its output
+   */
+  private static void statement(
+      SequenceCanonicalizer canonicalizer, Object[] inputs, Supplier<?> statement) {
+    canonicalizer.canonicalizeInputs(inputs);
+    Object output = statement.get();
+    canonicalizer.statementExecuted(inputs);
+    canonicalizer.canonicalizeOutput(output);
+  }
+
+  /**
+   * Executes a sequence that mutates its objects through inputs, aliases and static state, and then
+   * mutates them again after the sequence finishes, as the next sequence could.
+   *
+   * @param canonicalizer the canonicalizer of the sequence
+   * @param fieldExtensions the field extensions that {@code canonicalizer} accumulates into
+   * @return {@code fieldExtensions}, including the tuples computed by the pipeline
+   */
+  private static CompactFieldExtensions execute(
+      SequenceCanonicalizer canonicalizer, CompactFieldExtensions fieldExtensions) {
+    String s0 = "a";
+    statement(canonicalizer, new Object[0], () -> s0);
+    Integer s1 = 1;
+    statement(canonicalizer, new Object[0], () -> s1);
+    Node s2 = new Node(s1, s0);
+    statement(canonicalizer, new Object[] {s1, s0}, () -> s2);
+    Node s3 = new Node(2, "b");
+    statement(canonicalizer, new Object[0], () -> s3);
+    // Mutates s3, which is not an input, through the static field.
+    statement(
+        canonicalizer,
+        new Object[] {s2},
+        () -> {
+          s2.next = Node.last;
+          Node.last.value = 3;
+          return s2.name + s2.value;
+        });
+    statement(canonicalizer, new Object[0], () -> Thread.State.NEW);
+
+    CompletableFuture<CompactFieldExtensions> pending = canonicalizer.finish();
+    s2.value = 4;
+    s3.name = "c";
+    s3.next = new Node(5, "d");
+    if (pending != null) {
+      fieldExtensions.addAll(pending.join());
+    }
+    return fieldExtensions;
+  }
+
+  @Test
+  public void testPipelineGivesSameFieldExtensions() {
+    CanonicalizerConfig config = new CanonicalizerConfig();
+    FieldExtensionsDictionary dictionary = new FieldExtensionsDictionary();
+    CanonicalizationPipeline pipeline = new CanonicalizationPipeline(config, dictionary, 2, 4);
+    for (boolean incremental : new boolean[] {false, true}) {
+      CompactFieldExtensions synchronous = new CompactFieldExtensions(dictionary);
+      SequenceCanonicalizer withoutPipeline =
+          new SequenceCanonicalizer(config, synchronous, incremental, null);
+      execute(withoutPipeline, synchronous);
+      assertNull(withoutPipeline.finish());
+
+      CompactFieldExtensions pipelined = new CompactFieldExtensions(dictionary);
+      SequenceCanonicalizer withPipeline =
+          new SequenceCanonicalizer(config, pipelined, incremental, pipeline);
+      execute(withPipeline, pipelined);
+
+      assertFalse(synchronous.isEmpty());
+      assertArrayEquals(synchronous.toSortedArray(), pipelined.toSortedArray());
+    }
+  }
+
+  @Test
+  public void testOnlyImmutableValuesAreDeferred() {
+    CanonicalizerConfig config = new CanonicalizerConfig();
+    FieldExtensionsDictionary dictionary = new FieldExtensionsDictionary();
+    CanonicalizationPipeline pipeline = new CanonicalizationPipeline(config, dictionary, 1, 1);
+    CompactFieldExtensions fieldExtensions = new CompactFieldExtensions(dictionary);
+    SequenceCanonicalizer canonicalizer =
+        new SequenceCanonicalizer(config, fieldExtensions, false, pipeline);
+
+    Node node = new Node(1, null);
+    statement(canonicalizer, new Object[0], () -> node);
+    assertFalse(fieldExtensions.isEmpty());
+    assertNull(canonicalizer.finish());
+
+    statement(canonicalizer, new Object[0], () -> "a");
+    CompletableFuture<CompactFieldExtensions> pending = canonicalizer.finish();
+    assertNotNull(pending);
+    assertFalse(pending.join().isEmpty());
+  }
+
+  @Test
+  public void testReusedCanonicalizerGivesSameFieldExtensions() {
+    CanonicalizerConfig config = new CanonicalizerConfig();
+    FieldExtensionsDictionary dictionary = new FieldExtensionsDictionary();
+    CompactFieldExtensions reused = new CompactFieldExtensions(dictionary);
+    SequenceCanonicalizer canonicalizer = new SequenceCanonicalizer(config, reused, false, null);
+    CompactFieldExtensions fresh = new CompactFieldExtensions(dictionary);
+
+    Node first = new Node(1, "a");
+    Node second = new Node(2, "b");
+    second.next = first;
+    for (Object object : new Object[] {first, "c", second, null, first}) {
+      canonicalizer.canonicalizeOutput(object);
+      ObjectCanonicalizer objectCanonicalizer = new ObjectCanonicalizer(config);
+      objectCanonicalizer.canonicalize(object);
+      fresh.addAll((FieldExtensions) objectCanonicalizer.getObjectRepresentation());
+    }
+    assertArrayEquals(fresh.toSortedArray(), reused.toSortedArray());
+    assertEquals(5, canonicalizer.traversals());
+  }
+
+  @Test
+  public void testIncrementalSkipsUnmodifiedObjects() {
+    CanonicalizerConfig config = new CanonicalizerConfig();
+    FieldExtensionsDictionary dictionary = new FieldExtensionsDictionary();
+    CompactFieldExtensions incremental = new CompactFieldExtensions(dictionary);
+    SequenceCanonicalizer canonicalizer =
+        new SequenceCanonicalizer(config, incremental, true, null);
+
+    Node node = new Node(1, "a");
+    canonicalizer.canonicalizeOutput(node);
+    // Not modified since it was output.
+    statement(canonicalizer, new Object[] {node}, () -> node.value);
+    assertEquals(1, canonicalizer.traversalsSaved());
+    // Modified by the previous statement, so traversed again.
+    statement(
+        canonicalizer,
+        new Object[] {node},
+        () -> {
+          node.value = 7;
+          return null;
+        });
+    assertEquals(1, canonicalizer.traversalsSaved());
+    // Modified by the previous statement, so the new value is recorded.
+    canonicalizer.canonicalizeInputs(new Object[] {node});
+
+    CompactFieldExtensions expected = new CompactFieldExtensions(dictionary);
+    SequenceCanonicalizer full = new SequenceCanonicalizer(config, expected, false, null);
+    full.canonicalizeOutput(new Node(1, "a"));
+    full.canonicalizeOutput(new Node(7, "a"));
+    full.canonicalizeOutput(1);
+    full.canonicalizeOutput(null);
+    assertArrayEquals(expected.toSortedArray(), incremental.toSortedArray());
+  }
+}
@@ -0,0 +1,152 @@
+package randoop.generation.fieldcoverage.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.Test;
+
+public class BinaryFieldExtensionsFormatTest {
+
+  private static byte[] write(IOFieldExtensions fieldExtensions, boolean compress)
+      throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryFieldExtensionsFormat.write(fieldExtensions, out, compress);
+    return out.toByteArray();
+  }
+
+  private static IOFieldExtensions read(byte[] bytes) throws IOException {
+    return BinaryFieldExtensionsFormat.read(new ByteArrayInputStream(bytes));
+  }
+
+  /**
+   * Checks that reading the given bytes fails with an {@link IOException}.
+   *
+   * @param bytes bytes that are not valid field extensions
+   * @return the exception
+   */
+  private static IOException assertReadFails(byte[] bytes) {
+    try {
+      read(bytes);
+    } catch (IOException e) {
+      return e;
+    }
+    fail("Read " + Arrays.toString(bytes));
+    throw new Error("Unreachable");
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    IOFieldExtensions sample = FieldExtensionsTestData.sample();
+    for (boolean compress : new boolean[] {false, true}) {
+      assertEquals(
+          FieldExtensionsTestData.contents(sample),
+          FieldExtensionsTestData.contents(read(write(sample, compress))));
+    }
+  }
+
+  @Test
+  public void testRoundTripWithoutSequence() throws IOException {
+    IOFieldExtensions empty = new IOFieldExtensions();
+    assertEquals(
+        FieldExtensionsTestData.contents(empty),
+        FieldExtensionsTestData.contents(read(write(empty, false))));
+  }
+
+  @Test
+  public void testSameAsTextFormat() throws IOException {
+    IOFieldExtensions sample = FieldExtensionsTestData.sample();
+    Path dir = Files.createTempDirectory("fexts-test");
+    File json = dir.resolve("json.fexts").toFile();
+    File binary = dir.resolve("binary.fexts").toFile();
+    File converted = dir.resolve("converted.fexts").toFile();
+    FieldExtensionsFileUtils.write(sample, json, FieldExtensionsFileUtils.Format.JSON, false);
+    FieldExtensionsFileUtils.write(sample, binary, FieldExtensionsFileUtils.Format.BINARY, true);
+    FieldExtensionsFileUtils.convert(
+        json, converted, FieldExtensionsFileUtils.Format.BINARY, false);
+
+    assertEquals(
+        FieldExtensionsTestData.contents(FieldExtensionsFileUtils.load(json)),
+        FieldExtensionsTestData.contents(FieldExtensionsFileUtils.load(binary)));
+    assertEquals(
+        FieldExtensionsTestData.contents(FieldExtensionsFileUtils.load(json)),
+        FieldExtensionsTestData.contents(FieldExtensionsFileUtils.load(converted)));
+    assertTrue(binary.length() < json.length());
+  }
+
+  @Test
+  public void testTruncatedInput() throws IOException {
+    byte[] bytes = write(FieldExtensionsTestData.sample(), false);
+    for (int length = 0; length < bytes.length; length++) {
+      assertReadFails(Arrays.copyOf(bytes, length));
+    }
+    byte[] compressed = write(FieldExtensionsTestData.sample(), true);
+    assertReadFails(Arrays.copyOf(compressed, compressed.length / 2));
+  }
+
+  @Test
+  public void testCorruptInput() throws IOException {
+    byte[] bytes = write(FieldExtensionsTestData.sample(), false);
+
+    byte[] badMagic = bytes.clone();
+    badMagic[0] = '{';
+    assertReadFails(badMagic);
+
+    // A huge count of strings, with no data after it.
+    byte[] hugeCount = Arrays.copyOf(bytes, 11);
+    System.arraycopy(
+        new byte[] {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07}, 0, hugeCount, 6, 5);
+    assertReadFails(hugeCount);
+
+    // A variable-length integer longer than five bytes.
+    byte[] longVarInt = Arrays.copyOf(bytes, 12);
+    Arrays.fill(longVarInt, 6, 12, (byte) 0x80);
+    assertReadFails(longVarInt);
+
+    // A string index past the end of the table of strings.
+    IOFieldExtensions one = new IOFieldExtensions();
+    IOField field = new IOField("f");
+    IOSource source = new IOSource("s");
+    source.addValue("v");
+    field.addSource(source);
+    one.addField(field);
+    byte[] badIndex = write(one, false);
+    // magic, version, flags, 3 strings of one char, 1 field, then the index of "f"
+    assertEquals(0, badIndex[14]);
+    badIndex[14] = 3;
+    assertTrue(assertReadFails(badIndex).getMessage().contains("out of bounds"));
+
+    byte[] compressed = write(FieldExtensionsTestData.sample(), true);
+    compressed[compressed.length / 2] ^= 0x55;
+    compressed[compressed.length / 2 + 1] ^= 0x55;
+    assertReadFails(compressed);
+  }
+
+  @Test
+  public void testUnsupportedVersion() throws IOException {
+    byte[] bytes = write(FieldExtensionsTestData.sample(), false);
+    bytes[4]++;
+    assertTrue(assertReadFails(bytes).getMessage().contains("version"));
+  }
+
+  @Test
+  public void testLoadUnsupportedVersion() throws IOException {
+    byte[] bytes = write(FieldExtensionsTestData.sample(), false);
+    bytes[4]++;
+    File file = Files.createTempDirectory("fexts-test").resolve("future.fexts").toFile();
+    Files.write(file.toPath(), bytes);
+    try {
+      FieldExtensionsFileUtils.load(file);
+      fail("Loaded a file of an unsupported version");
+    } catch (RuntimeException e) {
+      assertTrue(e.getCause() instanceof IOException);
+    }
+  }
+}
@@ -0,0 +1,126 @@
+package randoop.generation.fieldcoverage.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import org.junit.Test;
+import randoop.sequence.ExecutableSequence;
+
+public class FieldExtensionsArchiveTest {
+
+  private static File newArchiveFile() throws IOException {
+    return Files.createTempDirectory("fexta-test")
+        .resolve("tests" + FieldExtensionsArchive.FILE_EXTENSION)
+        .toFile();
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    for (boolean compress : new boolean[] {false, true}) {
+      File file = newArchiveFile();
+      IOFieldExtensions sample = FieldExtensionsTestData.sample();
+      try (FieldExtensionsArchiveWriter writer = new FieldExtensionsArchiveWriter(file, compress)) {
+        writer.append("test2", sample);
+        writer.append("test1", new IOFieldExtensions());
+        writer.append("test3", sample);
+        assertEquals(3, writer.size());
+      }
+      try (FieldExtensionsArchive archive = new FieldExtensionsArchive(file)) {
+        assertEquals(3, archive.size());
+        assertEquals(
+            Arrays.asList("test2", "test1", "test3"), Arrays.asList(archive.names().toArray()));
+        assertTrue(archive.contains("test1"));
+        assertFalse(archive.contains("test4"));
+        assertEquals(
+            FieldExtensionsTestData.contents(sample),
+            FieldExtensionsTestData.contents(archive.load("test3")));
+        assertEquals(
+            FieldExtensionsTestData.contents(new IOFieldExtensions()),
+            FieldExtensionsTestData.contents(archive.load("test1")));
+        assertEquals(
+            FieldExtensionsTestData.contents(sample),
+            FieldExtensionsTestData.contents(archive.load("test2")));
+      }
+    }
+  }
+
+  @Test
+  public void testEmptyArchive() throws IOException {
+    File file = newArchiveFile();
+    new FieldExtensionsArchiveWriter(file, false).close();
+    try (FieldExtensionsArchive archive = new FieldExtensionsArchive(file)) {
+      assertEquals(0, archive.size());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testLoadMissingEntry() throws IOException {
+    File file = newArchiveFile();
+    new FieldExtensionsArchiveWriter(file, false).close();
+    try (FieldExtensionsArchive archive = new FieldExtensionsArchive(file)) {
+      archive.load("test");
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDuplicateEntry() throws IOException {
+    try (FieldExtensionsArchiveWriter writer =
+        new FieldExtensionsArchiveWriter(newArchiveFile(), false)) {
+      writer.append("test", new IOFieldExtensions());
+      writer.append("test", new IOFieldExtensions());
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testAppendAfterClose() throws IOException {
+    FieldExtensionsArchiveWriter writer = new FieldExtensionsArchiveWriter(newArchiveFile(), false);
+    writer.close();
+    writer.append("test", new IOFieldExtensions());
+  }
+
+  @Test
+  public void testTruncatedArchive() throws IOException {
+    File file = newArchiveFile();
+    try (FieldExtensionsArchiveWriter writer = new FieldExtensionsArchiveWriter(file, false)) {
+      writer.append("test1", FieldExtensionsTestData.sample());
+      writer.append("test2", FieldExtensionsTestData.sample());
+    }
+    byte[] bytes = Files.readAllBytes(file.toPath());
+    for (int length = 0; length < bytes.length; length++) {
+      File truncated = newArchiveFile();
+      Files.write(truncated.toPath(), Arrays.copyOf(bytes, length));
+      try (FieldExtensionsArchive archive = new FieldExtensionsArchive(truncated)) {
+        fail("Opened an archive truncated to " + length + " bytes, with " + archive.size());
+      } catch (RuntimeException e) {
+        assertTrue(e.getCause() instanceof IOException);
+      }
+    }
+  }
+
+  @Test
+  public void testWriterToArchive() throws IOException {
+    File file = newArchiveFile();
+    ExecutableSequence[] sequences = new ExecutableSequence[3];
+    try (FieldExtensionsWriter writer = FieldExtensionsWriter.toArchive(file, true, 1)) {
+      for (int i = 0; i < sequences.length; i++) {
+        sequences[i] = FieldExtensionsTestData.executedSequence(i);
+        writer.save(sequences[i], "test" + i);
+      }
+    }
+    try (FieldExtensionsArchive archive = new FieldExtensionsArchive(file)) {
+      assertEquals(sequences.length, archive.size());
+      for (int i = 0; i < sequences.length; i++) {
+        assertEquals(
+            FieldExtensionsTestData.contents(
+                FieldExtensionsFileUtils.toIOFieldExtensions(sequences[i])),
+            FieldExtensionsTestData.contents(archive.load("test" + i)));
+      }
+    }
+  }
+}
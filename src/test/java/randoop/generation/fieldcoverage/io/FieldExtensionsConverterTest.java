@@ -0,0 +1,85 @@
+package randoop.generation.fieldcoverage.io;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Test;
+
+public class FieldExtensionsConverterTest {
+
+  @Test
+  public void testConvertFile() throws IOException {
+    Path dir = Files.createTempDirectory("fexts-converter-test");
+    File json = dir.resolve("test.fexts").toFile();
+    File binary = dir.resolve("binary.fexts").toFile();
+    File back = dir.resolve("back.fexts").toFile();
+    IOFieldExtensions sample = FieldExtensionsTestData.sample();
+    FieldExtensionsFileUtils.write(sample, json, FieldExtensionsFileUtils.Format.JSON, false);
+
+    assertEquals(
+        1,
+        FieldExtensionsConverter.convert(
+            json, binary, FieldExtensionsFileUtils.Format.BINARY, true));
+    assertEquals(
+        1,
+        FieldExtensionsConverter.convert(
+            binary, back, FieldExtensionsFileUtils.Format.JSON, false));
+    assertEquals(
+        FieldExtensionsTestData.contents(sample),
+        FieldExtensionsTestData.contents(FieldExtensionsFileUtils.load(binary)));
+    assertEquals(
+        new String(Files.readAllBytes(json.toPath()), UTF_8),
+        new String(Files.readAllBytes(back.toPath()), UTF_8));
+  }
+
+  @Test
+  public void testConvertDirectory() throws IOException {
+    File from = Files.createTempDirectory("fexts-converter-test").toFile();
+    File to = new File(Files.createTempDirectory("fexts-converter-test").toFile(), "binary");
+    IOFieldExtensions sample = FieldExtensionsTestData.sample();
+    FieldExtensionsFileUtils.write(
+        sample, new File(from, "test1.fexts"), FieldExtensionsFileUtils.Format.JSON, false);
+    FieldExtensionsFileUtils.write(
+        new IOFieldExtensions(),
+        new File(from, "test2.fexts"),
+        FieldExtensionsFileUtils.Format.JSON,
+        false);
+
+    assertEquals(
+        2,
+        FieldExtensionsConverter.convert(from, to, FieldExtensionsFileUtils.Format.BINARY, false));
+    for (String name : new String[] {"test1.fexts", "test2.fexts"}) {
+      assertEquals(
+          FieldExtensionsTestData.contents(FieldExtensionsFileUtils.load(new File(from, name))),
+          FieldExtensionsTestData.contents(FieldExtensionsFileUtils.load(new File(to, name))));
+    }
+  }
+
+  @Test
+  public void testConvertArchive() throws IOException {
+    Path dir = Files.createTempDirectory("fexts-converter-test");
+    File archive = dir.resolve("tests" + FieldExtensionsArchive.FILE_EXTENSION).toFile();
+    File to = dir.resolve("extracted").toFile();
+    IOFieldExtensions sample = FieldExtensionsTestData.sample();
+    try (FieldExtensionsArchiveWriter writer = new FieldExtensionsArchiveWriter(archive, true)) {
+      writer.append("test1", sample);
+      writer.append("test2", new IOFieldExtensions());
+    }
+
+    assertEquals(
+        2,
+        FieldExtensionsConverter.convert(archive, to, FieldExtensionsFileUtils.Format.JSON, false));
+    assertEquals(
+        FieldExtensionsTestData.contents(sample),
+        FieldExtensionsTestData.contents(
+            FieldExtensionsFileUtils.load(new File(to, "test1.fexts"))));
+    assertEquals(
+        FieldExtensionsTestData.contents(new IOFieldExtensions()),
+        FieldExtensionsTestData.contents(
+            FieldExtensionsFileUtils.load(new File(to, "test2.fexts"))));
+  }
+}
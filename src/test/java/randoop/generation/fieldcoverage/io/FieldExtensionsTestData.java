@@ -0,0 +1,127 @@
+package randoop.generation.fieldcoverage.io;
+
+import static randoop.reflection.VisibilityPredicate.IS_PUBLIC;
+
+import java.util.ArrayList;
+import java.util.List;
+import randoop.DummyVisitor;
+import randoop.main.GenInputsAbstract;
+import randoop.main.GenTests;
+import randoop.operation.TypedOperation;
+import randoop.reflection.OmitMethodsPredicate;
+import randoop.sequence.ExecutableSequence;
+import randoop.sequence.Sequence;
+import randoop.test.ContractSet;
+import randoop.test.TestCheckGenerator;
+import randoop.types.JavaTypes;
+import randoop.util.MultiMap;
+
+/** Field extensions and sequences for the tests of the field extensions files. */
+final class FieldExtensionsTestData {
+
+  private FieldExtensionsTestData() {
+    throw new Error("Do not instantiate");
+  }
+
+  /** A class whose instances have a few fields of different types. */
+  public static class Account {
+    private String owner = "nobody";
+    private long balance;
+    private Account linked;
+
+    public void deposit(int amount) {
+      balance += amount;
+    }
+
+    public void link() {
+      linked = new Account();
+      linked.owner = "été \"quoted\"\n";
+    }
+  }
+
+  /**
+   * Returns field extensions with several fields, sources and values, including strings that need
+   * escaping.
+   *
+   * @return new field extensions
+   */
+  static IOFieldExtensions sample() {
+    IOFieldExtensions fieldExtensions = new IOFieldExtensions();
+    IOField next = new IOField("Node.next");
+    IOSource n0 = new IOSource("N0");
+    n0.addValue("N1");
+    n0.addValue("null");
+    next.addSource(n0);
+    IOSource n1 = new IOSource("N1");
+    n1.addValue("N0");
+    next.addSource(n1);
+    fieldExtensions.addField(next);
+    IOField name = new IOField("Node.name");
+    IOSource n2 = new IOSource("N0");
+    n2.addValue("été \"quoted\"\n");
+    n2.addValue("");
+    name.addSource(n2);
+    fieldExtensions.addField(name);
+    fieldExtensions.setSequence("Node node0 = new Node();\n");
+    return fieldExtensions;
+  }
+
+  /**
+   * Returns the tuples and sequence of field extensions, to compare them.
+   *
+   * @param fieldExtensions the field extensions
+   * @return one string per (field, source, value) tuple, in order, followed by the sequence
+   */
+  static List<String> contents(IOFieldExtensions fieldExtensions) {
+    List<String> contents = new ArrayList<>();
+    for (IOField field : fieldExtensions.fields()) {
+      for (IOSource source : field.getSources()) {
+        for (String value : source.getValues()) {
+          contents.add(field.getName() + " | " + source.getName() + " | " + value);
+        }
+      }
+    }
+    contents.add("sequence: " + fieldExtensions.sequence());
+    return contents;
+  }
+
+  /**
+   * Executes a sequence that creates an {@link Account} and calls its methods, computing its field
+   * extensions.
+   *
+   * @param deposits how many times to deposit into the account
+   * @return the executed sequence, with field extensions
+   */
+  static ExecutableSequence executedSequence(int deposits) {
+    Sequence sequence;
+    try {
+      sequence =
+          new Sequence().extend(TypedOperation.forConstructor(Account.class.getConstructor()));
+      sequence =
+          sequence.extend(
+              TypedOperation.forMethod(Account.class.getMethod("link")), sequence.getVariable(0));
+      TypedOperation deposit =
+          TypedOperation.forMethod(Account.class.getMethod("deposit", int.class));
+      for (int i = 0; i < deposits; i++) {
+        sequence =
+            sequence.extend(
+                TypedOperation.createPrimitiveInitialization(JavaTypes.INT_TYPE, i + 1));
+        sequence = sequence.extend(deposit, sequence.getVariable(0), sequence.getLastVariable());
+      }
+    } catch (NoSuchMethodException e) {
+      throw new AssertionError(e);
+    }
+    boolean oldMetrics = GenInputsAbstract.field_coverage_metrics;
+    GenInputsAbstract.field_coverage_metrics = true;
+    try {
+      ExecutableSequence eseq = new ExecutableSequence(sequence);
+      TestCheckGenerator gen =
+          GenTests.createTestCheckGenerator(
+              IS_PUBLIC, new ContractSet(), new MultiMap<>(), OmitMethodsPredicate.NO_OMISSION);
+      eseq.execute(new DummyVisitor(), gen);
+      return eseq;
+    } finally {
+      GenInputsAbstract.field_coverage_metrics = oldMetrics;
+    }
+  }
+}
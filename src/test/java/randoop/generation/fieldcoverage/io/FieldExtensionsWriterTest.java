@@ -0,0 +1,83 @@
+package randoop.generation.fieldcoverage.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import org.junit.Test;
+import randoop.sequence.ExecutableSequence;
+
+public class FieldExtensionsWriterTest {
+
+  @Test
+  public void testWritesQueuedFiles() throws IOException {
+    File folder = Files.createTempDirectory("fexts-writer-test").toFile();
+    ExecutableSequence[] sequences = new ExecutableSequence[5];
+    // A queue shorter than the number of files, so that save() has to wait.
+    try (FieldExtensionsWriter writer =
+        FieldExtensionsWriter.toFolder(folder, FieldExtensionsFileUtils.Format.BINARY, true, 2)) {
+      for (int i = 0; i < sequences.length; i++) {
+        sequences[i] = FieldExtensionsTestData.executedSequence(i);
+        writer.save(sequences[i], "test" + i);
+      }
+    }
+    for (int i = 0; i < sequences.length; i++) {
+      IOFieldExtensions expected = FieldExtensionsFileUtils.toIOFieldExtensions(sequences[i]);
+      IOFieldExtensions written =
+          FieldExtensionsFileUtils.load(new File(folder, "test" + i + ".fexts"));
+      assertEquals(
+          FieldExtensionsTestData.contents(expected), FieldExtensionsTestData.contents(written));
+    }
+  }
+
+  @Test
+  public void testSameAsTextFormat() throws IOException {
+    File binaryFolder = Files.createTempDirectory("fexts-writer-test").toFile();
+    File jsonFolder = Files.createTempDirectory("fexts-writer-test").toFile();
+    ExecutableSequence sequence = FieldExtensionsTestData.executedSequence(2);
+    try (FieldExtensionsWriter binary =
+            FieldExtensionsWriter.toFolder(
+                binaryFolder, FieldExtensionsFileUtils.Format.BINARY, false, 1);
+        FieldExtensionsWriter json =
+            FieldExtensionsWriter.toFolder(
+                jsonFolder, FieldExtensionsFileUtils.Format.JSON, false, 1)) {
+      binary.save(sequence, "test");
+      json.save(sequence, "test");
+    }
+    assertEquals(
+        FieldExtensionsTestData.contents(
+            FieldExtensionsFileUtils.load(new File(jsonFolder, "test.fexts"))),
+        FieldExtensionsTestData.contents(
+            FieldExtensionsFileUtils.load(new File(binaryFolder, "test.fexts"))));
+  }
+
+  @Test
+  public void testFailureIsReportedOnClose() throws IOException {
+    File folder = Files.createTempDirectory("fexts-writer-test").toFile();
+    ExecutableSequence sequence = FieldExtensionsTestData.executedSequence(1);
+    FieldExtensionsWriter writer =
+        FieldExtensionsWriter.toFolder(folder, FieldExtensionsFileUtils.Format.BINARY, false, 4);
+    writer.save(sequence, "test");
+    // The file already exists, so it cannot be written again.
+    writer.save(sequence, "test");
+    try {
+      writer.close();
+      fail("The second file was written");
+    } catch (RuntimeException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains("already exists"));
+    }
+    assertTrue(new File(folder, "test.fexts").isFile());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testSaveAfterClose() throws IOException {
+    File folder = Files.createTempDirectory("fexts-writer-test").toFile();
+    FieldExtensionsWriter writer =
+        FieldExtensionsWriter.toFolder(folder, FieldExtensionsFileUtils.Format.BINARY, false, 4);
+    writer.close();
+    writer.save(FieldExtensionsTestData.executedSequence(0), "test");
+  }
+}
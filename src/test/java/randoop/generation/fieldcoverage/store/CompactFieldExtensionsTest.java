@@ -0,0 +1,83 @@
+package randoop.generation.fieldcoverage.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import representations.FieldExtensions;
+
+public class CompactFieldExtensionsTest {
+
+  @Test
+  public void testAddAndContains() {
+    CompactFieldExtensions extensions = new CompactFieldExtensions(new FieldExtensionsDictionary());
+    assertTrue(extensions.isEmpty());
+    assertTrue(extensions.add("Node.next", "N0", "N1"));
+    assertFalse(extensions.add("Node.next", "N0", "N1"));
+    assertTrue(extensions.add("Node.value", "N0", "1"));
+    assertTrue(extensions.contains("Node.next", "N0", "N1"));
+    assertFalse(extensions.contains("Node.next", "N1", "N0"));
+    assertFalse(extensions.contains("Node.size", "N0", "1"));
+    assertEquals(2, extensions.size());
+  }
+
+  @Test
+  public void testForEachIsSorted() {
+    CompactFieldExtensions extensions = new CompactFieldExtensions(new FieldExtensionsDictionary());
+    extensions.add("b", "s2", "v");
+    extensions.add("a", "s1", "v");
+    extensions.add("b", "s1", "v");
+    List<String> tuples = new ArrayList<>();
+    extensions.forEach((field, source, value) -> tuples.add(field + " " + source));
+    // Fields and sources are grouped in order of first appearance.
+    assertEquals(Arrays.asList("b s2", "b s1", "a s1"), tuples);
+  }
+
+  @Test
+  public void testConversion() {
+    FieldExtensions fieldExtensions = new FieldExtensions();
+    fieldExtensions.addPairToField("Node.next", "N0", "N1");
+    fieldExtensions.addPairToField("Node.next", "N1", "null");
+    fieldExtensions.addPairToField("Node.value", "N0", "1");
+    CompactFieldExtensions extensions = new CompactFieldExtensions(new FieldExtensionsDictionary());
+    assertEquals(3, extensions.addAll(fieldExtensions));
+    assertEquals(0, extensions.addAll(fieldExtensions));
+    assertEquals(fieldExtensions, extensions.toFieldExtensions());
+  }
+
+  @Test
+  public void testAddAllCompact() {
+    FieldExtensionsDictionary dictionary = new FieldExtensionsDictionary();
+    CompactFieldExtensions a = new CompactFieldExtensions(dictionary);
+    CompactFieldExtensions b = new CompactFieldExtensions(dictionary);
+    a.add("f", "s", "1");
+    b.add("f", "s", "1");
+    b.add("f", "s", "2");
+    assertEquals(1, a.addAll(b));
+    assertEquals(2, a.size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAddAllWithDifferentDictionary() {
+    CompactFieldExtensions a = new CompactFieldExtensions(new FieldExtensionsDictionary());
+    CompactFieldExtensions b = new CompactFieldExtensions(new FieldExtensionsDictionary());
+    a.addAll(b);
+  }
+
+  @Test
+  public void testOverflowStopsRecordingNewTuples() {
+    CompactFieldExtensions extensions =
+        new CompactFieldExtensions(new FieldExtensionsDictionary(10, 10, 2));
+    assertTrue(extensions.add("f", "s", "1"));
+    assertTrue(extensions.add("f", "s", "2"));
+    assertFalse(extensions.add("f", "s", "3"));
+    assertFalse(extensions.contains("f", "s", "3"));
+    // Tuples of values that were already interned are still recorded.
+    assertTrue(extensions.add("g", "s", "1"));
+    assertEquals(3, extensions.size());
+  }
+}
@@ -0,0 +1,56 @@
+package randoop.generation.fieldcoverage.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class FieldExtensionsDictionaryTest {
+
+  @Test
+  public void testEncodeAndDecode() {
+    FieldExtensionsDictionary dictionary = new FieldExtensionsDictionary();
+    long tuple = dictionary.encode("Node.next", "N0", "N1");
+    assertTrue(tuple >= 0);
+    assertEquals("Node.next", dictionary.field(tuple));
+    assertEquals("N0", dictionary.source(tuple));
+    assertEquals("N1", dictionary.value(tuple));
+    assertEquals(tuple, dictionary.encode("Node.next", "N0", "N1"));
+    assertEquals(tuple, dictionary.lookup("Node.next", "N0", "N1"));
+    assertNotEquals(tuple, dictionary.encode("Node.next", "N1", "N0"));
+    assertEquals(-1, dictionary.lookup("Node.next", "N0", "N2"));
+  }
+
+  @Test
+  public void testLargestIds() {
+    int fieldId = (1 << FieldExtensionsDictionary.FIELD_BITS) - 1;
+    int sourceId = (1 << FieldExtensionsDictionary.SOURCE_BITS) - 1;
+    int valueId = (1 << FieldExtensionsDictionary.VALUE_BITS) - 1;
+    long tuple = FieldExtensionsDictionary.encode(fieldId, sourceId, valueId);
+    assertTrue(tuple >= 0);
+    assertEquals(fieldId, FieldExtensionsDictionary.fieldId(tuple));
+    assertEquals(sourceId, FieldExtensionsDictionary.sourceId(tuple));
+    assertEquals(valueId, FieldExtensionsDictionary.valueId(tuple));
+  }
+
+  @Test
+  public void testSortingGroupsByFieldAndSource() {
+    assertTrue(
+        FieldExtensionsDictionary.encode(0, 5, 7) < FieldExtensionsDictionary.encode(1, 0, 0));
+    assertTrue(
+        FieldExtensionsDictionary.encode(0, 0, 7) < FieldExtensionsDictionary.encode(0, 1, 0));
+  }
+
+  @Test
+  public void testOverflow() {
+    FieldExtensionsDictionary dictionary = new FieldExtensionsDictionary(1, 10, 2);
+    long tuple = dictionary.encode("f", "s", "v1");
+    assertTrue(tuple >= 0);
+    assertTrue(dictionary.encode("f", "s", "v2") >= 0);
+    assertEquals(-1, dictionary.encode("f", "s", "v3"));
+    assertEquals(-1, dictionary.encode("g", "s", "v1"));
+    assertEquals(tuple, dictionary.encode("f", "s", "v1"));
+    assertEquals(2, dictionary.rejected());
+  }
+}
@@ -0,0 +1,97 @@
+package randoop.generation.fieldcoverage.store;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+public class ShardedFieldExtensionsTest {
+
+  /**
+   * Returns field extensions with the given number of distinct tuples.
+   *
+   * @param dictionary the dictionary of the field extensions
+   * @param first the number of the first value
+   * @param count the number of tuples
+   * @return field extensions with values {@code first} to {@code first + count - 1}
+   */
+  private static CompactFieldExtensions tuples(
+      FieldExtensionsDictionary dictionary, int first, int count) {
+    CompactFieldExtensions result = new CompactFieldExtensions(dictionary);
+    for (int i = first; i < first + count; i++) {
+      result.add("f" + (i % 7), "s" + (i % 13), Integer.toString(i));
+    }
+    return result;
+  }
+
+  @Test
+  public void testAddAll() {
+    FieldExtensionsDictionary dictionary = new FieldExtensionsDictionary();
+    ShardedFieldExtensions sharded = new ShardedFieldExtensions(dictionary, 4);
+    assertEquals(100, sharded.addAll(tuples(dictionary, 0, 100)));
+    assertEquals(50, sharded.addAll(tuples(dictionary, 50, 100)));
+    assertEquals(0, sharded.addAll(tuples(dictionary, 0, 150)));
+    assertEquals(0, sharded.addAll(new CompactFieldExtensions(dictionary)));
+    assertEquals(150, sharded.size());
+    assertTrue(sharded.contains(dictionary.lookup("f3", "s10", "10")));
+    assertFalse(sharded.contains(dictionary.encode("f3", "s10", "150")));
+  }
+
+  @Test
+  public void testSnapshotDoesNotDependOnShards() {
+    FieldExtensionsDictionary dictionary = new FieldExtensionsDictionary();
+    CompactFieldExtensions expected = tuples(dictionary, 0, 1000);
+    for (int shards : new int[] {1, 3, 16}) {
+      ShardedFieldExtensions sharded = new ShardedFieldExtensions(dictionary, shards);
+      sharded.addAll(tuples(dictionary, 500, 500));
+      sharded.addAll(tuples(dictionary, 0, 600));
+      assertEquals(1000, sharded.size());
+      assertArrayEquals(expected.toSortedArray(), sharded.snapshot().toSortedArray());
+    }
+  }
+
+  @Test
+  public void testConcurrentAddAll() throws InterruptedException, ExecutionException {
+    FieldExtensionsDictionary dictionary = new FieldExtensionsDictionary();
+    ShardedFieldExtensions sharded = new ShardedFieldExtensions(dictionary, 8);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Integer>> added = new ArrayList<>();
+      // Overlapping ranges, so that threads add some of the same tuples.
+      for (int t = 0; t < 8; t++) {
+        CompactFieldExtensions tuples = tuples(dictionary, t * 100, 300);
+        added.add(executor.submit(() -> sharded.addAll(tuples)));
+      }
+      int total = 0;
+      for (Future<Integer> result : added) {
+        total += result.get();
+      }
+      // Each tuple is counted as new by exactly one thread.
+      assertEquals(1000, total);
+      assertEquals(1000, sharded.size());
+      assertArrayEquals(
+          tuples(dictionary, 0, 1000).toSortedArray(), sharded.snapshot().toSortedArray());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDifferentDictionary() {
+    ShardedFieldExtensions sharded = new ShardedFieldExtensions(new FieldExtensionsDictionary(), 2);
+    sharded.addAll(tuples(new FieldExtensionsDictionary(), 0, 1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoShards() {
+    new ShardedFieldExtensions(new FieldExtensionsDictionary(), 0);
+  }
+}
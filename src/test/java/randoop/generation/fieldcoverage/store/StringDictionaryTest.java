@@ -0,0 +1,87 @@
+package randoop.generation.fieldcoverage.store;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+public class StringDictionaryTest {
+
+  @Test
+  public void testIntern() {
+    StringDictionary dictionary = new StringDictionary("test", 100);
+    assertEquals(0, dictionary.intern("a"));
+    assertEquals(1, dictionary.intern("b"));
+    assertEquals(0, dictionary.intern(new String("a")));
+    assertEquals(2, dictionary.size());
+    assertEquals("b", dictionary.get(1));
+    assertEquals(1, dictionary.idOf("b"));
+    assertEquals(-1, dictionary.idOf("c"));
+  }
+
+  @Test
+  public void testGrowth() {
+    StringDictionary dictionary = new StringDictionary("test", 1000);
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(i, dictionary.intern(Integer.toString(i)));
+    }
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(Integer.toString(i), dictionary.get(i));
+    }
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testGetUnknownId() {
+    StringDictionary dictionary = new StringDictionary("test", 100);
+    dictionary.intern("a");
+    dictionary.get(1);
+  }
+
+  @Test
+  public void testOverflow() {
+    StringDictionary dictionary = new StringDictionary("test", 2);
+    assertEquals(0, dictionary.intern("a"));
+    assertEquals(1, dictionary.intern("b"));
+    assertEquals(-1, dictionary.intern("c"));
+    assertEquals(-1, dictionary.intern("d"));
+    // Strings that were interned before the dictionary was full keep their ids.
+    assertEquals(1, dictionary.intern("b"));
+    assertEquals(-1, dictionary.idOf("c"));
+    assertEquals(2, dictionary.size());
+    assertEquals(2, dictionary.rejected());
+  }
+
+  @Test
+  public void testConcurrentIntern() throws InterruptedException, ExecutionException {
+    StringDictionary dictionary = new StringDictionary("test", 10000);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<int[]>> results = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        results.add(
+            executor.submit(
+                () -> {
+                  int[] ids = new int[1000];
+                  for (int i = 0; i < ids.length; i++) {
+                    ids[i] = dictionary.intern(Integer.toString(i));
+                  }
+                  return ids;
+                }));
+      }
+      for (Future<int[]> result : results) {
+        int[] ids = result.get();
+        for (int i = 0; i < ids.length; i++) {
+          assertEquals(Integer.toString(i), dictionary.get(ids[i]));
+        }
+      }
+      assertEquals(1000, dictionary.size());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
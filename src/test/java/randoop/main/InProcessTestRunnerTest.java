@@ -0,0 +1,186 @@
+package randoop.main;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import javax.tools.ToolProvider;
+import org.hamcrest.CoreMatchers;
+import org.junit.Test;
+
+public class InProcessTestRunnerTest {
+
+  /** The name of the test class. */
+  private static final String CLASS_NAME = "RunnerTestInput";
+
+  /** A test class with one passing and one failing test. */
+  private static final String FAILING_SOURCE =
+      "import org.junit.Assert;\n"
+          + "import org.junit.Test;\n"
+          + "public class RunnerTestInput {\n"
+          + "  @Test public void testPasses() { Assert.assertEquals(1, 1); }\n"
+          + "  @Test public void testFails() { Assert.assertEquals(1, 2); }\n"
+          + "}\n";
+
+  /** A test class whose test never finishes, unless interrupted. */
+  private static final String LOOPING_SOURCE =
+      "import org.junit.Test;\n"
+          + "public class RunnerTestInput {\n"
+          + "  @Test public void testLoops() throws InterruptedException {\n"
+          + "    while (true) { Thread.sleep(1000); }\n"
+          + "  }\n"
+          + "}\n";
+
+  /** A test class whose test passes only the first time that its class on the classpath is used. */
+  private static final String STATIC_STATE_SOURCE =
+      "import org.junit.Assert;\n"
+          + "import org.junit.Test;\n"
+          + "public class RunnerTestInput {\n"
+          + "  @Test public void testCounts() { Assert.assertEquals(1, ++RunnerTestCounter.count);"
+          + " }\n"
+          + "}\n";
+
+  /** A test class whose test exits the JVM. */
+  private static final String EXITING_SOURCE =
+      "import org.junit.Test;\n"
+          + "public class RunnerTestInput {\n"
+          + "  @Test public void testExits() { System.exit(1); }\n"
+          + "}\n";
+
+  /**
+   * Returns the classpath of JUnit, for the test classes.
+   *
+   * @return the jar files or directories of JUnit and Hamcrest
+   */
+  private static String junitClasspath() {
+    try {
+      return Paths.get(Test.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+          + File.pathSeparator
+          + Paths.get(
+              CoreMatchers.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    } catch (URISyntaxException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  /**
+   * Returns a runner for the test class, in a temporary directory.
+   *
+   * @param timeoutLimit the number of seconds allowed for the test class to run
+   * @return a new runner
+   * @throws IOException if the temporary directory cannot be created
+   */
+  private static InProcessTestRunner newRunner(int timeoutLimit) throws IOException {
+    Path dir = Files.createTempDirectory("runner-test");
+    return new InProcessTestRunner(
+        dir.resolve(CLASS_NAME + ".java"), junitClasspath(), null, timeoutLimit);
+  }
+
+  /**
+   * Compiles and runs a test class, and returns its normalized output.
+   *
+   * @param runner the runner
+   * @param source the source of the test class
+   * @return the normalized output, or null if the class does not compile or cannot be run
+   * @throws IOException if the run times out or calls {@code System.exit}
+   */
+  private static Map<String, String> run(InProcessTestRunner runner, String source)
+      throws IOException {
+    String output = runner.compileAndRun(null, CLASS_NAME, source);
+    return output == null ? null : Minimize.normalizeJUnitOutput(output);
+  }
+
+  @Test
+  public void testFailingTest() throws IOException {
+    try (InProcessTestRunner runner = newRunner(30)) {
+      assertTrue(runner.canRunTests());
+      Map<String, String> output = run(runner, FAILING_SOURCE);
+      assertNotNull(output);
+      assertEquals(1, output.size());
+      String failure = output.keySet().iterator().next();
+      assertTrue(failure, failure.startsWith("1) testFails"));
+      assertTrue(output.get(failure), output.get(failure).startsWith("java.lang.AssertionError"));
+
+      // Running again in the same runner gives the same output.
+      assertEquals(output, run(runner, FAILING_SOURCE));
+    }
+  }
+
+  @Test
+  public void testNonCompilingTest() throws IOException {
+    try (InProcessTestRunner runner = newRunner(30)) {
+      assertNull(run(runner, "public class RunnerTestInput {"));
+    }
+  }
+
+  @Test
+  public void testStaticStateIsNotShared() throws IOException {
+    // A class on the suite classpath.
+    Path lib = Files.createTempDirectory("runner-test-lib");
+    Path counter = lib.resolve("RunnerTestCounter.java");
+    Files.write(
+        counter, "public class RunnerTestCounter { public static int count; }\n".getBytes(UTF_8));
+    assertEquals(0, ToolProvider.getSystemJavaCompiler().run(null, null, null, counter.toString()));
+
+    Path dir = Files.createTempDirectory("runner-test");
+    try (InProcessTestRunner runner =
+        new InProcessTestRunner(
+            dir.resolve(CLASS_NAME + ".java"),
+            junitClasspath() + File.pathSeparator + lib,
+            null,
+            30)) {
+      // Each run starts with the static state of a new JVM.
+      for (int i = 0; i < 2; i++) {
+        String output = runner.compileAndRun(null, CLASS_NAME, STATIC_STATE_SOURCE);
+        assertTrue(output, output.contains("OK (1 test)"));
+      }
+    }
+  }
+
+  @Test
+  public void testTimeout() throws IOException {
+    try (InProcessTestRunner runner = newRunner(1)) {
+      assertUnreliable(runner, LOOPING_SOURCE);
+
+      // The looping thread may still be running, so later runs are not trusted either.
+      assertUnreliable(runner, FAILING_SOURCE);
+    }
+  }
+
+  @Test
+  public void testSystemExit() throws IOException {
+    try (InProcessTestRunner runner = newRunner(30)) {
+      assertUnreliable(runner, EXITING_SOURCE);
+      assertUnreliable(runner, FAILING_SOURCE);
+    }
+    // Another runner is not affected.
+    try (InProcessTestRunner runner = newRunner(30)) {
+      assertEquals(1, run(runner, FAILING_SOURCE).size());
+    }
+  }
+
+  /**
+   * Checks that running a test class throws {@link InProcessTestRunner.UnreliableRunException}.
+   *
+   * @param runner the runner
+   * @param source the source of the test class
+   */
+  private static void assertUnreliable(InProcessTestRunner runner, String source) {
+    try {
+      runner.compileAndRun(null, CLASS_NAME, source);
+      fail("The run should not be trusted");
+    } catch (InProcessTestRunner.UnreliableRunException e) {
+      // expected
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package randoop.sequence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+import randoop.main.GenInputsAbstract.PoolEvictionPolicy;
+import randoop.operation.TypedOperation;
+import randoop.types.JavaTypes;
+import randoop.util.SimpleList;
+
+public class SequenceCollectionTest {
+
+  /** The sequences added to the collection, oldest first. */
+  private final List<Sequence> sequences = new ArrayList<>();
+
+  private SequenceCollection createCollection() {
+    SequenceCollection collection = new SequenceCollection();
+    for (int i = 0; i < 10; i++) {
+      Sequence sequence = Sequence.createSequenceForPrimitive(i);
+      sequences.add(sequence);
+      collection.add(sequence);
+    }
+    return collection;
+  }
+
+  private static Set<Sequence> intSequences(SequenceCollection collection) {
+    assertEquals(
+        collection.size(), collection.getSequencesForType(JavaTypes.INT_TYPE, true, false).size());
+    return collection.getAllSequences();
+  }
+
+  @Test
+  public void testEvictOldest() {
+    SequenceCollection collection = createCollection();
+    SimpleList<Sequence> before = collection.getSequencesForType(JavaTypes.INT_TYPE, true, false);
+    assertEquals(4, collection.evict(PoolEvictionPolicy.OLDEST, 0.4, Collections.emptySet()));
+    Set<Sequence> remaining = intSequences(collection);
+    assertEquals(6, remaining.size());
+    assertFalse(remaining.contains(sequences.get(3)));
+    assertTrue(remaining.contains(sequences.get(4)));
+    // The views returned before the eviction are not modified.
+    assertEquals(10, before.size());
+  }
+
+  @Test
+  public void testEvictLeastRecentlyUsed() {
+    SequenceCollection collection = createCollection();
+    collection.recordUse(sequences.get(0));
+    collection.recordUse(sequences.get(1));
+    assertEquals(5, collection.evict(PoolEvictionPolicy.LRU, 0.5, Collections.emptySet()));
+    Set<Sequence> remaining = intSequences(collection);
+    assertTrue(remaining.contains(sequences.get(0)));
+    assertTrue(remaining.contains(sequences.get(1)));
+    assertFalse(remaining.contains(sequences.get(2)));
+    assertTrue(remaining.contains(sequences.get(9)));
+  }
+
+  @Test
+  public void testEvictLowUtility() {
+    SequenceCollection collection = createCollection();
+    collection.recordUseful(sequences.get(0));
+    // Among sequences of equal utility, the oldest are evicted first.
+    assertEquals(9, collection.evict(PoolEvictionPolicy.LOW_UTILITY, 0.9, Collections.emptySet()));
+    assertEquals(Collections.singleton(sequences.get(0)), intSequences(collection));
+  }
+
+  @Test
+  public void testKeep() {
+    SequenceCollection collection = createCollection();
+    Set<Sequence> keep = Collections.singleton(sequences.get(0));
+    assertEquals(9, collection.evict(PoolEvictionPolicy.OLDEST, 1, keep));
+    assertEquals(keep, intSequences(collection));
+    assertEquals(0, collection.evict(PoolEvictionPolicy.OLDEST, 1, keep));
+    // An evicted sequence can be added again.
+    collection.add(sequences.get(1));
+    assertEquals(2, intSequences(collection).size());
+  }
+
+  @Test
+  public void testCandidatesAreMaintained() throws NoSuchMethodException {
+    SequenceCollection collection = new SequenceCollection();
+    collection.add(Sequence.createSequenceForPrimitive("a"));
+    SimpleList<Sequence> objects =
+        collection.getSequencesForType(JavaTypes.OBJECT_TYPE, false, false);
+    SimpleList<Sequence> receivers =
+        collection.getSequencesForType(JavaTypes.OBJECT_TYPE, false, true);
+    assertEquals(1, objects.size());
+    assertEquals(0, receivers.size());
+
+    collection.add(Sequence.createSequenceForPrimitive("b"));
+    // A new type, which is compatible with the queried type.
+    Sequence list =
+        new Sequence().extend(TypedOperation.forConstructor(ArrayList.class.getConstructor()));
+    collection.add(list);
+    assertEquals(3, objects.size());
+    assertEquals(Collections.singletonList(list), receivers.toJDKList());
+    assertSame(objects, collection.getSequencesForType(JavaTypes.OBJECT_TYPE, false, false));
+
+    Set<Sequence> keep = Collections.singleton(list);
+    collection.evict(PoolEvictionPolicy.OLDEST, 1, keep);
+    assertEquals(
+        Collections.singletonList(list),
+        collection.getSequencesForType(JavaTypes.OBJECT_TYPE, false, false).toJDKList());
+    collection.add(Sequence.createSequenceForPrimitive("c"));
+    assertEquals(2, collection.getSequencesForType(JavaTypes.OBJECT_TYPE, false, false).size());
+    assertEquals(1, collection.getSequencesForType(JavaTypes.OBJECT_TYPE, false, true).size());
+  }
+
+  @Test
+  public void testTypeVersion() {
+    SequenceCollection collection = new SequenceCollection();
+    int version = collection.typeVersion();
+    collection.add(Sequence.createSequenceForPrimitive("a"));
+    int stringVersion = collection.typeVersion();
+    assertTrue(stringVersion != version);
+    collection.add(Sequence.createSequenceForPrimitive("b"));
+    assertEquals(stringVersion, collection.typeVersion());
+
+    // Emptying the list of a type, then adding to it, changes the version again.
+    collection.evict(PoolEvictionPolicy.OLDEST, 1, Collections.<Sequence>emptySet());
+    collection.add(Sequence.createSequenceForPrimitive("c"));
+    assertTrue(collection.typeVersion() != stringVersion);
+  }
+}
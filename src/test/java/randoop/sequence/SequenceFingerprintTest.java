@@ -0,0 +1,74 @@
+package randoop.sequence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+import randoop.operation.TypedOperation;
+import randoop.types.JavaTypes;
+import randoop.util.SimpleArrayList;
+
+public class SequenceFingerprintTest {
+
+  private static Sequence intValue(int value) {
+    return Sequence.createSequenceForPrimitive(value);
+  }
+
+  private static Sequence stringValue(String value) {
+    return new Sequence()
+        .extend(TypedOperation.createPrimitiveInitialization(JavaTypes.STRING_TYPE, value));
+  }
+
+  private static void assertSameFingerprint(Sequence expected, Sequence actual) {
+    assertEquals(expected.fingerprintHigh(), actual.fingerprintHigh());
+    assertEquals(expected.fingerprintLow(), actual.fingerprintLow());
+  }
+
+  private static void assertDifferentFingerprint(Sequence s1, Sequence s2) {
+    assertNotEquals(s1.fingerprintHigh(), s2.fingerprintHigh());
+    assertNotEquals(s1.fingerprintLow(), s2.fingerprintLow());
+  }
+
+  @Test
+  public void testIncrementalFingerprint() throws NoSuchMethodException {
+    TypedOperation valueOf = TypedOperation.forMethod(String.class.getMethod("valueOf", int.class));
+    Sequence concatenated =
+        Sequence.concatenate(Arrays.asList(stringValue("a"), intValue(1), intValue(2)));
+    Sequence extended =
+        concatenated.extend(
+            valueOf, Collections.singletonList(concatenated.getVariable(concatenated.size() - 1)));
+
+    // The same statements, in a single list.
+    SimpleArrayList<Statement> statements = new SimpleArrayList<>();
+    for (int i = 0; i < extended.size(); i++) {
+      statements.add(extended.getStatement(i));
+    }
+    Sequence flat = new Sequence(statements);
+    assertEquals(extended, flat);
+    assertSameFingerprint(extended, flat);
+
+    // The same statements, built in another order.
+    Sequence prefix = Sequence.concatenate(Arrays.asList(stringValue("a"), intValue(1)));
+    Sequence regrouped = Sequence.concatenate(Arrays.asList(prefix, intValue(2)));
+    regrouped = regrouped.extend(valueOf, Collections.singletonList(regrouped.getVariable(2)));
+    assertSameFingerprint(extended, regrouped);
+  }
+
+  @Test
+  public void testOrderSensitiveFingerprint() {
+    Sequence s12 = Sequence.concatenate(Arrays.asList(intValue(1), intValue(2)));
+    Sequence s21 = Sequence.concatenate(Arrays.asList(intValue(2), intValue(1)));
+    // The hash code is a sum over the statements, which does not depend on their order.
+    assertEquals(s12.hashCode(), s21.hashCode());
+    assertNotEquals(s12, s21);
+    assertDifferentFingerprint(s12, s21);
+
+    assertDifferentFingerprint(intValue(1), intValue(2));
+    assertDifferentFingerprint(intValue(1), stringValue("1"));
+    assertDifferentFingerprint(new Sequence(), intValue(1));
+    assertSameFingerprint(
+        Sequence.concatenate(Arrays.asList(new Sequence(), intValue(1))), intValue(1));
+  }
+}
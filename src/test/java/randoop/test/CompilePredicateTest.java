@@ -1,6 +1,8 @@
 package randoop.test;
 
 import static org.apache.commons.codec.CharEncoding.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -10,8 +12,15 @@ import com.github.javaparser.ParseResult;
 import com.github.javaparser.ast.CompilationUnit;
 import java.io.ByteArrayInputStream;
 import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
+import java.util.List;
 import org.junit.Test;
+import randoop.main.GenTests;
+import randoop.operation.TypedOperation;
 import randoop.output.JUnitCreator;
+import randoop.sequence.ExecutableSequence;
+import randoop.sequence.Sequence;
+import randoop.types.JavaTypes;
 
 /** Test for compilation predicate. */
 public class CompilePredicateTest {
@@ -182,4 +191,29 @@ public class CompilePredicateTest {
     assertTrue(
         pred.testSource("CompilablePredicateTestClass", parseCU.getResult().get(), "foo.bar"));
   }
+
+  @Test
+  public void batchPredicateTest() throws ReflectiveOperationException {
+    // A package-private class, which the default package cannot use.
+    TypedOperation nonVisibleConstructor =
+        TypedOperation.forConstructor(
+            Class.forName("examples.NonVisible").getDeclaredConstructor());
+    ExecutableSequence bad = new ExecutableSequence(new Sequence().extend(nonVisibleConstructor));
+    List<ExecutableSequence> sequences =
+        Arrays.asList(intSequence(1), bad, intSequence(2), bad, intSequence(3));
+
+    JUnitCreator jUnitCreator = JUnitCreator.getTestCreator(null, null, null, null, null);
+    CompilableTestPredicate pred = new CompilableTestPredicate(jUnitCreator, new GenTests(), true);
+
+    assertArrayEquals(new boolean[] {true, false, true, false, true}, pred.test(sequences));
+    for (ExecutableSequence eseq : sequences) {
+      assertEquals(eseq != bad, pred.test(eseq));
+    }
+  }
+
+  private static ExecutableSequence intSequence(int value) {
+    return new ExecutableSequence(
+        new Sequence()
+            .extend(TypedOperation.createPrimitiveInitialization(JavaTypes.INT_TYPE, value)));
+  }
 }
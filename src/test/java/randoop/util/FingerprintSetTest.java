@@ -0,0 +1,75 @@
+package randoop.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+public class FingerprintSetTest {
+
+  @Test
+  public void testAgainstHashSet() {
+    Random random = new Random(0);
+    FingerprintSet set = new FingerprintSet();
+    Set<String> expected = new HashSet<>();
+    for (int i = 0; i < 100000; i++) {
+      // Few distinct halves, so that many fingerprints share one of them.
+      long high = random.nextInt(300);
+      long low = random.nextInt(300) * 0x100000000L;
+      assertEquals(expected.add(high + "/" + low), set.add(high, low));
+      assertTrue(set.contains(high, low));
+    }
+    assertEquals(expected.size(), set.size());
+    assertTrue(set.contains(0, 0));
+    assertFalse(set.contains(300, 0));
+  }
+
+  @Test
+  public void testBloomFilter() {
+    Random random = new Random(0);
+    BloomFilter filter = new BloomFilter(1 << 16, 7);
+    int added = 0;
+    for (int i = 0; i < 10000; i++) {
+      long high = random.nextLong();
+      long low = random.nextLong();
+      if (filter.add(high, low)) {
+        added++;
+      }
+      // No false negatives.
+      assertFalse(filter.add(high, low));
+    }
+    assertEquals(added, filter.size());
+    // 10000 fingerprints in 2^19 bits have a false positive rate of about 1e-8.
+    assertTrue(added >= 9999);
+    assertTrue(filter.falsePositiveRate() < 1e-6);
+  }
+
+  @Test
+  public void testMultiplyMod() {
+    BigInteger prime = BigInteger.valueOf(Fingerprints.PRIME);
+    Random random = new Random(0);
+    long[] special = {0, 1, 2, Fingerprints.PRIME - 1, Fingerprints.PRIME - 2, 1L << 60};
+    for (int i = 0; i < 10000; i++) {
+      long a =
+          i < special.length * special.length
+              ? special[i % special.length]
+              : Fingerprints.reduce(random.nextLong());
+      long b =
+          i < special.length * special.length
+              ? special[i / special.length]
+              : Fingerprints.reduce(random.nextLong());
+      long expected = BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)).mod(prime).longValue();
+      assertEquals(expected, Fingerprints.multiplyMod(a, b));
+    }
+    assertEquals(
+        BigInteger.valueOf(3).modPow(BigInteger.valueOf(1000003), prime).longValue(),
+        Fingerprints.powerMod(3, 1000003));
+    assertEquals(0, Fingerprints.reduce(Fingerprints.PRIME));
+    assertEquals(0, Fingerprints.addMod(Fingerprints.PRIME - 1, 1));
+  }
+}
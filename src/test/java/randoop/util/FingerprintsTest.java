@@ -0,0 +1,101 @@
+package randoop.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.math.BigInteger;
+import java.util.Random;
+import org.junit.Test;
+
+public class FingerprintsTest {
+
+  private static final BigInteger PRIME = BigInteger.valueOf(Fingerprints.PRIME);
+
+  /**
+   * Returns values at the edges of the range of residues, and random ones.
+   *
+   * @return values between 0 and {@code PRIME - 1}
+   */
+  private static long[] residues() {
+    Random random = new Random(0);
+    long[] values = new long[1000];
+    values[0] = 0;
+    values[1] = 1;
+    values[2] = 2;
+    values[3] = Fingerprints.PRIME - 1;
+    values[4] = Fingerprints.PRIME - 2;
+    values[5] = 1L << 31;
+    values[6] = (1L << 31) - 1;
+    values[7] = 1L << 60;
+    for (int i = 8; i < values.length; i++) {
+      values[i] = (random.nextLong() >>> 3) % Fingerprints.PRIME;
+    }
+    return values;
+  }
+
+  /**
+   * Returns a long interpreted as an unsigned value.
+   *
+   * @param value a value
+   * @return the unsigned value of {@code value}
+   */
+  private static BigInteger unsigned(long value) {
+    BigInteger result = BigInteger.valueOf(value & Long.MAX_VALUE);
+    return value < 0 ? result.setBit(63) : result;
+  }
+
+  @Test
+  public void testReduce() {
+    Random random = new Random(0);
+    long[] values = {
+      0, -1, Long.MIN_VALUE, Long.MAX_VALUE, Fingerprints.PRIME, 2 * Fingerprints.PRIME
+    };
+    for (long value : values) {
+      assertEquals(unsigned(value).mod(PRIME).longValue(), Fingerprints.reduce(value));
+    }
+    for (int i = 0; i < 10000; i++) {
+      long value = random.nextLong();
+      assertEquals(unsigned(value).mod(PRIME).longValue(), Fingerprints.reduce(value));
+    }
+  }
+
+  @Test
+  public void testAddAndMultiply() {
+    long[] residues = residues();
+    for (int i = 0; i < residues.length; i++) {
+      for (int j = i; j < residues.length; j += 7) {
+        BigInteger a = BigInteger.valueOf(residues[i]);
+        BigInteger b = BigInteger.valueOf(residues[j]);
+        assertEquals(
+            a.add(b).mod(PRIME).longValue(), Fingerprints.addMod(residues[i], residues[j]));
+        assertEquals(
+            a.multiply(b).mod(PRIME).longValue(),
+            Fingerprints.multiplyMod(residues[i], residues[j]));
+      }
+    }
+  }
+
+  @Test
+  public void testPower() {
+    for (long base : residues()) {
+      for (int exponent : new int[] {0, 1, 2, 61, 1000, Integer.MAX_VALUE}) {
+        assertEquals(
+            BigInteger.valueOf(base).modPow(BigInteger.valueOf(exponent), PRIME).longValue(),
+            Fingerprints.powerMod(base, exponent));
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativePower() {
+    Fingerprints.powerMod(2, -1);
+  }
+
+  @Test
+  public void testHash() {
+    assertEquals(Fingerprints.hash("value=1"), Fingerprints.hash(new String("value=1")));
+    assertNotEquals(Fingerprints.hash("value=1"), Fingerprints.hash("value=2"));
+    assertNotEquals(Fingerprints.hash("ab"), Fingerprints.hash("ba"));
+    assertNotEquals(Fingerprints.hash(""), Fingerprints.hash("\0"));
+  }
+}
@@ -0,0 +1,51 @@
+package randoop.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+  @Test
+  public void testBuckets() {
+    for (long value = 0; value < 100000; value++) {
+      int bucket = LatencyHistogram.bucket(value);
+      assertTrue(value <= LatencyHistogram.highestValue(bucket));
+      assertTrue(bucket == 0 || value > LatencyHistogram.highestValue(bucket - 1));
+    }
+    int last = LatencyHistogram.bucket(Long.MAX_VALUE);
+    assertEquals(Long.MAX_VALUE, LatencyHistogram.highestValue(last));
+  }
+
+  @Test
+  public void testPercentiles() {
+    Random random = new Random(0);
+    LatencyHistogram histogram = new LatencyHistogram();
+    long[] values = new long[10000];
+    long sum = 0;
+    for (int i = 0; i < values.length; i++) {
+      values[i] = (long) Math.exp(random.nextDouble() * 20);
+      histogram.record(values[i]);
+      sum += values[i];
+    }
+    Arrays.sort(values);
+    assertEquals(values.length, histogram.count());
+    assertEquals(sum / (double) values.length, histogram.mean(), 1e-6);
+    assertEquals(values[values.length - 1], histogram.max());
+    assertEquals(values[values.length - 1], histogram.percentile(100));
+    for (int percentile : new int[] {1, 50, 90, 99}) {
+      long exact = values[(int) Math.ceil(values.length * percentile / 100.0) - 1];
+      long approximate = histogram.percentile(percentile);
+      assertTrue(exact <= approximate);
+      assertTrue(approximate <= exact + exact / 8);
+    }
+
+    histogram.reset();
+    assertEquals(0, histogram.count());
+    assertEquals(0, histogram.max());
+    assertEquals(0, histogram.percentile(50));
+  }
+}
@@ -0,0 +1,64 @@
+package randoop.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.Test;
+
+public class LongHashSetTest {
+
+  @Test
+  public void testAddAndContains() {
+    LongHashSet set = new LongHashSet();
+    assertTrue(set.isEmpty());
+    assertTrue(set.add(42L));
+    assertFalse(set.add(42L));
+    assertTrue(set.add(0L));
+    assertFalse(set.add(0L));
+    assertTrue(set.add(-1L));
+    assertTrue(set.contains(42L));
+    assertTrue(set.contains(0L));
+    assertTrue(set.contains(-1L));
+    assertFalse(set.contains(43L));
+    assertEquals(3, set.size());
+    assertArrayEquals(new long[] {-1L, 0L, 42L}, set.toSortedArray());
+  }
+
+  @Test
+  public void testAgainstTreeSet() {
+    Random random = new Random(0);
+    LongHashSet set = new LongHashSet(4);
+    TreeSet<Long> expected = new TreeSet<>();
+    for (int i = 0; i < 100000; i++) {
+      long value = random.nextInt(50000) * 0x100000000L;
+      assertEquals(expected.add(value), set.add(value));
+    }
+    assertEquals(expected.size(), set.size());
+    long[] sorted = set.toSortedArray();
+    int i = 0;
+    for (long value : expected) {
+      assertEquals(value, sorted[i++]);
+    }
+  }
+
+  @Test
+  public void testAddAll() {
+    LongHashSet a = new LongHashSet();
+    LongHashSet b = new LongHashSet();
+    a.add(1L);
+    a.add(2L);
+    b.add(2L);
+    b.add(3L);
+    b.add(0L);
+    assertEquals(2, a.addAll(b));
+    assertEquals(4, a.size());
+    a.clear();
+    assertTrue(a.isEmpty());
+    assertFalse(a.contains(0L));
+    assertFalse(a.contains(2L));
+  }
+}
@@ -0,0 +1,122 @@
+package randoop.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import org.junit.Test;
+import randoop.ExceptionalExecution;
+import randoop.ExecutionOutcome;
+import randoop.NormalExecution;
+import randoop.main.RandoopBug;
+
+public class MethodHandleCodeTest {
+
+  public static long widen(long x) {
+    return x;
+  }
+
+  public static void fail(String message) {
+    throw new IllegalStateException(message);
+  }
+
+  public static void doNothing() {}
+
+  private static int counter(int start) {
+    return start + 1;
+  }
+
+  public class Inner {
+    final int value;
+
+    public Inner(int value) {
+      this.value = value;
+    }
+  }
+
+  static class FailingInitializer {
+    static final int VALUE = Integer.parseInt("not a number");
+
+    static int value() {
+      return VALUE;
+    }
+  }
+
+  private static Method method(String name, Class<?>... parameterTypes)
+      throws NoSuchMethodException {
+    Method method = MethodHandleCodeTest.class.getDeclaredMethod(name, parameterTypes);
+    method.setAccessible(true);
+    return method;
+  }
+
+  private static ExecutionOutcome call(Method method, Object... inputs) {
+    MethodHandleCode code = new MethodHandleBinding(method).newCode(inputs);
+    assertNotNull(code);
+    return ReflectionExecutor.executeReflectionCode(code);
+  }
+
+  private static Object returnValue(ExecutionOutcome outcome) {
+    assertTrue(outcome.toString(), outcome instanceof NormalExecution);
+    return ((NormalExecution) outcome).getRuntimeValue();
+  }
+
+  private static Throwable exception(ExecutionOutcome outcome) {
+    assertTrue(outcome.toString(), outcome instanceof ExceptionalExecution);
+    return ((ExceptionalExecution) outcome).getException();
+  }
+
+  @Test
+  public void testReturnValues() throws NoSuchMethodException {
+    // Boxed arguments are widened, as by reflection.
+    assertEquals(3L, returnValue(call(method("widen", long.class), 3)));
+    assertEquals(4, returnValue(call(method("counter", int.class), (short) 3)));
+    Method concat = String.class.getMethod("concat", String.class);
+    assertEquals("ab", returnValue(call(concat, "a", "b")));
+    // A void method returns null.
+    assertNull(returnValue(call(method("doNothing"))));
+  }
+
+  @Test
+  public void testExceptions() throws NoSuchMethodException {
+    Throwable thrown = exception(call(method("fail", String.class), "message"));
+    assertSame(IllegalStateException.class, thrown.getClass());
+    assertEquals("message", thrown.getMessage());
+  }
+
+  @Test
+  public void testNullReceiver() throws NoSuchMethodException {
+    Method concat = String.class.getMethod("concat", String.class);
+    assertTrue(exception(call(concat, null, "a")) instanceof NullPointerException);
+  }
+
+  @Test(expected = RandoopBug.class)
+  public void testWrongArgumentType() throws NoSuchMethodException {
+    call(method("counter", int.class), 3L);
+  }
+
+  @Test(expected = RandoopBug.class)
+  public void testNullPrimitiveArgument() throws NoSuchMethodException {
+    call(method("counter", int.class), (Object) null);
+  }
+
+  @Test
+  public void testInnerClassConstructor() throws NoSuchMethodException {
+    Constructor<Inner> constructor =
+        Inner.class.getConstructor(MethodHandleCodeTest.class, int.class);
+    MethodHandleCode code = new MethodHandleBinding(constructor).newCode(new Object[] {this, 5});
+    Object inner = returnValue(ReflectionExecutor.executeReflectionCode(code));
+    assertEquals(5, ((Inner) inner).value);
+  }
+
+  /** As with reflection, the failure to initialize the class is not an exception of the call. */
+  @Test(expected = RandoopBug.class)
+  public void testFailingInitializer() throws NoSuchMethodException {
+    Method value = FailingInitializer.class.getDeclaredMethod("value");
+    value.setAccessible(true);
+    call(value);
+  }
+}
@@ -0,0 +1,144 @@
+package randoop.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import randoop.ExceptionalExecution;
+import randoop.ExecutionOutcome;
+import randoop.NormalExecution;
+import randoop.main.RandoopBug;
+
+public class ReflectionExecutorTest {
+
+  private boolean usethreads;
+
+  private int callTimeout;
+
+  @Before
+  public void setup() {
+    usethreads = ReflectionExecutor.usethreads;
+    callTimeout = ReflectionExecutor.call_timeout;
+    ReflectionExecutor.usethreads = true;
+    ReflectionExecutor.call_timeout = 500;
+  }
+
+  @After
+  public void restore() {
+    ReflectionExecutor.usethreads = usethreads;
+    ReflectionExecutor.call_timeout = callTimeout;
+  }
+
+  /** Returns the thread that runs it, or loops until {@link #stop} is set. */
+  private static class CurrentThread extends ReflectionCode {
+    private final boolean loop;
+    volatile boolean stop = false;
+
+    CurrentThread(boolean loop) {
+      this.loop = loop;
+    }
+
+    @Override
+    protected void runReflectionCodeRaw() {
+      while (loop && !stop) {
+        // loop.
+      }
+      retval = Thread.currentThread();
+    }
+  }
+
+  /** Interrupts the thread that runs it, and returns that thread. */
+  private static class InterruptCurrentThread extends ReflectionCode {
+    @Override
+    protected void runReflectionCodeRaw() {
+      Thread.currentThread().interrupt();
+      retval = Thread.currentThread();
+    }
+  }
+
+  /** Fails the way {@link ReflectionCode} does when the class under test cannot be initialized. */
+  private static class FailingCode extends ReflectionCode {
+    @Override
+    protected void runReflectionCodeRaw() {
+      throw new ReflectionCodeException(new NoClassDefFoundError("Missing"));
+    }
+  }
+
+  private static Thread runnerOf(ExecutionOutcome outcome) {
+    assertTrue(outcome instanceof NormalExecution);
+    return (Thread) ((NormalExecution) outcome).getRuntimeValue();
+  }
+
+  @Test
+  public void testRunnerReuse() {
+    ReflectionExecutor.resetStatistics();
+    Thread runner = runnerOf(ReflectionExecutor.executeReflectionCode(new CurrentThread(false)));
+    assertNotSame(Thread.currentThread(), runner);
+    assertTrue(runner.isDaemon());
+    assertSame(
+        runner, runnerOf(ReflectionExecutor.executeReflectionCode(new CurrentThread(false))));
+    assertEquals(2, ReflectionExecutor.normalExecs());
+    assertEquals(2, ReflectionExecutor.normalExecTimes().count());
+
+    CurrentThread looping = new CurrentThread(true);
+    try {
+      ExecutionOutcome outcome = ReflectionExecutor.executeReflectionCode(looping);
+      assertTrue(outcome instanceof ExceptionalExecution);
+      assertTrue(
+          ((ExceptionalExecution) outcome).getException() instanceof TimeoutExceededException);
+    } finally {
+      looping.stop = true;
+    }
+    // Timeouts are not part of the statistics.
+    assertEquals(0, ReflectionExecutor.excepExecs());
+
+    // The abandoned runner is replaced.
+    Thread replacement =
+        runnerOf(ReflectionExecutor.executeReflectionCode(new CurrentThread(false)));
+    assertNotSame(runner, replacement);
+    assertSame(
+        replacement, runnerOf(ReflectionExecutor.executeReflectionCode(new CurrentThread(false))));
+  }
+
+  @Test
+  public void testInterruptedRunnerIsReused() throws InterruptedException {
+    Thread runner =
+        runnerOf(ReflectionExecutor.executeReflectionCode(new InterruptCurrentThread()));
+    // The interrupt does not reach the next call, nor kill the runner.
+    Thread.sleep(50);
+    assertTrue(runner.isAlive());
+    assertSame(
+        runner, runnerOf(ReflectionExecutor.executeReflectionCode(new CurrentThread(false))));
+    assertFalse(runner.isInterrupted());
+
+    // An idle runner survives interrupts too.
+    runner.interrupt();
+    Thread.sleep(50);
+    assertTrue(runner.isAlive());
+    assertSame(
+        runner, runnerOf(ReflectionExecutor.executeReflectionCode(new CurrentThread(false))));
+  }
+
+  @Test
+  public void testFailingCodeDoesNotTimeOut() {
+    ReflectionExecutor.call_timeout = 5000;
+    long start = System.nanoTime();
+    try {
+      ReflectionExecutor.executeReflectionCode(new FailingCode());
+      fail("expected RandoopBug");
+    } catch (RandoopBug e) {
+      assertTrue(e.getCause() instanceof ReflectionCode.ReflectionCodeException);
+    }
+    assertTrue((System.nanoTime() - start) / 1000000 < 1000);
+
+    // The runner survives, and runs the next call.
+    Thread runner = runnerOf(ReflectionExecutor.executeReflectionCode(new CurrentThread(false)));
+    assertTrue(runner.isAlive());
+  }
+}
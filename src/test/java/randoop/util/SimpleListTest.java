@@ -1,8 +1,10 @@
 package randoop.util;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -112,4 +114,38 @@ public class SimpleListTest {
 
     assertTrue(sl.isEmpty());
   }
+
+  @Test
+  public void listOfListsWithEmptySublists() {
+    List<SimpleList<Integer>> lists = new ArrayList<>();
+    List<Integer> expected = new ArrayList<>();
+    int next = 0;
+    for (int size : new int[] {0, 3, 0, 0, 1, 5, 0, 2, 0}) {
+      SimpleArrayList<Integer> sub = new SimpleArrayList<>();
+      for (int i = 0; i < size; i++) {
+        sub.add(next);
+        expected.add(next);
+        next++;
+      }
+      lists.add(sub);
+    }
+    SimpleList<Integer> sl = new ListOfLists<>(lists);
+
+    assertEquals(expected.size(), sl.size());
+    for (int i = 0; i < sl.size(); i++) {
+      assertEquals(expected.get(i), sl.get(i));
+      assertTrue(sl.getSublist(i).toJDKList().contains(expected.get(i)));
+    }
+  }
+
+  @Test
+  public void depth() {
+    SimpleList<String> flat = new SimpleArrayList<>(Collections.singletonList("a"));
+    assertEquals(0, flat.depth());
+    SimpleList<String> extended = new OneMoreElementList<>(flat, "b");
+    assertEquals(1, extended.depth());
+    SimpleList<String> concatenated = new ListOfLists<>(Arrays.asList(flat, extended));
+    assertEquals(2, concatenated.depth());
+    assertEquals(3, new OneMoreElementList<>(concatenated, "c").depth());
+  }
 }
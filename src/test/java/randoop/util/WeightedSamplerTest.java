@@ -0,0 +1,136 @@
+package randoop.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class WeightedSamplerTest {
+
+  /** The index that a linear scan of the cumulative weights selects for {@code point}. */
+  private static int linearIndexAt(double[] weights, double point) {
+    double cumulative = 0;
+    for (int i = 0; i < weights.length; i++) {
+      cumulative += weights[i];
+      if (cumulative > point) {
+        return i;
+      }
+    }
+    return weights.length - 1;
+  }
+
+  @Test
+  public void testAgainstLinearScan() {
+    Random random = new Random(0);
+    WeightedSampler<Integer> sampler = new WeightedSampler<>(1);
+    double[] weights = new double[1000];
+    for (int i = 0; i < weights.length; i++) {
+      // Dyadic weights, so that the sums are exact.
+      weights[i] = random.nextInt(8) / 4.0;
+      assertEquals(i, sampler.add(i, weights[i]));
+    }
+    for (int i = 0; i < 5000; i++) {
+      int index = random.nextInt(weights.length);
+      weights[index] = random.nextInt(8) / 4.0;
+      sampler.setWeight(index, weights[index]);
+    }
+    double total = 0;
+    for (double weight : weights) {
+      total += weight;
+    }
+    assertEquals(total, sampler.totalWeight(), 0.0);
+    for (int i = 0; i < 10000; i++) {
+      double point = random.nextDouble() * total;
+      assertEquals(linearIndexAt(weights, point), sampler.indexAt(point));
+    }
+  }
+
+  @Test
+  public void testZeroWeightsAreNeverSelected() {
+    WeightedSampler<String> sampler = new WeightedSampler<>();
+    sampler.add("a", 0);
+    sampler.add("b", 1);
+    sampler.add("c", 0);
+    sampler.add("d", 2);
+    sampler.add("e", 0);
+    assertEquals(1, sampler.indexAt(0.0));
+    assertEquals(1, sampler.indexAt(0.5));
+    assertEquals(3, sampler.indexAt(1.0));
+    assertEquals(3, sampler.indexAt(2.9));
+    // A point past the end, as produced by rounding error.
+    assertEquals(3, sampler.indexAt(3.0));
+    sampler.setWeight(3, 0);
+    assertEquals(1, sampler.indexAt(1.5));
+  }
+
+  @Test
+  public void testRebuild() {
+    WeightedSampler<Integer> sampler = new WeightedSampler<>();
+    for (int i = 0; i < 100; i++) {
+      sampler.add(i, 0.1);
+    }
+    for (int round = 0; round < 1000; round++) {
+      for (int i = 0; i < 100; i++) {
+        sampler.setWeight(i, (round + i) % 2 == 0 ? 0.1 : 0.3);
+      }
+    }
+    sampler.rebuild();
+    double total = 0;
+    for (int i = 0; i < 100; i++) {
+      total += sampler.getWeight(i);
+    }
+    assertEquals(total, sampler.totalWeight(), 1e-12);
+  }
+
+  @Test
+  public void testDistribution() {
+    Randomness.setSeed(0);
+    WeightedSampler<String> sampler = new WeightedSampler<>();
+    sampler.add("one", 1);
+    sampler.add("two", 2);
+    sampler.add("none", 0);
+    sampler.add("seven", 7);
+    int[] counts = new int[4];
+    int draws = 100000;
+    for (int i = 0; i < draws; i++) {
+      String chosen = sampler.sample();
+      assertNotEquals("none", chosen);
+      counts[chosen.equals("one") ? 0 : chosen.equals("two") ? 1 : 3]++;
+    }
+    assertEquals(0.1, counts[0] / (double) draws, 0.01);
+    assertEquals(0.2, counts[1] / (double) draws, 0.01);
+    assertEquals(0.7, counts[3] / (double) draws, 0.01);
+  }
+
+  @Test
+  public void testInvalidArguments() {
+    WeightedSampler<String> sampler = new WeightedSampler<>();
+    try {
+      sampler.indexAt(0);
+      fail("Expected IllegalStateException");
+    } catch (IllegalStateException e) {
+      // expected
+    }
+    try {
+      sampler.add("a", -1);
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      sampler.add("a", Double.NaN);
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    sampler.add("a", 1);
+    try {
+      sampler.setWeight(1, 1);
+      fail("Expected IndexOutOfBoundsException");
+    } catch (IndexOutOfBoundsException e) {
+      // expected
+    }
+  }
+}